@@ -0,0 +1,251 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.benchmarks;
+
+import io.github.jchejarla.springbatch.clustering.autoconfigure.BatchClusterProperties;
+import io.github.jchejarla.springbatch.clustering.core.CoordinationStatus;
+import io.github.jchejarla.springbatch.clustering.core.DBSpecificQueryProvider;
+import io.github.jchejarla.springbatch.clustering.core.DatabaseBackedClusterService;
+import io.github.jchejarla.springbatch.clustering.core.serviceimpl.H2DatabaseQueryProvider;
+import io.github.jchejarla.springbatch.clustering.core.serviceimpl.PostgreSQLDatabaseQueryProvider;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionStatus;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * A fresh coordination database for one benchmark trial: the Spring Batch and cluster schemas, plus helpers
+ * to seed nodes, jobs and partitions the way a running cluster would have written them.
+ *
+ * <p>The target is chosen with {@code -Dbenchmark.database}: {@code h2} (default, in memory) or
+ * {@code postgres} (a Testcontainers PostgreSQL, started once per forked JVM and wiped for each trial).</p>
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+
+    public static final String DATABASE_PROPERTY = "benchmark.database";
+
+    public enum Engine { H2, POSTGRES }
+
+    /** A seeded job: its execution and its master (manager) step execution. */
+    public record Job(long jobExecutionId, long masterStepExecutionId) {}
+
+    private static PostgreSQLContainer<?> postgres;
+
+    private final Engine engine;
+    private final DriverManagerDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final DBSpecificQueryProvider queryProvider;
+    private final AtomicLong ids = new AtomicLong(1);
+    // the services of the nodes registered by insertNodes, which know the key the database gave their node
+    private final Map<String, DatabaseBackedClusterService> registeredNodes = new HashMap<>();
+
+    private BenchmarkDatabase(Engine engine, DriverManagerDataSource dataSource, DBSpecificQueryProvider queryProvider) {
+        this.engine = engine;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.queryProvider = queryProvider;
+    }
+
+    /** Opens an empty, fully initialized database on the engine selected by {@value #DATABASE_PROPERTY}. */
+    public static BenchmarkDatabase open() {
+        Engine engine = Engine.valueOf(System.getProperty(DATABASE_PROPERTY, "h2").toUpperCase(Locale.ROOT));
+        BenchmarkDatabase database = switch (engine) {
+            case H2 -> openH2();
+            case POSTGRES -> openPostgres();
+        };
+        database.createSchema();
+        return database;
+    }
+
+    private static BenchmarkDatabase openH2() {
+        // one connection held open for the trial: H2 2.4.240 binds a table's CHECK constraints to the connection
+        // that created it, and once that connection closes every insert into the table fails
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:benchmark-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "", true);
+        dataSource.setDriverClassName("org.h2.Driver");
+        return new BenchmarkDatabase(Engine.H2, dataSource, new H2DatabaseQueryProvider());
+    }
+
+    private static synchronized BenchmarkDatabase openPostgres() {
+        if (postgres == null) {
+            // room for the connection pools of every node of a cluster simulation
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine").withCommand("postgres", "-c", "max_connections=500");
+            postgres.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(postgres::stop));
+        }
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        dataSource.setDriverClassName("org.postgresql.Driver");
+        new JdbcTemplate(dataSource).execute("drop schema public cascade; create schema public");
+        return new BenchmarkDatabase(Engine.POSTGRES, dataSource, new PostgreSQLDatabaseQueryProvider());
+    }
+
+    private void createSchema() {
+        String batchSchema = engine == Engine.H2 ? "schema-h2.sql" : "schema-postgresql.sql";
+        String clusterSchema = engine == Engine.H2 ? "schema-h2.sql" : "schema-postgres.sql";
+        new ResourceDatabasePopulator(
+                new ClassPathResource("org/springframework/batch/core/" + batchSchema),
+                new ClassPathResource("schema/" + clusterSchema)
+        ).execute(jdbcTemplate.getDataSource());
+    }
+
+    public Engine engine() {
+        return engine;
+    }
+
+    public JdbcTemplate jdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    /** The JDBC URL of this database, for clients opening their own connections (e.g. simulated nodes). */
+    public String jdbcUrl() {
+        return dataSource.getUrl();
+    }
+
+    public String username() {
+        return dataSource.getUsername();
+    }
+
+    public String password() {
+        return dataSource.getPassword();
+    }
+
+    /** The cluster service as the given node would use it; registered, if the node was inserted with {@link #insertNodes}. */
+    public DatabaseBackedClusterService clusterService(String nodeId) {
+        DatabaseBackedClusterService registered = registeredNodes.get(nodeId);
+        if (registered != null) {
+            return registered;
+        }
+        BatchClusterProperties properties = new BatchClusterProperties();
+        properties.setNodeId(nodeId);
+        return new DatabaseBackedClusterService(jdbcTemplate, properties, queryProvider);
+    }
+
+    /**
+     * The cluster service as the given node would use it, inserting partitions {@code rowsPerStatement} rows
+     * per statement instead of the dialect's default.
+     */
+    public DatabaseBackedClusterService clusterService(String nodeId, int rowsPerStatement) {
+        BatchClusterProperties properties = new BatchClusterProperties();
+        properties.setNodeId(nodeId);
+        DBSpecificQueryProvider provider = switch (engine) {
+            case H2 -> new H2DatabaseQueryProvider() {
+                @Override
+                public int getSaveBatchPartitionsRowsPerStatement() {
+                    return rowsPerStatement;
+                }
+            };
+            case POSTGRES -> new PostgreSQLDatabaseQueryProvider() {
+                @Override
+                public int getSaveBatchPartitionsRowsPerStatement() {
+                    return rowsPerStatement;
+                }
+            };
+        };
+        return new DatabaseBackedClusterService(jdbcTemplate, properties, provider);
+    }
+
+    /** Registers the nodes as they would register themselves, so that each is given its node key. */
+    public void insertNodes(List<String> nodeIds) {
+        for (String nodeId : nodeIds) {
+            DatabaseBackedClusterService service = clusterService(nodeId);
+            service.registerNode();
+            registeredNodes.put(nodeId, service);
+        }
+    }
+
+    /** Creates a job execution with its manager step execution and coordination row. */
+    public Job newJob(String masterNodeId, CoordinationStatus coordinationStatus) {
+        long jobExecutionId = ids.getAndIncrement();
+        jdbcTemplate.update("insert into batch_job_instance(job_instance_id, version, job_name, job_key) values (?,?,?,?)",
+                jobExecutionId, 0L, "benchmarkJob", UUID.randomUUID().toString().replace("-", ""));
+        jdbcTemplate.update("insert into batch_job_execution(job_execution_id, version, job_instance_id, create_time, status) values (?,?,?,?,?)",
+                jobExecutionId, 0L, jobExecutionId, now(), "STARTED");
+        long masterStepExecutionId = newStepExecutions(jobExecutionId, "benchmarkStep.manager", 1).getFirst();
+        jdbcTemplate.update("insert into batch_job_coordination(job_execution_id, master_node_id, master_node_key, master_step_execution_id, master_step_name, status, created_time, last_updated) values (?,?,?,?,?,?,?,?)",
+                jobExecutionId, masterNodeId, nodeKey(masterNodeId), masterStepExecutionId, "benchmarkStep.manager", coordinationStatus.code(), now(), now());
+        return new Job(jobExecutionId, masterStepExecutionId);
+    }
+
+    /** Creates {@code count} step executions of a job, as the step splitter would before partitions are saved. */
+    public List<Long> newStepExecutions(long jobExecutionId, String stepName, int count) {
+        Timestamp now = now();
+        List<Long> stepExecutionIds = new ArrayList<>(count);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long stepExecutionId = ids.getAndIncrement();
+            stepExecutionIds.add(stepExecutionId);
+            rows.add(new Object[]{stepExecutionId, 0L, stepName, jobExecutionId, now});
+        }
+        jdbcTemplate.batchUpdate("insert into batch_step_execution(step_execution_id, version, step_name, job_execution_id, create_time) values (?,?,?,?,?)", rows);
+        return stepExecutionIds;
+    }
+
+    /**
+     * The {@code saveBatchPartitions} rows for the given step executions, the i-th one assigned to
+     * {@code nodeOf.apply(i)}.
+     */
+    public static List<Object[]> partitionRows(Job job, List<Long> stepExecutionIds, IntFunction<String> nodeOf, PartitionStatus status) {
+        List<Object[]> rows = new ArrayList<>(stepExecutionIds.size());
+        for (int i = 0; i < stepExecutionIds.size(); i++) {
+            Long stepExecutionId = stepExecutionIds.get(i);
+            rows.add(new Object[]{stepExecutionId, job.jobExecutionId(), "benchmarkStep:partition" + stepExecutionId, nodeOf.apply(i),
+                    status.code(), job.masterStepExecutionId(), 1, null});
+        }
+        return rows;
+    }
+
+    /** Seeds {@code count} partitions of a job in the given status; returns their step execution ids. */
+    public List<Long> insertPartitions(Job job, int count, IntFunction<String> nodeOf, PartitionStatus status) {
+        List<Long> stepExecutionIds = newStepExecutions(job.jobExecutionId(), "benchmarkStep:partition", count);
+        List<Object[]> rows = partitionRows(job, stepExecutionIds, nodeOf, status);
+        // the rows name their node; the table holds its key
+        rows.forEach(row -> row[3] = row[3] == null ? null : nodeKey((String) row[3]));
+        jdbcTemplate.batchUpdate(queryProvider.getSaveBatchPartitionsQuery(), rows);
+        return stepExecutionIds;
+    }
+
+    /** The key of a node registered with {@link #insertNodes}; null for any other node. */
+    private Integer nodeKey(String nodeId) {
+        DatabaseBackedClusterService registered = registeredNodes.get(nodeId);
+        return registered == null ? null : registered.getNodeKey();
+    }
+
+    @Override
+    public void close() {
+        if (engine == Engine.H2) {
+            jdbcTemplate.execute("shutdown");
+            ((SingleConnectionDataSource) dataSource).destroy();
+        }
+    }
+
+    private static Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now());
+    }
+}
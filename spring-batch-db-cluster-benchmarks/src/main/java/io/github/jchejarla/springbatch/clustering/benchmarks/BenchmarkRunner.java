@@ -0,0 +1,72 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point of {@code benchmarks.jar}: runs JMH with the usual command line, but writes the results as
+ * JSON by default, to {@code jmh-results/<version>-<database>.json}, so runs of different releases can be
+ * compared side by side (for example with a JMH JSON visualizer, or by diffing the scores). An explicit
+ * {@code -rf}/{@code -rff} on the command line wins.
+ */
+public final class BenchmarkRunner {
+
+    static final String RESULTS_DIRECTORY = "jmh-results";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+                || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            Files.createDirectories(Path.of(RESULTS_DIRECTORY));
+            options.result(defaultResultFile().toString());
+        }
+        // Forked JVMs must benchmark the same database as the one requested here.
+        List<String> jvmArgsAppend = new ArrayList<>(commandLine.getJvmArgsAppend().orElse(List.of()));
+        jvmArgsAppend.add("-D" + BenchmarkDatabase.DATABASE_PROPERTY + "=" + database());
+        options.jvmArgsAppend(jvmArgsAppend.toArray(String[]::new));
+        new Runner(options.build()).run();
+    }
+
+    static Path defaultResultFile() {
+        String version = BenchmarkRunner.class.getPackage().getImplementationVersion();
+        return Path.of(RESULTS_DIRECTORY, (version != null ? version : "dev") + "-" + database() + ".json");
+    }
+
+    private static String database() {
+        return System.getProperty(BenchmarkDatabase.DATABASE_PROPERTY, "h2");
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.benchmarks;
+
+import io.github.jchejarla.springbatch.clustering.api.ClusterAwarePartitioner;
+import io.github.jchejarla.springbatch.clustering.api.PartitionStrategy;
+import io.github.jchejarla.springbatch.clustering.core.DatabaseBackedClusterService;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionTransferableProp;
+import io.github.jchejarla.springbatch.clustering.partition.PartitioningMode;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Master side: a full {@link ClusterAwarePartitioner#partition(int)}, i.e. the live-node query plus
+ * partition creation, assignment and execution-context stamping, against a 50-node cluster.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClusterAwarePartitionerBenchmark {
+
+    private static final int NODES = 50;
+
+    @Param({"100", "10000"})
+    public int partitions;
+
+    @Param({"ROUND_ROBIN", "LEAST_LOADED"})
+    public PartitioningMode mode;
+
+    private BenchmarkDatabase database;
+    private ClusterAwarePartitioner partitioner;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.open();
+        database.insertNodes(IntStream.range(0, NODES).mapToObj(i -> "node-" + i).toList());
+        partitioner = new BenchmarkPartitioner(database.clusterService("node-0"), partitions, mode);
+    }
+
+    @Benchmark
+    public Map<String, ExecutionContext> partition() {
+        return partitioner.partition(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeDatabase() {
+        database.close();
+    }
+
+    /** Splits the work into a fixed number of partitions, each carrying a small range, like a typical job. */
+    static final class BenchmarkPartitioner extends ClusterAwarePartitioner {
+
+        private final int partitions;
+        private final PartitioningMode mode;
+
+        BenchmarkPartitioner(DatabaseBackedClusterService databaseBackedClusterService, int partitions, PartitioningMode mode) {
+            this.databaseBackedClusterService = databaseBackedClusterService;
+            this.partitions = partitions;
+            this.mode = mode;
+        }
+
+        @Override
+        public List<ExecutionContext> createDistributedPartitions(int availableNodeCount) {
+            return IntStream.range(0, partitions).mapToObj(i -> {
+                ExecutionContext executionContext = new ExecutionContext();
+                executionContext.putLong("from", i * 1000L);
+                executionContext.putLong("to", i * 1000L + 999);
+                return executionContext;
+            }).toList();
+        }
+
+        @Override
+        public PartitionTransferableProp arePartitionsTransferableWhenNodeFailed() {
+            return PartitionTransferableProp.YES;
+        }
+
+        @Override
+        public PartitionStrategy buildPartitionStrategy() {
+            return PartitionStrategy.builder().partitioningMode(mode).build();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.benchmarks;
+
+import io.github.jchejarla.springbatch.clustering.core.CoordinationStatus;
+import io.github.jchejarla.springbatch.clustering.core.DatabaseBackedClusterService;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionStatus;
+import io.github.jchejarla.springbatch.clustering.polling.PartitionAssignmentTask;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Worker side: one node's poll for its runnable partitions ({@code fetchPartitionAssignedTasks}) as
+ * {@code batch_partitions} grows. The table holds {@code tableSize} rows of finished jobs spread over the
+ * cluster, plus one running job with a node's worth of partitions waiting for the polling node, so the
+ * result set stays the same while the table around it grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FetchPartitionAssignedTasksBenchmark {
+
+    private static final int NODES = 20;
+    private static final int PARTITIONS_PER_FINISHED_JOB = 1000;
+    private static final int WAITING_PARTITIONS = 10;
+    private static final String POLLING_NODE = "node-0";
+
+    @Param({"1000", "10000", "100000"})
+    public int tableSize;
+
+    private BenchmarkDatabase database;
+    private DatabaseBackedClusterService clusterService;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        database = BenchmarkDatabase.open();
+        database.insertNodes(IntStream.range(0, NODES).mapToObj(i -> "node-" + i).toList());
+        for (int seeded = 0; seeded < tableSize; seeded += PARTITIONS_PER_FINISHED_JOB) {
+            BenchmarkDatabase.Job finished = database.newJob("node-1", CoordinationStatus.COMPLETED);
+            database.insertPartitions(finished, Math.min(PARTITIONS_PER_FINISHED_JOB, tableSize - seeded), i -> "node-" + (i % NODES), PartitionStatus.COMPLETED);
+        }
+        BenchmarkDatabase.Job running = database.newJob("node-1", CoordinationStatus.STARTED);
+        database.insertPartitions(running, WAITING_PARTITIONS, i -> POLLING_NODE, PartitionStatus.PENDING);
+        clusterService = database.clusterService(POLLING_NODE);
+    }
+
+    @Benchmark
+    public List<PartitionAssignmentTask> fetchPartitionAssignedTasks() {
+        return clusterService.fetchPartitionAssignedTasks();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeDatabase() {
+        database.close();
+    }
+}
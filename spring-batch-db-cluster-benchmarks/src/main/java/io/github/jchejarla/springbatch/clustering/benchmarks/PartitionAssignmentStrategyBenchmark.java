@@ -0,0 +1,70 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.benchmarks;
+
+import io.github.jchejarla.springbatch.clustering.api.PartitionStrategy;
+import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNode;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionAssignment;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionAssignmentStrategy;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionStrategyFactory;
+import io.github.jchejarla.springbatch.clustering.partition.PartitioningMode;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Master side, in memory: each {@link PartitionAssignmentStrategy} mapping 10k partitions onto 50 nodes
+ * with uneven load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PartitionAssignmentStrategyBenchmark {
+
+    @Param({"ROUND_ROBIN", "FIXED_NODE_COUNT", "LEAST_LOADED"})
+    public PartitioningMode mode;
+
+    @Param({"10000"})
+    public int partitions;
+
+    @Param({"50"})
+    public int nodes;
+
+    private PartitionAssignmentStrategy strategy;
+    private List<ExecutionContext> executionContexts;
+    private List<ClusterNode> availableNodes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        strategy = PartitionStrategyFactory.getStrategy(PartitionStrategy.builder()
+                .partitioningMode(mode)
+                .fixedNodeCount(nodes / 2)
+                .build());
+        executionContexts = IntStream.range(0, partitions).mapToObj(i -> new ExecutionContext()).toList();
+        availableNodes = IntStream.range(0, nodes).mapToObj(i -> new ClusterNode("node-" + i, i % 7)).toList();
+    }
+
+    @Benchmark
+    public List<PartitionAssignment> assignPartitions() {
+        return strategy.assignPartitions(executionContexts, availableNodes);
+    }
+}
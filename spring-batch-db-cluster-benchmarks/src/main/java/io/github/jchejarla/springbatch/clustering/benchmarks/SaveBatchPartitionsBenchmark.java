@@ -0,0 +1,81 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.benchmarks;
+
+import io.github.jchejarla.springbatch.clustering.core.CoordinationStatus;
+import io.github.jchejarla.springbatch.clustering.core.DatabaseBackedClusterService;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Master side: persisting a job's partition rows ({@code saveBatchPartitions}), from a small job to a very
+ * large one, one row per insert (the former JDBC batch of single-row inserts) against several rows per
+ * insert. Single-shot, since every invocation needs fresh step executions to insert against.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SaveBatchPartitionsBenchmark {
+
+    private static final int NODES = 10;
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int partitions;
+
+    @Param({"1", "100"})
+    public int rowsPerStatement;
+
+    private BenchmarkDatabase database;
+    private DatabaseBackedClusterService clusterService;
+    private List<Object[]> rows;
+
+    @Setup(Level.Trial)
+    public void openDatabase() {
+        database = BenchmarkDatabase.open();
+        // registered, so the partitions are saved with their node's key rather than unassigned
+        database.insertNodes(IntStream.range(0, NODES).mapToObj(i -> "node-" + i).toList());
+        clusterService = database.clusterService("node-0", rowsPerStatement);
+    }
+
+    @Setup(Level.Iteration)
+    public void prepareJob() {
+        BenchmarkDatabase.Job job = database.newJob("node-0", CoordinationStatus.CREATED);
+        List<Long> stepExecutionIds = database.newStepExecutions(job.jobExecutionId(), "benchmarkStep:partition", partitions);
+        rows = BenchmarkDatabase.partitionRows(job, stepExecutionIds, i -> "node-" + (i % NODES), PartitionStatus.PENDING);
+    }
+
+    @Benchmark
+    public int[] saveBatchPartitions() {
+        return clusterService.saveBatchPartitions(rows);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearPartitions() {
+        database.jdbcTemplate().update("delete from batch_partitions");
+    }
+
+    @TearDown(Level.Trial)
+    public void closeDatabase() {
+        database.close();
+    }
+}
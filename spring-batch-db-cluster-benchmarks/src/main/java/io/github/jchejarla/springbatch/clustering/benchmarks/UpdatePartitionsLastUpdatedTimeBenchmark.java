@@ -0,0 +1,71 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.benchmarks;
+
+import io.github.jchejarla.springbatch.clustering.core.CoordinationStatus;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker side: the per-heartbeat refresh of {@code last_updated} for every partition a node is running, by the
+ * number of partitions in flight on that node. Workers no longer run this refresh (the node heartbeat is the
+ * lease on its partitions) and the library no longer has it; the benchmark keeps its statement as the baseline
+ * of the write load it removed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UpdatePartitionsLastUpdatedTimeBenchmark {
+
+    private static final String WORKER = "node-0";
+    // the statement workers used to run once per heartbeat, batched over their in-flight partitions
+    private static final String UPDATE_LAST_UPDATED_TIME = "update batch_partitions set last_updated = CURRENT_TIMESTAMP "
+            + "where step_execution_id = ? and job_execution_id = ? and master_step_execution_id = ? and assigned_node_key = ?";
+
+    @Param({"1", "10", "100", "1000"})
+    public int inFlight;
+
+    private BenchmarkDatabase database;
+    private List<Object[]> inFlightRows;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        database = BenchmarkDatabase.open();
+        database.insertNodes(List.of(WORKER));
+        BenchmarkDatabase.Job job = database.newJob(WORKER, CoordinationStatus.STARTED);
+        List<Long> stepExecutionIds = database.insertPartitions(job, inFlight, i -> WORKER, PartitionStatus.CLAIMED);
+        int nodeKey = database.clusterService(WORKER).getNodeKey();
+        inFlightRows = stepExecutionIds.stream()
+                .map(stepExecutionId -> new Object[]{stepExecutionId, job.jobExecutionId(), job.masterStepExecutionId(), nodeKey})
+                .toList();
+    }
+
+    @Benchmark
+    public int[] updatePartitionsLastUpdatedTime() {
+        return database.jdbcTemplate().batchUpdate(UPDATE_LAST_UPDATED_TIME, inFlightRows);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeDatabase() {
+        database.close();
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.benchmarks.cluster;
+
+import io.github.jchejarla.springbatch.clustering.benchmarks.BenchmarkDatabase;
+import io.github.jchejarla.springbatch.clustering.mgmt.NodeStatus;
+import io.github.jchejarla.springbatch.clustering.partition.PartitioningMode;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.parameters.JobParameters;
+import org.springframework.batch.core.job.parameters.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * End-to-end cluster simulation: boots N nodes (full Spring contexts, see {@link SimulatedNodeApplication})
+ * in this JVM against one shared database, launches jobs on them, and reports throughput, scheduling latency
+ * and the statements the nodes sent. Runs once per requested node count, each time on a fresh database.
+ *
+ * <p>Settings are system properties:</p>
+ * <ul>
+ * <li>{@code simulation.nodes} &ndash; comma-separated node counts (default {@code 2,5,10,20})</li>
+ * <li>{@code simulation.jobs} &ndash; jobs launched at once, their masters spread over the nodes (default 4)</li>
+ * <li>{@code simulation.partitions} &ndash; partitions per job (default 200)</li>
+ * <li>{@code simulation.step-duration} &ndash; milliseconds each partition runs (default 50)</li>
+ * <li>{@code simulation.partitioning-mode} &ndash; a {@code PartitioningMode} (default {@code ROUND_ROBIN})</li>
+ * <li>{@code benchmark.database} &ndash; {@code h2} (default) or {@code postgres}, as for the JMH benchmarks</li>
+ * </ul>
+ * <p>Any {@code spring.batch.cluster.*} system property (e.g. {@code -Dspring.batch.cluster.task-polling-interval=200})
+ * applies to every node, which is how intervals are compared. Results are printed and appended as CSV to
+ * {@code simulation-results/<version>-<database>.csv}.</p>
+ */
+public final class ClusterSimulation {
+
+    static final String RESULTS_DIRECTORY = "simulation-results";
+
+    private static final long NODE_REGISTRATION_TIMEOUT_MILLIS = 60_000;
+    private static final long JOB_TIMEOUT_MINUTES = 30;
+
+    record Settings(List<Integer> nodeCounts, int jobs, int partitions, long stepDurationMillis, PartitioningMode partitioningMode) {
+
+        static Settings fromSystemProperties() {
+            return new Settings(
+                    Arrays.stream(System.getProperty("simulation.nodes", "2,5,10,20").split(","))
+                            .map(String::trim).map(Integer::valueOf).toList(),
+                    Integer.getInteger("simulation.jobs", 4),
+                    Integer.getInteger("simulation.partitions", 200),
+                    Long.getLong("simulation.step-duration", 50),
+                    PartitioningMode.valueOf(System.getProperty("simulation.partitioning-mode", PartitioningMode.ROUND_ROBIN.name())));
+        }
+    }
+
+    private ClusterSimulation() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // N nodes log a lot at INFO; keep the output to the report unless asked otherwise.
+        if (System.getProperty("org.slf4j.simpleLogger.defaultLogLevel") == null) {
+            System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+        }
+        Settings settings = Settings.fromSystemProperties();
+        System.out.printf("Simulating %d job(s) x %d partition(s) of %d ms, %s, on %s%n", settings.jobs(), settings.partitions(),
+                settings.stepDurationMillis(), settings.partitioningMode(), database());
+
+        List<SimulationResult> results = new ArrayList<>();
+        for (int nodes : settings.nodeCounts()) {
+            SimulationResult result = run(settings, nodes);
+            results.add(result);
+            print(System.out, List.of(result), results.size() == 1);
+        }
+        Path resultFile = appendCsv(settings, results);
+        System.out.println("Results appended to " + resultFile);
+    }
+
+    static SimulationResult run(Settings settings, int nodeCount) throws Exception {
+        try (BenchmarkDatabase database = BenchmarkDatabase.open()) {
+            List<ConfigurableApplicationContext> nodes = new ArrayList<>(nodeCount);
+            try {
+                for (int i = 0; i < nodeCount; i++) {
+                    nodes.add(startNode(database, "sim-node-" + i));
+                }
+                awaitActiveNodes(database, nodeCount);
+                nodes.forEach(node -> statementCounter(node).reset());
+
+                long launched = System.nanoTime();
+                runJobs(settings, nodes);
+                long makespanMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launched);
+
+                Map<String, Long> statements = new LinkedHashMap<>();
+                nodes.forEach(node -> statementCounter(node).counts().forEach((table, count) -> statements.merge(table, count, Long::sum)));
+                return SimulationResult.collect(database.jdbcTemplate(), nodeCount, settings.jobs(), makespanMillis, statements);
+            } finally {
+                nodes.reversed().forEach(ConfigurableApplicationContext::close);
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startNode(BenchmarkDatabase database, String nodeId) {
+        return new SpringApplicationBuilder(SimulatedNodeApplication.class)
+                // Defaults only: system properties (e.g. cluster intervals) override them for every node.
+                .properties(Map.of(
+                        "spring.main.web-application-type", "none",
+                        "spring.main.banner-mode", "off",
+                        "spring.batch.job.enabled", "false",
+                        "spring.batch.jdbc.initialize-schema", "never",
+                        "spring.batch.cluster.initialize-schema", "never",
+                        "spring.datasource.hikari.maximum-pool-size", "8"))
+                .run("--spring.batch.cluster.enabled=true",
+                        "--spring.batch.cluster.node-id=" + nodeId,
+                        // the measurements come from the phase events
+                        "--spring.batch.cluster.capture-phase-timings=true",
+                        "--spring.datasource.url=" + database.jdbcUrl(),
+                        "--spring.datasource.username=" + database.username(),
+                        "--spring.datasource.password=" + database.password());
+    }
+
+    private static void awaitActiveNodes(BenchmarkDatabase database, int nodeCount) throws InterruptedException, TimeoutException {
+        long deadline = System.currentTimeMillis() + NODE_REGISTRATION_TIMEOUT_MILLIS;
+        while (database.jdbcTemplate().queryForObject("select count(*) from batch_nodes where status = ?", Integer.class, NodeStatus.ACTIVE.code()) < nodeCount) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new TimeoutException("Not all " + nodeCount + " simulated nodes registered as ACTIVE within " + NODE_REGISTRATION_TIMEOUT_MILLIS + " ms");
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    /** Launches every job at once, the i-th one mastered by node {@code i % nodes}, and waits for them all. */
+    private static void runJobs(Settings settings, List<ConfigurableApplicationContext> nodes) throws Exception {
+        ExecutorService launcher = Executors.newFixedThreadPool(settings.jobs());
+        try {
+            List<Future<JobExecution>> executions = new ArrayList<>(settings.jobs());
+            for (int i = 0; i < settings.jobs(); i++) {
+                ConfigurableApplicationContext master = nodes.get(i % nodes.size());
+                JobParameters parameters = new JobParametersBuilder()
+                        .addLong(SimulatedNodeApplication.PARTITIONS, (long) settings.partitions())
+                        .addLong(SimulatedNodeApplication.STEP_DURATION_MILLIS, settings.stepDurationMillis())
+                        .addString(SimulatedNodeApplication.PARTITIONING_MODE, settings.partitioningMode().name())
+                        .addString("run", UUID.randomUUID().toString())
+                        .toJobParameters();
+                executions.add(launcher.submit(() -> master.getBean(JobLauncher.class)
+                        .run(master.getBean(SimulatedNodeApplication.JOB_NAME, Job.class), parameters)));
+            }
+            for (Future<JobExecution> execution : executions) {
+                JobExecution jobExecution = execution.get(JOB_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+                if (jobExecution.getStatus() != BatchStatus.COMPLETED) {
+                    throw new IllegalStateException("Simulated job " + jobExecution.getId() + " ended " + jobExecution.getStatus());
+                }
+            }
+        } finally {
+            launcher.shutdownNow();
+        }
+    }
+
+    private static StatementCountingDataSource statementCounter(ConfigurableApplicationContext node) {
+        return node.getBean(StatementCountingDataSource.class);
+    }
+
+    static void print(PrintStream out, List<SimulationResult> results, boolean header) {
+        if (header) {
+            out.printf("%6s %11s %12s %12s %21s %21s %14s %13s %12s%n", "nodes", "partitions", "makespan ms", "partitions/s",
+                    "first claim p50/p99", "queueing p50/p99", "detection p50", "coord. stmts", "stmts/part.");
+        }
+        for (SimulationResult result : results) {
+            out.printf(Locale.ROOT, "%6d %11d %12d %12.1f %21s %21s %14d %13d %12.2f%n", result.nodes(), result.partitions(), result.makespanMillis(),
+                    result.throughput(), result.firstClaimP50() + " / " + result.firstClaimP99(), result.queueingP50() + " / " + result.queueingP99(),
+                    result.completionDetectionP50(), result.coordinationStatements(),
+                    result.partitions() == 0 ? 0.0 : (double) result.coordinationStatements() / result.partitions());
+            out.println("       statements: " + result.statements().entrySet().stream()
+                    .map(entry -> entry.getKey() + "=" + entry.getValue()).collect(Collectors.joining(", ")));
+        }
+    }
+
+    private static Path appendCsv(Settings settings, List<SimulationResult> results) throws IOException {
+        Files.createDirectories(Path.of(RESULTS_DIRECTORY));
+        String version = ClusterSimulation.class.getPackage().getImplementationVersion();
+        Path file = Path.of(RESULTS_DIRECTORY, (version != null ? version : "dev") + "-" + database() + ".csv");
+        List<String> lines = new ArrayList<>();
+        if (Files.notExists(file)) {
+            lines.add("nodes,jobs,partitions,step_duration_ms,partitioning_mode,makespan_ms,partitions_per_s,first_claim_p50_ms,first_claim_p99_ms,"
+                    + "queueing_p50_ms,queueing_p99_ms,completion_detection_p50_ms,coordination_statements,"
+                    + String.join(",", results.getFirst().statements().keySet().stream().map(table -> table.replace(' ', '_') + "_statements").toList()));
+        }
+        for (SimulationResult result : results) {
+            lines.add(String.format(Locale.ROOT, "%d,%d,%d,%d,%s,%d,%.1f,%d,%d,%d,%d,%d,%d,%s", result.nodes(), result.jobs(), result.partitions(),
+                    settings.stepDurationMillis(), settings.partitioningMode(), result.makespanMillis(), result.throughput(),
+                    result.firstClaimP50(), result.firstClaimP99(), result.queueingP50(), result.queueingP99(),
+                    result.completionDetectionP50(), result.coordinationStatements(),
+                    result.statements().values().stream().map(String::valueOf).collect(Collectors.joining(","))));
+        }
+        Files.write(file, lines, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return file;
+    }
+
+    private static String database() {
+        return System.getProperty(BenchmarkDatabase.DATABASE_PROPERTY, "h2");
+    }
+}
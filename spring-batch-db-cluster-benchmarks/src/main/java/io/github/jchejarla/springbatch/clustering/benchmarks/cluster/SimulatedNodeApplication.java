@@ -0,0 +1,169 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.benchmarks.cluster;
+
+import io.github.jchejarla.springbatch.clustering.api.ClusterAwarePartitioner;
+import io.github.jchejarla.springbatch.clustering.api.PartitionStrategy;
+import io.github.jchejarla.springbatch.clustering.autoconfigure.BatchClusterProperties;
+import io.github.jchejarla.springbatch.clustering.core.DatabaseBackedClusterService;
+import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNodeInfo;
+import io.github.jchejarla.springbatch.clustering.partition.ClusterAwarePartitionHandler;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionTransferableProp;
+import io.github.jchejarla.springbatch.clustering.partition.PartitioningMode;
+import io.github.jchejarla.springbatch.clustering.polling.AdaptivePollingInterval;
+import io.github.jchejarla.springbatch.clustering.polling.PartitionWakeupChannel;
+import io.github.jchejarla.springbatch.clustering.polling.PartitionedWorkerNodeTasksRunner;
+import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.batch.core.configuration.annotation.EnableJdbcJobRepository;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.partition.Partitioner;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.explore.JobExplorer;
+import org.springframework.batch.core.step.Step;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One simulated cluster node: a regular clustered Spring Batch application (auto-configured manager,
+ * worker, heartbeat and recovery) with a single partitioned job whose partitions just sleep.
+ *
+ * <p>Job parameters: {@value #PARTITIONS} (partitions per job), {@value #STEP_DURATION_MILLIS} (time each
+ * partition sleeps) and {@value #PARTITIONING_MODE} (a {@link PartitioningMode}).</p>
+ */
+@SpringBootApplication
+@EnableBatchProcessing
+@EnableJdbcJobRepository
+public class SimulatedNodeApplication {
+
+    public static final String JOB_NAME = "simulationJob";
+    public static final String MANAGER_STEP_NAME = "simulationStep.manager";
+    // The bean name is the step name: workers look the step up by the name stored with each partition.
+    public static final String WORKER_STEP_NAME = "simulationWorkerStep";
+
+    public static final String PARTITIONS = "partitions";
+    public static final String STEP_DURATION_MILLIS = "stepDurationMillis";
+    public static final String PARTITIONING_MODE = "partitioningMode";
+
+    /** Counts this node's statements; see {@link StatementCountingDataSource}. */
+    @Bean
+    static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)
+                        ? new StatementCountingDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    public PartitionedWorkerNodeTasksRunner partitionWorkerTasksRunner(ApplicationContext applicationContext,
+                                                                       JobExplorer jobExplorer,
+                                                                       JobRepository jobRepository,
+                                                                       BatchClusterProperties batchClusterProperties,
+                                                                       DatabaseBackedClusterService databaseBackedClusterService,
+                                                                       @Qualifier("partitionPollingScheduler") TaskScheduler partitionPollingScheduler,
+                                                                       @Qualifier("completedTasksCleanupScheduler") TaskScheduler completedTasksCleanupScheduler,
+                                                                       @Qualifier("updateBatchPartitionsScheduler") TaskScheduler updateBatchPartitionsScheduler,
+                                                                       ClusterNodeInfo clusterNodeInfo,
+                                                                       PartitionWakeupChannel partitionWakeupChannel,
+                                                                       @Qualifier("workerPollingInterval") AdaptivePollingInterval workerPollingInterval) {
+        return new SimulatedNodeTasksRunner(applicationContext, jobExplorer, jobRepository, batchClusterProperties,
+                databaseBackedClusterService, partitionPollingScheduler, completedTasksCleanupScheduler,
+                updateBatchPartitionsScheduler, clusterNodeInfo, partitionWakeupChannel, workerPollingInterval);
+    }
+
+    @Bean(JOB_NAME)
+    public Job simulationJob(JobRepository jobRepository, Step simulationManagerStep) {
+        return new JobBuilder(JOB_NAME, jobRepository)
+                .start(simulationManagerStep)
+                .build();
+    }
+
+    @Bean
+    public Step simulationManagerStep(JobRepository jobRepository,
+                                      ClusterAwarePartitionHandler partitionHandler,
+                                      @Qualifier("simulationPartitioner") Partitioner partitioner,
+                                      @Qualifier(WORKER_STEP_NAME) Step workerStep) {
+        return new StepBuilder(MANAGER_STEP_NAME, jobRepository)
+                .partitioner(WORKER_STEP_NAME, partitioner)
+                .partitionHandler(partitionHandler)
+                .step(workerStep)
+                .build();
+    }
+
+    @Bean(WORKER_STEP_NAME)
+    public Step simulationWorkerStep(JobRepository jobRepository, PlatformTransactionManager transactionManager, Tasklet simulatedWork) {
+        return new StepBuilder(WORKER_STEP_NAME, jobRepository)
+                .tasklet(simulatedWork, transactionManager)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public Tasklet simulatedWork(@Value("#{jobParameters['" + STEP_DURATION_MILLIS + "']}") Long stepDurationMillis) {
+        return (contribution, chunkContext) -> {
+            Thread.sleep(stepDurationMillis);
+            return RepeatStatus.FINISHED;
+        };
+    }
+
+    @Bean("simulationPartitioner")
+    @StepScope
+    public Partitioner simulationPartitioner(@Value("#{jobParameters['" + PARTITIONS + "']}") Long partitions,
+                                             @Value("#{jobParameters['" + PARTITIONING_MODE + "']}") String partitioningMode) {
+        return new ClusterAwarePartitioner() {
+
+            @Override
+            public List<ExecutionContext> createDistributedPartitions(int availableNodeCount) {
+                List<ExecutionContext> executionContexts = new ArrayList<>(partitions.intValue());
+                for (int i = 0; i < partitions; i++) {
+                    ExecutionContext context = new ExecutionContext();
+                    context.putString("partitionKey", "partition-" + i);
+                    executionContexts.add(context);
+                }
+                return executionContexts;
+            }
+
+            @Override
+            public PartitionTransferableProp arePartitionsTransferableWhenNodeFailed() {
+                return PartitionTransferableProp.YES;
+            }
+
+            @Override
+            public PartitionStrategy buildPartitionStrategy() {
+                return PartitionStrategy.builder().partitioningMode(PartitioningMode.valueOf(partitioningMode)).build();
+            }
+        };
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.benchmarks.cluster;
+
+import io.github.jchejarla.springbatch.clustering.autoconfigure.BatchClusterProperties;
+import io.github.jchejarla.springbatch.clustering.core.DatabaseBackedClusterService;
+import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNodeInfo;
+import io.github.jchejarla.springbatch.clustering.mgmt.NodeLoad;
+import io.github.jchejarla.springbatch.clustering.polling.AdaptivePollingInterval;
+import io.github.jchejarla.springbatch.clustering.polling.PartitionWakeupChannel;
+import io.github.jchejarla.springbatch.clustering.polling.PartitionedWorkerNodeTasksRunner;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.explore.JobExplorer;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The regular worker, except that it admits partitions by its own in-flight count only.
+ *
+ * <p>The stock runner also counts the running steps of {@link NodeLoad}, which is one counter per JVM: with
+ * several simulated nodes in one JVM, every node would see the load of all the others and stop claiming
+ * early. (The load a node reports in its heartbeat stays JVM-wide, which only skews
+ * {@code LEAST_LOADED} assignment.)</p>
+ */
+class SimulatedNodeTasksRunner extends PartitionedWorkerNodeTasksRunner {
+
+    private final InFlightCountingExecutor executor;
+    private final int concurrencyLimit;
+
+    SimulatedNodeTasksRunner(ApplicationContext applicationContext,
+                             JobExplorer jobExplorer,
+                             JobRepository jobRepository,
+                             BatchClusterProperties batchClusterProperties,
+                             DatabaseBackedClusterService databaseBackedClusterService,
+                             TaskScheduler partitionPollingScheduler,
+                             TaskScheduler completedTasksCleanupScheduler,
+                             TaskScheduler updateBatchPartitionsScheduler,
+                             ClusterNodeInfo clusterNodeInfo,
+                             PartitionWakeupChannel partitionWakeupChannel,
+                             AdaptivePollingInterval workerPollingInterval) {
+        this(new InFlightCountingExecutor(batchClusterProperties.getNodeId()), applicationContext, jobExplorer, jobRepository,
+                batchClusterProperties, databaseBackedClusterService, partitionPollingScheduler, completedTasksCleanupScheduler,
+                updateBatchPartitionsScheduler, clusterNodeInfo, partitionWakeupChannel, workerPollingInterval);
+    }
+
+    private SimulatedNodeTasksRunner(InFlightCountingExecutor executor,
+                                     ApplicationContext applicationContext,
+                                     JobExplorer jobExplorer,
+                                     JobRepository jobRepository,
+                                     BatchClusterProperties batchClusterProperties,
+                                     DatabaseBackedClusterService databaseBackedClusterService,
+                                     TaskScheduler partitionPollingScheduler,
+                                     TaskScheduler completedTasksCleanupScheduler,
+                                     TaskScheduler updateBatchPartitionsScheduler,
+                                     ClusterNodeInfo clusterNodeInfo,
+                                     PartitionWakeupChannel partitionWakeupChannel,
+                                     AdaptivePollingInterval workerPollingInterval) {
+        super(applicationContext, jobExplorer, jobRepository, executor, batchClusterProperties, databaseBackedClusterService,
+                partitionPollingScheduler, completedTasksCleanupScheduler, updateBatchPartitionsScheduler, clusterNodeInfo,
+                partitionWakeupChannel, workerPollingInterval);
+        this.executor = executor;
+        this.concurrencyLimit = batchClusterProperties.getConcurrencyLimitPerNode();
+    }
+
+    @Override
+    protected int availableExecutionPermits() {
+        return Math.max(0, concurrencyLimit - executor.inFlight.get());
+    }
+
+    /** Runs partition steps on virtual threads, as the stock executor does, and counts those not finished yet. */
+    private static final class InFlightCountingExecutor implements AsyncTaskExecutor {
+
+        private final SimpleAsyncTaskExecutor delegate;
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private InFlightCountingExecutor(String nodeId) {
+            delegate = new SimpleAsyncTaskExecutor(nodeId + "-step-");
+            delegate.setVirtualThreads(true);
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            delegate.execute(task);
+        }
+
+        @Override
+        public Future<?> submit(Runnable task) {
+            return delegate.submit(task);
+        }
+
+        @Override
+        public <T> Future<T> submit(Callable<T> task) {
+            inFlight.incrementAndGet();
+            try {
+                return delegate.submit(() -> {
+                    try {
+                        return task.call();
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            } catch (RuntimeException e) {
+                inFlight.decrementAndGet();
+                throw e;
+            }
+        }
+    }
+}
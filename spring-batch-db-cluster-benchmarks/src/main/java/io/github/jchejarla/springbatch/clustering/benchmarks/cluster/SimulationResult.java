@@ -0,0 +1,119 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.benchmarks.cluster;
+
+import io.github.jchejarla.springbatch.clustering.query.JobPhase;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What one simulation run measured. Timings are in milliseconds and come from the database: the master's
+ * {@link JobPhase} events in {@code batch_job_phase_events} and the start/end times Spring Batch records for
+ * every partition step execution.
+ *
+ * @param nodes                   simulated nodes
+ * @param jobs                    jobs launched (all at once)
+ * @param partitions              partitions executed over all jobs
+ * @param makespanMillis          from launching the first job to the end of the last one
+ * @param firstClaimP50           per job, {@code DISTRIBUTED} to the start of its first partition: median
+ * @param firstClaimP99           ... 99th percentile
+ * @param queueingP50             per partition, {@code DISTRIBUTED} to its start: median
+ * @param queueingP99             ... 99th percentile
+ * @param completionDetectionP50  per job, end of its last partition to {@code COMPLETION_DETECTED}: median
+ * @param statements              statements sent by all nodes during the run, per table
+ *                                (see {@link StatementCountingDataSource})
+ */
+public record SimulationResult(int nodes, int jobs, int partitions, long makespanMillis,
+                               long firstClaimP50, long firstClaimP99, long queueingP50, long queueingP99,
+                               long completionDetectionP50, Map<String, Long> statements) {
+
+    /** Partitions executed per second over the makespan. */
+    public double throughput() {
+        return makespanMillis == 0 ? 0 : partitions * 1000.0 / makespanMillis;
+    }
+
+    /** Statements on the coordination tables, i.e. all except the job repository's and the phase events'. */
+    public long coordinationStatements() {
+        return statements.entrySet().stream()
+                .filter(entry -> !entry.getKey().equals(StatementCountingDataSource.JOB_REPOSITORY) && !entry.getKey().equals("batch_job_phase_events"))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    static SimulationResult collect(JdbcTemplate jdbcTemplate, int nodes, int jobs, long makespanMillis, Map<String, Long> statements) {
+        Map<Long, Map<JobPhase, LocalDateTime>> phasesByJob = new HashMap<>();
+        jdbcTemplate.query("select job_execution_id, phase, event_time from batch_job_phase_events", rs -> {
+            phasesByJob.computeIfAbsent(rs.getLong("job_execution_id"), id -> new EnumMap<>(JobPhase.class))
+                    .put(JobPhase.valueOf(rs.getString("phase")), rs.getTimestamp("event_time").toLocalDateTime());
+        });
+        Map<Long, LocalDateTime> firstStartByJob = new HashMap<>();
+        Map<Long, LocalDateTime> lastEndByJob = new HashMap<>();
+        List<Long> queueing = new ArrayList<>();
+        jdbcTemplate.query("select job_execution_id, start_time, end_time from batch_step_execution where step_name like ?", rs -> {
+            long jobExecutionId = rs.getLong("job_execution_id");
+            LocalDateTime start = rs.getTimestamp("start_time").toLocalDateTime();
+            LocalDateTime end = rs.getTimestamp("end_time").toLocalDateTime();
+            firstStartByJob.merge(jobExecutionId, start, (a, b) -> a.isBefore(b) ? a : b);
+            lastEndByJob.merge(jobExecutionId, end, (a, b) -> a.isAfter(b) ? a : b);
+            LocalDateTime distributed = phasesByJob.getOrDefault(jobExecutionId, Map.of()).get(JobPhase.DISTRIBUTED);
+            if (distributed != null) {
+                queueing.add(millisBetween(distributed, start));
+            }
+        }, SimulatedNodeApplication.WORKER_STEP_NAME + ":%");
+
+        List<Long> firstClaim = new ArrayList<>();
+        List<Long> completionDetection = new ArrayList<>();
+        phasesByJob.forEach((jobExecutionId, phases) -> {
+            LocalDateTime distributed = phases.get(JobPhase.DISTRIBUTED);
+            LocalDateTime firstStart = firstStartByJob.get(jobExecutionId);
+            if (distributed != null && firstStart != null) {
+                firstClaim.add(millisBetween(distributed, firstStart));
+            }
+            LocalDateTime detected = phases.get(JobPhase.COMPLETION_DETECTED);
+            LocalDateTime lastEnd = lastEndByJob.get(jobExecutionId);
+            if (detected != null && lastEnd != null) {
+                completionDetection.add(millisBetween(lastEnd, detected));
+            }
+        });
+        return new SimulationResult(nodes, jobs, queueing.size(), makespanMillis,
+                percentile(firstClaim, 50), percentile(firstClaim, 99),
+                percentile(queueing, 50), percentile(queueing, 99),
+                percentile(completionDetection, 50), statements);
+    }
+
+    /** Nearest-rank percentile; 0 for no values. */
+    static long percentile(List<Long> values, int percentile) {
+        if (values.isEmpty()) {
+            return 0;
+        }
+        long[] sorted = values.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static long millisBetween(LocalDateTime from, LocalDateTime to) {
+        return Duration.between(from, to).toMillis();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.benchmarks.cluster;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the statements a simulated node sends to the database, grouped by the coordination table they
+ * target. Everything else (the Spring Batch job repository) is counted as {@link #JOB_REPOSITORY}.
+ *
+ * <p>It wraps the node's one {@link DataSource}, so transactions keep working exactly as in a real node.
+ * A statement is counted when it is prepared, which for {@code JdbcTemplate} is once per call: a batch
+ * update counts as one statement, however many rows it carries.</p>
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    public static final String JOB_REPOSITORY = "job repository";
+
+    // In match order: a statement joining several cluster tables is counted against the first one listed.
+    static final List<String> COORDINATION_TABLES = List.of("batch_partitions", "batch_job_coordination", "batch_nodes", "batch_job_phase_events");
+
+    private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "prepareCall");
+
+    private final Map<String, LongAdder> counts = new LinkedHashMap<>();
+
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+        COORDINATION_TABLES.forEach(table -> counts.put(table, new LongAdder()));
+        counts.put(JOB_REPOSITORY, new LongAdder());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    /** Statements counted since the last {@link #reset()}, per coordination table, then {@link #JOB_REPOSITORY}. */
+    public Map<String, Long> counts() {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        counts.forEach((table, count) -> snapshot.put(table, count.sum()));
+        return snapshot;
+    }
+
+    public void reset() {
+        counts.values().forEach(LongAdder::reset);
+    }
+
+    static String tableOf(String sql) {
+        String lowerCaseSql = sql.toLowerCase(Locale.ROOT);
+        return COORDINATION_TABLES.stream().filter(lowerCaseSql::contains).findFirst().orElse(JOB_REPOSITORY);
+    }
+
+    private Connection counting(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                    if (STATEMENT_METHODS.contains(method.getName()) && args[0] instanceof String sql) {
+                        counts.get(tableOf(sql)).increment();
+                    }
+                }
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+}
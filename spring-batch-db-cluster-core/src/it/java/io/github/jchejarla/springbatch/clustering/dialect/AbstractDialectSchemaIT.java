@@ -20,7 +20,11 @@ import io.github.jchejarla.springbatch.clustering.core.CoordinationStatus;
 import io.github.jchejarla.springbatch.clustering.core.DBSpecificQueryProvider;
 import io.github.jchejarla.springbatch.clustering.core.DatabaseBackedClusterService;
 import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNode;
+import io.github.jchejarla.springbatch.clustering.mgmt.NodeStatus;
 import io.github.jchejarla.springbatch.clustering.mgmt.OrphanedMasterJob;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionStatus;
+import io.github.jchejarla.springbatch.clustering.polling.PartitionAssignmentTask;
+import io.github.jchejarla.springbatch.clustering.polling.PartitionStatusUpdate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.core.io.ClassPathResource;
@@ -52,6 +56,10 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
  */
 abstract class AbstractDialectSchemaIT {
 
+    private static final String WORKER = "worker-node";
+    // a key no registered node has
+    private static final int GHOST_NODE_KEY = 999_999;
+
     private JdbcTemplate jdbc;
     private DatabaseBackedClusterService service;
     private DBSpecificQueryProvider provider;
@@ -104,21 +112,24 @@ abstract class AbstractDialectSchemaIT {
 
         jdbc = new JdbcTemplate(dataSource);
         provider = queryProvider();
-        service = new DatabaseBackedClusterService(jdbc, new BatchClusterProperties(), provider);
+        BatchClusterProperties properties = new BatchClusterProperties();
+        properties.setNodeId(WORKER);
+        service = new DatabaseBackedClusterService(jdbc, properties, provider);
     }
 
     @Test
     void clusterSchemaAppliesAndDialectQueriesRunOnRealEngine() {
         // Register a node, then read it back through the active-nodes query.
         // created_time/last_updated_time are written by the DB clock (CURRENT_TIMESTAMP), so only
-        // node id, status, and host are bound.
+        // node id, status, host and epoch are bound; the node key is assigned by the database.
         int registered = jdbc.update(provider.getInsertQueryToRegisterNodeQuery(),
-                "node-A", "ACTIVE", "host-A");
+                "node-A", NodeStatus.ACTIVE.code(), "host-A", 1L, 10, 4, 1.0);
+        assertTrue(jdbc.queryForObject(provider.getNodeKeyQuery(), Integer.class, "node-A") > 0);
         assertEquals(1, registered);
 
         // last_updated_time is written by the DB clock; bind status, load, node id.
         int heartbeat = jdbc.update(provider.getUpdateNodeHeartBeatQuery(),
-                "ACTIVE", 3L, "node-A");
+                NodeStatus.ACTIVE.code(), 3L, "node-A");
         assertEquals(1, heartbeat);
 
         List<ClusterNode> active = jdbc.query(provider.getActiveNodesQuery(),
@@ -131,7 +142,7 @@ abstract class AbstractDialectSchemaIT {
         // and treat a just-registered node as healthy. The threshold is deliberately enormous (30 days) so
         // the assertion is robust to any clock/timezone skew between this JVM and the database session.
         long thirtyDaysMillis = 30L * 24 * 60 * 60 * 1000;
-        int marked = jdbc.update(provider.getMarkNodesUnreachableQuery(), "UNREACHABLE", "ACTIVE", thirtyDaysMillis);
+        int marked = jdbc.update(provider.getMarkNodesUnreachableQuery(), NodeStatus.UNREACHABLE.code(), NodeStatus.ACTIVE.code(), thirtyDaysMillis);
         assertEquals(0, marked, "a freshly registered node must not be marked unreachable");
 
         // Append-only phase event, timestamped by the database clock.
@@ -145,25 +156,59 @@ abstract class AbstractDialectSchemaIT {
     @Test
     void masterFailoverRecoveryRunsOnRealEngine() {
         // A surviving node, and a job whose master node has left the cluster.
-        jdbc.update(provider.getInsertQueryToRegisterNodeQuery(), "survivor", "ACTIVE", "host");
+        jdbc.update(provider.getInsertQueryToRegisterNodeQuery(), "survivor", NodeStatus.ACTIVE.code(), "host", 1L, 10, 4, 1.0);
         long jobId = 1001L;
         insertJobExecution(jobId);
-        insertCoordination(jobId, "ghost-master", CoordinationStatus.STARTED.name());
+        insertCoordination(jobId, "ghost-master", GHOST_NODE_KEY, CoordinationStatus.STARTED);
 
-        // The reaper detects the stranded job: its master_node_id is no longer in batch_nodes.
+        // The reaper detects the stranded job: its master_node_key is no longer in batch_nodes.
         List<OrphanedMasterJob> orphans = service.findOrphanedMasterJobs();
         assertTrue(orphans.stream().anyMatch(o -> o.jobExecutionId() == jobId && o.masterNodeId().equals("ghost-master")),
                 "a job whose master left the cluster must be detected as orphaned");
 
         // The surviving node claims it, atomically taking ownership...
-        assertTrue(service.claimOrphanedMasterJob(jobId, "ghost-master", "survivor", CoordinationStatus.RECOVERING.name()),
+        assertTrue(service.claimOrphanedMasterJob(jobId, GHOST_NODE_KEY, "survivor", CoordinationStatus.RECOVERING.name()),
                 "the surviving node must win the claim exactly once");
         // ...and a second attempt against the now-departed master finds nothing to claim.
-        assertFalse(service.claimOrphanedMasterJob(jobId, "ghost-master", "survivor", CoordinationStatus.RECOVERING.name()),
+        assertFalse(service.claimOrphanedMasterJob(jobId, GHOST_NODE_KEY, "survivor", CoordinationStatus.RECOVERING.name()),
                 "the stranded job must be reaped only once");
 
         assertEquals("survivor", coordinationField(jobId, "master_node_id"));
-        assertEquals(CoordinationStatus.RECOVERING.name(), coordinationField(jobId, "status"));
+        assertEquals(String.valueOf(CoordinationStatus.RECOVERING.code()), coordinationField(jobId, "status"));
+    }
+
+    @Test
+    void partitionClaimRunsOnRealEngine() {
+        jdbc.update(provider.getInsertQueryToRegisterNodeQuery(), "master", NodeStatus.ACTIVE.code(), "host", 1L, 10, 4, 1.0);
+        assertEquals(1, service.registerNode());
+        long jobId = 2001L;
+        insertJobExecution(jobId);
+        insertStepExecution(jobId, jobId, "step.manager");
+        insertCoordination(jobId, "master", jdbc.queryForObject(provider.getNodeKeyQuery(), Integer.class, "master"), CoordinationStatus.STARTED);
+        for (long stepId = 2002L; stepId <= 2004L; stepId++) {
+            insertStepExecution(stepId, jobId, "step:partition" + stepId);
+            jdbc.update(provider.getSaveBatchPartitionsQuery(), stepId, jobId, "step:partition" + stepId,
+                    service.getNodeKey(), PartitionStatus.PENDING.code(), jobId, 1, null);
+        }
+
+        // The dialect's bounded claim path (single statement or lock + compare-and-set) must run on this
+        // engine, respect the row limit, return each assigned partition exactly once, and leave nothing
+        // claimable behind.
+        List<PartitionAssignmentTask> claimed = service.claimPartitionAssignedTasks(2);
+        assertEquals(2, claimed.size());
+        assertTrue(claimed.stream().allMatch(task -> "step.manager".equals(task.masterStepName())));
+        assertEquals(1, service.claimPartitionAssignedTasks(10).size());
+        assertTrue(service.claimPartitionAssignedTasks(10).isEmpty(), "claimed partitions must not be claimable again");
+
+        // The claim stamped the node's epoch, so the fenced status write applies under it.
+        service.updatePartitionStatuses(claimed.stream().map(task -> new PartitionStatusUpdate(task, "COMPLETED")).toList());
+        Integer completed = jdbc.queryForObject("select count(*) from batch_partitions where status = ?", Integer.class, PartitionStatus.COMPLETED.code());
+        assertEquals(2, completed);
+    }
+
+    private void insertStepExecution(long stepExecutionId, long jobId, String stepName) {
+        jdbc.update("insert into BATCH_STEP_EXECUTION(step_execution_id, version, step_name, job_execution_id, create_time) values (?,?,?,?,?)",
+                stepExecutionId, 0L, stepName, jobId, now());
     }
 
     private void insertJobExecution(long jobId) {
@@ -175,9 +220,9 @@ abstract class AbstractDialectSchemaIT {
                 jobId, 0L, jobId, now(), "STARTED");
     }
 
-    private void insertCoordination(long jobId, String masterNode, String status) {
-        jdbc.update("insert into batch_job_coordination(job_execution_id, master_node_id, master_step_execution_id, master_step_name, status, created_time, last_updated) values (?,?,?,?,?,?,?)",
-                jobId, masterNode, jobId, "step.manager", status, now(), now());
+    private void insertCoordination(long jobId, String masterNode, int masterNodeKey, CoordinationStatus status) {
+        jdbc.update("insert into batch_job_coordination(job_execution_id, master_node_id, master_node_key, master_step_execution_id, master_step_name, status, created_time, last_updated) values (?,?,?,?,?,?,?,?)",
+                jobId, masterNode, masterNodeKey, jobId, "step.manager", status.code(), now(), now());
     }
 
     private String coordinationField(long jobId, String column) {
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.dialect;
+
+import io.github.jchejarla.springbatch.clustering.core.serviceimpl.PostgreSQLPartitionWakeupChannel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validates the PostgreSQL {@code LISTEN}/{@code NOTIFY} partition wakeup channel against a real engine:
+ * a notification reaches the addressed node only, in well under the polling interval.
+ * Enable with {@code -Dcontainer.it=true}.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "container.it", matches = "true")
+class PostgreSQLPartitionWakeupIT {
+
+    @Container
+    static final PostgreSQLContainer<?> DB = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Test
+    void notificationWakesOnlyTheAddressedNode() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(DB.getJdbcUrl(), DB.getUsername(), DB.getPassword());
+        Semaphore workerWakeups = new Semaphore(0);
+        Semaphore otherWakeups = new Semaphore(0);
+        try (PostgreSQLPartitionWakeupChannel worker = new PostgreSQLPartitionWakeupChannel(dataSource);
+             PostgreSQLPartitionWakeupChannel other = new PostgreSQLPartitionWakeupChannel(dataSource);
+             PostgreSQLPartitionWakeupChannel master = new PostgreSQLPartitionWakeupChannel(dataSource)) {
+            worker.subscribe("worker-node", workerWakeups::release);
+            other.subscribe("other-node", otherWakeups::release);
+            // each listener polls once right after it (re)connects, to catch up on missed wakeups
+            assertTrue(workerWakeups.tryAcquire(10, TimeUnit.SECONDS));
+            assertTrue(otherWakeups.tryAcquire(10, TimeUnit.SECONDS));
+
+            master.notifyPartitionsAssigned(List.of("worker-node", "worker-node"));
+
+            assertTrue(workerWakeups.tryAcquire(1, TimeUnit.SECONDS), "the addressed node must be woken promptly");
+            assertFalse(otherWakeups.tryAcquire(500, TimeUnit.MILLISECONDS), "other nodes must not be woken");
+        }
+    }
+}
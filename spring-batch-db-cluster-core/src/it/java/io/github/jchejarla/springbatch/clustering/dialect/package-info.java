@@ -21,7 +21,8 @@
  * daemon. They are skipped (not failed) when Docker is unavailable.</p>
  *
  * <ul>
- *   <li>{@code mvn verify -Dcontainer.it=true} — runs the MariaDB and SQL Server checks.</li>
+ *   <li>{@code mvn verify -Dcontainer.it=true} — runs the MariaDB and SQL Server checks, and the PostgreSQL
+ *   {@code LISTEN}/{@code NOTIFY} partition wakeup check.</li>
  *   <li>{@code mvn verify -Dcontainer.it.db2=true} — additionally runs the Db2 check (large, slow image).</li>
  * </ul>
  *
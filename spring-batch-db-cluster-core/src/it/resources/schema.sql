@@ -1,20 +1,26 @@
 -- maintains cluster nodes heartbeat
 CREATE TABLE BATCH_NODES (
     NODE_ID VARCHAR(200) NOT NULL PRIMARY KEY,
+    NODE_KEY INTEGER GENERATED ALWAYS AS IDENTITY UNIQUE,
     CREATED_TIME TIMESTAMP NOT NULL,
     LAST_UPDATED_TIME TIMESTAMP NOT NULL,
-    STATUS VARCHAR(20) NOT NULL,
+    STATUS SMALLINT NOT NULL CHECK (STATUS IN (0, 1)),
     HOST_IDENTIFIER VARCHAR(200),
-    CURRENT_LOAD BIGINT NOT NULL DEFAULT 0
+    CURRENT_LOAD BIGINT NOT NULL DEFAULT 0,
+    NODE_EPOCH BIGINT NOT NULL DEFAULT 1,
+    CONCURRENCY_LIMIT INT,
+    AVAILABLE_PROCESSORS INT,
+    CAPACITY_WEIGHT DOUBLE PRECISION
 );
 
 -- Job coordination
 CREATE TABLE BATCH_JOB_COORDINATION (
     JOB_EXECUTION_ID BIGINT PRIMARY KEY,
     MASTER_NODE_ID VARCHAR(200) NOT NULL,
+    MASTER_NODE_KEY INTEGER,
     MASTER_STEP_EXECUTION_ID BIGINT NOT NULL,
     MASTER_STEP_NAME VARCHAR(100) NOT NULL,
-    STATUS VARCHAR(20) NOT NULL,
+    STATUS SMALLINT NOT NULL CHECK (STATUS IN (0, 1, 2, 3, 4, 5)),
     CREATED_TIME TIMESTAMP NOT NULL,
     LAST_UPDATED TIMESTAMP NOT NULL
 );
@@ -24,10 +30,16 @@ CREATE TABLE BATCH_PARTITIONS (
     step_execution_id BIGINT PRIMARY KEY,
     job_execution_id BIGINT NOT NULL,
     partition_key VARCHAR(100) NOT NULL,
-    assigned_node VARCHAR(100),
-    status VARCHAR(20) NOT NULL CHECK (status IN ('PENDING', 'CLAIMED', 'COMPLETED', 'FAILED')),
+    assigned_node_key INTEGER,
+    status SMALLINT NOT NULL CHECK (status IN (0, 1, 2, 3)),
     last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     master_step_execution_id BIGINT NOT NULL,
     is_transferable SMALLINT DEFAULT 0,
+    claim_epoch BIGINT,
+    partition_cost BIGINT,
+    split_from BIGINT,
+    range_end BIGINT,
+    range_position BIGINT,
+    split_requested SMALLINT DEFAULT 0,
     CHECK (is_transferable IN (0, 1))
 );
\ No newline at end of file
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.actuate;
+
+import io.github.jchejarla.springbatch.clustering.autoconfigure.conditions.ConditionalOnClusterEnabled;
+import io.github.jchejarla.springbatch.clustering.partition.JobProgressMonitor;
+import io.github.jchejarla.springbatch.clustering.polling.PartitionedWorkerNodeTasksRunner;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Publishes the current adaptive polling intervals as the {@code batch.cluster.polling.interval} gauge
+ * (milliseconds), tagged by {@code loop}:
+ * <ul>
+ *   <li>{@code worker.partition-poll} — this node's partition poll;</li>
+ *   <li>{@code master.progress-check} — the tick of the node's shared job progress monitor (0 while this
+ *   node masters no job).</li>
+ * </ul>
+ * A value sitting at its ceiling means the loop is idle and backed off. The number of jobs the progress
+ * monitor covers is published as the {@code batch.cluster.master.monitored.jobs} gauge.
+ */
+@RequiredArgsConstructor
+@ConditionalOnClusterEnabled
+public class BatchClusterPollingMetrics implements MeterBinder {
+
+    static final String INTERVAL_METRIC = "batch.cluster.polling.interval";
+    static final String MONITORED_JOBS_METRIC = "batch.cluster.master.monitored.jobs";
+
+    private final PartitionedWorkerNodeTasksRunner partitionedWorkerNodeTasksRunner;
+    private final JobProgressMonitor jobProgressMonitor;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(INTERVAL_METRIC, partitionedWorkerNodeTasksRunner, runner -> runner.getPollingInterval().current())
+                .tag("loop", "worker.partition-poll")
+                .baseUnit("milliseconds")
+                .description("Current adaptive polling interval")
+                .register(registry);
+        Gauge.builder(INTERVAL_METRIC, jobProgressMonitor, JobProgressMonitor::getCurrentCheckInterval)
+                .tag("loop", "master.progress-check")
+                .baseUnit("milliseconds")
+                .description("Current adaptive polling interval")
+                .register(registry);
+        Gauge.builder(MONITORED_JOBS_METRIC, jobProgressMonitor, JobProgressMonitor::getTrackedJobCount)
+                .description("Jobs this node is mastering and monitoring for completion")
+                .register(registry);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.actuate;
+
+import io.github.jchejarla.springbatch.clustering.autoconfigure.conditions.ConditionalOnClusterEnabled;
+import io.github.jchejarla.springbatch.clustering.mgmt.NodeLoad;
+import io.github.jchejarla.springbatch.clustering.polling.PartitionedWorkerNodeTasksRunner;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Publishes the worker's current workload as gauges:
+ * <ul>
+ *   <li>{@code batch.cluster.worker.partitions.in.progress} — partitions this node claimed and has not
+ *   finished yet;</li>
+ *   <li>{@code batch.cluster.worker.tasks.submitted} — partition tasks submitted to the step executor and
+ *   not yet pruned by the completed-tasks cleanup;</li>
+ *   <li>{@code batch.cluster.node.load} — running partition steps, the load this node reports in its
+ *   heartbeat;</li>
+ *   <li>{@code batch.cluster.worker.status.updates.rejected} — write-behind final statuses not applied, tagged
+ *   {@code reason=stale-claim} when the partition was no longer claimed by this node and
+ *   {@code reason=write-failed} when the status could not be written at all.</li>
+ * </ul>
+ * The time spent in coordination SQL is published by the service itself, as the {@code batch.cluster.db.*}
+ * meters.
+ */
+@RequiredArgsConstructor
+@ConditionalOnClusterEnabled
+public class BatchClusterWorkerMetrics implements MeterBinder {
+
+    static final String IN_PROGRESS_PARTITIONS_METRIC = "batch.cluster.worker.partitions.in.progress";
+    static final String SUBMITTED_TASKS_METRIC = "batch.cluster.worker.tasks.submitted";
+    static final String NODE_LOAD_METRIC = "batch.cluster.node.load";
+    static final String REJECTED_STATUS_UPDATES_METRIC = "batch.cluster.worker.status.updates.rejected";
+
+    private final PartitionedWorkerNodeTasksRunner partitionedWorkerNodeTasksRunner;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(IN_PROGRESS_PARTITIONS_METRIC, partitionedWorkerNodeTasksRunner, PartitionedWorkerNodeTasksRunner::getInProgressPartitionCount)
+                .description("Partitions claimed by this node and not finished yet")
+                .register(registry);
+        Gauge.builder(SUBMITTED_TASKS_METRIC, partitionedWorkerNodeTasksRunner, PartitionedWorkerNodeTasksRunner::getSubmittedTaskCount)
+                .description("Partition tasks submitted to the step executor and not yet cleaned up")
+                .register(registry);
+        Gauge.builder(NODE_LOAD_METRIC, NodeLoad.INST, NodeLoad::getCurrentLoad)
+                .description("Partition steps running on this node")
+                .register(registry);
+        FunctionCounter.builder(REJECTED_STATUS_UPDATES_METRIC, partitionedWorkerNodeTasksRunner, PartitionedWorkerNodeTasksRunner::getRejectedStatusUpdateCount)
+                .description("Buffered partition statuses not applied because the partition was no longer claimed by this node")
+                .tag("reason", "stale-claim")
+                .register(registry);
+        FunctionCounter.builder(REJECTED_STATUS_UPDATES_METRIC, partitionedWorkerNodeTasksRunner, PartitionedWorkerNodeTasksRunner::getDroppedStatusUpdateCount)
+                .description("Buffered partition statuses given up on because they could not be written")
+                .tag("reason", "write-failed")
+                .register(registry);
+    }
+}
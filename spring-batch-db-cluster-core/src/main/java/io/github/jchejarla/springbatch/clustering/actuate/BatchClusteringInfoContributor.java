@@ -53,7 +53,6 @@ public class BatchClusteringInfoContributor implements InfoContributor {
                         "Check for tasks polling interval (milli seconds)", batchClusterProperties.getTaskPollingInterval(),
                         "Master task status check interval (milli seconds)", batchClusterProperties.getMasterTaskStatusCheckInterval(),
                         "Concurrency limit per node", batchClusterProperties.getConcurrencyLimitPerNode(),
-                        "Check for orphaned tasks interval (milli seconds)", batchClusterProperties.getOrphanedTasksPollingInterval(),
                         "Node unreachable marking-thread interval (milli seconds)", batchClusterProperties.getUnreachableNodeThreadInterval(),
                         "Node cleanup-thread interval (milli seconds)", batchClusterProperties.getNodeCleanupThreadInterval()));
         }
@@ -18,6 +18,7 @@
  *
  * <p>Provides a {@code /actuator/batch-cluster} endpoint exposing nodes and their partition
  * assignments, health indicators for overall cluster and per-node liveness, and an info contributor
- * that reports the active clustering configuration.</p>
+ * that reports the active clustering configuration, and Micrometer gauges for the current adaptive
+ * polling intervals.</p>
  */
 package io.github.jchejarla.springbatch.clustering.actuate;
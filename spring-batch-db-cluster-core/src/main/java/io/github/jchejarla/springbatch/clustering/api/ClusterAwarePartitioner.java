@@ -23,6 +23,8 @@ import io.github.jchejarla.springbatch.clustering.partition.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.configuration.BatchConfigurationException;
 import org.springframework.batch.core.partition.Partitioner;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
 import org.springframework.batch.infrastructure.item.ExecutionContext;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -92,7 +94,8 @@ public abstract class ClusterAwarePartitioner implements Partitioner {
      * is determined by the number of active nodes.
      * @return  A map of partition names to {@link ExecutionContext} instances,
      * where each {@link ExecutionContext} contains information about
-     * the assigned node and whether partitions are transferable on node failure.
+     * the assigned node and whether partitions are transferable on node failure
+     * (recorded in the {@link PartitionRoutingTable} instead when one is open).
      * @throws BatchConfigurationException If no active nodes are found in the database,
      * indicating a configuration issue.
      */
@@ -115,17 +118,40 @@ public abstract class ClusterAwarePartitioner implements Partitioner {
             partitionStrategy = PartitionStrategy.builder().partitioningMode(PartitioningMode.FIXED_NODE_COUNT).fixedNodeCount(1).build();
         }
 
+        if (partitionStrategy.getPartitioningMode() == PartitioningMode.HISTORICAL_COST) {
+            applyPredictedCosts(executionContexts);
+        }
+
         log.info("Strategy for distributing the step workload {}", partitionStrategy.getPartitioningMode());
         PartitionAssignmentStrategy strategy = PartitionStrategyFactory.getStrategy(partitionStrategy);
         List<PartitionAssignment> assignments = strategy.assignPartitions(executionContexts, activeNodesOrderedByLoad);
+        boolean compactContexts = PartitionRoutingTable.isOpen();
         return assignments.stream().collect(Collectors.toMap(partitionAssignment-> String.valueOf(partitionAssignment.uniqueChunkId()), partitionAssignment-> {
             ExecutionContext executionContext = partitionAssignment.executionContext();
-            executionContext.putString(ClusterPartitioningConstants.CLUSTER_NODE_IDENTIFIER, partitionAssignment.nodeId());
+            if (compactContexts) {
+                // the routing is only stored in BATCH_PARTITIONS, not serialized with every partition's context
+                PartitionRoutingTable.put(String.valueOf(partitionAssignment.uniqueChunkId()), partitionAssignment.nodeId(), arePartitionsTransferableWhenNodeFailed());
+                return executionContext;
+            }
+            // no node id: a SHARED_QUEUE partition, claimed by whichever worker gets to it first
+            if (partitionAssignment.nodeId() != null) {
+                executionContext.putString(ClusterPartitioningConstants.CLUSTER_NODE_IDENTIFIER, partitionAssignment.nodeId());
+            }
             executionContext.put(ClusterPartitioningConstants.IS_TRANSFERABLE_IDENTIFIER, arePartitionsTransferableWhenNodeFailed());
             return executionContext;
         }));
     }
 
+    /** Attaches the costs predicted from the job's earlier runs; runs inside the partitioned (manager) step. */
+    private void applyPredictedCosts(List<ExecutionContext> executionContexts) {
+        StepContext stepContext = StepSynchronizationManager.getContext();
+        if (stepContext == null) {
+            log.warn("No step is running, so the job's runtime history is unknown: partitions are balanced by their cost hints only");
+            return;
+        }
+        new HistoricalPartitionCostModel(databaseBackedClusterService).applyPredictedCosts(stepContext.getJobName(), stepContext.getStepName(), executionContexts);
+    }
+
     /**
      * Abstract method to be implemented by subclasses to define how the input data
      * should be split into chunks for distribution across the cluster nodes.
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.api;
+
+import io.github.jchejarla.springbatch.clustering.autoconfigure.BatchClusterProperties;
+import io.github.jchejarla.springbatch.clustering.autoconfigure.conditions.ConditionalOnClusterEnabled;
+import io.github.jchejarla.springbatch.clustering.core.DatabaseBackedClusterService;
+import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNode;
+import io.github.jchejarla.springbatch.clustering.partition.ClusterPartitioningConstants;
+import io.github.jchejarla.springbatch.clustering.polling.PartitionWakeupChannel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Lets a range partition (one whose execution context holds the inclusive start and end of its range, e.g.
+ * {@code start}/{@code end} ids) be split while it runs, when {@code range-splitting-enabled} is set.
+ *
+ * <p>The partition's reader calls {@link #checkpoint} as it advances, and stops after the end it returns. At
+ * most every {@code range-checkpoint-interval} the checkpoint reports the position to the master; when the job
+ * has no pending partitions left and nodes are idle, the master asks the partitions with the most items left to
+ * split. The next checkpoint of such a partition then keeps the first half of what is left and hands the other
+ * half over as a new partition of the same job: its own step execution, with a copy of this partition's
+ * execution context and the tail as its range, saved as an unassigned {@code PENDING} partition that any node
+ * claims. Only transferable partitions are asked to split.</p>
+ *
+ * <pre>{@code
+ * public Long read() {
+ *     if (current > rangePartitionCheckpoint.checkpoint(stepExecution, "start", "end", current - 1)) {
+ *         return null;
+ *     }
+ *     return current++;
+ * }
+ * }</pre>
+ *
+ * <p>The tail's step execution, its partition and the reduced end of this partition's range are saved in one
+ * transaction, the chunk's when called from within one; if that transaction rolls back, the end in the
+ * partition's execution context is restored with it, so the rolled-back tail's items are not skipped. The tail
+ * starts from a copy of this partition's execution context, so a reader that saves its state there should save
+ * it relative to its range.</p>
+ *
+ * @author Janardhan Chejarla
+ */
+@Slf4j
+@ConditionalOnClusterEnabled
+public class RangePartitionCheckpoint {
+
+    /** Separates a split partition's step name from the start of its range in the step name of its tail. */
+    public static final String SPLIT_PARTITION_KEY_SEPARATOR = "@";
+
+    private final DatabaseBackedClusterService databaseBackedClusterService;
+    private final BatchClusterProperties batchClusterProperties;
+    private final JobRepository jobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PartitionWakeupChannel partitionWakeupChannel;
+    // Last reported checkpoint per running partition, to report at most once per interval. Weakly keyed, so a
+    // partition's entry goes with its step execution however the step ends.
+    private final Map<StepExecution, Long> lastCheckpointTimes = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public RangePartitionCheckpoint(DatabaseBackedClusterService databaseBackedClusterService,
+                                    BatchClusterProperties batchClusterProperties,
+                                    JobRepository jobRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    PartitionWakeupChannel partitionWakeupChannel) {
+        this.databaseBackedClusterService = databaseBackedClusterService;
+        this.batchClusterProperties = batchClusterProperties;
+        this.jobRepository = jobRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partitionWakeupChannel = partitionWakeupChannel;
+    }
+
+    /**
+     * Reports a range partition's progress and hands the tail of its range over when its master asked for it.
+     *
+     * @param stepExecution the partition's step execution
+     * @param startKey the execution context key of the (inclusive) start of the range
+     * @param endKey the execution context key of the (inclusive) end of the range
+     * @param position the last position processed, {@code start - 1} before the first one
+     * @return the end of the range, reduced when its tail was just handed over
+     */
+    public long checkpoint(StepExecution stepExecution, String startKey, String endKey, long position) {
+        ExecutionContext executionContext = stepExecution.getExecutionContext();
+        long end = executionContext.getLong(endKey);
+        if (!batchClusterProperties.isRangeSplittingEnabled() || position >= end || !isCheckpointDue(stepExecution)) {
+            return end;
+        }
+        boolean splitRequested;
+        try {
+            splitRequested = databaseBackedClusterService.recordRangeProgress(stepExecution.getId(), position, end);
+        } catch (Exception e) {
+            log.warn("Failed to report the range progress of partition {}", stepExecution.getStepName(), e);
+            return end;
+        }
+        if (!splitRequested) {
+            return end;
+        }
+        long remaining = end - position;
+        if (remaining < 2 * batchClusterProperties.getRangeSplitMinSize()) {
+            databaseBackedClusterService.declineRangeSplit(stepExecution.getId(), end);
+            return end;
+        }
+        long splitEnd = position + remaining / 2;
+        StepExecution tail = transactionTemplate.execute(status -> split(stepExecution, startKey, endKey, end, splitEnd));
+        log.info("Partition {} handed items {} to {} over as partition {}", stepExecution.getStepName(), splitEnd + 1, end, tail.getStepName());
+        wakeUpNodes();
+        return splitEnd;
+    }
+
+    private StepExecution split(StepExecution stepExecution, String startKey, String endKey, long end, long splitEnd) {
+        StepExecution tail = jobRepository.createStepExecution(stepExecution.getStepName() + SPLIT_PARTITION_KEY_SEPARATOR + (splitEnd + 1),
+                stepExecution.getJobExecution());
+        ExecutionContext tailContext = new ExecutionContext(stepExecution.getExecutionContext());
+        tailContext.putLong(startKey, splitEnd + 1);
+        tailContext.putLong(endKey, end);
+        // the tail is a runtime artifact: it has no runtime history or cost hint of its own
+        tailContext.remove(ClusterPartitioningConstants.PARTITION_HISTORY_KEY_IDENTIFIER);
+        tailContext.remove(ClusterPartitioningConstants.PARTITION_COST_IDENTIFIER);
+        tail.setExecutionContext(tailContext);
+        jobRepository.updateExecutionContext(tail);
+        databaseBackedClusterService.saveSplitPartition(stepExecution.getId(), splitEnd, tail.getId(), tail.getStepName());
+        stepExecution.getExecutionContext().putLong(endKey, splitEnd);
+        restoreEndOnRollback(stepExecution, endKey, end);
+        try {
+            jobRepository.updateExecutionContext(stepExecution);
+        } catch (RuntimeException e) {
+            stepExecution.getExecutionContext().putLong(endKey, end);
+            throw e;
+        }
+        return tail;
+    }
+
+    /** Puts the end of the range back if the transaction the split joined rolls back, e.g. the chunk's. */
+    private static void restoreEndOnRollback(StepExecution stepExecution, String endKey, long end) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    stepExecution.getExecutionContext().putLong(endKey, end);
+                }
+            }
+        });
+    }
+
+    private boolean isCheckpointDue(StepExecution stepExecution) {
+        long now = System.currentTimeMillis();
+        Long last = lastCheckpointTimes.get(stepExecution);
+        if (last != null && now - last < batchClusterProperties.getRangeCheckpointInterval()) {
+            return false;
+        }
+        lastCheckpointTimes.put(stepExecution, now);
+        return true;
+    }
+
+    private void wakeUpNodes() {
+        if (!partitionWakeupChannel.isEventDriven()) {
+            return;
+        }
+        try {
+            partitionWakeupChannel.notifyPartitionsAssigned(databaseBackedClusterService.getActiveNodes().stream().map(ClusterNode::nodeId).toList());
+        } catch (Exception e) {
+            log.debug("Failed to wake up nodes for a split partition; they pick it up at their next poll", e);
+        }
+    }
+}
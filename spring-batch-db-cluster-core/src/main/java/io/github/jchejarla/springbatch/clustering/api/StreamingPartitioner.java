@@ -0,0 +1,43 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.api;
+
+import io.github.jchejarla.springbatch.clustering.partition.PartitionTransferableProp;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+
+import java.util.stream.Stream;
+
+/**
+ * Defines the partitions of a job too many to hold in memory at once (think millions), as a stream that
+ * {@link StreamingStepExecutionSplitter} consumes chunk by chunk.
+ *
+ * <p>Streamed partitions are not assigned to nodes up front: they are stored unassigned, as with the
+ * {@code SHARED_QUEUE} partitioning mode, and any worker claims them. A partition may still pin itself to a
+ * node by putting its id under {@code ClusterPartitioningConstants.CLUSTER_NODE_IDENTIFIER}.</p>
+ *
+ * @author Janardhan Chejarla
+ */
+public interface StreamingPartitioner {
+
+    /**
+     * The execution contexts of the partitions, in the same order on every call: a restart streams them
+     * again and skips the ones that already completed. The stream is closed once consumed.
+     */
+    Stream<ExecutionContext> streamPartitions();
+
+    /** Whether the partitions may be re-run on another node when theirs fails; see {@link ClusterAwarePartitioner}. */
+    PartitionTransferableProp arePartitionsTransferableWhenNodeFailed();
+}
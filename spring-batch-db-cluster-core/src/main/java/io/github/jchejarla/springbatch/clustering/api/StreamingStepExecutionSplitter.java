@@ -0,0 +1,165 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.api;
+
+import io.github.jchejarla.springbatch.clustering.partition.ClusterPartitioningConstants;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionRoutingTable;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionTransferableProp;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.job.JobInstance;
+import org.springframework.batch.core.partition.StepExecutionSplitter;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A {@link StepExecutionSplitter} for jobs with too many partitions to create at once: it creates their step
+ * executions from a {@link StreamingPartitioner} chunk by chunk, so memory is bounded by the chunk size and
+ * no single transaction spans the whole job.
+ *
+ * <p>With {@code ClusterAwarePartitionHandler}, each chunk is saved to {@code BATCH_PARTITIONS} in the
+ * transaction that creates its step executions, and workers start on it while the next chunks are still
+ * being created. Each chunk also records how many partitions were streamed so far in the manager step's
+ * execution context: a restart (which restores that context) streams the partitions again, skips the ones
+ * that completed and resumes the others from their last execution context, as Spring Batch's own splitter
+ * does.</p>
+ *
+ * <pre>{@code
+ * new StepBuilder("manager", jobRepository)
+ *         .partitioner(workerStep)
+ *         .splitter(new StreamingStepExecutionSplitter("worker", jobRepository, transactionManager, partitioner))
+ *         .partitionHandler(partitionHandler)
+ *         .build();
+ * }</pre>
+ *
+ * @author Janardhan Chejarla
+ */
+@Slf4j
+public class StreamingStepExecutionSplitter implements StepExecutionSplitter {
+
+    /** Chunk size used when partitions are created all at once through {@link #split}. */
+    static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private static final String STEP_NAME_SEPARATOR = ":";
+
+    private final String stepName;
+    private final JobRepository jobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StreamingPartitioner partitioner;
+
+    public StreamingStepExecutionSplitter(String stepName, JobRepository jobRepository, PlatformTransactionManager transactionManager,
+                                          StreamingPartitioner partitioner) {
+        this.stepName = stepName;
+        this.jobRepository = jobRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partitioner = partitioner;
+    }
+
+    @Override
+    public String getStepName() {
+        return stepName;
+    }
+
+    /** Creates every partition at once, for partition handlers that do not stream. */
+    @Override
+    public Set<StepExecution> split(StepExecution managerStepExecution, int gridSize) {
+        Set<StepExecution> stepExecutions = new HashSet<>();
+        split(managerStepExecution, DEFAULT_CHUNK_SIZE, stepExecutions::addAll);
+        return stepExecutions;
+    }
+
+    /**
+     * Creates the partitions' step executions chunk by chunk. Each chunk is created, handed to
+     * {@code chunkConsumer} and recorded in the manager step's execution context in one transaction.
+     *
+     * @param managerStepExecution the manager step execution
+     * @param chunkSize most partitions per chunk
+     * @param chunkConsumer persists a chunk, joining its transaction; never called with an empty chunk
+     * @return how many step executions were created; on a restart, less the partitions that had completed
+     */
+    public long split(StepExecution managerStepExecution, int chunkSize, Consumer<List<StepExecution>> chunkConsumer) {
+        ExecutionContext managerContext = managerStepExecution.getExecutionContext();
+        boolean restart = managerContext.containsKey(ClusterPartitioningConstants.STREAMED_PARTITIONS_IDENTIFIER);
+        long streamed = 0;
+        long created = 0;
+        try (Stream<ExecutionContext> partitions = partitioner.streamPartitions()) {
+            Iterator<ExecutionContext> iterator = partitions.iterator();
+            List<ExecutionContext> chunk = new ArrayList<>(chunkSize);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize || !iterator.hasNext()) {
+                    long first = streamed;
+                    streamed += chunk.size();
+                    long chunkEnd = streamed;
+                    List<ExecutionContext> contexts = chunk;
+                    created += transactionTemplate.execute(status -> createChunk(managerStepExecution, contexts, first, chunkEnd, restart, chunkConsumer));
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        }
+        log.info("Streamed {} partition(s) of step {}, {} to run{}", streamed, stepName, created, restart ? " (restart)" : "");
+        return created;
+    }
+
+    private int createChunk(StepExecution managerStepExecution, List<ExecutionContext> contexts, long first, long chunkEnd,
+                            boolean restart, Consumer<List<StepExecution>> chunkConsumer) {
+        JobInstance jobInstance = managerStepExecution.getJobExecution().getJobInstance();
+        List<StepExecution> stepExecutions = new ArrayList<>(contexts.size());
+        for (int i = 0; i < contexts.size(); i++) {
+            String partitionStepName = stepName + STEP_NAME_SEPARATOR + (first + i);
+            ExecutionContext executionContext = contexts.get(i);
+            if (restart) {
+                StepExecution lastStepExecution = jobRepository.getLastStepExecution(jobInstance, partitionStepName);
+                if (lastStepExecution != null && lastStepExecution.getStatus() == BatchStatus.COMPLETED) {
+                    continue;
+                }
+                if (lastStepExecution != null) {
+                    executionContext = lastStepExecution.getExecutionContext();
+                }
+            }
+            if (PartitionRoutingTable.isOpen()) {
+                // the routing is only stored in BATCH_PARTITIONS, not serialized with every partition's context
+                String nodeId = (String) executionContext.remove(ClusterPartitioningConstants.CLUSTER_NODE_IDENTIFIER);
+                Object transferable = executionContext.remove(ClusterPartitioningConstants.IS_TRANSFERABLE_IDENTIFIER);
+                PartitionRoutingTable.put(String.valueOf(first + i), nodeId, transferable instanceof PartitionTransferableProp prop
+                        ? prop : partitioner.arePartitionsTransferableWhenNodeFailed());
+            } else if (!executionContext.containsKey(ClusterPartitioningConstants.IS_TRANSFERABLE_IDENTIFIER)) {
+                executionContext.put(ClusterPartitioningConstants.IS_TRANSFERABLE_IDENTIFIER, partitioner.arePartitionsTransferableWhenNodeFailed());
+            }
+            StepExecution stepExecution = jobRepository.createStepExecution(partitionStepName, managerStepExecution.getJobExecution());
+            stepExecution.setExecutionContext(executionContext);
+            jobRepository.updateExecutionContext(stepExecution);
+            stepExecutions.add(stepExecution);
+        }
+        if (!stepExecutions.isEmpty()) {
+            chunkConsumer.accept(stepExecutions);
+        }
+        managerStepExecution.getExecutionContext().putLong(ClusterPartitioningConstants.STREAMED_PARTITIONS_IDENTIFIER, chunkEnd);
+        jobRepository.updateExecutionContext(managerStepExecution);
+        return stepExecutions.size();
+    }
+}
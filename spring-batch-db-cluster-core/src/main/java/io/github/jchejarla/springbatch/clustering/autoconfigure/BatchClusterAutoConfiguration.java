@@ -16,9 +16,12 @@
 package io.github.jchejarla.springbatch.clustering.autoconfigure;
 
 import io.github.jchejarla.springbatch.clustering.actuate.BatchClusterHealthIndicator;
+import io.github.jchejarla.springbatch.clustering.api.RangePartitionCheckpoint;
 import io.github.jchejarla.springbatch.clustering.actuate.BatchClusterJobsEndpoint;
 import io.github.jchejarla.springbatch.clustering.actuate.BatchClusterNodeHealthIndicator;
 import io.github.jchejarla.springbatch.clustering.actuate.BatchClusterNodesEndpoint;
+import io.github.jchejarla.springbatch.clustering.actuate.BatchClusterPollingMetrics;
+import io.github.jchejarla.springbatch.clustering.actuate.BatchClusterWorkerMetrics;
 import io.github.jchejarla.springbatch.clustering.actuate.BatchClusteringInfoContributor;
 import io.github.jchejarla.springbatch.clustering.query.BatchClusterQueryService;
 import io.github.jchejarla.springbatch.clustering.core.DBSpecificQueryProvider;
@@ -28,17 +31,25 @@ import io.github.jchejarla.springbatch.clustering.core.serviceimpl.H2DatabaseQue
 import io.github.jchejarla.springbatch.clustering.core.serviceimpl.MySQLDatabaseQueryProvider;
 import io.github.jchejarla.springbatch.clustering.core.serviceimpl.OracleDatabaseQueryProvider;
 import io.github.jchejarla.springbatch.clustering.core.serviceimpl.PostgreSQLDatabaseQueryProvider;
+import io.github.jchejarla.springbatch.clustering.core.serviceimpl.PostgreSQLPartitionWakeupChannel;
 import io.github.jchejarla.springbatch.clustering.core.serviceimpl.SQLServerDatabaseQueryProvider;
 import io.github.jchejarla.springbatch.clustering.mgmt.ClusterJobRecoveryManager;
 import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNodeInfo;
 import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNodeManager;
 import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNodeStatusChangeConditionNotifier;
 import io.github.jchejarla.springbatch.clustering.partition.ClusterAwarePartitionHandler;
+import io.github.jchejarla.springbatch.clustering.partition.JobProgressMonitor;
+import io.github.jchejarla.springbatch.clustering.polling.AdaptivePollingInterval;
+import io.github.jchejarla.springbatch.clustering.polling.PartitionWakeupChannel;
 import io.github.jchejarla.springbatch.clustering.polling.PartitionedWorkerNodeTasksRunner;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.configuration.BatchConfigurationException;
 import org.springframework.batch.core.repository.explore.JobExplorer;
 import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
@@ -59,6 +70,7 @@ import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
@@ -70,6 +82,7 @@ import java.sql.SQLException;
 @AutoConfigureAfter({DataSourceAutoConfiguration.class, BatchAutoConfiguration.class})
 @RequiredArgsConstructor
 @EnableScheduling
+@Slf4j
 public class BatchClusterAutoConfiguration {
 
     /**
@@ -82,18 +95,69 @@ public class BatchClusterAutoConfiguration {
         return new ClusterJobRepositoryValidator(jobRepository);
     }
 
+    /**
+     * The node's coordination SQL, metered in the application's {@link MeterRegistry} when there is one
+     * (see the {@code batch.cluster.db.*} metrics).
+     */
     @Bean
     @ConditionalOnMissingBean
-    public DatabaseBackedClusterService databaseBackedClusterService(JdbcTemplate jdbcTemplate, BatchClusterProperties batchClusterProperties, DBSpecificQueryProvider dbSpecificQueryProvider) {
-        return new DatabaseBackedClusterService(jdbcTemplate, batchClusterProperties, dbSpecificQueryProvider);
+    public DatabaseBackedClusterService databaseBackedClusterService(JdbcTemplate jdbcTemplate, BatchClusterProperties batchClusterProperties,
+                                                                     DBSpecificQueryProvider dbSpecificQueryProvider, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new DatabaseBackedClusterService(jdbcTemplate, batchClusterProperties, dbSpecificQueryProvider,
+                meterRegistry.getIfAvailable(CompositeMeterRegistry::new));
     }
 
     @Bean
     @ConditionalOnMissingBean
     public ClusterAwarePartitionHandler clusterAwarePartitionHandler(
             DatabaseBackedClusterService databaseBackedClusterService,
-            BatchClusterProperties batchClusterProperties) {
-        return new ClusterAwarePartitionHandler(databaseBackedClusterService, batchClusterProperties);
+            BatchClusterProperties batchClusterProperties,
+            PartitionWakeupChannel partitionWakeupChannel,
+            @Qualifier("workerPollingInterval") AdaptivePollingInterval workerPollingInterval,
+            JobProgressMonitor jobProgressMonitor) {
+        return new ClusterAwarePartitionHandler(databaseBackedClusterService, batchClusterProperties, partitionWakeupChannel, workerPollingInterval, jobProgressMonitor);
+    }
+
+    /**
+     * Monitors every job this node is mastering with one progress query per tick, however many run
+     * concurrently.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public JobProgressMonitor jobProgressMonitor(DatabaseBackedClusterService databaseBackedClusterService,
+                                                 BatchClusterProperties batchClusterProperties,
+                                                 @Qualifier("jobProgressMonitorScheduler") TaskScheduler jobProgressMonitorScheduler) {
+        return new JobProgressMonitor(databaseBackedClusterService, batchClusterProperties, jobProgressMonitorScheduler);
+    }
+
+    /**
+     * This node's adaptive worker poll interval, shared by the worker (which backs it off while idle) and the
+     * partition handler (which snaps it back when this node launches a job).
+     */
+    @Bean(name = "workerPollingInterval")
+    public AdaptivePollingInterval workerPollingInterval(BatchClusterProperties batchClusterProperties, PartitionWakeupChannel partitionWakeupChannel) {
+        return PartitionedWorkerNodeTasksRunner.workerPollingInterval(batchClusterProperties, partitionWakeupChannel);
+    }
+
+    /**
+     * Wakes workers when partitions are assigned to them, when
+     * {@code spring.batch.cluster.event-driven-dispatch} is enabled and the database supports it
+     * (PostgreSQL); otherwise {@link PartitionWakeupChannel#NONE}, leaving workers on fixed-rate polling.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public PartitionWakeupChannel partitionWakeupChannel(DataSource dataSource,
+                                                         BatchClusterProperties batchClusterProperties,
+                                                         DBSpecificQueryProvider dbSpecificQueryProvider) {
+        if (!batchClusterProperties.isEventDrivenDispatch()) {
+            return PartitionWakeupChannel.NONE;
+        }
+        if (dbSpecificQueryProvider instanceof PostgreSQLDatabaseQueryProvider) {
+            return new PostgreSQLPartitionWakeupChannel(dataSource);
+        }
+        log.warn("'spring.batch.cluster.event-driven-dispatch' is only supported on PostgreSQL; workers keep polling every {} ms",
+                batchClusterProperties.getTaskPollingInterval());
+        return PartitionWakeupChannel.NONE;
     }
 
     @Bean
@@ -127,7 +191,9 @@ public class BatchClusterAutoConfiguration {
                                                                        @Qualifier("partitionPollingScheduler") TaskScheduler partitionPollingScheduler,
                                                                        @Qualifier("completedTasksCleanupScheduler") TaskScheduler completedTasksCleanupScheduler,
                                                                        @Qualifier("updateBatchPartitionsScheduler") TaskScheduler updateBatchPartitionsScheduler,
-                                                                       ClusterNodeInfo clusterNodeInfo) {
+                                                                       ClusterNodeInfo clusterNodeInfo,
+                                                                       PartitionWakeupChannel partitionWakeupChannel,
+                                                                       @Qualifier("workerPollingInterval") AdaptivePollingInterval workerPollingInterval) {
         return new PartitionedWorkerNodeTasksRunner(applicationContext,
                                                     jobExplorer,
                                                     jobRepository,
@@ -137,7 +203,23 @@ public class BatchClusterAutoConfiguration {
                                                     partitionPollingScheduler,
                                                     completedTasksCleanupScheduler,
                                                     updateBatchPartitionsScheduler,
-                                                    clusterNodeInfo);
+                                                    clusterNodeInfo,
+                                                    partitionWakeupChannel,
+                                                    workerPollingInterval);
+    }
+
+    /**
+     * Reports the progress of range partitions and hands their tails over when their master asks for it; see
+     * {@code range-splitting-enabled}.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RangePartitionCheckpoint rangePartitionCheckpoint(DatabaseBackedClusterService databaseBackedClusterService,
+                                                             BatchClusterProperties batchClusterProperties,
+                                                             JobRepository jobRepository,
+                                                             PlatformTransactionManager transactionManager,
+                                                             PartitionWakeupChannel partitionWakeupChannel) {
+        return new RangePartitionCheckpoint(databaseBackedClusterService, batchClusterProperties, jobRepository, transactionManager, partitionWakeupChannel);
     }
 
     @Bean
@@ -234,6 +316,15 @@ public class BatchClusterAutoConfiguration {
         return partitionPollingScheduler;
     }
 
+    @Bean(name = "jobProgressMonitorScheduler")
+    public TaskScheduler jobProgressMonitorScheduler() {
+        ThreadPoolTaskScheduler jobProgressMonitorScheduler = new ThreadPoolTaskScheduler();
+        jobProgressMonitorScheduler.setPoolSize(1);
+        jobProgressMonitorScheduler.setThreadNamePrefix("job-progress-monitor-");
+        jobProgressMonitorScheduler.initialize();
+        return jobProgressMonitorScheduler;
+    }
+
     @Bean(name = "completedTasksCleanupScheduler")
     public TaskScheduler completedTasksCleanupScheduler() {
         ThreadPoolTaskScheduler completedTasksCleanupScheduler = new ThreadPoolTaskScheduler();
@@ -285,6 +376,17 @@ public class BatchClusterAutoConfiguration {
         return new BatchClusteringInfoContributor(batchClusterProperties);
     }
 
+    @Bean
+    public BatchClusterPollingMetrics batchClusterPollingMetrics(PartitionedWorkerNodeTasksRunner partitionedWorkerNodeTasksRunner,
+                                                                 JobProgressMonitor jobProgressMonitor) {
+        return new BatchClusterPollingMetrics(partitionedWorkerNodeTasksRunner, jobProgressMonitor);
+    }
+
+    @Bean
+    public BatchClusterWorkerMetrics batchClusterWorkerMetrics(PartitionedWorkerNodeTasksRunner partitionedWorkerNodeTasksRunner) {
+        return new BatchClusterWorkerMetrics(partitionedWorkerNodeTasksRunner);
+    }
+
     @Bean
     public BatchClusterNodesEndpoint batchClusterNodesEndpoint(ClusterNodeManager clusterNodeManager) {
         return new BatchClusterNodesEndpoint(clusterNodeManager);
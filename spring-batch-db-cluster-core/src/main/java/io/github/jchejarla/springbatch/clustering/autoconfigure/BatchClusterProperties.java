@@ -88,34 +88,147 @@ public class BatchClusterProperties {
      */
     private String nodeId;
 
-    /** Maximum number of partition steps this node executes concurrently. */
+    /**
+     * Maximum number of partition steps this node executes concurrently. A poll claims at most the permits
+     * still free under this limit; further assigned partitions stay {@code PENDING} until capacity frees up.
+     */
     private int concurrencyLimitPerNode = 10;
 
+    /**
+     * Relative weight of this node's capacity, advertised in {@code BATCH_NODES} with its concurrency limit and
+     * processor count. The {@code WEIGHTED_CAPACITY} partitioning mode gives a node work in proportion to
+     * {@code min(concurrency-limit-per-node, processors) x capacity-weight} minus its load; raise it for nodes
+     * that are faster per processor, lower it for ones that should take less.
+     */
+    private double capacityWeight = 1.0;
+
     /** How often this node updates its heartbeat (and refreshes its view of the cluster). */
     private long heartbeatInterval = 3000;
 
-    /** How often the phase-1 sweep runs that marks stale nodes {@code UNREACHABLE}. */
+    /** How often the phase-1 sweep runs that marks stale nodes {@code UNREACHABLE}, on the one node elected to sweep. */
     private long unreachableNodeThreadInterval = 5000;
 
-    /** How often the phase-2 sweep runs that removes long-unreachable nodes from the registry. */
+    /** How often the phase-2 sweep runs that removes long-unreachable nodes from the registry, on the one node elected to sweep. */
     private long nodeCleanupThreadInterval = 5000;
 
     /** Heartbeat age after which a node is marked {@code UNREACHABLE} (phase 1 of failover). */
     private long unreachableNodeThreshold = 10000;
 
-    /** Heartbeat age after which an unreachable node is removed and its transferable partitions reassigned (phase 2). */
+    /**
+     * Heartbeat age after which an unreachable node is removed and, unless {@code failover-mode} is
+     * {@code ON_NODE_UNREACHABLE}, its transferable partitions reassigned (phase 2).
+     */
     private long nodeCleanupThreshold = 30000;
 
+    /**
+     * When a master moves the transferable partitions of a failed node to healthy nodes: once the node is
+     * removed ({@code ON_NODE_REMOVAL}, after {@code node-cleanup-threshold}), or as soon as it is marked
+     * {@code UNREACHABLE} ({@code ON_NODE_UNREACHABLE}, after {@code unreachable-node-threshold}), which
+     * shortens recovery from a node crash at the cost of also moving the work of nodes that are only briefly
+     * stalled. Non-transferable partitions are always failed only once their node is removed.
+     */
+    private FailoverMode failoverMode = FailoverMode.ON_NODE_REMOVAL;
+
+    /**
+     * With {@code failover-mode=ON_NODE_UNREACHABLE}: a node that comes back after being marked
+     * {@code UNREACHABLE} rejoins under a new epoch and abandons its in-progress partitions, which the cluster
+     * recovers, instead of finishing work that may already run elsewhere. That mode requires it: without
+     * fencing, such a node would keep running partitions already handed to another node, so startup fails
+     * when it is {@code false}.
+     */
+    private boolean failoverFencing = true;
+
+    /**
+     * When {@code true}, a worker with free execution permits and no claimable partitions of its own takes
+     * over transferable {@code PENDING} partitions from the node with the largest such backlog (at most half
+     * of it), so nodes that drew the slow partitions of a skewed job no longer set its makespan alone.
+     * Partitions already claimed, and non-transferable ones, never move.
+     */
+    private boolean workStealingEnabled = false;
+
+    /**
+     * When {@code true}, a master whose job has no pending partitions left asks the running range partitions
+     * with the most remaining items to hand the unprocessed half of their range over to the idle nodes. Only
+     * transferable partitions whose step reports its progress through a {@code RangePartitionCheckpoint}
+     * take part.
+     */
+    private boolean rangeSplittingEnabled = false;
+
+    /** Fewest remaining items a range split leaves on each side, so that a split always pays for its new step execution. */
+    private long rangeSplitMinSize = 1000;
+
+    /** How often a range partition reports its progress, and looks for a split request, at most. */
+    private long rangeCheckpointInterval = 5000;
+
+    /**
+     * Partitions created and saved per transaction by a {@code StreamingStepExecutionSplitter}; bounds the
+     * master's memory for jobs with millions of partitions.
+     */
+    private int partitionDistributionChunkSize = 1000;
+
+    /**
+     * When {@code true}, the node and transferability of each partition are stored only in
+     * {@code BATCH_PARTITIONS}, and no longer serialized into every partition's execution context in
+     * {@code BATCH_STEP_EXECUTION_CONTEXT}. Applies to {@code ClusterAwarePartitioner} and
+     * {@code StreamingStepExecutionSplitter} partitions.
+     */
+    private boolean compactPartitionContext = false;
+
     /** How often a worker polls {@code BATCH_PARTITIONS} for partitions assigned to it. */
     private long taskPollingInterval =1000;
 
+    /**
+     * When {@code true}, the master wakes workers the moment partitions are assigned to them instead of
+     * leaving them to find the work on their next poll. Supported on PostgreSQL ({@code LISTEN}/{@code NOTIFY},
+     * holding one pooled connection per node); ignored with a warning on other databases.
+     */
+    private boolean eventDrivenDispatch = false;
+
+    /**
+     * How often a worker still polls {@code BATCH_PARTITIONS} when event-driven dispatch is active, as a safety
+     * net for missed wakeups. Replaces {@code task-polling-interval} in that mode.
+     */
+    private long eventDrivenSafetyPollingInterval = 15000;
+
+    /**
+     * Ceiling for the adaptive backoff of the worker partition poll and the master progress check. Each loop
+     * runs at its configured interval while it sees progress, and doubles its interval (up to this ceiling)
+     * for every poll that sees none, snapping back on the next sign of work. Bounds how late idle-cluster
+     * work or a stalled job's completion can be noticed. Set it at or below the base intervals to poll at a
+     * fixed rate.
+     */
+    private long maxIdlePollingInterval = 8000;
+
+    /**
+     * When {@code true}, a worker buffers the final status ({@code COMPLETED}/{@code FAILED}) of its finished
+     * partitions and writes them as JDBC batches, every {@code status-write-behind-flush-interval} or as soon
+     * as {@code status-write-behind-max-batch-size} are waiting, instead of one transaction per partition.
+     * The master then sees a partition finish up to one flush interval later. Buffered statuses are written
+     * on shutdown and when the node loses its heartbeat.
+     */
+    private boolean statusWriteBehindEnabled = false;
+
+    /** How often a worker writes its buffered partition statuses, when {@code status-write-behind-enabled}. */
+    private long statusWriteBehindFlushInterval = 200;
+
+    /** Most partition statuses a worker writes in one batch, and the count that triggers an early write. */
+    private int statusWriteBehindMaxBatchSize = 100;
+
     /** How often a worker prunes its records of completed partition tasks. */
     private long completedTasksCleanupPollingInterval =5000;
 
-    /** How often the master scans for orphaned partitions (assigned to a lost node) to reassign. */
+    /**
+     * No longer used: orphaned partitions are now detected by the master's progress check, on the
+     * {@code master-task-status-check-interval} cadence.
+     */
+    @Deprecated(since = "3.0.0", forRemoval = true)
     private long orphanedTasksPollingInterval =1000;
 
-    /** Thread sleep time between each master-side check of overall partition completion. */
+    /**
+     * Interval between the master's progress checks. Each check is one grouped query covering every job this
+     * node is mastering, reporting each job's partition counts per status and its orphan candidates; the
+     * orphan scan runs only for jobs that have some.
+     */
     private long masterTaskStatusCheckInterval = 500;
 
     /**
@@ -124,11 +237,29 @@ public class BatchClusterProperties {
      */
     private long orphanedMasterScanInterval = 10000;
 
+    /** Checks the bound settings, then generates the node id. */
+    @PostConstruct
+    void afterBinding() {
+        validateFailover();
+        resolveNodeId();
+    }
+
+    /**
+     * Rejects failover on {@code UNREACHABLE} without fencing: the work of a node that is only stalled would be
+     * reassigned while the node goes on running it, so every such partition would execute twice.
+     */
+    void validateFailover() {
+        if (failoverMode == FailoverMode.ON_NODE_UNREACHABLE && !failoverFencing) {
+            throw new IllegalStateException("'spring.batch.cluster.failover-mode=ON_NODE_UNREACHABLE' requires " +
+                    "'spring.batch.cluster.failover-fencing=true': without fencing, a node that was only stalled keeps " +
+                    "running partitions that were already reassigned to another node.");
+        }
+    }
+
     /**
      * Generates the cluster-unique node id once, after configuration binding, as
      * {@code <node-id-prefix or host name>-<uuid>}.
      */
-    @PostConstruct
     void resolveNodeId() {
         if (StringUtils.hasText(nodeId)) {
             log.warn("'spring.batch.cluster.node-id' is deprecated and ignored; node ids are generated automatically. " +
@@ -150,4 +281,9 @@ public class BatchClusterProperties {
         HOST_NAME,
         IP_ADDRESS
     }
+
+    public enum FailoverMode {
+        ON_NODE_REMOVAL,
+        ON_NODE_UNREACHABLE
+    }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.core;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Meters of the coordination SQL run by {@link DatabaseBackedClusterService}, all tagged by
+ * {@code operation} (the service method) and {@code dialect}:
+ * <ul>
+ *   <li>{@code batch.cluster.db.operation} &ndash; timer of each call, failed calls included;</li>
+ *   <li>{@code batch.cluster.db.rows} &ndash; distribution of the rows each call inserted, updated,
+ *   deleted or returned;</li>
+ *   <li>{@code batch.cluster.db.errors} &ndash; counter of failed calls, also tagged by {@code exception}.</li>
+ * </ul>
+ * A call is timed inside its transaction, so the commit of a {@code @Transactional} method is not included.
+ *
+ * @author Janardhan Chejarla
+ */
+class CoordinationMetrics {
+
+    static final String OPERATION_METRIC = "batch.cluster.db.operation";
+    static final String ROWS_METRIC = "batch.cluster.db.rows";
+    static final String ERRORS_METRIC = "batch.cluster.db.errors";
+    /** Row count of a call whose rows the driver did not report; such calls are timed but add no rows. */
+    static final int UNKNOWN_ROWS = -1;
+
+    private final MeterRegistry meterRegistry;
+    private final String dialect;
+    private final Map<String, OperationMeters> metersByOperation = new ConcurrentHashMap<>();
+
+    CoordinationMetrics(MeterRegistry meterRegistry, String dialect) {
+        this.meterRegistry = meterRegistry;
+        this.dialect = Objects.requireNonNullElse(dialect, "unknown");
+    }
+
+    /**
+     * Runs and meters one coordination call.
+     *
+     * @param operation the service method
+     * @param call the call
+     * @param rowCount rows affected or returned by the call's result, {@link #UNKNOWN_ROWS} when the driver did
+     *                 not report them; {@code null} when that is not meaningful
+     * @return the call's result
+     */
+    <T> T record(String operation, Supplier<T> call, ToIntFunction<T> rowCount) {
+        OperationMeters meters = metersByOperation.computeIfAbsent(operation, this::newOperationMeters);
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            int rows = rowCount == null ? UNKNOWN_ROWS : rowCount.applyAsInt(result);
+            if (rows >= 0) {
+                meters.rows.record(rows);
+            }
+            return result;
+        } catch (RuntimeException e) {
+            Counter.builder(ERRORS_METRIC)
+                    .tags(meters.tags.and("exception", e.getClass().getSimpleName()))
+                    .description("Failed coordination database calls")
+                    .register(meterRegistry)
+                    .increment();
+            throw e;
+        } finally {
+            meters.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Rows reported by a JDBC batch, or {@link #UNKNOWN_ROWS} when an entry has no count
+     * ({@code SUCCESS_NO_INFO}): that statement may have changed no row or many, so any guess would skew the
+     * distribution. Callers that know the count, such as plain inserts, should report it instead.
+     */
+    static int batchRowCount(int[] rowsUpdated) {
+        if (rowsUpdated == null) {
+            return 0;
+        }
+        int rows = 0;
+        for (int count : rowsUpdated) {
+            if (count == Statement.SUCCESS_NO_INFO) {
+                return UNKNOWN_ROWS;
+            }
+            rows += Math.max(count, 0);
+        }
+        return rows;
+    }
+
+    private OperationMeters newOperationMeters(String operation) {
+        Tags tags = Tags.of("operation", operation, "dialect", dialect);
+        return new OperationMeters(tags,
+                Timer.builder(OPERATION_METRIC)
+                        .tags(tags)
+                        .description("Time spent in coordination database calls")
+                        .register(meterRegistry),
+                DistributionSummary.builder(ROWS_METRIC)
+                        .tags(tags)
+                        .baseUnit("rows")
+                        .description("Rows affected or returned by coordination database calls")
+                        .register(meterRegistry));
+    }
+
+    private record OperationMeters(Tags tags, Timer timer, DistributionSummary rows) {
+    }
+}
@@ -20,15 +20,50 @@ package io.github.jchejarla.springbatch.clustering.core;
  *
  * <p>Normal flow is {@link #CREATED} &rarr; {@link #STARTED} &rarr; {@link #COMPLETED}. Recovery of a
  * job whose master node was lost moves it {@link #STARTED} &rarr; {@link #RECOVERING} (claimed by a
- * surviving node) &rarr; {@link #ABANDONED}. The {@code name()} of each value is the exact string
- * persisted in the {@code STATUS} column; this enum is the single source of truth for these values.</p>
+ * surviving node) &rarr; {@link #ABANDONED}. A job whose streamed partitions could not all be created moves
+ * {@link #STARTED} &rarr; {@link #FAILED}. The {@link #code()} of each value is the {@code SMALLINT}
+ * persisted in the {@code STATUS} column, and must stay in sync with the {@code CHECK} constraint in the
+ * bundled schema DDL and with the literals in the coordination queries. Codes are part of the schema: a new
+ * state gets a new code, existing codes never change. This enum is the single source of truth for these
+ * values.</p>
  *
  * @author Janardhan Chejarla
  */
 public enum CoordinationStatus {
-    CREATED,
-    STARTED,
-    COMPLETED,
-    RECOVERING,
-    ABANDONED
+    CREATED(0),
+    STARTED(1),
+    COMPLETED(2),
+    RECOVERING(3),
+    ABANDONED(4),
+    FAILED(5);
+
+    private static final CoordinationStatus[] BY_CODE = values();
+
+    private final int code;
+
+    CoordinationStatus(int code) {
+        this.code = code;
+    }
+
+    /** The value stored in {@code BATCH_JOB_COORDINATION.STATUS}. */
+    public int code() {
+        return code;
+    }
+
+    /**
+     * The status stored as {@code code}.
+     *
+     * @throws IllegalArgumentException if no status has that code
+     */
+    public static CoordinationStatus fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length || BY_CODE[code].code != code) {
+            throw new IllegalArgumentException("Unknown coordination status code: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /** The code of the status named {@code name}, as the service methods taking a status name bind it. */
+    public static int codeOf(String name) {
+        return valueOf(name).code;
+    }
 }
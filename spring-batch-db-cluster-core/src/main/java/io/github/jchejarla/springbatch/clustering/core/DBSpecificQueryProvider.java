@@ -15,8 +15,37 @@
  */
 package io.github.jchejarla.springbatch.clustering.core;
 
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * The coordination SQL, with standard defaults that each dialect overrides where it differs.
+ *
+ * <p>{@code batch_partitions.status} holds {@link io.github.jchejarla.springbatch.clustering.partition.PartitionStatus}
+ * codes: the queries compare it with the literals {@code 0} ({@code PENDING}), {@code 1} ({@code CLAIMED}),
+ * {@code 2} ({@code COMPLETED}) and {@code 3} ({@code FAILED}). {@code batch_nodes.status} holds
+ * {@link io.github.jchejarla.springbatch.clustering.mgmt.NodeStatus} codes ({@code 0} {@code ACTIVE},
+ * {@code 1} {@code UNREACHABLE}) and {@code batch_job_coordination.status}
+ * {@link CoordinationStatus} codes ({@code 1} {@code STARTED}, {@code 3} {@code RECOVERING} in the
+ * queries).</p>
+ *
+ * <p>Partitions and coordination rows refer to their node by its {@code node_key}, the integer the database
+ * assigns to a node row when the node registers, rather than by its id: {@code assigned_node_key} and
+ * {@code master_node_key} keep the partition index and the claim, steal and orphan joins on a four-byte
+ * column. A key is never reused, so a node that registers again gets a new one and the partitions of its
+ * previous incarnation become orphans.</p>
+ */
 public interface DBSpecificQueryProvider {
 
+    /**
+     * Short, lower-case name of this dialect (e.g. {@code postgresql}), used to tag coordination metrics.
+     * Defaults to the provider's class name without its {@code DatabaseQueryProvider} suffix.
+     */
+    default String getDialectName() {
+        return getClass().getSimpleName().replace("DatabaseQueryProvider", "").toLowerCase(Locale.ROOT);
+    }
+
     /**
      * The database-clock "now" expression for this dialect. Every server-side timestamp write uses it, so
      * that timestamps are written with the <em>same</em> clock the heartbeat/orphan age comparisons read
@@ -33,8 +62,18 @@ public interface DBSpecificQueryProvider {
     default String getInsertQueryToRegisterNodeQuery() {
         // Timestamps use the database clock (currentDbTimestampExpression), not the node's local clock, so
         // node liveness is judged by a single clock and is immune to node<->DB clock skew.
-        return "insert into batch_nodes (node_id, created_time, last_updated_time, status, host_identifier) values (?, "
-                + currentDbTimestampExpression() + ", " + currentDbTimestampExpression() + ", ?, ?)";
+        return "insert into batch_nodes (node_id, created_time, last_updated_time, status, host_identifier, node_epoch, concurrency_limit, available_processors, capacity_weight) values (?, "
+                + currentDbTimestampExpression() + ", " + currentDbTimestampExpression() + ", ?, ?, ?, ?, ?, ?)";
+    }
+
+    /** The key the database assigned to a registered node. Binds the node id. */
+    default String getNodeKeyQuery() {
+        return "select node_key from batch_nodes where node_id = ?";
+    }
+
+    /** The key of every registered node, with its id. */
+    default String getNodeKeysQuery() {
+        return "select node_id, node_key from batch_nodes";
     }
 
     default String getUpdateNodeHeartBeatQuery() {
@@ -42,8 +81,26 @@ public interface DBSpecificQueryProvider {
         return "update batch_nodes set last_updated_time = " + currentDbTimestampExpression() + ", status = ?, current_load=? where node_id =?";
     }
 
+    /**
+     * The heartbeat of {@link #getUpdateNodeHeartBeatQuery()}, renewing only a node still {@code ACTIVE}: a node
+     * that was marked {@code UNREACHABLE} (and may have had its partitions failed over) gets no update and must
+     * rejoin with {@link #getRejoinNodeQuery()} instead of silently resuming.
+     */
+    default String getUpdateActiveNodeHeartBeatQuery() {
+        return getUpdateNodeHeartBeatQuery() + " and status = 0";
+    }
+
+    /**
+     * Brings a node marked {@code UNREACHABLE} back to {@code ACTIVE} under a new epoch, so the partitions it
+     * claimed before become recoverable and its late writes to them are fenced off. Binds the status, the new
+     * epoch, then the node id.
+     */
+    default String getRejoinNodeQuery() {
+        return "update batch_nodes set last_updated_time = " + currentDbTimestampExpression() + ", status = ?, node_epoch = ? where node_id = ? and status = 1";
+    }
+
     default String getSaveBatchJobCoordinationInfoQuery() {
-        return "insert into batch_job_coordination (job_execution_id, master_node_id, master_step_execution_id, master_step_name, status, created_time, last_updated) values (?, ?, ?, ?, ?, ?, ?)";
+        return "insert into batch_job_coordination (job_execution_id, master_node_id, master_node_key, master_step_execution_id, master_step_name, status, created_time, last_updated) values (?, ?, ?, ?, ?, ?, ?, ?)";
     }
 
     default String getUpdateBatchJobCoordinationStatusQuery() {
@@ -51,72 +108,288 @@ public interface DBSpecificQueryProvider {
     }
 
     default String getSaveBatchPartitionsQuery() {
-        return "insert into batch_partitions (step_execution_id, job_execution_id, partition_key, assigned_node, status, master_step_execution_id, is_transferable) values (?, ?, ?, ?, ?, ?, ?)";
+        return getSaveBatchPartitionsQuery(1);
+    }
+
+    /**
+     * Partitions inserted per statement by {@code saveBatchPartitions}; 1 sends one single-row insert per
+     * partition in a JDBC batch. The default keeps a statement well under the bind-parameter limits
+     * (2100 on SQL Server) while cutting the statements a large job needs a hundredfold.
+     */
+    default int getSaveBatchPartitionsRowsPerStatement() {
+        return 100;
     }
 
+    /**
+     * Inserts {@code rows} partitions in one statement, as a multi-row {@code VALUES} list. Binds the
+     * columns of {@link #getSaveBatchPartitionsQuery()} for each row in turn.
+     */
+    default String getSaveBatchPartitionsQuery(int rows) {
+        return "insert into batch_partitions (step_execution_id, job_execution_id, partition_key, assigned_node_key, status, master_step_execution_id, is_transferable, partition_cost) values " +
+                String.join(", ", Collections.nCopies(rows, "(?, ?, ?, ?, ?, ?, ?, ?)"));
+    }
+
+    /**
+     * Moves an orphaned partition to another node. Binds the new node's key, the job, master step and step
+     * execution ids, then the partition's node key and claim epoch (0 when unclaimed) as the orphan scan saw
+     * them.
+     */
     default String getUpdateBatchPartitionsToReAssignedNodesQuery() {
-        // The `status in ('PENDING','CLAIMED')` guard makes this a compare-and-set: a partition that has
+        // The `status in (PENDING, CLAIMED)` guard makes this a compare-and-set: a partition that has
         // already reached a terminal state (COMPLETED/FAILED) is never resurrected to PENDING. This closes
         // the race where a briefly-stalled node completes its partition just as the master reassigns it.
-        return "update batch_partitions set assigned_node=?, last_updated = " + currentDbTimestampExpression() + ", status = 'PENDING' where job_execution_id = ? and master_step_execution_id=? and step_execution_id = ? and status in ('PENDING', 'CLAIMED')";
+        // The assigned_node_key / claim_epoch guard only moves the partition the orphan scan saw: not one its node
+        // claimed in the meantime (e.g. right after coming back from UNREACHABLE), nor one already moved.
+        return "update batch_partitions set assigned_node_key=?, last_updated = " + currentDbTimestampExpression() + ", status = 0, claim_epoch = null where job_execution_id = ? and master_step_execution_id=? and step_execution_id = ? and status in (0, 1) " +
+                "and assigned_node_key = ? and coalesce(claim_epoch, 0) = ?";
+    }
+
+    /**
+     * Partition counts by status, plus orphan candidates (outstanding assigned partitions whose node has left the
+     * cluster and whose last transition is older than the node cleanup threshold), for {@code jobCount} jobs in
+     * one round trip: one row per job that has partitions. Binds the cleanup threshold (millis), then the
+     * {@code jobCount} master step execution ids.
+     */
+    default String getJobsProgressQuery(int jobCount) {
+        return getJobsProgressQuery(jobCount, false);
+    }
+
+    /**
+     * {@link #getJobsProgressQuery(int)}; with {@code failoverOnUnreachable}, the transferable outstanding
+     * partitions of {@code UNREACHABLE} nodes are orphan candidates too, without the grace period.
+     */
+    default String getJobsProgressQuery(int jobCount, boolean failoverOnUnreachable) {
+        return "select bp.master_step_execution_id, " +
+                "count(case when bp.status = 0 then 1 end) as pending_count, " +
+                "count(case when bp.status = 1 then 1 end) as claimed_count, " +
+                "count(case when bp.status = 2 then 1 end) as completed_count, " +
+                "count(case when bp.status = 3 then 1 end) as failed_count, " +
+                "count(case when bp.status in (0, 1) and bp.assigned_node_key is not null " +
+                "and (((bn.node_key is null or (bp.status = 1 and bp.claim_epoch < bn.node_epoch)) " +
+                "and " + getTimeStampColumnWithDiffInMillisToCurrentTime("bp.last_updated") + " >= ?)" +
+                (failoverOnUnreachable ? " or (bp.is_transferable = 1 and bn.status = 1)" : "") +
+                ") then 1 end) as orphan_count " +
+                "from batch_partitions bp left join batch_nodes bn on bn.node_key = bp.assigned_node_key " +
+                "where bp.master_step_execution_id in (" + String.join(",", Collections.nCopies(jobCount, "?")) + ") " +
+                "group by bp.master_step_execution_id";
     }
 
-    default String getPendingTasksCountQuery(){
-        return "select count(*) from batch_partitions where master_step_execution_id = ? and status in ('PENDING', 'CLAIMED')";
+    /**
+     * How the worker-side queries read a partition's status when they only look for outstanding
+     * ({@code PENDING}/{@code CLAIMED}) partitions. The bundled schema indexes only outstanding partitions by
+     * node where the database can: a partial index on PostgreSQL, a filtered one on SQL Server, so the index
+     * stays as small as the work in flight however many finished partitions pile up. Both match the plain
+     * column compared with a literal code. A dialect that indexes an expression instead returns it here, so
+     * the queries use that index.
+     */
+    default String outstandingStatusExpression(String alias) {
+        return alias + ".status";
     }
 
-    /** Count of partitions that ended in FAILED for a job, so the master can fail the step accordingly. */
-    default String getFailedTasksCountQuery(){
-        return "select count(*) from batch_partitions where master_step_execution_id = ? and status = 'FAILED'";
+    /** The assigned node key counterpart of {@link #outstandingStatusExpression(String)}. */
+    default String outstandingNodeExpression(String alias) {
+        return alias + ".assigned_node_key";
     }
 
     default String getFetchPartitionAssignedTasksQuery() {
         return "select bp.status, bp.job_execution_id, bp.partition_key, bp.step_execution_id, bp.master_step_execution_id, bp.is_transferable, bc.master_step_name " +
                 "from batch_partitions bp, batch_job_coordination bc, batch_nodes bn " +
                 "where bp.master_step_execution_id = bc.master_step_execution_id " +
-                "and bc.master_node_id = bn.node_id " +
-                "and bp.assigned_node = ? " +
-                "and bp.status = 'PENDING' " +
-                "and bc.status='STARTED'";
+                "and bc.master_node_key = bn.node_key " +
+                "and (" + outstandingNodeExpression("bp") + " = ? or " + outstandingNodeExpression("bp") + " is null) " +
+                "and " + outstandingStatusExpression("bp") + " = 0 " +
+                "and bc.status = 1";
+    }
+
+    /**
+     * Single-statement claim ({@code UPDATE ... RETURNING} / {@code OUTPUT INSERTED}): sets up to the given
+     * number of this node's runnable {@code PENDING} partitions to {@code CLAIMED} and returns the claimed
+     * rows, with the same columns as {@link #getFetchPartitionAssignedTasksQuery()}; unassigned (shared-queue)
+     * partitions are claimed too and become assigned to the node. Binds the node's epoch (stored as the rows'
+     * {@code claim_epoch}), the node's key (stored as their {@code assigned_node_key}), the key again, then the
+     * maximum number of rows to claim.
+     *
+     * <p>Empty by default: dialects without such a statement claim in two steps inside one transaction
+     * instead, selecting (and, where supported, row-locking) the candidates with
+     * {@link #getLockPartitionAssignedTasksQuery()} and then compare-and-setting each one with
+     * {@link #getClaimPartitionTaskQuery()}.</p>
+     */
+    default Optional<String> getClaimPartitionAssignedTasksQuery() {
+        return Optional.empty();
+    }
+
+    /**
+     * Selects the claim candidates for the two-step claim, binding the node's key, then the maximum number of
+     * rows to return. Defaults to the plain fetch query (no row lock) limited with the SQL-standard
+     * {@code FETCH FIRST}: the per-row compare-and-set in {@link #getClaimPartitionTaskQuery()} still
+     * guarantees a partition is claimed — and therefore started — by one poll only. Dialects with
+     * {@code SKIP LOCKED} override this so concurrent claimers skip each other's candidates instead of
+     * contending on them.
+     */
+    default String getLockPartitionAssignedTasksQuery() {
+        return getFetchPartitionAssignedTasksQuery() + " fetch first ? rows only";
+    }
+
+    /**
+     * The row limit bound to {@link #getLockPartitionAssignedTasksQuery()} when claiming up to
+     * {@code maxTasks} partitions. Defaults to {@code maxTasks}; a dialect whose limit is applied before rows
+     * locked by other claimers are skipped asks for more candidates, and the claim keeps the first
+     * {@code maxTasks} of them.
+     */
+    default int getClaimCandidateLimit(int maxTasks) {
+        return maxTasks;
+    }
+
+    /**
+     * The claim candidates read from {@code batch_partitions} alone: the coordination/master-liveness check
+     * is an {@code exists} subquery and the step name a scalar subquery. A dialect whose row-locking clause
+     * would otherwise lock every joined table appends it to this query, so only partition rows are locked —
+     * never the coordination and node rows that every worker polling the same job reads.
+     */
+    default String getSingleTablePartitionAssignedTasksQuery() {
+        return "select bp.status, bp.job_execution_id, bp.partition_key, bp.step_execution_id, bp.master_step_execution_id, bp.is_transferable, " +
+                "(select bc.master_step_name from batch_job_coordination bc where bc.master_step_execution_id = bp.master_step_execution_id) as master_step_name " +
+                "from batch_partitions bp " +
+                "where (" + outstandingNodeExpression("bp") + " = ? or " + outstandingNodeExpression("bp") + " is null) " +
+                "and " + outstandingStatusExpression("bp") + " = 0 " +
+                "and exists (select 1 from batch_job_coordination bc, batch_nodes bn " +
+                "where bc.master_step_execution_id = bp.master_step_execution_id " +
+                "and bc.master_node_key = bn.node_key " +
+                "and bc.status = 1)";
+    }
+
+    /**
+     * Work stealing: per node other than the given one, the number of transferable {@code PENDING} partitions
+     * of running jobs still waiting to be claimed there, most backlogged node first. Binds the stealing node's key.
+     */
+    default String getPartitionBacklogByNodeQuery() {
+        return "select bp.assigned_node_key, count(*) as backlog " +
+                "from batch_partitions bp " +
+                "where " + outstandingNodeExpression("bp") + " <> ? " +
+                "and " + outstandingStatusExpression("bp") + " = 0 " +
+                "and bp.is_transferable = 1 " +
+                "and exists (select 1 from batch_job_coordination bc, batch_nodes bn " +
+                "where bc.master_step_execution_id = bp.master_step_execution_id " +
+                "and bc.master_node_key = bn.node_key " +
+                "and bc.status = 1) " +
+                "group by bp.assigned_node_key " +
+                "order by count(*) desc";
+    }
+
+    /**
+     * Work stealing: a node's transferable {@code PENDING} partitions of running jobs, last ones first (a node
+     * tends to claim its lowest ids first, so stealing from the other end contends less), without a row limit.
+     * Binds the node's key.
+     */
+    default String getStealablePartitionsBaseQuery() {
+        return "select bp.step_execution_id, bp.master_step_execution_id " +
+                "from batch_partitions bp " +
+                "where " + outstandingNodeExpression("bp") + " = ? " +
+                "and " + outstandingStatusExpression("bp") + " = 0 " +
+                "and bp.is_transferable = 1 " +
+                "and exists (select 1 from batch_job_coordination bc, batch_nodes bn " +
+                "where bc.master_step_execution_id = bp.master_step_execution_id " +
+                "and bc.master_node_key = bn.node_key " +
+                "and bc.status = 1) " +
+                "order by bp.step_execution_id desc";
+    }
+
+    /**
+     * {@link #getStealablePartitionsBaseQuery()} limited with the SQL-standard {@code FETCH FIRST}. Binds the
+     * node's key, then the maximum number of rows to return.
+     */
+    default String getStealablePartitionsQuery() {
+        return getStealablePartitionsBaseQuery() + " fetch first ? rows only";
+    }
+
+    /**
+     * Compare-and-set steal of one partition: re-points it to the stealing node while it is still a
+     * transferable {@code PENDING} partition of the node it was read from, so a partition that node claimed,
+     * or another node stole, in the meantime is left alone. Binds the stealing node's key, the step and master
+     * step execution ids, then the key of the node stolen from.
+     */
+    default String getStealPartitionQuery() {
+        return "update batch_partitions set assigned_node_key = ?, last_updated = " + currentDbTimestampExpression() + " where step_execution_id = ? and master_step_execution_id = ? and assigned_node_key = ? and status = 0 and is_transferable = 1";
+    }
+
+    /**
+     * Compare-and-set claim of one candidate: {@code PENDING -> CLAIMED}, guarded by the assigned node (or its
+     * absence, for a shared-queue partition, which the claiming node then becomes assigned to), stamping the
+     * node's epoch as {@code claim_epoch}. An update count of 1 means this poll won the partition; 0 means it
+     * was claimed or reassigned meanwhile, so the worker must not start it. Binds the epoch, the node's key,
+     * the step and master step execution ids, then the key again.
+     */
+    default String getClaimPartitionTaskQuery() {
+        return "update batch_partitions set status = 1, claim_epoch = ?, assigned_node_key = ?, last_updated = " + currentDbTimestampExpression() + " where step_execution_id = ? and master_step_execution_id = ? and (assigned_node_key = ? or assigned_node_key is null) and status = 0";
+    }
+
+    /**
+     * A worker's write of a partition's final status, fenced by the epoch it claimed the partition under: it
+     * only applies while the partition is still {@code CLAIMED} by that node in that epoch, and that epoch is
+     * still the node's current one. A late write from an earlier incarnation of the node (one that has since
+     * registered or rejoined again), or for a partition that was reassigned, claimed again or finalized
+     * meanwhile, updates nothing.
+     */
+    default String getUpdateClaimedPartitionStatusQuery() {
+        return "update batch_partitions set status = ?, last_updated = " + currentDbTimestampExpression() + " where step_execution_id = ? and job_execution_id = ? and master_step_execution_id = ? and assigned_node_key = ? and claim_epoch = ? and status = 1 " +
+                "and exists (select 1 from batch_nodes bn where bn.node_key = batch_partitions.assigned_node_key and bn.node_epoch = batch_partitions.claim_epoch)";
     }
 
     default String getUpdatePartitionStatusToQuery() {
-        // Guard with `status in ('PENDING','CLAIMED')`: every legitimate worker transition (claim, complete,
+        // Guard with `status in (PENDING, CLAIMED)`: every legitimate worker transition (claim, complete,
         // fail) starts from PENDING or CLAIMED, so this never blocks a valid update but prevents a late
         // write from clobbering a row that has already reached a terminal state or been reassigned away.
-        return "update batch_partitions set status = ?, last_updated = " + currentDbTimestampExpression() + " where step_execution_id = ? and job_execution_id = ? and master_step_execution_id = ? and assigned_node = ? and status in ('PENDING', 'CLAIMED')";
+        return "update batch_partitions set status = ?, last_updated = " + currentDbTimestampExpression() + " where step_execution_id = ? and job_execution_id = ? and master_step_execution_id = ? and assigned_node_key = ? and status in (0, 1)";
     }
 
-    default String getUpdateLastUpdateTimeQuery() {
-        return "update batch_partitions set last_updated = " + currentDbTimestampExpression() + " where step_execution_id = ? and job_execution_id = ? and master_step_execution_id = ? and assigned_node = ?";
+    /**
+     * Outstanding partitions of a job whose node has left the cluster, or that were claimed by an earlier
+     * incarnation of their node (a {@code claim_epoch} below the node's current epoch: the node registered
+     * again since, so nothing is running them any more). The node's heartbeat row is the lease
+     * on all of its partitions: workers do not refresh running partitions, so {@code last_updated} is the
+     * time of the last transition (assignment, claim or reassignment) and only gives a partition that was
+     * just (re)assigned a grace period. Binds the master step execution id, then the cleanup threshold
+     * (millis).
+     */
+    default String getCheckForOrphanedTasksQuery() {
+        return getCheckForOrphanedTasksQuery(false);
     }
 
-    default String getCheckForOrphanedTasksQuery() {
-        return "select bp.job_execution_id, bp.partition_key, bp.step_execution_id, bp.master_step_execution_id, bp.is_transferable, bp.assigned_node, bc.master_step_name " +
+    /**
+     * {@link #getCheckForOrphanedTasksQuery()}; with {@code failoverOnUnreachable}, also the transferable
+     * outstanding partitions of nodes marked {@code UNREACHABLE}, without the grace period: the missed
+     * heartbeats already are the evidence. Non-transferable partitions still wait for their node to be removed.
+     */
+    default String getCheckForOrphanedTasksQuery(boolean failoverOnUnreachable) {
+        return "select bp.job_execution_id, bp.partition_key, bp.step_execution_id, bp.master_step_execution_id, bp.is_transferable, bp.assigned_node_key, bp.claim_epoch, bp.partition_cost, bc.master_step_name " +
                 "from batch_partitions bp, batch_job_coordination bc " +
                 "where bp.master_step_execution_id = bc.master_step_execution_id " +
                 "and bp.master_step_execution_id = ? " +
-                "and bp.status in ('PENDING','CLAIMED') " +
-                "and "+getTimeStampColumnWithDiffInMillisToCurrentTime("bp.last_updated")+ " >= ? "+
-                "and not exists (select 1 from batch_nodes bn where bn.node_id = bp.assigned_node)";
+                "and bp.status in (0, 1) " +
+                "and bp.assigned_node_key is not null " +
+                "and (("+getTimeStampColumnWithDiffInMillisToCurrentTime("bp.last_updated")+ " >= ? "+
+                "and (not exists (select 1 from batch_nodes bn where bn.node_key = bp.assigned_node_key) " +
+                "or (bp.status = 1 and bp.claim_epoch < (select bn.node_epoch from batch_nodes bn where bn.node_key = bp.assigned_node_key))))" +
+                (failoverOnUnreachable ? " or (bp.is_transferable = 1 and exists (select 1 from batch_nodes bn where bn.node_key = bp.assigned_node_key and bn.status = 1))" : "") +
+                ")";
     }
 
     default String getActiveNodesQuery() {
-        return "select node_id, current_load from batch_nodes where status='ACTIVE' order by current_load asc";
+        return "select node_id, current_load, concurrency_limit, available_processors, capacity_weight from batch_nodes where status = 0 order by current_load asc";
     }
 
     /**
      * Finds jobs whose current owner has left the cluster: coordination rows still in-flight
-     * ({@code STARTED}, or {@code RECOVERING} if a previous reaper died) whose {@code master_node_id} no
+     * ({@code STARTED}, or {@code RECOVERING} if a previous reaper died) whose {@code master_node_key} no
      * longer exists in {@code batch_nodes} (the owner was marked unreachable and then removed by the
      * node-cleanup phase). Including {@code RECOVERING} ensures a recovery that was itself interrupted is
      * picked up by another node rather than being stranded.
      */
     default String getOrphanedMasterJobsQuery() {
-        return "select bc.job_execution_id, bc.master_node_id, bc.master_step_execution_id, bc.master_step_name " +
+        return "select bc.job_execution_id, bc.master_node_id, bc.master_node_key, bc.master_step_execution_id, bc.master_step_name " +
                 "from batch_job_coordination bc " +
-                "where bc.status in ('STARTED', 'RECOVERING') " +
-                "and not exists (select 1 from batch_nodes bn where bn.node_id = bc.master_node_id)";
+                "where bc.status in (1, 3) " +
+                "and not exists (select 1 from batch_nodes bn where bn.node_key = bc.master_node_key)";
     }
 
     /** Read-only: lists coordinated jobs (most recent first), for the job-centric observability view. */
@@ -131,10 +404,99 @@ public interface DBSpecificQueryProvider {
                 "from batch_job_coordination where job_execution_id = ?";
     }
 
-    /** Read-only: the partitions of a job (by manager step execution id) with their placement and status. */
+    /**
+     * Read-only: the partitions of a job (by manager step execution id) with their placement and status. The
+     * node id is null once the node has left the cluster.
+     */
     default String getPartitionsByMasterStepQuery() {
-        return "select step_execution_id, partition_key, assigned_node, status " +
-                "from batch_partitions where master_step_execution_id = ?";
+        return "select bp.step_execution_id, bp.partition_key, bn.node_id as assigned_node, bp.status " +
+                "from batch_partitions bp left join batch_nodes bn on bn.node_key = bp.assigned_node_key " +
+                "where bp.master_step_execution_id = ?";
+    }
+
+    /**
+     * Records another completed run of a partition in its runtime history, if it has one: binds the node id,
+     * the wall time, read and write counts, the wall time again (averaged into the predicted cost, each run
+     * weighing half), then the job name and partition history key.
+     */
+    default String getUpdatePartitionHistoryQuery() {
+        return "update batch_partition_history set node_id = ?, duration_millis = ?, read_count = ?, write_count = ?, " +
+                "predicted_cost = (predicted_cost + ?) / 2, run_count = run_count + 1, last_updated = " + currentDbTimestampExpression() + " " +
+                "where job_name = ? and partition_key = ?";
+    }
+
+    /**
+     * Starts a partition's runtime history with its first completed run. Binds the job name, partition history
+     * key, node id, wall time, read and write counts, then the wall time again as the predicted cost.
+     */
+    default String getInsertPartitionHistoryQuery() {
+        return "insert into batch_partition_history (job_name, partition_key, node_id, duration_millis, read_count, write_count, predicted_cost, run_count, last_updated) " +
+                "values (?, ?, ?, ?, ?, ?, ?, 1, " + currentDbTimestampExpression() + ")";
+    }
+
+    /** The predicted cost of every partition of a job with runtime history. Binds the job name. */
+    default String getPredictedPartitionCostsQuery() {
+        return "select partition_key, predicted_cost from batch_partition_history where job_name = ?";
+    }
+
+    /**
+     * Reports how far a claimed range partition got: binds the last processed position, the current end of its
+     * range, then the step execution id.
+     */
+    default String getUpdateRangeProgressQuery() {
+        return "update batch_partitions set range_position = ?, range_end = ? where step_execution_id = ? and status = 1";
+    }
+
+    /** Whether the master asked a range partition to split. Binds the step execution id. */
+    default String getSplitRequestedQuery() {
+        return "select split_requested from batch_partitions where step_execution_id = ?";
+    }
+
+    /**
+     * The claimed, transferable partitions of a job that reported their range progress, with the items left in
+     * their range and whether a split was already requested. Binds the master step execution id.
+     */
+    default String getSplittableRangesQuery() {
+        return "select step_execution_id, range_end - range_position as remaining_items, split_requested from batch_partitions " +
+                "where master_step_execution_id = ? and status = 1 and is_transferable = 1 and range_position is not null";
+    }
+
+    /** Asks a still running range partition to split; binds the step execution id. */
+    default String getRequestRangeSplitQuery() {
+        return "update batch_partitions set split_requested = 1 where step_execution_id = ? and status = 1 and split_requested = 0";
+    }
+
+    /**
+     * Answers a split request: binds the (possibly reduced) end of the partition's range, then its step execution
+     * id.
+     */
+    default String getAnswerRangeSplitQuery() {
+        return "update batch_partitions set range_end = ?, split_requested = 0 where step_execution_id = ?";
+    }
+
+    /**
+     * Saves the tail split off a range partition as a new, unassigned {@code PENDING} partition of the same job,
+     * claimable by any node. Binds the tail's step execution id and partition key, then the split partition's
+     * step execution id.
+     */
+    default String getSaveSplitPartitionQuery() {
+        return "insert into batch_partitions (step_execution_id, job_execution_id, partition_key, status, master_step_execution_id, is_transferable, split_from) " +
+                "select ?, job_execution_id, ?, 0, master_step_execution_id, is_transferable, step_execution_id from batch_partitions where step_execution_id = ?";
+    }
+
+    /** The partitions split off at runtime from the partitions of a job. Binds the master step execution id. */
+    default String getSplitPartitionsQuery() {
+        return "select step_execution_id, partition_key, status from batch_partitions where master_step_execution_id = ? and split_from is not null";
+    }
+
+    /** A page of the partitions of a job: binds the master step execution id and the last step execution id of the previous page. */
+    default String getPartitionsPageQuery() {
+        return "select step_execution_id, partition_key, status from batch_partitions where master_step_execution_id = ? and step_execution_id > ? order by step_execution_id";
+    }
+
+    /** Sets a job's {@code PENDING} partitions {@code FAILED}. Binds the master step execution id. */
+    default String getFailPendingPartitionsQuery() {
+        return "update batch_partitions set status = 3, last_updated = " + currentDbTimestampExpression() + " where master_step_execution_id = ? and status = 0";
     }
 
     /** Appends a coordination phase event, timestamped with the database clock (single clock across nodes). */
@@ -144,14 +506,14 @@ public interface DBSpecificQueryProvider {
 
     /**
      * Atomically claims an orphaned coordination row for recovery: sets the transient status and takes
-     * ownership ({@code master_node_id}), guarded by the (job execution, lost owner) pair. Because the
-     * winner overwrites {@code master_node_id} with its own id, concurrent reapers see zero rows updated,
-     * so a job is claimed exactly once; and if the winner later dies, the row's owner is gone again and it
-     * is re-detected.
+     * ownership ({@code master_node_id}, {@code master_node_key}), guarded by the (job execution, lost owner's
+     * key) pair. Because the winner overwrites {@code master_node_key} with its own, concurrent reapers see
+     * zero rows updated, so a job is claimed exactly once; and if the winner later dies, the row's owner is
+     * gone again and it is re-detected.
      */
     default String getClaimOrphanedMasterJobQuery() {
-        return "update batch_job_coordination set status = ?, master_node_id = ?, last_updated = ? " +
-                "where job_execution_id = ? and master_node_id = ? and status in ('STARTED', 'RECOVERING')";
+        return "update batch_job_coordination set status = ?, master_node_id = ?, master_node_key = ?, last_updated = ? " +
+                "where job_execution_id = ? and master_node_key = ? and status in (1, 3)";
     }
 
     default String getAllNodesInClusterQuery() {
@@ -16,31 +16,84 @@
 package io.github.jchejarla.springbatch.clustering.core;
 
 import io.github.jchejarla.springbatch.clustering.autoconfigure.BatchClusterProperties;
+import io.github.jchejarla.springbatch.clustering.autoconfigure.BatchClusterProperties.FailoverMode;
 import io.github.jchejarla.springbatch.clustering.autoconfigure.BatchClusterProperties.HostIdentifier;
+import io.github.jchejarla.springbatch.clustering.mgmt.ClusterMembership;
 import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNode;
 import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNodeInfo;
 import io.github.jchejarla.springbatch.clustering.mgmt.NodeLoad;
 import io.github.jchejarla.springbatch.clustering.mgmt.OrphanedMasterJob;
 import io.github.jchejarla.springbatch.clustering.mgmt.NodeStatus;
+import io.github.jchejarla.springbatch.clustering.partition.JobProgress;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionStatus;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionSummary;
+import io.github.jchejarla.springbatch.clustering.partition.SplittableRange;
 import io.github.jchejarla.springbatch.clustering.polling.PartitionAssignmentTask;
-import lombok.RequiredArgsConstructor;
+import io.github.jchejarla.springbatch.clustering.polling.PartitionStatusUpdate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.net.InetAddress;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * All coordination SQL of a node. Every public method is metered (see {@link CoordinationMetrics}) in the
+ * {@link MeterRegistry} it was created with.
+ *
+ * @author Janardhan Chejarla
+ */
 @Slf4j
-@RequiredArgsConstructor
 public class DatabaseBackedClusterService {
 
+    private static final RowMapper<PartitionSummary> PARTITION_SUMMARY_MAPPER = (rs, rowNum) ->
+            new PartitionSummary(rs.getLong("step_execution_id"), rs.getString("partition_key"), PartitionStatus.fromCode(rs.getInt("status")));
+
     private final JdbcTemplate jdbcTemplate;
     private final BatchClusterProperties batchClusterProperties;
     private final DBSpecificQueryProvider queryProvider;
+    private final CoordinationMetrics metrics;
+    private final AtomicLong lastNodeEpoch = new AtomicLong();
+    private volatile long nodeEpoch;
+    private volatile int nodeKey;
 
+    // Keeps the progress query's IN list well below the smallest dialect limit (Oracle: 1000 expressions).
+    static final int MAX_JOBS_PER_PROGRESS_QUERY = 500;
+
+    public DatabaseBackedClusterService(JdbcTemplate jdbcTemplate, BatchClusterProperties batchClusterProperties, DBSpecificQueryProvider queryProvider) {
+        // an empty composite registry: the meters are no-ops
+        this(jdbcTemplate, batchClusterProperties, queryProvider, new CompositeMeterRegistry());
+    }
+
+    public DatabaseBackedClusterService(JdbcTemplate jdbcTemplate, BatchClusterProperties batchClusterProperties,
+                                        DBSpecificQueryProvider queryProvider, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchClusterProperties = batchClusterProperties;
+        this.queryProvider = queryProvider;
+        this.metrics = new CoordinationMetrics(meterRegistry, queryProvider.getDialectName());
+    }
+
+    /**
+     * Inserts this node's row under a new epoch: greater than any epoch this node registered with before,
+     * whether in this JVM or, as it is taken from the wall clock, in an earlier run with the same configured
+     * node id. Partitions are claimed under the current epoch, so the claims of an earlier incarnation of the
+     * node become recoverable and its late writes are fenced off. The database assigns the row a new node key,
+     * which the partitions this node claims and the jobs it masters refer to it by.
+     */
     @Transactional
     public int registerNode() {
         String hostIdentifier = null;
@@ -55,103 +108,497 @@ public class DatabaseBackedClusterService {
             log.error("Error occurred while getting host identifier", e);
         }
         // created_time / last_updated_time are set by the DB clock (CURRENT_TIMESTAMP) in the query.
-        Object[] params = new Object[]{batchClusterProperties.getNodeId(), NodeStatus.ACTIVE.name(), hostIdentifier};
-        return jdbcTemplate.update(queryProvider.getInsertQueryToRegisterNodeQuery(), params);
+        long epoch = nextNodeEpoch();
+        // the capacity the WEIGHTED_CAPACITY strategy sizes this node's share of the partitions by
+        String nodeId = batchClusterProperties.getNodeId();
+        Object[] params = new Object[]{nodeId, NodeStatus.ACTIVE.code(), hostIdentifier, epoch,
+                batchClusterProperties.getConcurrencyLimitPerNode(), Runtime.getRuntime().availableProcessors(), batchClusterProperties.getCapacityWeight()};
+        int rowsInserted = metrics.record("registerNode", () -> {
+            int rows = jdbcTemplate.update(queryProvider.getInsertQueryToRegisterNodeQuery(), params);
+            if (rows == 1) {
+                nodeKey = jdbcTemplate.queryForObject(queryProvider.getNodeKeyQuery(), Integer.class, nodeId);
+            }
+            return rows;
+        }, Integer::intValue);
+        if (rowsInserted == 1) {
+            nodeEpoch = epoch;
+        }
+        return rowsInserted;
+    }
+
+    /**
+     * Brings this node back to {@code ACTIVE} after it was marked {@code UNREACHABLE}, under a new epoch (see
+     * {@link #registerNode()}). Returns 0 when the node is not marked {@code UNREACHABLE} (e.g. it was removed
+     * meanwhile and has to register again).
+     */
+    @Transactional
+    public int rejoinCluster() {
+        long epoch = nextNodeEpoch();
+        Object[] params = new Object[]{NodeStatus.ACTIVE.code(), epoch, batchClusterProperties.getNodeId()};
+        int rowsUpdated = metrics.record("rejoinCluster", () -> jdbcTemplate.update(queryProvider.getRejoinNodeQuery(), params), Integer::intValue);
+        if (rowsUpdated == 1) {
+            nodeEpoch = epoch;
+        }
+        return rowsUpdated;
+    }
+
+    private long nextNodeEpoch() {
+        return lastNodeEpoch.updateAndGet(last -> Math.max(last + 1, System.currentTimeMillis()));
+    }
+
+    /** The epoch this node last registered with, its fencing token for the partitions it claims; 0 before it registered. */
+    public long getNodeEpoch() {
+        return nodeEpoch;
+    }
+
+    /** The key the database assigned to this node when it last registered; 0 before it registered. */
+    public int getNodeKey() {
+        return nodeKey;
     }
 
     @Transactional
     public int updateNodeHeartbeat() {
         // last_updated_time is set by the DB clock (CURRENT_TIMESTAMP) in the query.
-        Object[] params = new Object[]{NodeStatus.ACTIVE.name(), NodeLoad.INST.getCurrentLoad(), batchClusterProperties.getNodeId()};
-        return jdbcTemplate.update(queryProvider.getUpdateNodeHeartBeatQuery(), params);
+        Object[] params = new Object[]{NodeStatus.ACTIVE.code(), NodeLoad.INST.getCurrentLoad(), batchClusterProperties.getNodeId()};
+        return metrics.record("updateNodeHeartbeat", () -> jdbcTemplate.update(queryProvider.getUpdateNodeHeartBeatQuery(), params), Integer::intValue);
+    }
+
+    /**
+     * One heartbeat cycle in one transaction: renews this node's heartbeat, then reads the cluster membership,
+     * which therefore includes the renewed heartbeat. With fenced failover on {@code UNREACHABLE} (see
+     * {@code failover-fencing}), a node marked {@code UNREACHABLE} is not renewed.
+     */
+    @Transactional
+    public ClusterMembership renewHeartbeatAndGetNodes() {
+        Object[] params = new Object[]{NodeStatus.ACTIVE.code(), NodeLoad.INST.getCurrentLoad(), batchClusterProperties.getNodeId()};
+        String heartbeatQuery = isFailoverOnUnreachable() && batchClusterProperties.isFailoverFencing()
+                ? queryProvider.getUpdateActiveNodeHeartBeatQuery()
+                : queryProvider.getUpdateNodeHeartBeatQuery();
+        return metrics.record("renewHeartbeatAndGetNodes", () -> {
+            int rowsUpdated = jdbcTemplate.update(heartbeatQuery, params);
+            return new ClusterMembership(rowsUpdated == 1, queryNodesInCluster());
+        }, membership -> membership.nodes().size());
     }
 
     /** Appends a coordination phase event (for observability), timestamped with the database clock. */
     public void recordPhaseEvent(long jobExecutionId, String phase) {
-        jdbcTemplate.update(queryProvider.getRecordPhaseEventQuery(), jobExecutionId, batchClusterProperties.getNodeId(), phase);
+        metrics.record("recordPhaseEvent", () -> jdbcTemplate.update(queryProvider.getRecordPhaseEventQuery(), jobExecutionId, batchClusterProperties.getNodeId(), phase), Integer::intValue);
+    }
+
+    /**
+     * Records a completed run of a partition of a {@code HISTORICAL_COST} job in its runtime history, run by this
+     * node. Not transactional on purpose: when two nodes start the same partition's history at once, the
+     * insert that loses the race fails on the key and falls back to the update, which a failed statement would
+     * not allow inside a transaction on some databases.
+     */
+    public void recordPartitionRuntime(String jobName, String partitionKey, long durationMillis, long readCount, long writeCount) {
+        String nodeId = batchClusterProperties.getNodeId();
+        metrics.record("recordPartitionRuntime", () -> {
+            int rowsUpdated = jdbcTemplate.update(queryProvider.getUpdatePartitionHistoryQuery(), nodeId, durationMillis, readCount, writeCount, durationMillis, jobName, partitionKey);
+            if (rowsUpdated > 0) {
+                return rowsUpdated;
+            }
+            try {
+                return jdbcTemplate.update(queryProvider.getInsertPartitionHistoryQuery(), jobName, partitionKey, nodeId, durationMillis, readCount, writeCount, durationMillis);
+            } catch (DuplicateKeyException e) {
+                return jdbcTemplate.update(queryProvider.getUpdatePartitionHistoryQuery(), nodeId, durationMillis, readCount, writeCount, durationMillis, jobName, partitionKey);
+            }
+        }, Integer::intValue);
+    }
+
+    /** The predicted cost of the partitions of a job, by history key; empty before its first recorded run. */
+    public Map<String, Long> getPredictedPartitionCosts(String jobName) {
+        return metrics.record("getPredictedPartitionCosts", () -> {
+            Map<String, Long> predictedCosts = new HashMap<>();
+            jdbcTemplate.query(queryProvider.getPredictedPartitionCostsQuery(),
+                    rs -> {
+                        predictedCosts.put(rs.getString("partition_key"), rs.getLong("predicted_cost"));
+                    }, jobName);
+            return predictedCosts;
+        }, Map::size);
+    }
+
+    /**
+     * Reports how far a claimed range partition got.
+     *
+     * @return whether its master asked it to split
+     */
+    public boolean recordRangeProgress(long stepExecutionId, long position, long end) {
+        return metrics.record("recordRangeProgress", () -> {
+            jdbcTemplate.update(queryProvider.getUpdateRangeProgressQuery(), position, end, stepExecutionId);
+            List<Integer> splitRequested = jdbcTemplate.queryForList(queryProvider.getSplitRequestedQuery(), Integer.class, stepExecutionId);
+            return !splitRequested.isEmpty() && Integer.valueOf(1).equals(splitRequested.get(0));
+        }, null);
+    }
+
+    /** The claimed, transferable partitions of a job that reported their range progress. */
+    public List<SplittableRange> getSplittableRanges(long masterStepExecutionId) {
+        return metrics.record("getSplittableRanges", () -> jdbcTemplate.query(queryProvider.getSplittableRangesQuery(),
+                (rs, rowNum) -> new SplittableRange(rs.getLong("step_execution_id"), rs.getLong("remaining_items"), rs.getInt("split_requested") == 1),
+                masterStepExecutionId), List::size);
+    }
+
+    /** Asks a running range partition to split; {@code false} when it no longer runs or was already asked. */
+    @Transactional
+    public boolean requestRangeSplit(long stepExecutionId) {
+        return metrics.record("requestRangeSplit", () -> jdbcTemplate.update(queryProvider.getRequestRangeSplitQuery(), stepExecutionId), Integer::intValue) > 0;
+    }
+
+    /** Declines a split request, keeping the partition's range as is. */
+    @Transactional
+    public int declineRangeSplit(long stepExecutionId, long end) {
+        return metrics.record("declineRangeSplit", () -> jdbcTemplate.update(queryProvider.getAnswerRangeSplitQuery(), end, stepExecutionId), Integer::intValue);
+    }
+
+    /**
+     * Grants a split request: saves the tail as a new {@code PENDING} partition of the same job, claimable by any
+     * node, and ends the split partition's range where the tail starts. Joins the caller's transaction, which must
+     * also create the tail's step execution.
+     *
+     * @param stepExecutionId the split partition
+     * @param end the new end of its range
+     * @param tailStepExecutionId the tail's step execution
+     * @param tailPartitionKey the tail's step name
+     */
+    @Transactional
+    public int saveSplitPartition(long stepExecutionId, long end, long tailStepExecutionId, String tailPartitionKey) {
+        return metrics.record("saveSplitPartition", () -> {
+            int rows = jdbcTemplate.update(queryProvider.getSaveSplitPartitionQuery(), tailStepExecutionId, tailPartitionKey, stepExecutionId);
+            if (rows == 0) {
+                throw new IllegalStateException("Partition " + stepExecutionId + " to split was not found");
+            }
+            return rows + jdbcTemplate.update(queryProvider.getAnswerRangeSplitQuery(), end, stepExecutionId);
+        }, Integer::intValue);
+    }
+
+    /** The partitions split off at runtime from the partitions of a job. */
+    public List<PartitionSummary> getSplitPartitions(long masterStepExecutionId) {
+        return metrics.record("getSplitPartitions", () -> jdbcTemplate.query(queryProvider.getSplitPartitionsQuery(), PARTITION_SUMMARY_MAPPER,
+                masterStepExecutionId), List::size);
+    }
+
+    /**
+     * One page of the partitions of a job, in step execution id order.
+     *
+     * @param afterStepExecutionId the last step execution id of the previous page, 0 for the first page
+     * @param pageSize most partitions returned
+     */
+    public List<PartitionSummary> getPartitionsPage(long masterStepExecutionId, long afterStepExecutionId, int pageSize) {
+        return metrics.record("getPartitionsPage", () -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(queryProvider.getPartitionsPageQuery());
+            statement.setLong(1, masterStepExecutionId);
+            statement.setLong(2, afterStepExecutionId);
+            statement.setMaxRows(pageSize);
+            return statement;
+        }, PARTITION_SUMMARY_MAPPER), List::size);
+    }
+
+    /** Fails a job's partitions that no node claimed yet, e.g. when its partitioner failed part-way. */
+    @Transactional
+    public int failPendingPartitions(long masterStepExecutionId) {
+        return metrics.record("failPendingPartitions", () -> jdbcTemplate.update(queryProvider.getFailPendingPartitionsQuery(),
+                masterStepExecutionId), Integer::intValue);
     }
 
     @Transactional
     public int markNodesUnreachable() {
-        Object[] params = new Object[]{NodeStatus.UNREACHABLE.name(), NodeStatus.ACTIVE.name(), batchClusterProperties.getUnreachableNodeThreshold()};
-        return jdbcTemplate.update(queryProvider.getMarkNodesUnreachableQuery(), params);
+        Object[] params = new Object[]{NodeStatus.UNREACHABLE.code(), NodeStatus.ACTIVE.code(), batchClusterProperties.getUnreachableNodeThreshold()};
+        return metrics.record("markNodesUnreachable", () -> jdbcTemplate.update(queryProvider.getMarkNodesUnreachableQuery(), params), Integer::intValue);
     }
 
     @Transactional
     public int deleteNodesUnreachable() {
-        Object[] params = new Object[]{NodeStatus.UNREACHABLE.name(), batchClusterProperties.getNodeCleanupThreshold()};
-        return jdbcTemplate.update(queryProvider.getDeleteNodesUnreachableQuery(), params);
+        Object[] params = new Object[]{NodeStatus.UNREACHABLE.code(), batchClusterProperties.getNodeCleanupThreshold()};
+        return metrics.record("deleteNodesUnreachable", () -> jdbcTemplate.update(queryProvider.getDeleteNodesUnreachableQuery(), params), Integer::intValue);
     }
 
     @Transactional
     public int saveBatchJobCoordinationInfo(long jobExecutionId, long masterStepExecutionId, String masterStepName) {
-        Object[] params = new Object[]{jobExecutionId, batchClusterProperties.getNodeId(), masterStepExecutionId, masterStepName, CoordinationStatus.CREATED.name(), new Date(), new Date()};
-        return jdbcTemplate.update(queryProvider.getSaveBatchJobCoordinationInfoQuery(), params);
+        Object[] params = new Object[]{jobExecutionId, batchClusterProperties.getNodeId(), nodeKey, masterStepExecutionId, masterStepName, CoordinationStatus.CREATED.code(), new Date(), new Date()};
+        return metrics.record("saveBatchJobCoordinationInfo", () -> jdbcTemplate.update(queryProvider.getSaveBatchJobCoordinationInfoQuery(), params), Integer::intValue);
     }
 
     @Transactional
     public int updateBatchJobCoordinationStatus(long jobExecutionId, long masterStepExecutionId, String newStatus) {
-        Object[] params = new Object[]{newStatus, new Date(), jobExecutionId, masterStepExecutionId};
-        return jdbcTemplate.update(queryProvider.getUpdateBatchJobCoordinationStatusQuery(), params);
+        Object[] params = new Object[]{CoordinationStatus.codeOf(newStatus), new Date(), jobExecutionId, masterStepExecutionId};
+        return metrics.record("updateBatchJobCoordinationStatus", () -> jdbcTemplate.update(queryProvider.getUpdateBatchJobCoordinationStatusQuery(), params), Integer::intValue);
     }
 
+    /**
+     * Inserts partition rows, {@link DBSpecificQueryProvider#getSaveBatchPartitionsRowsPerStatement several per
+     * statement}: the full statements go in one JDBC batch, the remaining rows in one shorter statement. A
+     * transferable partition for a node that is no longer registered is saved unassigned, for any node to claim.
+     *
+     * @param params the rows, each binding the columns of {@link DBSpecificQueryProvider#getSaveBatchPartitionsQuery()}
+     *               with the id of the partition's node (null for an unassigned partition) in place of its key
+     * @return the rows inserted by each statement
+     * @throws IllegalStateException when a non-transferable partition's node is no longer registered
+     */
     @Transactional
     public int[] saveBatchPartitions(List<Object[]> params) {
-        return jdbcTemplate.batchUpdate(queryProvider.getSaveBatchPartitionsQuery(), params);
+        return metrics.record("saveBatchPartitions", () -> {
+            List<Object[]> rows = withNodeKeys(params, 3);
+            for (int i = 0; i < rows.size(); i++) {
+                Object[] row = params.get(i);
+                if (row[3] != null && rows.get(i)[3] == null && Integer.valueOf(0).equals(row[6])) {
+                    throw new IllegalStateException("Node " + row[3] + " of non-transferable partition " + row[2] + " is no longer registered");
+                }
+            }
+            return insertPartitions(rows);
+        }, rowsInserted -> params.size()); // every row is inserted, or the call throws
+    }
+
+    /**
+     * The rows with the node id in column {@code nodeColumn} replaced by the node's key, read in the caller's
+     * transaction; null for a node that is no longer registered.
+     */
+    private List<Object[]> withNodeKeys(List<Object[]> rows, int nodeColumn) {
+        if (rows.stream().allMatch(row -> row[nodeColumn] == null)) {
+            return rows;
+        }
+        Map<String, Integer> nodeKeys = new HashMap<>();
+        jdbcTemplate.query(queryProvider.getNodeKeysQuery(), rs -> {
+            nodeKeys.put(rs.getString("node_id"), rs.getInt("node_key"));
+        });
+        List<Object[]> keyedRows = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Object[] keyedRow = row.clone();
+            if (row[nodeColumn] != null) {
+                keyedRow[nodeColumn] = nodeKeys.get((String) row[nodeColumn]);
+            }
+            keyedRows.add(keyedRow);
+        }
+        return keyedRows;
     }
 
+    private int[] insertPartitions(List<Object[]> params) {
+        int rowsPerStatement = Math.max(1, queryProvider.getSaveBatchPartitionsRowsPerStatement());
+        if (rowsPerStatement == 1) {
+            return jdbcTemplate.batchUpdate(queryProvider.getSaveBatchPartitionsQuery(), params);
+        }
+        int remainder = params.size() % rowsPerStatement;
+        int fullStatementRows = params.size() - remainder;
+        List<Object[]> fullStatements = new ArrayList<>(fullStatementRows / rowsPerStatement);
+        for (int from = 0; from < fullStatementRows; from += rowsPerStatement) {
+            fullStatements.add(flatten(params.subList(from, from + rowsPerStatement)));
+        }
+        int[] rowsInserted = jdbcTemplate.batchUpdate(queryProvider.getSaveBatchPartitionsQuery(rowsPerStatement), fullStatements);
+        if (remainder == 0) {
+            return rowsInserted;
+        }
+        int[] withRemainder = Arrays.copyOf(rowsInserted == null ? new int[0] : rowsInserted, fullStatements.size() + 1);
+        withRemainder[fullStatements.size()] = jdbcTemplate.update(queryProvider.getSaveBatchPartitionsQuery(remainder), flatten(params.subList(fullStatementRows, params.size())));
+        return withRemainder;
+    }
+
+    private static Object[] flatten(List<Object[]> rows) {
+        return rows.stream().flatMap(Arrays::stream).toArray();
+    }
+
+    /**
+     * Moves orphaned partitions to other nodes.
+     *
+     * @param params the rows, each binding the parameters of
+     *               {@link DBSpecificQueryProvider#getUpdateBatchPartitionsToReAssignedNodesQuery()} with the id of the
+     *               new node in place of its key; a partition whose new node left meanwhile is left unassigned, for
+     *               any node to claim
+     */
     @Transactional
     public int[] updateBatchPartitionsToReAssignedNodes(List<Object[]> params) {
-        return jdbcTemplate.batchUpdate(queryProvider.getUpdateBatchPartitionsToReAssignedNodesQuery(), params);
+        return metrics.record("updateBatchPartitionsToReAssignedNodes", () -> jdbcTemplate.batchUpdate(queryProvider.getUpdateBatchPartitionsToReAssignedNodesQuery(), withNodeKeys(params, 0)), CoordinationMetrics::batchRowCount);
+    }
+
+    /**
+     * Partition counts by status and orphan-candidate counts for several jobs, with one grouped query per
+     * {@value #MAX_JOBS_PER_PROGRESS_QUERY} jobs. A job with no partition rows maps to {@link JobProgress#NONE}.
+     *
+     * @param masterStepExecutionIds the master step executions of the jobs
+     * @return each job's progress, keyed by master step execution id
+     */
+    public Map<Long, JobProgress> getJobsProgress(Collection<Long> masterStepExecutionIds) {
+        return metrics.record("getJobsProgress", () -> queryJobsProgress(masterStepExecutionIds), Map::size);
     }
 
-    public Integer getPendingTasksCount(long masterStepExecutionId) {
-        return jdbcTemplate.queryForObject(queryProvider.getPendingTasksCountQuery(), Integer.class, masterStepExecutionId);
+    private Map<Long, JobProgress> queryJobsProgress(Collection<Long> masterStepExecutionIds) {
+        Map<Long, JobProgress> progress = new HashMap<>();
+        List<Long> ids = List.copyOf(masterStepExecutionIds);
+        for (int from = 0; from < ids.size(); from += MAX_JOBS_PER_PROGRESS_QUERY) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + MAX_JOBS_PER_PROGRESS_QUERY));
+            List<Object> args = new ArrayList<>(chunk.size() + 1);
+            args.add(batchClusterProperties.getNodeCleanupThreshold());
+            args.addAll(chunk);
+            jdbcTemplate.query(queryProvider.getJobsProgressQuery(chunk.size(), isFailoverOnUnreachable()), rs -> {
+                progress.put(rs.getLong("master_step_execution_id"), new JobProgress(
+                        rs.getInt("pending_count"),
+                        rs.getInt("claimed_count"),
+                        rs.getInt("completed_count"),
+                        rs.getInt("failed_count"),
+                        rs.getInt("orphan_count")));
+            }, args.toArray());
+        }
+        ids.forEach(id -> progress.putIfAbsent(id, JobProgress.NONE));
+        return progress;
     }
 
-    /** Number of partitions that ended FAILED for this job, used by the master to fail the step. */
-    public Integer getFailedTasksCount(long masterStepExecutionId) {
-        return jdbcTemplate.queryForObject(queryProvider.getFailedTasksCountQuery(), Integer.class, masterStepExecutionId);
+    /** A single job's progress; see {@link #getJobsProgress(Collection)}. */
+    public JobProgress getJobProgress(long masterStepExecutionId) {
+        return getJobsProgress(List.of(masterStepExecutionId)).get(masterStepExecutionId);
     }
 
     /**
      * @return - assigned tasks for the current node, taking consideration of currently running job_execution_id and step_execution_id and if the master node is still healthy for the job.
      */
     public List<PartitionAssignmentTask> fetchPartitionAssignedTasks() {
-        return jdbcTemplate.query(queryProvider.getFetchPartitionAssignedTasksQuery(),
-                (rs, rowNum) -> new PartitionAssignmentTask(
-                        rs.getLong("job_execution_id"),
-                        rs.getString("partition_key"),
-                        rs.getLong("step_execution_id"),
-                        rs.getLong("master_step_execution_id"),
-                        rs.getInt("is_transferable") != 0,
-                        rs.getString("master_step_name"),
-                        batchClusterProperties.getNodeId()
-                ),
-                batchClusterProperties.getNodeId()
+        return metrics.record("fetchPartitionAssignedTasks", () -> jdbcTemplate.query(queryProvider.getFetchPartitionAssignedTasksQuery(), assignedTaskRowMapper(), nodeKey), List::size);
+    }
+
+    /**
+     * Claims up to {@code maxTasks} of this node's runnable partitions, or unassigned (shared-queue) ones, which
+     * then become this node's, and returns only the ones this call
+     * actually flipped from {@code PENDING} to {@code CLAIMED}, so a partition is never started twice (e.g.
+     * by a poll racing a master reassignment). Uses a single {@code UPDATE ... RETURNING}-style statement
+     * where the dialect supports it; otherwise selects the candidates (row-locked with {@code SKIP LOCKED}
+     * where supported) and compare-and-sets each one within this transaction, keeping the rows whose update
+     * succeeded. Partitions beyond {@code maxTasks} stay {@code PENDING}. The claimed partitions carry this
+     * node's current epoch, which fences their status writes (see {@link #updatePartitionStatuses}).
+     */
+    @Transactional
+    public List<PartitionAssignmentTask> claimPartitionAssignedTasks(int maxTasks) {
+        if (maxTasks <= 0) {
+            return List.of();
+        }
+        return metrics.record("claimPartitionAssignedTasks", () -> claim(maxTasks), List::size);
+    }
+
+    private List<PartitionAssignmentTask> claim(int maxTasks) {
+        int key = nodeKey;
+        long epoch = nodeEpoch;
+        Optional<String> singleStatementClaim = queryProvider.getClaimPartitionAssignedTasksQuery();
+        if (singleStatementClaim.isPresent()) {
+            return jdbcTemplate.query(singleStatementClaim.get(), assignedTaskRowMapper(), epoch, key, key, maxTasks)
+                    .stream().map(task -> task.withClaimEpoch(epoch)).toList();
+        }
+        List<PartitionAssignmentTask> candidates = jdbcTemplate.query(queryProvider.getLockPartitionAssignedTasksQuery(), assignedTaskRowMapper(), key, queryProvider.getClaimCandidateLimit(maxTasks));
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        if (candidates.size() > maxTasks) {
+            candidates = candidates.subList(0, maxTasks);
+        }
+        List<Object[]> rows = candidates.stream().map(candidate -> new Object[]{epoch, key, candidate.stepExecutionId(), candidate.masterStepExecutionId(), key}).toList();
+        int[] rowsUpdated = jdbcTemplate.batchUpdate(queryProvider.getClaimPartitionTaskQuery(), rows);
+        List<PartitionAssignmentTask> claimed = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            // SUCCESS_NO_INFO: some drivers don't report per-row counts for batches; the candidate was
+            // selected (and, on those dialects, row-locked) in this same transaction, so the claim held.
+            if (rowsUpdated[i] == 1 || rowsUpdated[i] == Statement.SUCCESS_NO_INFO) {
+                claimed.add(candidates.get(i).withClaimEpoch(epoch));
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Work stealing: re-points up to {@code maxTasks} transferable {@code PENDING} partitions of the most
+     * backlogged other node to this one, taking at most half of that node's backlog so the two do not
+     * trade the same partitions back and forth. Each partition moves with a compare-and-set on its node, so
+     * a partition claimed, or stolen by another node, in the meantime stays where it is. The stolen
+     * partitions are then claimed like any other assigned to this node.
+     *
+     * @return the number of partitions stolen; {@code maxTasks} when the driver did not report it, since every
+     * steal may have held (the claim that follows finds out)
+     */
+    @Transactional
+    public int stealPartitions(int maxTasks) {
+        if (maxTasks <= 0) {
+            return 0;
+        }
+        int stolen = metrics.record("stealPartitions", () -> steal(maxTasks), Integer::intValue);
+        return stolen == CoordinationMetrics.UNKNOWN_ROWS ? maxTasks : stolen;
+    }
+
+    private int steal(int maxTasks) {
+        int key = nodeKey;
+        PartitionBacklog victim = jdbcTemplate.query(queryProvider.getPartitionBacklogByNodeQuery(),
+                rs -> rs.next() ? new PartitionBacklog(rs.getInt("assigned_node_key"), rs.getInt("backlog")) : null, key);
+        if (victim == null) {
+            return 0;
+        }
+        int toSteal = Math.min(maxTasks, (victim.backlog() + 1) / 2);
+        List<Object[]> rows = jdbcTemplate.query(queryProvider.getStealablePartitionsQuery(),
+                (rs, rowNum) -> new Object[]{key, rs.getLong("step_execution_id"), rs.getLong("master_step_execution_id"), victim.nodeKey()},
+                victim.nodeKey(), toSteal);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        int stolen = CoordinationMetrics.batchRowCount(jdbcTemplate.batchUpdate(queryProvider.getStealPartitionQuery(), rows));
+        if (stolen == CoordinationMetrics.UNKNOWN_ROWS) {
+            log.info("Node {} tried to steal {} pending partition(s) from the node with key {}, which had {} waiting; the driver did not report how many it got",
+                    batchClusterProperties.getNodeId(), rows.size(), victim.nodeKey(), victim.backlog());
+        } else if (stolen > 0) {
+            log.info("Node {} stole {} pending partition(s) from the node with key {}, which had {} waiting", batchClusterProperties.getNodeId(), stolen, victim.nodeKey(), victim.backlog());
+        }
+        return stolen;
+    }
+
+    private record PartitionBacklog(int nodeKey, int backlog) {
+    }
+
+    private RowMapper<PartitionAssignmentTask> assignedTaskRowMapper() {
+        return (rs, rowNum) -> new PartitionAssignmentTask(
+                rs.getLong("job_execution_id"),
+                rs.getString("partition_key"),
+                rs.getLong("step_execution_id"),
+                rs.getLong("master_step_execution_id"),
+                rs.getInt("is_transferable") != 0,
+                rs.getString("master_step_name"),
+                nodeKey
         );
     }
 
     @Transactional
     public void updatePartitionsStatus(Collection<PartitionAssignmentTask> partitionAssignmentTasks, String status) {
-        List<Object[]> rows = partitionAssignmentTasks.stream().map(partitionAssignmentTask -> new Object[]{status, partitionAssignmentTask.stepExecutionId(), partitionAssignmentTask.jobExecutionId(), partitionAssignmentTask.masterStepExecutionId(), partitionAssignmentTask.assignedNode()}).toList();
-        jdbcTemplate.batchUpdate(queryProvider.getUpdatePartitionStatusToQuery(), rows);
+        List<Object[]> rows = partitionAssignmentTasks.stream().map(partitionAssignmentTask -> new Object[]{PartitionStatus.codeOf(status), partitionAssignmentTask.stepExecutionId(), partitionAssignmentTask.jobExecutionId(), partitionAssignmentTask.masterStepExecutionId(), partitionAssignmentTask.assignedNodeKey()}).toList();
+        metrics.record("updatePartitionsStatus", () -> jdbcTemplate.batchUpdate(queryProvider.getUpdatePartitionStatusToQuery(), rows), CoordinationMetrics::batchRowCount);
     }
 
+    /**
+     * Writes several partitions' status transitions (possibly to different statuses) as one JDBC batch in one
+     * transaction. The tasks must come from {@link #claimPartitionAssignedTasks}: each row is fenced by the
+     * epoch its partition was claimed under and only applies while the partition is still {@code CLAIMED} by
+     * its node in that epoch.
+     *
+     * @return the update count of each transition, in order: 0 when the fence rejected it (the partition
+     * was reassigned, claimed again or already final), or {@link Statement#SUCCESS_NO_INFO} when the driver
+     * does not say
+     */
     @Transactional
-    public void updatePartitionsLastUpdatedTime(Collection<PartitionAssignmentTask> partitionAssignmentTasks) {
-        List<Object[]> rows = partitionAssignmentTasks.stream().map(partitionAssignmentTask -> new Object[]{partitionAssignmentTask.stepExecutionId(), partitionAssignmentTask.jobExecutionId(), partitionAssignmentTask.masterStepExecutionId(), partitionAssignmentTask.assignedNode()}).toList();
-        jdbcTemplate.batchUpdate(queryProvider.getUpdateLastUpdateTimeQuery(), rows);
+    public int[] updatePartitionStatuses(List<PartitionStatusUpdate> updates) {
+        List<Object[]> rows = updates.stream().map(update -> new Object[]{PartitionStatus.codeOf(update.status()), update.task().stepExecutionId(), update.task().jobExecutionId(), update.task().masterStepExecutionId(), update.task().assignedNodeKey(), update.task().claimEpoch()}).toList();
+        return metrics.record("updatePartitionStatuses", () -> jdbcTemplate.batchUpdate(queryProvider.getUpdateClaimedPartitionStatusQuery(), rows), CoordinationMetrics::batchRowCount);
     }
 
+    /**
+     * Writes one partition's status; fenced by its claim epoch (see {@link #updatePartitionStatuses}) when the
+     * task was claimed by this node, otherwise guarded by its assigned node only.
+     */
     @Transactional
     public void updatePartitionStatus(PartitionAssignmentTask partitionAssignmentTask, String status) {
-        updatePartitionsStatus(List.of(partitionAssignmentTask), status);
+        if (partitionAssignmentTask.claimEpoch() != null) {
+            updatePartitionStatuses(List.of(new PartitionStatusUpdate(partitionAssignmentTask, status)));
+        } else {
+            updatePartitionsStatus(List.of(partitionAssignmentTask), status);
+        }
     }
 
 
+    /**
+     * This job's outstanding partitions whose node has left the cluster or, with
+     * {@code failover-mode=ON_NODE_UNREACHABLE}, transferable ones whose node is marked {@code UNREACHABLE}.
+     * Each carries its node and claim epoch as seen now, which guard its reassignment.
+     */
     public List<PartitionAssignmentTask> checkForOrphanedTasks(long masterStepExecutionId) {
-        return jdbcTemplate.query(queryProvider.getCheckForOrphanedTasksQuery(),
+        return metrics.record("checkForOrphanedTasks", () -> jdbcTemplate.query(queryProvider.getCheckForOrphanedTasksQuery(isFailoverOnUnreachable()),
                 (rs, rowNum) -> new PartitionAssignmentTask(
                         rs.getLong("job_execution_id"),
                         rs.getString("partition_key"),
@@ -159,9 +606,11 @@ public class DatabaseBackedClusterService {
                         rs.getLong("master_step_execution_id"),
                         rs.getBoolean("is_transferable"),
                         rs.getString("master_step_name"),
-                        rs.getString("assigned_node")
+                        rs.getInt("assigned_node_key"),
+                        rs.getObject("claim_epoch") == null ? null : rs.getLong("claim_epoch"),
+                        rs.getObject("partition_cost") == null ? null : rs.getLong("partition_cost")
                 ), masterStepExecutionId, batchClusterProperties.getNodeCleanupThreshold()
-        );
+        ), List::size);
     }
 
     /**
@@ -169,45 +618,57 @@ public class DatabaseBackedClusterService {
      * master node no longer registered). These jobs cannot make progress and are candidates for recovery.
      */
     public List<OrphanedMasterJob> findOrphanedMasterJobs() {
-        return jdbcTemplate.query(queryProvider.getOrphanedMasterJobsQuery(),
+        return metrics.record("findOrphanedMasterJobs", () -> jdbcTemplate.query(queryProvider.getOrphanedMasterJobsQuery(),
                 (rs, rowNum) -> new OrphanedMasterJob(
                         rs.getLong("job_execution_id"),
                         rs.getString("master_node_id"),
+                        rs.getInt("master_node_key"),
                         rs.getLong("master_step_execution_id"),
                         rs.getString("master_step_name")
-                ));
+                )), List::size);
     }
 
     /**
      * Atomically claims an orphaned job for recovery: transitions its coordination row to
-     * {@code recoveringStatus} and takes ownership ({@code master_node_id = thisNodeId}), guarded by the
-     * lost owner's node id. Taking ownership means that if this reaper also dies mid-recovery, the row is
+     * {@code recoveringStatus} and takes ownership ({@code master_node_id = thisNodeId}, with this node's key),
+     * guarded by the lost owner's node key. Taking ownership means that if this reaper also dies mid-recovery, the row is
      * re-detected (its owner is now gone too) and re-claimed by another node. Returns {@code true} only
      * for the single node that wins the claim, so a stranded job is reaped exactly once.
      */
     @Transactional
-    public boolean claimOrphanedMasterJob(long jobExecutionId, String lostOwnerNode, String thisNodeId, String recoveringStatus) {
-        int rowsUpdated = jdbcTemplate.update(queryProvider.getClaimOrphanedMasterJobQuery(),
-                recoveringStatus, thisNodeId, new Date(), jobExecutionId, lostOwnerNode);
+    public boolean claimOrphanedMasterJob(long jobExecutionId, int lostOwnerNodeKey, String thisNodeId, String recoveringStatus) {
+        int rowsUpdated = metrics.record("claimOrphanedMasterJob", () -> jdbcTemplate.update(queryProvider.getClaimOrphanedMasterJobQuery(),
+                CoordinationStatus.codeOf(recoveringStatus), thisNodeId, nodeKey, new Date(), jobExecutionId, lostOwnerNodeKey), Integer::intValue);
         return rowsUpdated == 1;
     }
 
     public List<ClusterNode> getActiveNodes() {
-        return jdbcTemplate.query(queryProvider.getActiveNodesQuery(),
+        return metrics.record("getActiveNodes", () -> jdbcTemplate.query(queryProvider.getActiveNodesQuery(),
                 (rs, rowNum) -> new ClusterNode(
                         rs.getString("node_id"),
-                        rs.getLong("current_load")
+                        rs.getLong("current_load"),
+                        rs.getInt("concurrency_limit"),
+                        rs.getInt("available_processors"),
+                        rs.getObject("capacity_weight") == null ? 1.0 : rs.getDouble("capacity_weight")
                 )
-        );
+        ), List::size);
     }
 
     public List<ClusterNodeInfo> getNodesInCluster() {
+        return metrics.record("getNodesInCluster", this::queryNodesInCluster, List::size);
+    }
+
+    private boolean isFailoverOnUnreachable() {
+        return batchClusterProperties.getFailoverMode() == FailoverMode.ON_NODE_UNREACHABLE;
+    }
+
+    private List<ClusterNodeInfo> queryNodesInCluster() {
         return jdbcTemplate.query(queryProvider.getAllNodesInClusterQuery(), (rs, rowNum) -> {
             String nodeId = rs.getString("node_id");
             ClusterNodeInfo clusterNodeInfo = new ClusterNodeInfo(nodeId);
             clusterNodeInfo.setStartTime(rs.getTimestamp("created_time"));
             clusterNodeInfo.setLastHeartbeatTime(rs.getTimestamp("last_updated_time"));
-            clusterNodeInfo.setNodeStatus(NodeStatus.valueOf(rs.getString("status")));
+            clusterNodeInfo.setNodeStatus(NodeStatus.fromCode(rs.getInt("status")));
             clusterNodeInfo.setHostIdentifier(rs.getString("host_identifier"));
             clusterNodeInfo.setCurrentLoad(rs.getLong("current_load"));
             return clusterNodeInfo;
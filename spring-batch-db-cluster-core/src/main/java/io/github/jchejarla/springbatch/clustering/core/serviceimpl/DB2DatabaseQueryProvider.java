@@ -37,6 +37,21 @@ public class DB2DatabaseQueryProvider implements DBSpecificQueryProvider {
         return "CURRENT TIMESTAMP";
     }
 
+    // A joined select is a read-only cursor on Db2, so lock the single-table form and skip rows another
+    // claimer holds.
+    @Override
+    public String getLockPartitionAssignedTasksQuery() {
+        return getSingleTablePartitionAssignedTasksQuery() + " fetch first ? rows only for update with rs skip locked data";
+    }
+
+    // Db2 cannot infer the type of an untyped parameter marker in a select list.
+    @Override
+    public String getSaveSplitPartitionQuery() {
+        return "insert into batch_partitions (step_execution_id, job_execution_id, partition_key, status, master_step_execution_id, is_transferable, split_from) " +
+                "select CAST(? AS BIGINT), job_execution_id, CAST(? AS VARCHAR(100)), 0, master_step_execution_id, is_transferable, step_execution_id " +
+                "from batch_partitions where step_execution_id = ?";
+    }
+
     @Override
     public String getMarkNodesUnreachableQuery() {
         return "UPDATE batch_nodes set status = ? where status = ? and " + diffInMillis("last_updated_time") + " >= ?";
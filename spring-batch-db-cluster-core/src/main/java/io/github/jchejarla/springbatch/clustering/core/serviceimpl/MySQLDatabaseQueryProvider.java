@@ -21,6 +21,19 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class MySQLDatabaseQueryProvider implements DBSpecificQueryProvider {
 
+    // MariaDB (which shares this provider) has no FOR UPDATE OF <table>, so lock the single-table form:
+    // InnoDB does not lock rows read by subqueries of a locking read, only the partition rows themselves.
+    // SKIP LOCKED needs MySQL 8.0+ / MariaDB 10.6+.
+    @Override
+    public String getLockPartitionAssignedTasksQuery() {
+        return getSingleTablePartitionAssignedTasksQuery() + " limit ? for update skip locked";
+    }
+
+    @Override
+    public String getStealablePartitionsQuery() {
+        return getStealablePartitionsBaseQuery() + " limit ?";
+    }
+
     @Override
     public String getMarkNodesUnreachableQuery() {
         return "UPDATE batch_nodes set status = ? where status = ? and (TIMESTAMPDIFF(SECOND, last_updated_time, NOW()) * 1000) >= ?";
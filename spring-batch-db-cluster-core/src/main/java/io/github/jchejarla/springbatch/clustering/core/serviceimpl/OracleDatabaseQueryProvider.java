@@ -19,6 +19,8 @@ import io.github.jchejarla.springbatch.clustering.core.DBSpecificQueryProvider;
 
 public class OracleDatabaseQueryProvider implements DBSpecificQueryProvider {
 
+    static final int CLAIM_CANDIDATES_PER_TASK = 4;
+
     // Age comparisons here use SYSTIMESTAMP (the database *server* time zone). CURRENT_TIMESTAMP on Oracle
     // is the *session* time zone (Oracle JDBC sets it from the JVM), so writes must use SYSTIMESTAMP too,
     // otherwise a node's timestamp and the comparison would differ by the JVM<->DB time-zone offset.
@@ -27,6 +29,41 @@ public class OracleDatabaseQueryProvider implements DBSpecificQueryProvider {
         return "SYSTIMESTAMP";
     }
 
+    // Oracle has no partial indexes; IDX_BATCH_PART_NODE_ACTIVE indexes these CASE expressions instead, which
+    // are null for finished partitions, so those rows stay out of it. The queries must use the same expressions.
+    @Override
+    public String outstandingStatusExpression(String alias) {
+        return "case when " + alias + ".status in (0, 1) then " + alias + ".status end";
+    }
+
+    @Override
+    public String outstandingNodeExpression(String alias) {
+        return "case when " + alias + ".status in (0, 1) then " + alias + ".assigned_node_key end";
+    }
+
+    // Lock only the partition rows (FOR UPDATE OF bp) and skip the ones another claimer holds. Oracle rejects
+    // FETCH FIRST together with FOR UPDATE, so the candidates are bounded with ROWNUM instead.
+    @Override
+    public String getLockPartitionAssignedTasksQuery() {
+        return getFetchPartitionAssignedTasksQuery() + " and rownum <= ? for update of bp.status skip locked";
+    }
+
+    // ROWNUM is applied before SKIP LOCKED, so rows other claimers hold still count against the limit and a
+    // poll would come back short, or empty, while unlocked partitions wait. Over-fetching candidates makes
+    // that unlikely at the cost of locking a few extra rows until the claim commits; the claim keeps only
+    // maxTasks of them, and the rest stay PENDING.
+    @Override
+    public int getClaimCandidateLimit(int maxTasks) {
+        return maxTasks * CLAIM_CANDIDATES_PER_TASK;
+    }
+
+    // Multi-row VALUES needs Oracle 23ai; INSERT ALL inserts several rows in one statement on every version.
+    @Override
+    public String getSaveBatchPartitionsQuery(int rows) {
+        String into = " into batch_partitions (step_execution_id, job_execution_id, partition_key, assigned_node_key, status, master_step_execution_id, is_transferable, partition_cost) values (?, ?, ?, ?, ?, ?, ?, ?)";
+        return "insert all" + into.repeat(rows) + " select 1 from dual";
+    }
+
     @Override
     public String getMarkNodesUnreachableQuery() {
         return "UPDATE batch_nodes set status = ? where status = ? and ((CAST(SYSTIMESTAMP AS DATE) - CAST(LAST_UPDATED_TIME AS DATE)) * 24 * 60 * 60 * 1000) >= ?";
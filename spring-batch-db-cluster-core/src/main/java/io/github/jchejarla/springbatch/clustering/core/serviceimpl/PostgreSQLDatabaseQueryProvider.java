@@ -17,7 +17,31 @@ package io.github.jchejarla.springbatch.clustering.core.serviceimpl;
 
 import io.github.jchejarla.springbatch.clustering.core.DBSpecificQueryProvider;
 
+import java.util.Optional;
+
 public class PostgreSQLDatabaseQueryProvider implements DBSpecificQueryProvider {
+
+    // UPDATE ... RETURNING flips and returns the claimed rows in one round trip. UPDATE has no LIMIT, so the
+    // rows are picked by a bounded sub-select that locks them with SKIP LOCKED: a row another claimer holds
+    // is skipped rather than waited on, and `bp.status = PENDING` is re-checked before the row is flipped,
+    // so a row is only ever returned to the single claimer that actually changed it.
+    @Override
+    public Optional<String> getClaimPartitionAssignedTasksQuery() {
+        return Optional.of("update batch_partitions bp set status = 1, claim_epoch = ?, assigned_node_key = ?, last_updated = " + currentDbTimestampExpression() + " " +
+                "from batch_job_coordination bc " +
+                "where bp.master_step_execution_id = bc.master_step_execution_id " +
+                "and bp.status = 0 " +
+                "and bp.step_execution_id in (" +
+                "select p.step_execution_id from batch_partitions p, batch_job_coordination c, batch_nodes n " +
+                "where p.master_step_execution_id = c.master_step_execution_id " +
+                "and c.master_node_key = n.node_key " +
+                "and (p.assigned_node_key = ? or p.assigned_node_key is null) " +
+                "and p.status = 0 " +
+                "and c.status = 1 " +
+                "limit ? for update of p skip locked) " +
+                "returning bp.job_execution_id, bp.partition_key, bp.step_execution_id, bp.master_step_execution_id, bp.is_transferable, bc.master_step_name");
+    }
+
     @Override
     public String getMarkNodesUnreachableQuery() {
         return "UPDATE batch_nodes set status = ? where status = ? and (EXTRACT(EPOCH FROM (CURRENT_TIMESTAMP - LAST_UPDATED_TIME)) * 1000) >= ?";
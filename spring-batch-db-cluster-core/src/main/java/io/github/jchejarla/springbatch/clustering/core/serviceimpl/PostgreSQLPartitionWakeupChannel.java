@@ -0,0 +1,152 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.core.serviceimpl;
+
+import io.github.jchejarla.springbatch.clustering.polling.PartitionWakeupChannel;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * {@link PartitionWakeupChannel} on PostgreSQL {@code LISTEN}/{@code NOTIFY}.
+ *
+ * <p>Each worker listens on its own channel, {@code batch_partitions_<nodeId>}, over one dedicated
+ * connection taken from the data source for the node's lifetime (size the pool accordingly). The master
+ * wakes all target nodes with a single {@code pg_notify} round trip. Notifications are delivered on
+ * commit and are not persisted, so a worker that is reconnecting can miss one; it polls once after every
+ * (re)connect, and the worker's safety-net poll covers the rest.</p>
+ *
+ * @author Janardhan Chejarla
+ */
+@Slf4j
+public class PostgreSQLPartitionWakeupChannel implements PartitionWakeupChannel {
+
+    static final String CHANNEL_PREFIX = "batch_partitions_";
+    // PostgreSQL identifiers (and so channel names) are limited to NAMEDATALEN - 1 bytes.
+    private static final int MAX_CHANNEL_NAME_BYTES = 63;
+    private static final long LISTEN_TIMEOUT_MILLIS = 5000;
+    private static final long RECONNECT_DELAY_MILLIS = 1000;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgreSQLPartitionWakeupChannel(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void notifyPartitionsAssigned(Collection<String> nodeIds) {
+        List<String> channels = nodeIds.stream().distinct().map(PostgreSQLPartitionWakeupChannel::channelName).toList();
+        if (channels.isEmpty()) {
+            return;
+        }
+        String sql = "select " + String.join(", ", Collections.nCopies(channels.size(), "pg_notify(?, '')"));
+        try {
+            jdbcTemplate.query(sql, rs -> null, channels.toArray());
+        } catch (Exception e) {
+            log.warn("Failed to notify node(s) {} of assigned partitions; they will pick them up on their next poll", nodeIds, e);
+        }
+    }
+
+    @Override
+    public synchronized void subscribe(String nodeId, Runnable onWakeup) {
+        if (running) {
+            throw new IllegalStateException("Already listening for partition wakeups");
+        }
+        running = true;
+        String channel = channelName(nodeId);
+        listenerThread = Thread.ofPlatform().daemon().name("partition-wakeup-listener").start(() -> listen(channel, onWakeup));
+        log.info("Listening for partition wakeups on channel {}", channel);
+    }
+
+    private void listen(String channel, Runnable onWakeup) {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + quoteIdentifier(channel));
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                // Anything assigned while we were not listening produced no wakeup for us: poll once now.
+                onWakeup.run();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) LISTEN_TIMEOUT_MILLIS);
+                    if (notifications != null && notifications.length > 0) {
+                        onWakeup.run();
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Partition wakeup listener on channel {} lost its connection; reconnecting in {} ms", channel, RECONNECT_DELAY_MILLIS, e);
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            listenerThread = null;
+        }
+    }
+
+    /**
+     * The channel a node listens on: {@code batch_partitions_<nodeId>}, or {@code batch_partitions_} plus a
+     * hash of the node id when that would exceed PostgreSQL's 63-byte identifier limit (generated node ids
+     * embed the host name and a UUID, so long host names can overflow).
+     */
+    static String channelName(String nodeId) {
+        String channel = CHANNEL_PREFIX + nodeId;
+        if (channel.getBytes(StandardCharsets.UTF_8).length <= MAX_CHANNEL_NAME_BYTES) {
+            return channel;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(nodeId.getBytes(StandardCharsets.UTF_8));
+            return CHANNEL_PREFIX + HexFormat.of().formatHex(digest, 0, 20);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String quoteIdentifier(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+}
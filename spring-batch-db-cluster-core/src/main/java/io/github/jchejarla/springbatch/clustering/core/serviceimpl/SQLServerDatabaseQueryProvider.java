@@ -17,6 +17,8 @@ package io.github.jchejarla.springbatch.clustering.core.serviceimpl;
 
 import io.github.jchejarla.springbatch.clustering.core.DBSpecificQueryProvider;
 
+import java.util.Optional;
+
 /**
  * Query provider for Microsoft SQL Server.
  *
@@ -36,6 +38,32 @@ public class SQLServerDatabaseQueryProvider implements DBSpecificQueryProvider {
         return "SYSDATETIME()";
     }
 
+    // UPDATE ... OUTPUT INSERTED flips and returns the claimed rows in one round trip. The rows are picked by a
+    // bounded sub-select (OFFSET/FETCH rather than UPDATE TOP, so the node key binds before the row limit as
+    // on every other dialect) whose READPAST skips rows another session has locked instead of waiting on
+    // them; UPDLOCK/ROWLOCK keep the lock footprint to the partition rows being claimed.
+    @Override
+    public Optional<String> getClaimPartitionAssignedTasksQuery() {
+        return Optional.of("update bp set bp.status = 1, bp.claim_epoch = ?, bp.assigned_node_key = ?, bp.last_updated = " + currentDbTimestampExpression() + " " +
+                "output inserted.job_execution_id, inserted.partition_key, inserted.step_execution_id, inserted.master_step_execution_id, inserted.is_transferable, bc.master_step_name " +
+                "from batch_partitions bp " +
+                "join batch_job_coordination bc on bp.master_step_execution_id = bc.master_step_execution_id " +
+                "where bp.status = 0 " +
+                "and bp.step_execution_id in (" +
+                "select p.step_execution_id from batch_partitions p with (rowlock, updlock, readpast) " +
+                "join batch_job_coordination c on p.master_step_execution_id = c.master_step_execution_id " +
+                "join batch_nodes n on c.master_node_key = n.node_key " +
+                "where (p.assigned_node_key = ? or p.assigned_node_key is null) " +
+                "and p.status = 0 " +
+                "and c.status = 1 " +
+                "order by p.step_execution_id offset 0 rows fetch next ? rows only)");
+    }
+
+    @Override
+    public String getStealablePartitionsQuery() {
+        return getStealablePartitionsBaseQuery() + " offset 0 rows fetch next ? rows only";
+    }
+
     @Override
     public String getMarkNodesUnreachableQuery() {
         return "UPDATE batch_nodes set status = ? where status = ? and DATEDIFF_BIG(MILLISECOND, last_updated_time, SYSDATETIME()) >= ?";
@@ -17,7 +17,9 @@
  * Per-database {@code DBSpecificQueryProvider} implementations.
  *
  * <p>Supports PostgreSQL, MySQL/MariaDB, Oracle, SQL Server, Db2, and H2. Only dialect-specific SQL
- * lives here — chiefly the heartbeat-age timestamp arithmetic and the unreachable-node sweeps; the
- * remaining queries are shared standard SQL defined on the provider interface.</p>
+ * lives here — chiefly the heartbeat-age timestamp arithmetic, the unreachable-node sweeps and the
+ * worker's partition claim ({@code RETURNING} / {@code OUTPUT} / {@code SKIP LOCKED}); the remaining
+ * queries are shared standard SQL defined on the provider interface. Also holds the PostgreSQL
+ * {@code LISTEN}/{@code NOTIFY} {@code PartitionWakeupChannel}.</p>
  */
 package io.github.jchejarla.springbatch.clustering.core.serviceimpl;
@@ -91,7 +91,7 @@ public class ClusterJobRecoveryManager {
             List<OrphanedMasterJob> orphanedJobs = databaseBackedClusterService.findOrphanedMasterJobs();
             for (OrphanedMasterJob orphanedJob : orphanedJobs) {
                 boolean claimed = databaseBackedClusterService.claimOrphanedMasterJob(
-                        orphanedJob.jobExecutionId(), orphanedJob.masterNodeId(),
+                        orphanedJob.jobExecutionId(), orphanedJob.masterNodeKey(),
                         batchClusterProperties.getNodeId(), CoordinationStatus.RECOVERING.name());
                 if (!claimed) {
                     // Another surviving node won the claim and is handling this job.
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.mgmt;
+
+import java.util.List;
+
+/**
+ * The outcome of one heartbeat cycle: whether this node's heartbeat was renewed, and the cluster membership
+ * read in the same transaction.
+ *
+ * @param renewed {@code false} when this node's row is gone from {@code BATCH_NODES} (it was removed as
+ *                unreachable), so the node has to register again
+ * @param nodes   every node in {@code BATCH_NODES}, with heartbeat times from the database clock
+ * @author Janardhan Chejarla
+ */
+public record ClusterMembership(boolean renewed, List<ClusterNodeInfo> nodes) {
+}
@@ -15,4 +15,33 @@
  */
 package io.github.jchejarla.springbatch.clustering.mgmt;
 
-public record ClusterNode(String nodeId, long currentLoad) {}
+/**
+ * An active node as seen by the partition assignment strategies: its live load and the capacity it
+ * advertised when it registered.
+ *
+ * @param nodeId              the node id
+ * @param currentLoad         partition steps the node is running
+ * @param concurrencyLimit    the node's {@code concurrency-limit-per-node}; 0 when not advertised
+ * @param availableProcessors processors available to the node's JVM; 0 when not advertised
+ * @param capacityWeight      the node's {@code capacity-weight}
+ */
+public record ClusterNode(String nodeId, long currentLoad, int concurrencyLimit, int availableProcessors, double capacityWeight) {
+
+    /** A node that advertised no capacity. */
+    public ClusterNode(String nodeId, long currentLoad) {
+        this(nodeId, currentLoad, 0, 0, 1.0);
+    }
+
+    /**
+     * The partition steps the node can usefully run at once: its concurrency limit, capped by its processors,
+     * scaled by its capacity weight. 0 when the node advertised no concurrency limit (e.g. registered by an
+     * earlier version).
+     */
+    public double capacity() {
+        if (concurrencyLimit <= 0) {
+            return 0;
+        }
+        int slots = availableProcessors > 0 ? Math.min(concurrencyLimit, availableProcessors) : concurrencyLimit;
+        return slots * capacityWeight;
+    }
+}
@@ -27,10 +27,21 @@ import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.TaskScheduler;
 
 import java.time.Duration;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * Keeps this node registered and the cluster membership current. Every {@code heartbeat-interval}, one
+ * transaction renews this node's heartbeat and reads the membership snapshot. The two cleanup sweeps (mark
+ * stale nodes {@code UNREACHABLE}, then remove them) are cluster-wide, so only the node elected from that
+ * snapshot runs them (see {@link #isElectedSweeper()}), instead of every node sweeping the same rows.
+ *
+ * @author Janardhan Chejarla
+ */
 @Slf4j
 @RequiredArgsConstructor
 @ConditionalOnClusterEnabled
@@ -57,7 +68,6 @@ public class ClusterNodeManager {
         clusterNodeInfo.setNodeStatus(NodeStatus.ACTIVE);
         log.info("Application registered the node with id {}, and it took {} milli seconds", batchClusterProperties.getNodeId(), (System.currentTimeMillis() - start));
         clusterMonitoringScheduler.scheduleAtFixedRate(this::updateHeartbeat, Duration.ofMillis(batchClusterProperties.getHeartbeatInterval()));
-        clusterMonitoringScheduler.scheduleAtFixedRate(this::updateCurrentActiveNodes, Duration.ofMillis(batchClusterProperties.getHeartbeatInterval()));
         clusterMonitoringScheduler.scheduleAtFixedRate(this::markNodesUnreachable, Duration.ofMillis(batchClusterProperties.getUnreachableNodeThreadInterval()));
         clusterMonitoringScheduler.scheduleAtFixedRate(this::removeNodesUnreachable, Duration.ofMillis(batchClusterProperties.getNodeCleanupThreadInterval()));
     }
@@ -65,10 +75,15 @@ public class ClusterNodeManager {
     protected void updateHeartbeat() {
         try {
             long start = System.currentTimeMillis();
-            int rowsUpdated = databaseBackedClusterService.updateNodeHeartbeat();
-            if (rowsUpdated == 0) {
+            ClusterMembership membership = databaseBackedClusterService.renewHeartbeatAndGetNodes();
+            currentNodes.clear();
+            currentNodes.addAll(membership.nodes());
+            if (!membership.renewed() && rejoinCluster()) {
+                clusterNodeInfo.setNodeStatus(NodeStatus.ACTIVE);
+                clusterNodeInfo.setLastHeartbeatTime(new Date());
+            } else if (!membership.renewed()) {
                 log.error("Application failed to update the heartbeat for node id {}, trying to one more time ", batchClusterProperties.getNodeId());
-                 rowsUpdated = databaseBackedClusterService.registerNode();
+                 int rowsUpdated = databaseBackedClusterService.registerNode();
                  if(rowsUpdated == 1) {
                      clusterNodeInfo.setNodeStatus(NodeStatus.ACTIVE);
                      clusterNodeInfo.setLastHeartbeatTime(new Date());
@@ -92,7 +107,29 @@ public class ClusterNodeManager {
         }
     }
 
+    /**
+     * With fenced failover on {@code UNREACHABLE}, a heartbeat is not renewed once this node was marked
+     * {@code UNREACHABLE}, and its transferable partitions may already run elsewhere. The node then rejoins
+     * under a new epoch and abandons its in-progress partitions, which the cluster recovers as orphans.
+     *
+     * @return whether the node rejoined; {@code false} when it has to register again instead
+     */
+    private boolean rejoinCluster() {
+        if (batchClusterProperties.getFailoverMode() != BatchClusterProperties.FailoverMode.ON_NODE_UNREACHABLE
+                || !batchClusterProperties.isFailoverFencing()
+                || databaseBackedClusterService.rejoinCluster() != 1) {
+            return false;
+        }
+        log.warn("Node id {} was marked unreachable and its partitions may have failed over; it rejoined the cluster under epoch {} and abandons its in-progress partitions",
+                batchClusterProperties.getNodeId(), databaseBackedClusterService.getNodeEpoch());
+        clusterNodeStatusChangeConditionNotifier.onClusterNodeHeartbeatFail();
+        return true;
+    }
+
     protected void markNodesUnreachable() {
+        if (!isElectedSweeper()) {
+            return;
+        }
         try {
             long start = System.currentTimeMillis();
             int rowsUpdated = databaseBackedClusterService.markNodesUnreachable();
@@ -105,6 +142,9 @@ public class ClusterNodeManager {
     }
 
     protected void removeNodesUnreachable() {
+        if (!isElectedSweeper()) {
+            return;
+        }
         try {
             long start = System.currentTimeMillis();
             int rowsUpdated = databaseBackedClusterService.deleteNodesUnreachable();
@@ -116,14 +156,31 @@ public class ClusterNodeManager {
         }
     }
 
-    protected void updateCurrentActiveNodes() {
-        try {
-            List<ClusterNodeInfo> clusterNodeInfos = databaseBackedClusterService.getNodesInCluster();
-            currentNodes.clear();
-            currentNodes.addAll(clusterNodeInfos);
-        } catch(Exception e) {
-            log.error("Exception occurred while fetching nodes info in the cluster");
+    /**
+     * Whether this node runs the cleanup sweeps: the node with the lowest id among the {@code ACTIVE} nodes
+     * whose heartbeat, in the last membership snapshot, is within {@code unreachable-node-threshold} of the
+     * newest heartbeat. All heartbeat times come from the database clock, so node clocks do not matter. When
+     * the elected node stops heartbeating it drops out of that window, and the next lowest takes over and
+     * sweeps it. Without a snapshot every node sweeps; two nodes briefly sweeping is harmless, as the sweeps
+     * are idempotent.
+     */
+    protected boolean isElectedSweeper() {
+        List<ClusterNodeInfo> nodes = List.copyOf(currentNodes);
+        Optional<Date> newestHeartbeat = nodes.stream()
+                .map(ClusterNodeInfo::getLastHeartbeatTime)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder());
+        if (newestHeartbeat.isEmpty()) {
+            return true;
         }
+        long liveSince = newestHeartbeat.get().getTime() - batchClusterProperties.getUnreachableNodeThreshold();
+        return nodes.stream()
+                .filter(node -> NodeStatus.ACTIVE == node.getNodeStatus())
+                .filter(node -> node.getLastHeartbeatTime() != null && node.getLastHeartbeatTime().getTime() > liveSince)
+                .map(ClusterNodeInfo::getNodeId)
+                .min(Comparator.naturalOrder())
+                .map(nodeId -> nodeId.equals(batchClusterProperties.getNodeId()))
+                .orElse(true);
     }
 
 }
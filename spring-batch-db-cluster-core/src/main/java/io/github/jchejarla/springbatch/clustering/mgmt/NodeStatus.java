@@ -15,7 +15,40 @@
  */
 package io.github.jchejarla.springbatch.clustering.mgmt;
 
+/**
+ * Liveness states of a node row in {@code BATCH_NODES}.
+ *
+ * <p>The {@link #code()} of each value is the {@code SMALLINT} persisted in the {@code STATUS} column, and
+ * must stay in sync with the {@code CHECK} constraint in the bundled schema DDL and with the literals in the
+ * coordination queries. Codes are part of the schema: a new state gets a new code, existing codes never
+ * change.</p>
+ */
 public enum NodeStatus {
-    ACTIVE,
-    UNREACHABLE
+    ACTIVE(0),
+    UNREACHABLE(1);
+
+    private static final NodeStatus[] BY_CODE = values();
+
+    private final int code;
+
+    NodeStatus(int code) {
+        this.code = code;
+    }
+
+    /** The value stored in {@code BATCH_NODES.STATUS}. */
+    public int code() {
+        return code;
+    }
+
+    /**
+     * The status stored as {@code code}.
+     *
+     * @throws IllegalArgumentException if no status has that code
+     */
+    public static NodeStatus fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length || BY_CODE[code].code != code) {
+            throw new IllegalArgumentException("Unknown node status code: " + code);
+        }
+        return BY_CODE[code];
+    }
 }
@@ -25,9 +25,10 @@ package io.github.jchejarla.springbatch.clustering.mgmt;
  *
  * @param jobExecutionId        the Spring Batch job execution id of the stranded job
  * @param masterNodeId          the id of the master node that was lost
+ * @param masterNodeKey         the key of the master node that was lost
  * @param masterStepExecutionId the manager step execution id that coordinated the partitions
  * @param masterStepName        the manager step name
  * @author Janardhan Chejarla
  */
-public record OrphanedMasterJob(long jobExecutionId, String masterNodeId, long masterStepExecutionId, String masterStepName) {
+public record OrphanedMasterJob(long jobExecutionId, String masterNodeId, int masterNodeKey, long masterStepExecutionId, String masterStepName) {
 }
@@ -16,26 +16,28 @@
 package io.github.jchejarla.springbatch.clustering.partition;
 
 import io.github.jchejarla.springbatch.clustering.api.ClusterAwarePartitioner;
+import io.github.jchejarla.springbatch.clustering.api.StreamingStepExecutionSplitter;
 import io.github.jchejarla.springbatch.clustering.autoconfigure.BatchClusterProperties;
 import io.github.jchejarla.springbatch.clustering.core.CoordinationStatus;
 import io.github.jchejarla.springbatch.clustering.core.DatabaseBackedClusterService;
 import io.github.jchejarla.springbatch.clustering.query.JobPhase;
 import io.github.jchejarla.springbatch.clustering.autoconfigure.conditions.ConditionalOnClusterEnabled;
 import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNode;
+import io.github.jchejarla.springbatch.clustering.partition.impl.CostBalancedPartitionAssignmentStrategy;
+import io.github.jchejarla.springbatch.clustering.polling.AdaptivePollingInterval;
 import io.github.jchejarla.springbatch.clustering.polling.PartitionAssignmentTask;
-import lombok.RequiredArgsConstructor;
+import io.github.jchejarla.springbatch.clustering.polling.PartitionWakeupChannel;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.job.JobExecutionException;
 import org.springframework.batch.core.step.StepExecution;
 import org.springframework.batch.core.partition.PartitionHandler;
 import org.springframework.batch.core.partition.StepExecutionSplitter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CompletionException;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ExecutionException;
 
 /**
  * A custom {@link PartitionHandler} that coordinates partition execution across a dynamic cluster
@@ -67,17 +69,74 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * @since 1.0
  */
 @Slf4j
-@RequiredArgsConstructor
 @ConditionalOnClusterEnabled
-public class ClusterAwarePartitionHandler implements PartitionHandler {
+public class ClusterAwarePartitionHandler implements PartitionHandler, DisposableBean {
 
     private final DatabaseBackedClusterService databaseBackedClusterService;
     private final BatchClusterProperties batchClusterProperties;
+    private final PartitionWakeupChannel partitionWakeupChannel;
+    // This node's worker poll interval, snapped back to its minimum when this node launches a job.
+    private final AdaptivePollingInterval workerPollingInterval;
+    // Shared by every job this node is mastering: one progress query per tick for all of them.
+    private final JobProgressMonitor jobProgressMonitor;
+    // Only set when this handler created the progress monitor's scheduler itself, and so must shut it down.
+    private final ThreadPoolTaskScheduler ownedMonitorScheduler;
+
+    public ClusterAwarePartitionHandler(DatabaseBackedClusterService databaseBackedClusterService,
+                                        BatchClusterProperties batchClusterProperties) {
+        this(databaseBackedClusterService, batchClusterProperties, standaloneMonitorScheduler());
+    }
+
+    public ClusterAwarePartitionHandler(DatabaseBackedClusterService databaseBackedClusterService,
+                                        BatchClusterProperties batchClusterProperties,
+                                        PartitionWakeupChannel partitionWakeupChannel,
+                                        AdaptivePollingInterval workerPollingInterval,
+                                        JobProgressMonitor jobProgressMonitor) {
+        this(databaseBackedClusterService, batchClusterProperties, partitionWakeupChannel, workerPollingInterval, jobProgressMonitor, null);
+    }
+
+    private ClusterAwarePartitionHandler(DatabaseBackedClusterService databaseBackedClusterService,
+                                         BatchClusterProperties batchClusterProperties,
+                                         ThreadPoolTaskScheduler ownedMonitorScheduler) {
+        this(databaseBackedClusterService, batchClusterProperties, PartitionWakeupChannel.NONE,
+                new AdaptivePollingInterval(batchClusterProperties.getTaskPollingInterval(), batchClusterProperties.getMaxIdlePollingInterval()),
+                new JobProgressMonitor(databaseBackedClusterService, batchClusterProperties, ownedMonitorScheduler),
+                ownedMonitorScheduler);
+    }
+
+    private ClusterAwarePartitionHandler(DatabaseBackedClusterService databaseBackedClusterService,
+                                         BatchClusterProperties batchClusterProperties,
+                                         PartitionWakeupChannel partitionWakeupChannel,
+                                         AdaptivePollingInterval workerPollingInterval,
+                                         JobProgressMonitor jobProgressMonitor,
+                                         ThreadPoolTaskScheduler ownedMonitorScheduler) {
+        this.databaseBackedClusterService = databaseBackedClusterService;
+        this.batchClusterProperties = batchClusterProperties;
+        this.partitionWakeupChannel = partitionWakeupChannel;
+        this.workerPollingInterval = workerPollingInterval;
+        this.jobProgressMonitor = jobProgressMonitor;
+        this.ownedMonitorScheduler = ownedMonitorScheduler;
+    }
+
+    private static ThreadPoolTaskScheduler standaloneMonitorScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("job-progress-monitor-");
+        scheduler.setDaemon(true);
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    /**
+     * Shuts down the progress monitor's scheduler if this handler created it; a scheduler passed in with
+     * the {@link JobProgressMonitor} belongs to its caller and is left running.
+     */
+    @Override
+    public void destroy() {
+        if (ownedMonitorScheduler != null) {
+            ownedMonitorScheduler.shutdown();
+        }
+    }
 
-    // The per-job completion/orphan monitors below block (sleep-loops polling the DB). Run them on
-    // virtual threads (one per task) rather than the shared ForkJoinPool.commonPool, so a master running
-    // many concurrent jobs cannot exhaust the common pool and stall monitoring.
-    private final Executor monitorExecutor = Executors.newVirtualThreadPerTaskExecutor();
     /**
      * Handles the splitting and coordination of partitioned steps across the cluster.
      * <p>This method registers the current node as the job master, persists partition metadata,
@@ -94,23 +153,27 @@ public class ClusterAwarePartitionHandler implements PartitionHandler {
         long jobExecutionId = managerStepExecution.getJobExecutionId();
         recordPhase(jobExecutionId, JobPhase.RECEIVED);
         log.info("ClusterAwarePartitionHandler is invoked to handle the partition and execution of the partitioned task : {}", managerStepExecution.getStepName());
-        Set<StepExecution> stepExecutions = stepSplitter.split(managerStepExecution, 0);
+        if (stepSplitter instanceof StreamingStepExecutionSplitter streamingStepExecutionSplitter) {
+            return handleStreaming(streamingStepExecutionSplitter, managerStepExecution);
+        }
+        Long masterStepExecutionId = managerStepExecution.getId();
+        Set<StepExecution> stepExecutions;
+        List<Object[]> params = new ArrayList<>();
+        openRoutingTable();
+        try {
+            stepExecutions = stepSplitter.split(managerStepExecution, 0);
+            for(StepExecution stepExecution: stepExecutions) {
+                params.add(partitionRow(stepExecution, stepSplitter.getStepName(), jobExecutionId, masterStepExecutionId));
+            }
+        } finally {
+            closeRoutingTable();
+        }
         log.info("Number of partition steps generated are : {} ", stepExecutions.size());
         if(stepExecutions.isEmpty()) {
             log.warn("Partitioner returned empty set of executions, so there is nothing to distribute");
             return  stepExecutions;
         }
         recordPhase(jobExecutionId, JobPhase.PARTITIONED);
-        Long masterStepExecutionId = managerStepExecution.getId();
-        List<Object[]> params = new ArrayList<>();
-
-        for(StepExecution stepExecution: stepExecutions) {
-            Long stepExecutionId = stepExecution.getId();
-            String partitionKey = stepExecution.getStepName();
-            String nodeId = stepExecution.getExecutionContext().getString(ClusterPartitioningConstants.CLUSTER_NODE_IDENTIFIER);
-            PartitionTransferableProp isTaskTransferable = stepExecution.getExecutionContext().get(ClusterPartitioningConstants.IS_TRANSFERABLE_IDENTIFIER, PartitionTransferableProp.class);
-            params.add(new Object[]{stepExecutionId, jobExecutionId, partitionKey, nodeId, PartitionStatus.PENDING.name(), masterStepExecutionId, Objects.equals(PartitionTransferableProp.YES, isTaskTransferable) ? 1 : 0});
-        }
 
         log.info("Persisting master step info into coordination table with status = CREATED, master step execution id {}", masterStepExecutionId);
         databaseBackedClusterService.saveBatchJobCoordinationInfo(jobExecutionId, masterStepExecutionId, stepSplitter.getStepName());
@@ -124,9 +187,142 @@ public class ClusterAwarePartitionHandler implements PartitionHandler {
         log.info("Updating master step info into coordination table with status = STARTED, master step execution id {}", masterStepExecutionId);
         databaseBackedClusterService.updateBatchJobCoordinationStatus(jobExecutionId, masterStepExecutionId, CoordinationStatus.STARTED.name());
         log.info("Updating of master step info into coordination table with status = STARTED is completed, master step execution id {}", masterStepExecutionId);
+        // Partitions only become claimable once the job is STARTED, so wake the workers now rather than
+        // right after saveBatchPartitions; a woken worker polls immediately instead of at its next interval.
+        notifyPartitionsAssigned(params);
+        // A job was just launched here, so work is about to flow: stop this node's worker from idling.
+        workerPollingInterval.reset();
 
         // PartitionHandler need to wait (synchronously) until all the tasks are complete, if this method returns, then the job is completed
-        waitForExecutionOfAllTasks(managerStepExecution.getId());
+        awaitPartitions(managerStepExecution);
+        return withSplitPartitions(stepExecutions, managerStepExecution);
+    }
+
+    /**
+     * Distributes the partitions of a {@link StreamingStepExecutionSplitter} chunk by chunk. The job is
+     * {@code STARTED} before its first chunk is saved, so workers start on each chunk as soon as it commits
+     * while the next ones are still being created. The orphan scan and completion tracking start once every
+     * chunk is saved. If the partitioner fails part-way, the job's coordination is {@code FAILED} along with its
+     * partitions no node claimed yet, and the failure is rethrown to fail the manager step.
+     *
+     * @return the job's partitions, read back from {@code BATCH_PARTITIONS} page by page as they are iterated
+     */
+    private Collection<StepExecution> handleStreaming(StreamingStepExecutionSplitter stepSplitter, StepExecution managerStepExecution) throws Exception {
+        long jobExecutionId = managerStepExecution.getJobExecutionId();
+        long masterStepExecutionId = managerStepExecution.getId();
+        int chunkSize = batchClusterProperties.getPartitionDistributionChunkSize();
+
+        databaseBackedClusterService.saveBatchJobCoordinationInfo(jobExecutionId, masterStepExecutionId, stepSplitter.getStepName());
+        databaseBackedClusterService.updateBatchJobCoordinationStatus(jobExecutionId, masterStepExecutionId, CoordinationStatus.STARTED.name());
+        workerPollingInterval.reset();
+        log.info("Streaming the partitions of step {} in chunks of {}, master step execution id {}", managerStepExecution.getStepName(), chunkSize, masterStepExecutionId);
+        long partitionCount;
+        openRoutingTable();
+        try {
+            partitionCount = stepSplitter.split(managerStepExecution, chunkSize, chunk -> {
+                List<Object[]> params = new ArrayList<>(chunk.size());
+                for (StepExecution stepExecution : chunk) {
+                    params.add(partitionRow(stepExecution, stepSplitter.getStepName(), jobExecutionId, masterStepExecutionId));
+                }
+                databaseBackedClusterService.saveBatchPartitions(params);
+                notifyPartitionsAssigned(params);
+            });
+        } catch (RuntimeException e) {
+            failPartitionDistribution(jobExecutionId, masterStepExecutionId, e);
+            throw e;
+        } finally {
+            closeRoutingTable();
+        }
+        recordPhase(jobExecutionId, JobPhase.PARTITIONED);
+        recordPhase(jobExecutionId, JobPhase.DISTRIBUTED);
+        log.info("Distributed {} partition(s) of step {}", partitionCount, managerStepExecution.getStepName());
+
+        JobProgress finalProgress = awaitPartitions(managerStepExecution);
+        return new PartitionStepExecutions(databaseBackedClusterService, masterStepExecutionId, managerStepExecution.getJobExecution(),
+                finalProgress.total(), chunkSize);
+    }
+
+    /**
+     * Fails a streamed job whose partitioner failed part-way, so workers do not go on with the chunks saved so
+     * far: its partitions still {@code PENDING} are set {@code FAILED} and its coordination {@code FAILED}.
+     * Partitions a node already claimed run to their end.
+     */
+    private void failPartitionDistribution(long jobExecutionId, long masterStepExecutionId, RuntimeException cause) {
+        log.error("Creating the partitions of master step execution id {} failed; failing the partitions distributed so far", masterStepExecutionId, cause);
+        try {
+            int failed = databaseBackedClusterService.failPendingPartitions(masterStepExecutionId);
+            databaseBackedClusterService.updateBatchJobCoordinationStatus(jobExecutionId, masterStepExecutionId, CoordinationStatus.FAILED.name());
+            log.info("Failed {} pending partition(s) of master step execution id {}", failed, masterStepExecutionId);
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /** With {@code compact-partition-context}, partitioners hand their routing over outside the contexts. */
+    private void openRoutingTable() {
+        if (batchClusterProperties.isCompactPartitionContext()) {
+            PartitionRoutingTable.open();
+        }
+    }
+
+    private void closeRoutingTable() {
+        if (batchClusterProperties.isCompactPartitionContext()) {
+            PartitionRoutingTable.close();
+        }
+    }
+
+    /**
+     * The {@code BATCH_PARTITIONS} row of a partition, as saved by {@code saveBatchPartitions}. Its node and
+     * transferability come from the {@link PartitionRoutingTable} when the partitioner recorded them there,
+     * from its execution context otherwise.
+     */
+    private static Object[] partitionRow(StepExecution stepExecution, String workerStepName, long jobExecutionId, long masterStepExecutionId) {
+        PartitionRoutingTable.PartitionRouting routing = PartitionRoutingTable.take(partitionName(stepExecution.getStepName(), workerStepName));
+        // null for a SHARED_QUEUE partition: stored unassigned, for any worker to claim
+        String nodeId = routing != null ? routing.nodeId()
+                : stepExecution.getExecutionContext().getString(ClusterPartitioningConstants.CLUSTER_NODE_IDENTIFIER, null);
+        PartitionTransferableProp isTaskTransferable = routing != null ? routing.transferable()
+                : stepExecution.getExecutionContext().get(ClusterPartitioningConstants.IS_TRANSFERABLE_IDENTIFIER, PartitionTransferableProp.class);
+        return new Object[]{stepExecution.getId(), jobExecutionId, stepExecution.getStepName(), nodeId, PartitionStatus.PENDING.code(), masterStepExecutionId,
+                Objects.equals(PartitionTransferableProp.YES, isTaskTransferable) ? 1 : 0, PartitionCost.get(stepExecution.getExecutionContext())};
+    }
+
+    /** A partition step's name without the {@code <worker step>:} prefix the splitters add. */
+    private static String partitionName(String stepName, String workerStepName) {
+        return workerStepName != null && stepName != null && stepName.startsWith(workerStepName + ":")
+                ? stepName.substring(workerStepName.length() + 1)
+                : stepName;
+    }
+
+    /** Wakes the nodes the partitions were assigned to, and every active node when some are unassigned. */
+    private void notifyPartitionsAssigned(List<Object[]> partitionRows) {
+        Set<String> assignedNodes = new HashSet<>();
+        boolean sharedPartitions = false;
+        for (Object[] row : partitionRows) {
+            if (row[3] != null) {
+                assignedNodes.add((String) row[3]);
+            } else {
+                sharedPartitions = true;
+            }
+        }
+        if (sharedPartitions && partitionWakeupChannel.isEventDriven()) {
+            // unassigned partitions are claimable by every active node
+            databaseBackedClusterService.getActiveNodes().forEach(node -> assignedNodes.add(node.nodeId()));
+        }
+        partitionWakeupChannel.notifyPartitionsAssigned(assignedNodes);
+    }
+
+    /**
+     * Waits until every partition of the job reached a terminal state, then marks its coordination row
+     * {@code COMPLETED}.
+     *
+     * @return the final progress snapshot
+     * @throws JobExecutionException when any partition {@code FAILED}
+     */
+    private JobProgress awaitPartitions(StepExecution managerStepExecution) throws JobExecutionException {
+        long jobExecutionId = managerStepExecution.getJobExecutionId();
+        long masterStepExecutionId = managerStepExecution.getId();
+        JobProgress finalProgress = waitForExecutionOfAllTasks(masterStepExecutionId);
         recordPhase(jobExecutionId, JobPhase.COMPLETION_DETECTED);
 
         log.info("Updating master step info into coordination table with status = COMPLETED, master step execution id {}", masterStepExecutionId);
@@ -137,13 +333,30 @@ public class ClusterAwarePartitionHandler implements PartitionHandler {
         // Completion above only means no partition is still PENDING/CLAIMED, so fail the manager step here
         // when any partition failed. This guarantees a failed partition fails the job even if the caller did
         // not wire a ClusterAwareAggregator (whose reload would otherwise be the only thing to catch it).
-        int failedPartitions = databaseBackedClusterService.getFailedTasksCount(masterStepExecutionId);
+        int failedPartitions = finalProgress.failed();
         if (failedPartitions > 0) {
-            throw new JobExecutionException(failedPartitions + " of " + stepExecutions.size()
+            throw new JobExecutionException(failedPartitions + " of " + finalProgress.total()
                     + " partition(s) FAILED for step '" + managerStepExecution.getStepName() + "'");
         }
+        return finalProgress;
+    }
 
-        return stepExecutions;
+    /**
+     * Adds the partitions split off at runtime to the ones the splitter created, so that the manager step
+     * aggregates them too.
+     */
+    private Collection<StepExecution> withSplitPartitions(Set<StepExecution> stepExecutions, StepExecution managerStepExecution) {
+        if (!batchClusterProperties.isRangeSplittingEnabled()) {
+            return stepExecutions;
+        }
+        List<PartitionSummary> splitPartitions = databaseBackedClusterService.getSplitPartitions(managerStepExecution.getId());
+        if (splitPartitions.isEmpty()) {
+            return stepExecutions;
+        }
+        log.info("{} partition(s) of step {} were split off running ranges", splitPartitions.size(), managerStepExecution.getStepName());
+        Set<StepExecution> partitionExecutions = new HashSet<>(stepExecutions);
+        splitPartitions.forEach(splitPartition -> partitionExecutions.add(splitPartition.toStepExecution(managerStepExecution.getJobExecution())));
+        return partitionExecutions;
     }
 
 
@@ -162,59 +375,70 @@ public class ClusterAwarePartitionHandler implements PartitionHandler {
         }
     }
 
-    private void waitForExecutionOfAllTasks(final long masterStepExecutionId) {
-
-        final AtomicBoolean areAllTasksCompleted = new AtomicBoolean(false);
-
-        CompletableFuture<Void> taskCompletionMonitorTask = CompletableFuture.runAsync(()->{
-            try {
-                while(!areAllTasksCompleted(masterStepExecutionId)) {
-                    Thread.sleep(batchClusterProperties.getMasterTaskStatusCheckInterval());
-                }
-            } catch (Exception e) {
-                log.error("Exception occurred while waiting for all tasks to be completed" , e);
-                throw new CompletionException(e);
-            } finally {
-                areAllTasksCompleted.set(true);
-            }
-        }, monitorExecutor);
-
-        CompletableFuture<Void> orphanedTasksMonitorTask = CompletableFuture.runAsync(()->{
-            try {
-                while (!areAllTasksCompleted.get() && !taskCompletionMonitorTask.isDone()) {
-                    pollForOrphanedTasksAndReArrange(masterStepExecutionId);
-                    Thread.sleep(batchClusterProperties.getOrphanedTasksPollingInterval());
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            } catch (Exception e) {
-                log.error("Exception occurred while monitoring for orphaned tasks and re-arrange them to different available nodes", e);
-                throw new CompletionException("Exception occurred while monitoring for orphaned tasks and re-arrange them to different available nodes", e);
+    /**
+     * Blocks until every partition of the job reached a terminal state, as reported by this node's shared
+     * {@link JobProgressMonitor}, which also reassigns the job's orphaned partitions along the way.
+     *
+     * @return the final progress snapshot
+     */
+    private JobProgress waitForExecutionOfAllTasks(final long masterStepExecutionId) throws JobExecutionException {
+        CompletableFuture<JobProgress> completion = batchClusterProperties.isRangeSplittingEnabled()
+                ? jobProgressMonitor.track(masterStepExecutionId, this::pollForOrphanedTasksAndReArrange, this::requestRangeSplits)
+                : jobProgressMonitor.track(masterStepExecutionId, this::pollForOrphanedTasksAndReArrange);
+        try {
+            return completion.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JobExecutionException("Interrupted while waiting for the partitions of master step execution " + masterStepExecutionId, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof JobExecutionException jobExecutionException) {
+                throw jobExecutionException;
             }
-        }, monitorExecutor);
-        CompletableFuture.allOf(taskCompletionMonitorTask, orphanedTasksMonitorTask).join();
+            throw new JobExecutionException("Exception occurred while waiting for workload partitions executions", e.getCause());
+        } finally {
+            jobProgressMonitor.untrack(masterStepExecutionId);
+        }
     }
 
-    protected boolean areAllTasksCompleted(long masterStepExecutionId) throws JobExecutionException {
-        try {
-            int pending = databaseBackedClusterService.getPendingTasksCount(masterStepExecutionId);
-            if (pending == 0) {
-                return true;
-            }
-            if (batchClusterProperties.isTracingEnabled()) {
-                log.info("There are {} partition tasks waiting to be completed, master step execution id : {}", pending, masterStepExecutionId);
+    /**
+     * Asks the running range partitions of this job with the most items left to hand their unprocessed half over,
+     * one per idle active node (less the requests not answered yet). A partition answers at its next checkpoint
+     * by saving the tail as a new unassigned partition, which the idle nodes then claim.
+     *
+     * @return whether any split was requested
+     */
+    protected boolean requestRangeSplits(long masterStepExecutionId) {
+        long idleNodes = databaseBackedClusterService.getActiveNodes().stream().filter(node -> node.currentLoad() == 0).count();
+        if (idleNodes == 0) {
+            return false;
+        }
+        List<SplittableRange> ranges = databaseBackedClusterService.getSplittableRanges(masterStepExecutionId);
+        long wanted = idleNodes - ranges.stream().filter(SplittableRange::splitRequested).count();
+        long minRemaining = 2 * batchClusterProperties.getRangeSplitMinSize();
+        List<SplittableRange> candidates = ranges.stream()
+                .filter(range -> !range.splitRequested() && range.remainingItems() >= minRemaining)
+                .sorted(Comparator.comparingLong(SplittableRange::remainingItems).reversed())
+                .limit(Math.max(wanted, 0))
+                .toList();
+        boolean requested = false;
+        for (SplittableRange range : candidates) {
+            if (databaseBackedClusterService.requestRangeSplit(range.stepExecutionId())) {
+                log.info("Requested a split of partition {} with {} item(s) left, {} node(s) idle", range.stepExecutionId(), range.remainingItems(), idleNodes);
+                requested = true;
             }
-        } catch (Exception e) {
-            log.error("Exception occurred while waiting for workload partitions executions", e);
-            throw new JobExecutionException("Exception occurred while waiting for workload partitions executions", e);
         }
-        return false;
+        return requested;
     }
 
-    protected void pollForOrphanedTasksAndReArrange(long masterStepExecutionId) throws JobExecutionException {
+    /**
+     * Fails this job's non-transferable orphaned partitions and reassigns the transferable ones.
+     *
+     * @return whether any orphaned partitions were found
+     */
+    protected boolean pollForOrphanedTasksAndReArrange(long masterStepExecutionId) throws JobExecutionException {
         List<PartitionAssignmentTask> orphanedTasks = databaseBackedClusterService.checkForOrphanedTasks(masterStepExecutionId);
         if (orphanedTasks.isEmpty()) {
-            return;
+            return false;
         }
 
         // Non-transferable partitions must never run on another node (node-local state or non-idempotent
@@ -228,25 +452,31 @@ public class ClusterAwarePartitionHandler implements PartitionHandler {
 
         List<PartitionAssignmentTask> transferable = orphanedTasks.stream().filter(PartitionAssignmentTask::isTransferable).toList();
         if (transferable.isEmpty()) {
-            return;
+            return true;
         }
-        log.info("Reassigning {} transferable orphaned partition(s) whose node has left the cluster", transferable.size());
+        log.info("Reassigning {} transferable orphaned partition(s) whose node is unreachable or has left the cluster", transferable.size());
         List<ClusterNode> activeNodes = databaseBackedClusterService.getActiveNodes();
         if (activeNodes.isEmpty()) {
             log.error("There are no active nodes found from database to reassign orphaned partitions");
             throw new JobExecutionException("There are no active nodes found from database to reassign orphaned partitions");
         }
 
-        // re-assign transferable orphaned tasks round-robin across the healthy nodes
+        // re-assign transferable orphaned tasks across the healthy nodes balancing their cost hints (an even
+        // spread when they have none), largest first to the least loaded nodes
+        long[] costs = transferable.stream().mapToLong(task -> Objects.requireNonNullElse(task.cost(), PartitionCost.DEFAULT_COST)).toArray();
+        int[] targets = CostBalancedPartitionAssignmentStrategy.balance(costs, activeNodes.size());
         List<Object[]> params = new ArrayList<>();
-        int index = 0;
-        for (PartitionAssignmentTask originTask : transferable) {
-            String assignedToNode = activeNodes.get(index % activeNodes.size()).nodeId();
-            index++;
-            // last_updated is set by the DB clock (CURRENT_TIMESTAMP) in the reassignment query.
-            params.add(new Object[]{assignedToNode, originTask.jobExecutionId(), originTask.masterStepExecutionId(), originTask.stepExecutionId()});
+        for (int i = 0; i < transferable.size(); i++) {
+            PartitionAssignmentTask originTask = transferable.get(i);
+            String assignedToNode = activeNodes.get(targets[i]).nodeId();
+            // last_updated is set by the DB clock (CURRENT_TIMESTAMP) in the reassignment query, which only
+            // applies while the partition is still on the node and claim the orphan scan saw.
+            params.add(new Object[]{assignedToNode, originTask.jobExecutionId(), originTask.masterStepExecutionId(), originTask.stepExecutionId(),
+                    originTask.assignedNodeKey(), Objects.requireNonNullElse(originTask.claimEpoch(), 0L)});
         }
         databaseBackedClusterService.updateBatchPartitionsToReAssignedNodes(params);
+        partitionWakeupChannel.notifyPartitionsAssigned(params.stream().map(row -> (String) row[0]).toList());
+        return true;
     }
 
 }
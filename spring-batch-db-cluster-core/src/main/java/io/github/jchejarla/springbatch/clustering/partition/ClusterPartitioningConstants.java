@@ -19,4 +19,7 @@ public final class ClusterPartitioningConstants {
     public static final String IS_TRANSFERABLE = "is_transferable";
     public static final String CLUSTER_NODE_IDENTIFIER = "AppUse_Cluster-Node-Identifier";
     public static final String IS_TRANSFERABLE_IDENTIFIER = "AppUse_Is-Transferable-Identifier";
+    public static final String PARTITION_COST_IDENTIFIER = "AppUse_Partition-Cost";
+    public static final String PARTITION_HISTORY_KEY_IDENTIFIER = "AppUse_Partition-History-Key";
+    public static final String STREAMED_PARTITIONS_IDENTIFIER = "AppUse_Streamed-Partitions";
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.partition;
+
+import io.github.jchejarla.springbatch.clustering.core.DatabaseBackedClusterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalDouble;
+
+/**
+ * Predicts partition costs from earlier runs of the same job, for the {@code HISTORICAL_COST} partitioning mode.
+ *
+ * <p>Each partition of such a job carries a history key. A partitioner should set one that names the data the
+ * partition covers, with {@link #setHistoryKey} (e.g. the month or id range it reads), so the key stays the
+ * same whatever else the partitioner returns. A partition without one is keyed
+ * {@code <manager step name>:<index>/<count>}, its position among the {@code count} partitions the partitioner
+ * returned: such a key only matches an earlier run split into as many partitions, so when the partition count
+ * changes these partitions start without history rather than inherit the runtime of whatever held their
+ * position before. When a partition completes, its worker records its wall time, read and write counts
+ * and node in {@code BATCH_PARTITION_HISTORY} under the job name and history key (see
+ * {@link DatabaseBackedClusterService#recordPartitionRuntime}). On the next run the predicted wall time becomes
+ * each partition's {@link PartitionCost cost hint}, which the cost-balanced assignment then balances across the
+ * nodes.</p>
+ *
+ * <p>A partition without history is predicted at the average of those with history; with no history at all
+ * (the first run), every partition costs the same. Predictions are in milliseconds while the partitioner's own
+ * {@link PartitionCost cost hints} are in a unit of its choosing, so the two are never mixed: when the
+ * partitioner set a hint on any partition, its hints are used as they are and nothing is predicted, though
+ * runtimes are still recorded.</p>
+ *
+ * @author Janardhan Chejarla
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class HistoricalPartitionCostModel {
+
+    private final DatabaseBackedClusterService databaseBackedClusterService;
+
+    /** Sets the key a partition's runtime is recorded and predicted under, instead of its position. */
+    public static void setHistoryKey(ExecutionContext executionContext, String historyKey) {
+        executionContext.putString(ClusterPartitioningConstants.PARTITION_HISTORY_KEY_IDENTIFIER, historyKey);
+    }
+
+    /** The key a partition's runtime is recorded under, or {@code null} when its job does not keep history. */
+    public static String getHistoryKey(ExecutionContext executionContext) {
+        return executionContext.containsKey(ClusterPartitioningConstants.PARTITION_HISTORY_KEY_IDENTIFIER)
+                ? executionContext.getString(ClusterPartitioningConstants.PARTITION_HISTORY_KEY_IDENTIFIER)
+                : null;
+    }
+
+    /**
+     * Keys the given partitions of a job and, unless the partitioner set cost hints of its own, attaches their
+     * predicted cost as their cost hint.
+     *
+     * @param jobName           the job the partitions belong to
+     * @param managerStepName   the partitioned step, the prefix of the default history keys
+     * @param executionContexts the partitions, in the order the partitioner returned them
+     */
+    public void applyPredictedCosts(String jobName, String managerStepName, List<ExecutionContext> executionContexts) {
+        int partitionCount = executionContexts.size();
+        for (int i = 0; i < partitionCount; i++) {
+            ExecutionContext executionContext = executionContexts.get(i);
+            if (getHistoryKey(executionContext) == null) {
+                setHistoryKey(executionContext, managerStepName + ":" + i + "/" + partitionCount);
+            }
+        }
+        if (executionContexts.stream().anyMatch(executionContext -> PartitionCost.get(executionContext) != null)) {
+            log.info("Partitions of job {} carry cost hints of their own: they are balanced by those instead of their runtime history", jobName);
+            return;
+        }
+        Map<String, Long> predictedCosts = databaseBackedClusterService.getPredictedPartitionCosts(jobName);
+        OptionalDouble averageCost = executionContexts.stream()
+                .map(executionContext -> predictedCosts.get(getHistoryKey(executionContext)))
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .average();
+        long fallback = averageCost.isPresent() ? Math.round(averageCost.getAsDouble()) : PartitionCost.DEFAULT_COST;
+        int predicted = 0;
+        for (ExecutionContext executionContext : executionContexts) {
+            Long cost = predictedCosts.get(getHistoryKey(executionContext));
+            if (cost != null) {
+                predicted++;
+            }
+            PartitionCost.set(executionContext, cost != null ? cost : fallback);
+        }
+        log.info("Predicted the cost of {} of {} partition(s) of job {} from its runtime history", predicted, executionContexts.size(), jobName);
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.partition;
+
+/**
+ * Snapshot of one partitioned job's progress, as seen by its master in a single progress query.
+ *
+ * @param pending          partitions waiting to be claimed
+ * @param claimed          partitions claimed (running) on a worker
+ * @param completed        partitions that completed
+ * @param failed           partitions that failed
+ * @param orphanCandidates outstanding partitions whose node has left the cluster and whose last transition is
+ *                         older than the node cleanup threshold, i.e. what the orphan scan would reassign
+ */
+public record JobProgress(int pending, int claimed, int completed, int failed, int orphanCandidates) {
+
+    /** Progress of a job without partitions: nothing outstanding. */
+    public static final JobProgress NONE = new JobProgress(0, 0, 0, 0, 0);
+
+    /** Partitions not yet in a terminal state ({@code PENDING} or {@code CLAIMED}). */
+    public int outstanding() {
+        return pending + claimed;
+    }
+
+    public int total() {
+        return outstanding() + completed + failed;
+    }
+
+    /** Whether every partition reached a terminal state, i.e. the job has drained. */
+    public boolean isDrained() {
+        return outstanding() == 0;
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.partition;
+
+import io.github.jchejarla.springbatch.clustering.autoconfigure.BatchClusterProperties;
+import io.github.jchejarla.springbatch.clustering.core.DatabaseBackedClusterService;
+import io.github.jchejarla.springbatch.clustering.polling.AdaptivePollingInterval;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.job.JobExecutionException;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node-level monitor of every partitioned job this node is mastering.
+ *
+ * <p>Each {@link ClusterAwarePartitionHandler#handle handle()} call {@linkplain #track registers} its master
+ * step execution and waits on the returned future. A single tick loop then checks all registered jobs with
+ * one grouped progress query (per 500 jobs), completes the future of every job that drained, and runs the
+ * orphan reassignment only for jobs whose progress reports orphan candidates. Master database load thus
+ * scales with the tick rate, not with the number of concurrent jobs. Jobs tracked with a
+ * {@link RangeSplitHandler} are also offered a chance to split their running ranges once none of their
+ * partitions is left pending.</p>
+ *
+ * <p>The tick runs every {@code master-task-status-check-interval} while any job makes progress, backs off
+ * towards {@code max-idle-polling-interval} while none does, and stops while no job is registered. A failed
+ * progress query also backs the tick off and is retried on the next one; only after
+ * {@value #MAX_CONSECUTIVE_QUERY_FAILURES} consecutive failures are the monitored jobs failed.</p>
+ *
+ * @author Janardhan Chejarla
+ */
+@Slf4j
+public class JobProgressMonitor {
+
+    /** Reassigns a job's orphaned partitions; returns whether there were any. */
+    @FunctionalInterface
+    public interface OrphanedPartitionsHandler {
+        boolean reArrange(long masterStepExecutionId) throws Exception;
+    }
+
+    /** Asks a job's running range partitions to hand their tails over to idle nodes; returns whether it asked any. */
+    @FunctionalInterface
+    public interface RangeSplitHandler {
+        boolean requestSplits(long masterStepExecutionId) throws Exception;
+    }
+
+    static final int MAX_CONSECUTIVE_QUERY_FAILURES = 5;
+
+    private final DatabaseBackedClusterService databaseBackedClusterService;
+    private final BatchClusterProperties batchClusterProperties;
+    private final TaskScheduler jobProgressMonitorScheduler;
+    private final AdaptivePollingInterval checkInterval;
+    private final Map<Long, TrackedJob> trackedJobs = new ConcurrentHashMap<>();
+    // The tick chain, as in the worker's poll chain: at most one tick is scheduled or running at a time, and
+    // a tick superseded by a reschedule is a no-op even if it could not be cancelled.
+    private final Object tickScheduleLock = new Object();
+    private ScheduledFuture<?> nextTick;
+    private long tickGeneration;
+    private boolean tickRunning;
+    // only read and written by the tick, which never runs concurrently with itself
+    private int consecutiveQueryFailures;
+
+    public JobProgressMonitor(DatabaseBackedClusterService databaseBackedClusterService,
+                              BatchClusterProperties batchClusterProperties,
+                              TaskScheduler jobProgressMonitorScheduler) {
+        this.databaseBackedClusterService = databaseBackedClusterService;
+        this.batchClusterProperties = batchClusterProperties;
+        this.jobProgressMonitorScheduler = jobProgressMonitorScheduler;
+        this.checkInterval = new AdaptivePollingInterval(batchClusterProperties.getMasterTaskStatusCheckInterval(),
+                batchClusterProperties.getMaxIdlePollingInterval());
+    }
+
+    /**
+     * Starts monitoring a job. The first check runs right away when the monitor was idle, otherwise within
+     * {@code master-task-status-check-interval}, so jobs launched together share their checks.
+     *
+     * @param masterStepExecutionId the job's master step execution
+     * @param orphanedPartitionsHandler called when the job's progress reports orphan candidates
+     * @return completed with the job's final progress once every partition reached a terminal state, or
+     * exceptionally with a {@link JobExecutionException} when monitoring fails
+     */
+    public CompletableFuture<JobProgress> track(long masterStepExecutionId, OrphanedPartitionsHandler orphanedPartitionsHandler) {
+        return track(masterStepExecutionId, orphanedPartitionsHandler, null);
+    }
+
+    /**
+     * Starts monitoring a job whose range partitions may be split at runtime.
+     *
+     * @param masterStepExecutionId the job's master step execution
+     * @param orphanedPartitionsHandler called when the job's progress reports orphan candidates
+     * @param rangeSplitHandler called when none of the job's partitions is pending and some are claimed;
+     *                          {@code null} when the job's partitions are never split
+     * @return as {@link #track(long, OrphanedPartitionsHandler)}
+     */
+    public CompletableFuture<JobProgress> track(long masterStepExecutionId, OrphanedPartitionsHandler orphanedPartitionsHandler,
+                                                RangeSplitHandler rangeSplitHandler) {
+        TrackedJob job = new TrackedJob(masterStepExecutionId, orphanedPartitionsHandler, rangeSplitHandler);
+        synchronized (tickScheduleLock) {
+            trackedJobs.put(masterStepExecutionId, job);
+            checkInterval.reset();
+            if (tickRunning) {
+                // the running tick reschedules at the (just reset) minimum interval
+                return job.completion;
+            }
+            if (nextTick == null) {
+                scheduleTick(0);
+            } else if (nextTick.getDelay(TimeUnit.MILLISECONDS) > checkInterval.current()) {
+                nextTick.cancel(false);
+                scheduleTick(checkInterval.current());
+            }
+        }
+        return job.completion;
+    }
+
+    /** Stops monitoring a job (e.g. when its handler gave up waiting); its future is left as is. */
+    public void untrack(long masterStepExecutionId) {
+        trackedJobs.remove(masterStepExecutionId);
+    }
+
+    /** The latest progress snapshot of a monitored job; empty before its first check and once it left the monitor. */
+    public Optional<JobProgress> getJobProgress(long masterStepExecutionId) {
+        return Optional.ofNullable(trackedJobs.get(masterStepExecutionId)).map(job -> job.lastProgress);
+    }
+
+    public int getTrackedJobCount() {
+        return trackedJobs.size();
+    }
+
+    /** The current tick interval, or 0 while no job is monitored. */
+    public long getCurrentCheckInterval() {
+        return trackedJobs.isEmpty() ? 0 : checkInterval.current();
+    }
+
+    // Must hold tickScheduleLock.
+    private void scheduleTick(long delayMillis) {
+        long generation = ++tickGeneration;
+        nextTick = jobProgressMonitorScheduler.schedule(() -> checkAndScheduleNext(generation), Instant.now().plusMillis(delayMillis));
+    }
+
+    private void checkAndScheduleNext(long generation) {
+        synchronized (tickScheduleLock) {
+            if (generation != tickGeneration) {
+                return;
+            }
+            tickRunning = true;
+        }
+        try {
+            checkProgress();
+        } finally {
+            synchronized (tickScheduleLock) {
+                tickRunning = false;
+                if (trackedJobs.isEmpty()) {
+                    nextTick = null;
+                } else {
+                    scheduleTick(checkInterval.current());
+                }
+            }
+        }
+    }
+
+    /**
+     * One tick: a single progress query for every monitored job, then completion of the drained ones and
+     * orphan reassignment for those reporting orphan candidates.
+     */
+    void checkProgress() {
+        List<TrackedJob> jobs = List.copyOf(trackedJobs.values());
+        if (jobs.isEmpty()) {
+            return;
+        }
+        Map<Long, JobProgress> progressById;
+        try {
+            progressById = databaseBackedClusterService.getJobsProgress(jobs.stream().map(TrackedJob::masterStepExecutionId).toList());
+        } catch (Exception e) {
+            // a transient database error must not fail every job this node masters: retry on a backed-off tick
+            if (++consecutiveQueryFailures < MAX_CONSECUTIVE_QUERY_FAILURES) {
+                checkInterval.backOff();
+                log.warn("Failed to query the progress of {} monitored job(s) ({} of {} attempts); retrying in {} ms",
+                        jobs.size(), consecutiveQueryFailures, MAX_CONSECUTIVE_QUERY_FAILURES, checkInterval.current(), e);
+                return;
+            }
+            consecutiveQueryFailures = 0;
+            log.error("Exception occurred while waiting for workload partitions executions", e);
+            jobs.forEach(job -> fail(job, new JobExecutionException("Exception occurred while waiting for workload partitions executions", e)));
+            return;
+        }
+        consecutiveQueryFailures = 0;
+
+        boolean progressed = false;
+        for (TrackedJob job : jobs) {
+            JobProgress progress = progressById.getOrDefault(job.masterStepExecutionId, JobProgress.NONE);
+            if (progress.isDrained()) {
+                trackedJobs.remove(job.masterStepExecutionId);
+                job.completion.complete(progress);
+                progressed = true;
+                continue;
+            }
+            if (batchClusterProperties.isTracingEnabled()) {
+                log.info("Partitions of master step execution id {}: {} pending, {} claimed, {} completed, {} failed, {} orphan candidate(s)",
+                        job.masterStepExecutionId, progress.pending(), progress.claimed(), progress.completed(), progress.failed(), progress.orphanCandidates());
+            }
+            progressed |= !progress.equals(job.lastProgress);
+            job.lastProgress = progress;
+            if (progress.orphanCandidates() > 0) {
+                try {
+                    progressed |= job.orphanedPartitionsHandler.reArrange(job.masterStepExecutionId);
+                } catch (JobExecutionException e) {
+                    fail(job, e);
+                } catch (Exception e) {
+                    log.error("Exception occurred while monitoring for orphaned tasks and re-arrange them to different available nodes", e);
+                    fail(job, new JobExecutionException("Exception occurred while monitoring for orphaned tasks and re-arrange them to different available nodes", e));
+                }
+            }
+            if (job.rangeSplitHandler != null && progress.pending() == 0 && progress.claimed() > 0 && !job.completion.isDone()) {
+                // Splitting is an optimization: a failed attempt must not fail the job, the ranges still complete unsplit.
+                try {
+                    progressed |= job.rangeSplitHandler.requestSplits(job.masterStepExecutionId);
+                } catch (Exception e) {
+                    log.warn("Failed to request range splits for master step execution id {}", job.masterStepExecutionId, e);
+                }
+            }
+        }
+        if (progressed) {
+            checkInterval.reset();
+        } else {
+            checkInterval.backOff();
+        }
+    }
+
+    private void fail(TrackedJob job, JobExecutionException e) {
+        trackedJobs.remove(job.masterStepExecutionId);
+        job.completion.completeExceptionally(e);
+    }
+
+    private static final class TrackedJob {
+        private final long masterStepExecutionId;
+        private final OrphanedPartitionsHandler orphanedPartitionsHandler;
+        private final RangeSplitHandler rangeSplitHandler;
+        private final CompletableFuture<JobProgress> completion = new CompletableFuture<>();
+        private volatile JobProgress lastProgress;
+
+        private TrackedJob(long masterStepExecutionId, OrphanedPartitionsHandler orphanedPartitionsHandler, RangeSplitHandler rangeSplitHandler) {
+            this.masterStepExecutionId = masterStepExecutionId;
+            this.orphanedPartitionsHandler = orphanedPartitionsHandler;
+            this.rangeSplitHandler = rangeSplitHandler;
+        }
+
+        private long masterStepExecutionId() {
+            return masterStepExecutionId;
+        }
+    }
+}
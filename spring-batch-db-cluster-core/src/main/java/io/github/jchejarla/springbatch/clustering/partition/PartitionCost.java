@@ -0,0 +1,57 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.partition;
+
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+
+/**
+ * The cost hint a {@link io.github.jchejarla.springbatch.clustering.api.ClusterAwarePartitioner} can attach to
+ * each partition it creates — estimated rows, bytes or any other unit, as long as all partitions of a job use
+ * the same one. The {@code COST_BALANCED} strategy balances the total cost per node instead of the partition
+ * count, the hint is stored with the partition, and the master also balances it when it reassigns a failed
+ * node's partitions. A partition without a hint costs {@value #DEFAULT_COST}.
+ *
+ * @author Janardhan Chejarla
+ */
+public final class PartitionCost {
+
+    /** The cost of a partition without a hint. */
+    public static final long DEFAULT_COST = 1;
+
+    private PartitionCost() {
+    }
+
+    /** Attaches a cost hint to a partition. */
+    public static void set(ExecutionContext executionContext, long cost) {
+        if (cost < 0) {
+            throw new IllegalArgumentException("A partition cost can't be negative: " + cost);
+        }
+        executionContext.putLong(ClusterPartitioningConstants.PARTITION_COST_IDENTIFIER, cost);
+    }
+
+    /** The cost hint attached to a partition, or {@code null} when it has none. */
+    public static Long get(ExecutionContext executionContext) {
+        return executionContext.containsKey(ClusterPartitioningConstants.PARTITION_COST_IDENTIFIER)
+                ? executionContext.getLong(ClusterPartitioningConstants.PARTITION_COST_IDENTIFIER)
+                : null;
+    }
+
+    /** The cost hint attached to a partition, or {@link #DEFAULT_COST}. */
+    public static long of(ExecutionContext executionContext) {
+        Long cost = get(executionContext);
+        return cost == null ? DEFAULT_COST : cost;
+    }
+}
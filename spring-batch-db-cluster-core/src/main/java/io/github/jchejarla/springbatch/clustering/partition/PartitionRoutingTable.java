@@ -0,0 +1,80 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.partition;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands the node and transferability of each partition from the partitioner to
+ * {@link ClusterAwarePartitionHandler} without putting them in the partition's {@code ExecutionContext}, so
+ * they are stored only in {@code BATCH_PARTITIONS} rather than also serialized into
+ * {@code BATCH_STEP_EXECUTION_CONTEXT} for every partition.
+ *
+ * <p>The handler opens the table on its own thread around the split when {@code compact-partition-context}
+ * is enabled; the partitioner, called by the splitter on that same thread, records each partition under its
+ * name, and the handler takes the entry back when it writes the partition's row. When no table is open,
+ * partitioners keep the routing in the execution context as before.</p>
+ *
+ * @author Janardhan Chejarla
+ */
+public final class PartitionRoutingTable {
+
+    private static final ThreadLocal<Map<String, PartitionRouting>> CURRENT = new ThreadLocal<>();
+
+    private PartitionRoutingTable() {
+    }
+
+    /** Whether the current thread's partitioner should record routing here instead of in the contexts. */
+    public static boolean isOpen() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Records the routing of a partition.
+     *
+     * @param partitionName the partition's name, i.e. its step name without the worker step name prefix
+     * @param nodeId the node it is assigned to; {@code null} to leave it to any node
+     * @param transferable whether it may move to another node when its node is lost
+     * @throws IllegalStateException when no table is open on this thread
+     */
+    public static void put(String partitionName, String nodeId, PartitionTransferableProp transferable) {
+        Map<String, PartitionRouting> table = CURRENT.get();
+        if (table == null) {
+            throw new IllegalStateException("No partition routing table is open on this thread");
+        }
+        table.put(partitionName, new PartitionRouting(nodeId, transferable));
+    }
+
+    /** Opens an empty table on the current thread; the partition handler calls it before splitting. */
+    public static void open() {
+        CURRENT.set(new HashMap<>());
+    }
+
+    /** Removes and returns the routing of a partition; {@code null} when none was recorded. */
+    static PartitionRouting take(String partitionName) {
+        Map<String, PartitionRouting> table = CURRENT.get();
+        return table == null ? null : table.remove(partitionName);
+    }
+
+    /** Discards the current thread's table. */
+    public static void close() {
+        CURRENT.remove();
+    }
+
+    record PartitionRouting(String nodeId, PartitionTransferableProp transferable) {
+    }
+}
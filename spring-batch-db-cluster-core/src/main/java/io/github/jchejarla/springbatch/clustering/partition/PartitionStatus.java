@@ -18,15 +18,46 @@ package io.github.jchejarla.springbatch.clustering.partition;
 /**
  * Lifecycle states of a single partition row in {@code BATCH_PARTITIONS}.
  *
- * <p>The {@code name()} of each value is the exact string persisted in the {@code STATUS} column, and
- * must stay in sync with the {@code CHECK} constraint in the bundled schema DDL. This enum is the
- * single source of truth for partition status values across the framework.</p>
+ * <p>The {@link #code()} of each value is the {@code SMALLINT} persisted in the {@code STATUS} column, and
+ * must stay in sync with the {@code CHECK} constraint in the bundled schema DDL and with the literals in the
+ * coordination queries. Codes are part of the schema: a new state gets a new code, existing codes never
+ * change. This enum is the single source of truth for partition status values across the framework.</p>
  *
  * @author Janardhan Chejarla
  */
 public enum PartitionStatus {
-    PENDING,
-    CLAIMED,
-    COMPLETED,
-    FAILED
+    PENDING(0),
+    CLAIMED(1),
+    COMPLETED(2),
+    FAILED(3);
+
+    private static final PartitionStatus[] BY_CODE = values();
+
+    private final int code;
+
+    PartitionStatus(int code) {
+        this.code = code;
+    }
+
+    /** The value stored in {@code BATCH_PARTITIONS.STATUS}. */
+    public int code() {
+        return code;
+    }
+
+    /**
+     * The status stored as {@code code}.
+     *
+     * @throws IllegalArgumentException if no status has that code
+     */
+    public static PartitionStatus fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length || BY_CODE[code].code != code) {
+            throw new IllegalArgumentException("Unknown partition status code: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /** The code of the status named {@code name}, as the service methods taking a status name bind it. */
+    public static int codeOf(String name) {
+        return valueOf(name).code;
+    }
 }
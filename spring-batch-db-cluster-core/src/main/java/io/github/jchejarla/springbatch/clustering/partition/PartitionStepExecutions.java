@@ -0,0 +1,86 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.partition;
+
+import io.github.jchejarla.springbatch.clustering.core.DatabaseBackedClusterService;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.step.StepExecution;
+
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The partitions of a drained job, read from {@code BATCH_PARTITIONS} one page at a time while iterated, so
+ * that handing millions of partitions over to the manager step's aggregation does not hold them all at once.
+ * Each is a {@link PartitionSummary#toStepExecution stand-in} carrying the status its partition ended in.
+ *
+ * @author Janardhan Chejarla
+ */
+class PartitionStepExecutions extends AbstractCollection<StepExecution> {
+
+    private final DatabaseBackedClusterService databaseBackedClusterService;
+    private final long masterStepExecutionId;
+    private final JobExecution jobExecution;
+    private final int size;
+    private final int pageSize;
+
+    PartitionStepExecutions(DatabaseBackedClusterService databaseBackedClusterService, long masterStepExecutionId,
+                            JobExecution jobExecution, int size, int pageSize) {
+        this.databaseBackedClusterService = databaseBackedClusterService;
+        this.masterStepExecutionId = masterStepExecutionId;
+        this.jobExecution = jobExecution;
+        this.size = size;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<StepExecution> iterator() {
+        return new Iterator<>() {
+            private List<PartitionSummary> page = List.of();
+            private int index;
+            private long lastStepExecutionId;
+            private boolean lastPage;
+
+            @Override
+            public boolean hasNext() {
+                if (index == page.size() && !lastPage) {
+                    page = databaseBackedClusterService.getPartitionsPage(masterStepExecutionId, lastStepExecutionId, pageSize);
+                    index = 0;
+                    lastPage = page.size() < pageSize;
+                    if (!page.isEmpty()) {
+                        lastStepExecutionId = page.get(page.size() - 1).stepExecutionId();
+                    }
+                }
+                return index < page.size();
+            }
+
+            @Override
+            public StepExecution next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.get(index++).toStepExecution(jobExecution);
+            }
+        };
+    }
+}
@@ -16,9 +16,12 @@
 package io.github.jchejarla.springbatch.clustering.partition;
 
 import io.github.jchejarla.springbatch.clustering.api.PartitionStrategy;
+import io.github.jchejarla.springbatch.clustering.partition.impl.CostBalancedPartitionAssignmentStrategy;
 import io.github.jchejarla.springbatch.clustering.partition.impl.FixedNodeCountPartitionAssignmentStrategy;
 import io.github.jchejarla.springbatch.clustering.partition.impl.LeastLoadedPartitionAssignmentStrategy;
 import io.github.jchejarla.springbatch.clustering.partition.impl.RoundRobinPartitionAssignmentStrategy;
+import io.github.jchejarla.springbatch.clustering.partition.impl.SharedQueuePartitionAssignmentStrategy;
+import io.github.jchejarla.springbatch.clustering.partition.impl.WeightedCapacityPartitionAssignmentStrategy;
 
 public class PartitionStrategyFactory {
 
@@ -34,6 +37,15 @@ public class PartitionStrategyFactory {
             case LEAST_LOADED -> {
                 return new LeastLoadedPartitionAssignmentStrategy();
             }
+            case SHARED_QUEUE -> {
+                return new SharedQueuePartitionAssignmentStrategy();
+            }
+            case WEIGHTED_CAPACITY -> {
+                return new WeightedCapacityPartitionAssignmentStrategy();
+            }
+            case COST_BALANCED, HISTORICAL_COST -> {
+                return new CostBalancedPartitionAssignmentStrategy();
+            }
             default -> throw new IllegalArgumentException("Unknown partition strategy: " + mode);
         }
     }
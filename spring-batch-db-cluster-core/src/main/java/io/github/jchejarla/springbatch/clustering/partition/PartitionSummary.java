@@ -0,0 +1,44 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.partition;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.step.StepExecution;
+
+/**
+ * A partition as its master sees it once the job drained: which step execution it is and how it ended.
+ *
+ * @param stepExecutionId the partition's step execution
+ * @param partitionKey    its step name
+ * @param status          its current status
+ */
+public record PartitionSummary(long stepExecutionId, String partitionKey, PartitionStatus status) {
+
+    /**
+     * A stand-in for the partition's step execution, with the status its partition ended in (a partition not
+     * {@code COMPLETED} counts as failed). An aggregator that reloads partition step executions (such as
+     * {@code ClusterAwareAggregator}) sees their full counts.
+     */
+    public StepExecution toStepExecution(JobExecution jobExecution) {
+        StepExecution stepExecution = new StepExecution(stepExecutionId, partitionKey, jobExecution);
+        BatchStatus batchStatus = status == PartitionStatus.COMPLETED ? BatchStatus.COMPLETED : BatchStatus.FAILED;
+        stepExecution.setStatus(batchStatus);
+        stepExecution.setExitStatus(batchStatus == BatchStatus.COMPLETED ? ExitStatus.COMPLETED : ExitStatus.FAILED);
+        return stepExecution;
+    }
+}
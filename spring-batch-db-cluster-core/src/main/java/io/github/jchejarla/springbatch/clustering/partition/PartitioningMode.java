@@ -18,5 +18,13 @@ package io.github.jchejarla.springbatch.clustering.partition;
 public enum PartitioningMode {
     ROUND_ROBIN,
     FIXED_NODE_COUNT,
-    LEAST_LOADED
+    LEAST_LOADED,
+    /** Partitions are not assigned to nodes; workers claim them from a cluster-wide queue. */
+    SHARED_QUEUE,
+    /** Partitions are assigned in proportion to each node's advertised capacity minus its load. */
+    WEIGHTED_CAPACITY,
+    /** Partitions are assigned largest cost hint first, each to the node with the least cost so far. */
+    COST_BALANCED,
+    /** {@link #COST_BALANCED}, with each partition's cost predicted from the job's earlier runs. */
+    HISTORICAL_COST
 }
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.partition;
+
+/**
+ * A running range partition, as its master sees it when looking for ranges to split.
+ *
+ * @param stepExecutionId the partition's step execution
+ * @param remainingItems  items left between the last position the partition reported and the end of its range
+ * @param splitRequested  whether a split was already requested and not answered yet
+ */
+public record SplittableRange(long stepExecutionId, long remainingItems, boolean splitRequested) {
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.partition.impl;
+
+import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNode;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionAssignment;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionAssignmentStrategy;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionCost;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * A cost-aware strategy that balances the total {@link PartitionCost cost hint} per node rather than the
+ * partition count.
+ *
+ * <p>Partitions are taken largest cost first and each is assigned to the node with the least cost assigned so
+ * far (longest-processing-time-first): a job whose partitions range from a thousand to ten million rows ends
+ * at roughly the same time on every node instead of on the one that drew the big ones. Ties are broken by node
+ * order, and nodes come ordered by live load, so the least busy node gets the largest partition. Without cost
+ * hints every partition costs the same and this is an even spread.</p>
+ *
+ * @author Janardhan Chejarla
+ */
+public class CostBalancedPartitionAssignmentStrategy implements PartitionAssignmentStrategy {
+
+    @Override
+    public List<PartitionAssignment> assignPartitions(List<ExecutionContext> executionContexts, List<ClusterNode> availableNodes) {
+        long[] costs = executionContexts.stream().mapToLong(PartitionCost::of).toArray();
+        int[] targets = balance(costs, availableNodes.size());
+        List<PartitionAssignment> assignments = new ArrayList<>(executionContexts.size());
+        for (int i = 0; i < executionContexts.size(); i++) {
+            assignments.add(new PartitionAssignment(i, executionContexts.get(i), availableNodes.get(targets[i]).nodeId()));
+        }
+        return assignments;
+    }
+
+    /**
+     * Longest-processing-time-first: spreads items of the given costs over {@code nodeCount} nodes so the total
+     * cost per node is balanced.
+     *
+     * @return for each item, the index of the node it goes to
+     */
+    public static int[] balance(long[] costs, int nodeCount) {
+        long[] assignedCost = new long[nodeCount];
+        int[] targets = new int[costs.length];
+        int[] largestFirst = IntStream.range(0, costs.length).boxed()
+                .sorted(Comparator.comparingLong((Integer i) -> costs[i]).reversed())
+                .mapToInt(Integer::intValue).toArray();
+        for (int i : largestFirst) {
+            int target = 0;
+            for (int j = 1; j < nodeCount; j++) {
+                if (assignedCost[j] < assignedCost[target]) {
+                    target = j;
+                }
+            }
+            assignedCost[target] += costs[i];
+            targets[i] = target;
+        }
+        return targets;
+    }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.partition.impl;
+
+import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNode;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionAssignment;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionAssignmentStrategy;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A partition strategy that assigns no partition to any node.
+ * <p>
+ * The partitions are stored without an assigned node and form a queue shared by the whole cluster: any
+ * active worker with free execution permits claims the next ones, and becomes their assigned node by
+ * claiming them. Load therefore follows the throughput each node actually achieves, nodes that join
+ * mid-job take work right away, and a node that fails before claiming anything strands nothing.
+ * </p>
+ *
+ * @author Janardhan Chejarla
+ */
+public class SharedQueuePartitionAssignmentStrategy implements PartitionAssignmentStrategy {
+
+    /**
+     * Leaves every partition unassigned.
+     *
+     * @param executionContexts The list of {@link ExecutionContext} instances representing the partitions.
+     * @param availableNodes    The available nodes in the cluster; not used.
+     * @return A list of {@link PartitionAssignment} objects without a node id.
+     */
+    @Override
+    public List<PartitionAssignment> assignPartitions(List<ExecutionContext> executionContexts, List<ClusterNode> availableNodes) {
+        List<PartitionAssignment> assignments = new ArrayList<>(executionContexts.size());
+        for (int i = 0; i < executionContexts.size(); i++) {
+            assignments.add(new PartitionAssignment(i, executionContexts.get(i), null));
+        }
+        return assignments;
+    }
+
+}
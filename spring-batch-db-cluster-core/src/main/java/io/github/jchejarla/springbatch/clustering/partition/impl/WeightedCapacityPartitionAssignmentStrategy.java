@@ -0,0 +1,87 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.partition.impl;
+
+import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNode;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionAssignment;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionAssignmentStrategy;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A capacity-aware strategy that assigns partitions in proportion to each node's free capacity.
+ *
+ * <p>A node's capacity is what it advertised when it registered (see {@link ClusterNode#capacity()}): its
+ * concurrency limit capped by its processors, scaled by its {@code capacity-weight}. Each partition goes to
+ * the node whose load — seeded from its live load, incremented as partitions are assigned within this call —
+ * would be the smallest fraction of its capacity, so nodes fill up to the same utilization: while the
+ * partitions fit, every node receives a share proportional to its free capacity (capacity minus load), and
+ * beyond that the overflow is still spread by capacity. A small node is not handed as many partitions as a
+ * big one, nor a busy node as many as an idle one.</p>
+ *
+ * <p>Nodes that advertised no capacity (registered by an earlier version) count as the average of those that
+ * did, or all as equal when none did. Ties are broken by node order for deterministic assignment.</p>
+ *
+ * @author Janardhan Chejarla
+ */
+public class WeightedCapacityPartitionAssignmentStrategy implements PartitionAssignmentStrategy {
+
+    @Override
+    public List<PartitionAssignment> assignPartitions(List<ExecutionContext> executionContexts, List<ClusterNode> availableNodes) {
+        int nodeCount = availableNodes.size();
+        double[] capacity = capacities(availableNodes);
+        long[] runningLoad = new long[nodeCount];
+        for (int j = 0; j < nodeCount; j++) {
+            runningLoad[j] = availableNodes.get(j).currentLoad();
+        }
+
+        List<PartitionAssignment> assignments = new ArrayList<>();
+        for (int i = 0; i < executionContexts.size(); i++) {
+            int target = 0;
+            for (int j = 1; j < nodeCount; j++) {
+                if ((runningLoad[j] + 1) / capacity[j] < (runningLoad[target] + 1) / capacity[target]) {
+                    target = j;
+                }
+            }
+            runningLoad[target]++;
+            assignments.add(new PartitionAssignment(i, executionContexts.get(i), availableNodes.get(target).nodeId()));
+        }
+        return assignments;
+    }
+
+    private static double[] capacities(List<ClusterNode> nodes) {
+        double[] capacity = new double[nodes.size()];
+        double advertised = 0;
+        int advertising = 0;
+        for (int j = 0; j < nodes.size(); j++) {
+            capacity[j] = nodes.get(j).capacity();
+            if (capacity[j] > 0) {
+                advertised += capacity[j];
+                advertising++;
+            }
+        }
+        double fallback = advertising == 0 ? 1 : advertised / advertising;
+        for (int j = 0; j < capacity.length; j++) {
+            if (capacity[j] <= 0) {
+                capacity[j] = fallback;
+            }
+        }
+        return capacity;
+    }
+
+}
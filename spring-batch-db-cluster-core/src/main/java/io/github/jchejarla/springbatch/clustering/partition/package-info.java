@@ -16,8 +16,9 @@
 /**
  * Master-side partitioning.
  *
- * <p>Contains the cluster-aware {@code PartitionHandler} that persists partitions, monitors their
- * completion, and reassigns orphaned work, together with the partition-assignment strategy
- * abstraction that maps work units to the currently live nodes.</p>
+ * <p>Contains the cluster-aware {@code PartitionHandler} that persists partitions and waits for their
+ * completion, the node-level {@code JobProgressMonitor} that tracks every job the node is mastering (and
+ * reassigns orphaned work) with one query per tick, and the partition-assignment strategy abstraction that
+ * maps work units to the currently live nodes.</p>
  */
 package io.github.jchejarla.springbatch.clustering.partition;
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.polling;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Poll interval that backs off exponentially while a polling loop finds nothing to do, and snaps back to
+ * its minimum as soon as it finds work.
+ *
+ * <p>Each {@link #backOff()} doubles the interval up to the ceiling; {@link #reset()} returns it to the
+ * minimum and notifies the registered reset listeners (so a loop sleeping on a long interval can poll
+ * again right away). A ceiling at or below the minimum disables the backoff: the interval stays fixed.</p>
+ *
+ * @author Janardhan Chejarla
+ */
+public class AdaptivePollingInterval {
+
+    private final long minInterval;
+    private final long maxInterval;
+    private final AtomicLong currentInterval;
+    private final List<Runnable> resetListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param minInterval the interval used while there is work, in milliseconds
+     * @param maxInterval the ceiling the interval backs off to while idle, in milliseconds
+     */
+    public AdaptivePollingInterval(long minInterval, long maxInterval) {
+        this.minInterval = minInterval;
+        this.maxInterval = Math.max(minInterval, maxInterval);
+        this.currentInterval = new AtomicLong(minInterval);
+    }
+
+    /** The interval to wait before the next poll, in milliseconds. */
+    public long current() {
+        return currentInterval.get();
+    }
+
+    public long getMinInterval() {
+        return minInterval;
+    }
+
+    public long getMaxInterval() {
+        return maxInterval;
+    }
+
+    /** Records an idle poll: doubles the interval, up to the ceiling. */
+    public long backOff() {
+        return currentInterval.updateAndGet(interval -> Math.min(maxInterval, Math.max(1, interval) * 2));
+    }
+
+    /**
+     * Records that work was found (or is about to arrive): returns the interval to its minimum and, if it
+     * had backed off, notifies the reset listeners.
+     */
+    public void reset() {
+        if (currentInterval.getAndSet(minInterval) != minInterval) {
+            resetListeners.forEach(Runnable::run);
+        }
+    }
+
+    /** Registers a callback run whenever {@link #reset()} shortens a backed-off interval. */
+    public void addResetListener(Runnable listener) {
+        resetListeners.add(listener);
+    }
+}
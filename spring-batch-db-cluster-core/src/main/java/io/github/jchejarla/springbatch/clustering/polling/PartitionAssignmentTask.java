@@ -15,5 +15,27 @@
  */
 package io.github.jchejarla.springbatch.clustering.polling;
 
-public record PartitionAssignmentTask(Long jobExecutionId, String stepName, Long stepExecutionId, Long masterStepExecutionId, boolean isTransferable, String masterStepName, String assignedNode) {
+/**
+ * A partition as seen by the node it is assigned to.
+ *
+ * @param assignedNodeKey the key of the node the partition is assigned to, not its id
+ * @param claimEpoch the epoch of the assigned node when it claimed the partition (its fencing token), or
+ *                   {@code null} when the partition was not claimed by this node
+ * @param cost       the partition's cost hint (see {@link io.github.jchejarla.springbatch.clustering.partition.PartitionCost}),
+ *                   or {@code null} when it has none or it was not read
+ */
+public record PartitionAssignmentTask(Long jobExecutionId, String stepName, Long stepExecutionId, Long masterStepExecutionId, boolean isTransferable, String masterStepName, Integer assignedNodeKey, Long claimEpoch, Long cost) {
+
+    public PartitionAssignmentTask(Long jobExecutionId, String stepName, Long stepExecutionId, Long masterStepExecutionId, boolean isTransferable, String masterStepName, Integer assignedNodeKey) {
+        this(jobExecutionId, stepName, stepExecutionId, masterStepExecutionId, isTransferable, masterStepName, assignedNodeKey, null, null);
+    }
+
+    public PartitionAssignmentTask(Long jobExecutionId, String stepName, Long stepExecutionId, Long masterStepExecutionId, boolean isTransferable, String masterStepName, Integer assignedNodeKey, Long claimEpoch) {
+        this(jobExecutionId, stepName, stepExecutionId, masterStepExecutionId, isTransferable, masterStepName, assignedNodeKey, claimEpoch, null);
+    }
+
+    /** This partition, claimed under the given node epoch. */
+    public PartitionAssignmentTask withClaimEpoch(long claimEpoch) {
+        return new PartitionAssignmentTask(jobExecutionId, stepName, stepExecutionId, masterStepExecutionId, isTransferable, masterStepName, assignedNodeKey, claimEpoch, cost);
+    }
 }
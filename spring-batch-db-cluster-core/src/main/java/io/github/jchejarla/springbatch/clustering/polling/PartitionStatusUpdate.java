@@ -0,0 +1,26 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.polling;
+
+/**
+ * A partition's transition to a final status ({@code COMPLETED} or {@code FAILED}), as buffered by
+ * {@link PartitionStatusWriteBehindBuffer}.
+ *
+ * @param task   the partition
+ * @param status the new status
+ */
+public record PartitionStatusUpdate(PartitionAssignmentTask task, String status) {
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.polling;
+
+import io.github.jchejarla.springbatch.clustering.core.DatabaseBackedClusterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for the final status of a worker's partitions. Instead of one transaction per finished
+ * partition, transitions are collected and written by {@link DatabaseBackedClusterService#updatePartitionStatuses}
+ * as JDBC batches of at most {@code maxBatchSize}: on every {@link #flush()} (scheduled by the worker), and
+ * as soon as {@code maxBatchSize} transitions are waiting.
+ * <p>
+ * Each row keeps its compare-and-set guard, so a transition for a partition that was reassigned meanwhile
+ * is rejected, logged and counted in {@link #getRejectedCount()}. A batch that fails is kept and retried on
+ * the next flush; a transition whose batch failed {@value #MAX_BATCH_ATTEMPTS} times is written on its own
+ * instead, so one bad row cannot hold back the others, and is dropped, logged and counted in
+ * {@link #getDroppedCount()} if that write fails too, as an unbuffered status write would have failed. Once
+ * {@link #close()}d, the buffer writes every transition as soon as it is added.
+ * </p>
+ *
+ * @author Janardhan Chejarla
+ */
+@Slf4j
+@RequiredArgsConstructor
+class PartitionStatusWriteBehindBuffer {
+
+    static final int MAX_BATCH_ATTEMPTS = 3;
+
+    private final DatabaseBackedClusterService databaseBackedClusterService;
+    private final int maxBatchSize;
+    private final Queue<BufferedUpdate> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile boolean closed;
+
+    /** Buffers one transition; writes the buffer right away if it is full or closed. Never throws. */
+    void add(PartitionStatusUpdate update) {
+        pending.add(new BufferedUpdate(update, 0));
+        int count = pendingCount.incrementAndGet();
+        if (closed) {
+            flush();
+        } else if (count >= maxBatchSize && flushLock.tryLock()) {
+            // A flush already running will pick this transition up, so the finishing step never waits for it.
+            try {
+                writePending();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    /** Writes every buffered transition, in batches of at most {@code maxBatchSize}. */
+    void flush() {
+        flushLock.lock();
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /** Flushes, and writes any later transition through; called on shutdown. */
+    void close() {
+        closed = true;
+        flush();
+    }
+
+    /** Transitions waiting to be written. */
+    int size() {
+        return pendingCount.get();
+    }
+
+    /** Transitions not applied because their partition was no longer claimed by this node under this epoch. */
+    long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /** Transitions given up on after their batch failed {@value #MAX_BATCH_ATTEMPTS} times and their own write failed too. */
+    long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    // Must hold flushLock.
+    private void writePending() {
+        List<BufferedUpdate> batch;
+        while (!(batch = drain()).isEmpty()) {
+            if (!write(batch)) {
+                return;
+            }
+        }
+    }
+
+    private List<BufferedUpdate> drain() {
+        List<BufferedUpdate> batch = new ArrayList<>(maxBatchSize);
+        BufferedUpdate update;
+        while (batch.size() < maxBatchSize && (update = pending.poll()) != null) {
+            batch.add(update);
+        }
+        pendingCount.addAndGet(-batch.size());
+        return batch;
+    }
+
+    private boolean write(List<BufferedUpdate> batch) {
+        try {
+            int[] rowsUpdated = databaseBackedClusterService.updatePartitionStatuses(batch.stream().map(BufferedUpdate::update).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                if (rowsUpdated[i] == 0) {
+                    reject(batch.get(i).update());
+                }
+            }
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} partition status update(s); retrying on the next flush", batch.size(), e);
+            for (BufferedUpdate failed : batch) {
+                BufferedUpdate retry = new BufferedUpdate(failed.update(), failed.failedAttempts() + 1);
+                if (retry.failedAttempts() < MAX_BATCH_ATTEMPTS) {
+                    pending.add(retry);
+                    pendingCount.incrementAndGet();
+                } else {
+                    writeAlone(retry.update());
+                }
+            }
+            return false;
+        }
+    }
+
+    private void writeAlone(PartitionStatusUpdate update) {
+        try {
+            if (databaseBackedClusterService.updatePartitionStatuses(List.of(update))[0] == 0) {
+                reject(update);
+            }
+        } catch (RuntimeException e) {
+            droppedCount.incrementAndGet();
+            log.error("Giving up setting partition to {} after {} failed attempts (jobExecutionId={}, stepExecutionId={})",
+                    update.status(), MAX_BATCH_ATTEMPTS + 1, update.task().jobExecutionId(), update.task().stepExecutionId(), e);
+        }
+    }
+
+    private void reject(PartitionStatusUpdate update) {
+        rejectedCount.incrementAndGet();
+        log.warn("Partition not set to {}: it is no longer pending or claimed by the node with key {} (jobExecutionId={}, stepExecutionId={})",
+                update.status(), update.task().assignedNodeKey(), update.task().jobExecutionId(), update.task().stepExecutionId());
+    }
+
+    private record BufferedUpdate(PartitionStatusUpdate update, int failedAttempts) {
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.polling;
+
+import java.util.Collection;
+
+/**
+ * SPI for waking a worker as soon as partitions are assigned to it, instead of waiting for its next
+ * {@code BATCH_PARTITIONS} poll.
+ *
+ * <p>The master calls {@link #notifyPartitionsAssigned(Collection)} once partitions become claimable
+ * (after the job is marked {@code STARTED}, and after orphaned partitions are reassigned). Each worker
+ * {@linkplain #subscribe(String, Runnable) subscribes} for its own node id and polls immediately when woken.
+ * A wakeup is only a hint: it carries no partition data, may be lost (e.g. while the listener reconnects)
+ * or coalesced, and the claim query stays the single source of truth. Workers therefore keep polling at
+ * {@code spring.batch.cluster.event-driven-safety-polling-interval} as a safety net.</p>
+ *
+ * <p>{@link #NONE} (the default) disables event-driven dispatch, leaving workers on fixed-rate polling at
+ * {@code spring.batch.cluster.task-polling-interval}.</p>
+ *
+ * @author Janardhan Chejarla
+ */
+public interface PartitionWakeupChannel extends AutoCloseable {
+
+    /** No-op channel: nothing is sent, workers are never woken, and the regular polling interval applies. */
+    PartitionWakeupChannel NONE = new PartitionWakeupChannel() {
+        @Override
+        public boolean isEventDriven() {
+            return false;
+        }
+
+        @Override
+        public void notifyPartitionsAssigned(Collection<String> nodeIds) {
+        }
+
+        @Override
+        public void subscribe(String nodeId, Runnable onWakeup) {
+        }
+    };
+
+    /**
+     * Whether this channel actually delivers wakeups. When {@code true}, workers relax their fixed-rate poll
+     * to the (slower) safety-net interval.
+     */
+    default boolean isEventDriven() {
+        return true;
+    }
+
+    /**
+     * Wakes the given nodes because claimable partitions were just assigned to them. Best effort: an
+     * implementation must not throw, since a lost wakeup only delays the partition until the next poll.
+     *
+     * @param nodeIds the nodes that received partitions (duplicates allowed)
+     */
+    void notifyPartitionsAssigned(Collection<String> nodeIds);
+
+    /**
+     * Starts listening for wakeups addressed to {@code nodeId}, running {@code onWakeup} for each one
+     * received. Called once per node, when the worker starts.
+     *
+     * @param nodeId this node's id
+     * @param onWakeup callback run (on the channel's own thread) whenever a wakeup arrives; must not block
+     */
+    void subscribe(String nodeId, Runnable onWakeup);
+
+    /** Stops listening and releases any held resources. */
+    @Override
+    default void close() {
+    }
+}
@@ -22,7 +22,9 @@ import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNodeInfo;
 import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNodeStatusChangeConditionNotifier;
 import io.github.jchejarla.springbatch.clustering.mgmt.NodeLoad;
 import io.github.jchejarla.springbatch.clustering.mgmt.NodeStatus;
+import io.github.jchejarla.springbatch.clustering.partition.HistoricalPartitionCostModel;
 import io.github.jchejarla.springbatch.clustering.partition.PartitionStatus;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.*;
@@ -39,6 +41,7 @@ import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.TaskScheduler;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.*;
@@ -65,21 +68,74 @@ public class PartitionedWorkerNodeTasksRunner implements ClusterNodeStatusChange
     private final TaskScheduler completedTasksCleanupScheduler;
     private final TaskScheduler updateBatchPartitionsScheduler;
     private final ClusterNodeInfo currentNodeInfo;
-    private final ConcurrentLinkedQueue<Future<PartitionAssignmentTask>> tasksSubmitted = new ConcurrentLinkedQueue<>();
+    private final PartitionWakeupChannel partitionWakeupChannel;
+    private final AdaptivePollingInterval pollingInterval;
+    // keyed by future so a cancelled or failed task, whose future yields no result, still releases its assignment
+    private final Map<Future<PartitionAssignmentTask>, PartitionAssignmentTask> tasksSubmitted = new ConcurrentHashMap<>();
     private final Set<PartitionAssignmentTask> inProgressAssignments = new CopyOnWriteArraySet<>();
+    // The poll chain: exactly one poll is scheduled or running at a time. A poll only runs if its generation
+    // is still current, so a poll superseded by requestPoll() is a no-op even if it could not be cancelled.
+    private final Object pollScheduleLock = new Object();
+    private ScheduledFuture<?> nextPoll;
+    private long pollGeneration;
+    private boolean pollRunning;
+    private boolean pollRequested;
+    // Set when the last claim used every free permit, i.e. more assigned partitions are probably waiting.
+    private volatile boolean claimBacklogLikely;
+    // Set by start() when status-write-behind-enabled; otherwise each final status is written on its own.
+    private volatile PartitionStatusWriteBehindBuffer statusWriteBehindBuffer;
+
+    public PartitionedWorkerNodeTasksRunner(ApplicationContext applicationContext,
+                                            JobExplorer jobExplorer,
+                                            JobRepository jobRepository,
+                                            TaskExecutor taskExecutor,
+                                            BatchClusterProperties batchClusterProperties,
+                                            DatabaseBackedClusterService databaseBackedClusterService,
+                                            TaskScheduler partitionPollingScheduler,
+                                            TaskScheduler completedTasksCleanupScheduler,
+                                            TaskScheduler updateBatchPartitionsScheduler,
+                                            ClusterNodeInfo currentNodeInfo) {
+        this(applicationContext, jobExplorer, jobRepository, taskExecutor, batchClusterProperties, databaseBackedClusterService,
+                partitionPollingScheduler, completedTasksCleanupScheduler, updateBatchPartitionsScheduler, currentNodeInfo,
+                PartitionWakeupChannel.NONE, workerPollingInterval(batchClusterProperties, PartitionWakeupChannel.NONE));
+    }
+
+    /**
+     * The adaptive interval of a worker's partition poll: it starts at {@code task-polling-interval} (or at
+     * {@code event-driven-safety-polling-interval} when wakeups are event driven) and backs off towards
+     * {@code max-idle-polling-interval} while polls find nothing.
+     */
+    public static AdaptivePollingInterval workerPollingInterval(BatchClusterProperties batchClusterProperties, PartitionWakeupChannel partitionWakeupChannel) {
+        long minInterval = partitionWakeupChannel.isEventDriven()
+                ? batchClusterProperties.getEventDrivenSafetyPollingInterval()
+                : batchClusterProperties.getTaskPollingInterval();
+        return new AdaptivePollingInterval(minInterval, batchClusterProperties.getMaxIdlePollingInterval());
+    }
 
     /**
      * Starts the partition task polling and execution process when the application is ready.
-     * This method is triggered by the {@link ApplicationReadyEvent}.  It schedules the
-     * {@link #pollAndExecute()} method to run at a fixed rate, as configured in the
-     * {@link BatchClusterProperties}.
+     * This method is triggered by the {@link ApplicationReadyEvent}.  It starts the
+     * {@link #pollAndExecute()} chain, each poll scheduling the next one after the current
+     * {@link AdaptivePollingInterval}: the configured interval while polls find work, backing off while they
+     * do not. With an event-driven {@link PartitionWakeupChannel}, the node also polls as soon as it is woken.
+     * With {@code status-write-behind-enabled}, it also schedules the flush of the partition status buffer.
      */
     @EventListener(ApplicationReadyEvent.class)
     public void start() {
         log.info("Starting monitoring task for partitions");
-        partitionPollingScheduler.scheduleAtFixedRate(this::pollAndExecute, Duration.ofMillis(batchClusterProperties.getTaskPollingInterval()));
+        if (batchClusterProperties.isStatusWriteBehindEnabled()) {
+            PartitionStatusWriteBehindBuffer buffer = new PartitionStatusWriteBehindBuffer(databaseBackedClusterService, batchClusterProperties.getStatusWriteBehindMaxBatchSize());
+            statusWriteBehindBuffer = buffer;
+            updateBatchPartitionsScheduler.scheduleWithFixedDelay(buffer::flush, Duration.ofMillis(batchClusterProperties.getStatusWriteBehindFlushInterval()));
+        }
+        if (partitionWakeupChannel.isEventDriven()) {
+            partitionWakeupChannel.subscribe(batchClusterProperties.getNodeId(), this::requestPoll);
+        }
+        pollingInterval.addResetListener(this::requestPoll);
+        synchronized (pollScheduleLock) {
+            schedulePoll(0);
+        }
         completedTasksCleanupScheduler.scheduleAtFixedRate(this::cleanupCompletedTasks, Duration.ofMillis(batchClusterProperties.getCompletedTasksCleanupPollingInterval()));
-        updateBatchPartitionsScheduler.scheduleAtFixedRate(this::updateLastUpdateTimeForInProgressTasks, Duration.ofMillis(batchClusterProperties.getHeartbeatInterval()));
         log.info("Started monitoring task for partitions");
     }
 
@@ -89,8 +145,10 @@ public class PartitionedWorkerNodeTasksRunner implements ClusterNodeStatusChange
      * This method performs the following steps:
      * </p>
      * <ol>
-     * <li>Fetches partition tasks assigned to this node from the database.</li>
-     * <li>If there are tasks to run, updates their status to "CLAIMED" in the database.</li>
+     * <li>Claims at most as many of the partition tasks assigned to this node as there are free execution
+     * permits, atomically flipping them to "CLAIMED" and getting back only the rows this poll actually claimed.
+     * With {@code work-stealing-enabled}, a poll that finds none first takes over pending partitions from the
+     * most backlogged node, then claims those.</li>
      * <li>Iterates through the tasks and executes each one in a separate thread using the
      * {@link TaskExecutor}.</li>
      * <li>For each task:
@@ -109,23 +167,129 @@ public class PartitionedWorkerNodeTasksRunner implements ClusterNodeStatusChange
         if (NodeStatus.ACTIVE != currentNodeInfo.getNodeStatus()) {
             return;
         }
-        List<PartitionAssignmentTask> partitionsToRun = databaseBackedClusterService.fetchPartitionAssignedTasks();
-        if (!partitionsToRun.isEmpty()) {
-            log.info("Updating tasks status to CLAIMED");
-            databaseBackedClusterService.updatePartitionsStatus(partitionsToRun, PartitionStatus.CLAIMED.name());
-            log.info("Updating tasks status to CLAIMED is completed");
+        // Claim no more than the executor can start right now: anything beyond that stays PENDING, visible to
+        // the master and free to be moved, instead of sitting CLAIMED behind a saturated executor.
+        int freePermits = availableExecutionPermits();
+        if (freePermits <= 0) {
+            // Busy, not idle: keep polling at the minimum interval so freed permits are refilled promptly.
+            pollingInterval.reset();
+            if (batchClusterProperties.isTracingEnabled()) {
+                log.info("All {} execution permits of node {} are in use; skipping this poll", batchClusterProperties.getConcurrencyLimitPerNode(), batchClusterProperties.getNodeId());
+            }
+            return;
+        }
+        // Only the rows this poll's own claim flipped to CLAIMED come back, so a partition is never started twice.
+        List<PartitionAssignmentTask> partitionsToRun = databaseBackedClusterService.claimPartitionAssignedTasks(freePermits);
+        if (partitionsToRun.isEmpty() && batchClusterProperties.isWorkStealingEnabled()
+                && databaseBackedClusterService.stealPartitions(freePermits) > 0) {
+            // Idle with free permits: the partitions just taken over from a backlogged node are now ours to claim.
+            partitionsToRun = databaseBackedClusterService.claimPartitionAssignedTasks(freePermits);
+        }
+        claimBacklogLikely = partitionsToRun.size() == freePermits;
+        if (partitionsToRun.isEmpty()) {
+            pollingInterval.backOff();
+        } else {
+            log.info("Claimed {} partition task(s) for node {}", partitionsToRun.size(), batchClusterProperties.getNodeId());
+            pollingInterval.reset();
         }
 
         for (PartitionAssignmentTask partitionAssignmentTask : partitionsToRun) {
             if (taskExecutor instanceof AsyncTaskExecutor asyncTaskExecutor) {
                 Callable<PartitionAssignmentTask> wrapperTask = createWrapperTaskAroundExecutionTask(partitionAssignmentTask);
                 Future<PartitionAssignmentTask> taskSubmitted = asyncTaskExecutor.submit(wrapperTask);
-                tasksSubmitted.add(taskSubmitted);
+                tasksSubmitted.put(taskSubmitted, partitionAssignmentTask);
                 inProgressAssignments.add(partitionAssignmentTask);
             }
         }
     }
 
+    /**
+     * Execution permits still free on this node: the per-node concurrency limit minus the partitions already
+     * claimed here (submitted, running, or not yet pruned) or running steps reported by {@link NodeLoad},
+     * whichever is higher.
+     */
+    protected int availableExecutionPermits() {
+        long inUse = Math.max(NodeLoad.INST.getCurrentLoad(), inProgressAssignments.size());
+        return (int) Math.max(0, batchClusterProperties.getConcurrencyLimitPerNode() - inUse);
+    }
+
+    /** The worker's current partition poll interval, for metrics. */
+    public AdaptivePollingInterval getPollingInterval() {
+        return pollingInterval;
+    }
+
+    /** Partitions claimed by this node that have not finished yet, for metrics. */
+    public int getInProgressPartitionCount() {
+        return inProgressAssignments.size();
+    }
+
+    /** Submitted partition tasks not yet pruned by the completed-tasks cleanup, for metrics. */
+    public int getSubmittedTaskCount() {
+        return tasksSubmitted.size();
+    }
+
+    /**
+     * Buffered final statuses not applied because the partition was no longer claimed by this node under its
+     * current epoch, for metrics; always 0 without {@code status-write-behind-enabled}.
+     */
+    public long getRejectedStatusUpdateCount() {
+        PartitionStatusWriteBehindBuffer buffer = statusWriteBehindBuffer;
+        return buffer == null ? 0 : buffer.getRejectedCount();
+    }
+
+    /**
+     * Buffered final statuses given up on because they could not be written, for metrics; always 0 without
+     * {@code status-write-behind-enabled}.
+     */
+    public long getDroppedStatusUpdateCount() {
+        PartitionStatusWriteBehindBuffer buffer = statusWriteBehindBuffer;
+        return buffer == null ? 0 : buffer.getDroppedCount();
+    }
+
+    /**
+     * Polls now instead of at the end of the current interval: the pending poll is replaced by an immediate
+     * one, or, when a poll is running right now, the next one is scheduled without delay. Either way, at
+     * most one poll is pending, so bursts of wakeups coalesce.
+     */
+    void requestPoll() {
+        synchronized (pollScheduleLock) {
+            if (nextPoll == null) {
+                return;
+            }
+            if (pollRunning) {
+                pollRequested = true;
+                return;
+            }
+            nextPoll.cancel(false);
+            schedulePoll(0);
+        }
+    }
+
+    // Must hold pollScheduleLock.
+    private void schedulePoll(long delayMillis) {
+        long generation = ++pollGeneration;
+        nextPoll = partitionPollingScheduler.schedule(() -> pollAndScheduleNext(generation), Instant.now().plusMillis(delayMillis));
+    }
+
+    private void pollAndScheduleNext(long generation) {
+        synchronized (pollScheduleLock) {
+            if (generation != pollGeneration) {
+                return;
+            }
+            pollRunning = true;
+        }
+        try {
+            pollAndExecute();
+        } finally {
+            synchronized (pollScheduleLock) {
+                pollRunning = false;
+                long delay = pollRequested ? 0 : pollingInterval.current();
+                pollRequested = false;
+                schedulePoll(delay);
+            }
+        }
+    }
+
     private Callable<PartitionAssignmentTask> createWrapperTaskAroundExecutionTask(PartitionAssignmentTask partitionAssignmentTask) {
         Callable<PartitionAssignmentTask> stepTask = () -> {
             executeStep(partitionAssignmentTask);
@@ -168,7 +332,8 @@ public class PartitionedWorkerNodeTasksRunner implements ClusterNodeStatusChange
                 NodeLoad.INST.incrementLoadCount();
                 // Launch the Step
                 step.execute(stepExecution);
-                databaseBackedClusterService.updatePartitionStatus(partitionAssignmentTask, PartitionStatus.COMPLETED.name());
+                finishPartition(partitionAssignmentTask, PartitionStatus.COMPLETED.name());
+                recordRuntime(stepExecution);
             } catch (Exception e) {
                 if (NodeStatus.ACTIVE != currentNodeInfo.getNodeStatus()) {
                     // This node lost its heartbeat and is being fenced (its in-progress tasks were cancelled).
@@ -180,50 +345,93 @@ public class PartitionedWorkerNodeTasksRunner implements ClusterNodeStatusChange
                 } else {
                     stepExecution.setStatus(BatchStatus.FAILED);
                     stepExecution.setExitStatus(new ExitStatus(ExitStatus.FAILED.getExitCode(), e.getMessage()));
-                    databaseBackedClusterService.updatePartitionStatus(partitionAssignmentTask, PartitionStatus.FAILED.name());
+                    finishPartition(partitionAssignmentTask, PartitionStatus.FAILED.name());
                 }
             } finally {
                 NodeLoad.INST.decrementLoadCount();
                 stepExecution.setEndTime(LocalDateTime.now());
                 jobRepository.update(stepExecution);
                 inProgressAssignments.remove(partitionAssignmentTask);
+                // A permit just freed up; with event-driven dispatch the safety-net poll is too slow to drain
+                // partitions left PENDING by a full claim, so claim the next ones right away.
+                if (claimBacklogLikely && partitionWakeupChannel.isEventDriven()) {
+                    requestPoll();
+                }
             }
         } catch (Exception e) {
             log.error("Error occurred while running the tasks on node {}", batchClusterProperties.getNodeId(), e);
-            databaseBackedClusterService.updatePartitionStatus(partitionAssignmentTask, ExitStatus.FAILED.getExitCode());
+            finishPartition(partitionAssignmentTask, ExitStatus.FAILED.getExitCode());
         }
     }
 
+    /**
+     * Adds a completed partition's wall time and item counts to its job's runtime history, which the
+     * {@code HISTORICAL_COST} partitioning mode predicts the next run from. Partitions of jobs partitioned
+     * otherwise carry no history key and are skipped. A failure only costs the prediction, never the partition.
+     */
+    private void recordRuntime(StepExecution stepExecution) {
+        String historyKey = HistoricalPartitionCostModel.getHistoryKey(stepExecution.getExecutionContext());
+        if (historyKey == null || stepExecution.getStatus() != BatchStatus.COMPLETED || stepExecution.getStartTime() == null) {
+            return;
+        }
+        try {
+            LocalDateTime endTime = Objects.requireNonNullElseGet(stepExecution.getEndTime(), LocalDateTime::now);
+            databaseBackedClusterService.recordPartitionRuntime(stepExecution.getJobExecution().getJobInstance().getJobName(), historyKey,
+                    Duration.between(stepExecution.getStartTime(), endTime).toMillis(), stepExecution.getReadCount(), stepExecution.getWriteCount());
+        } catch (Exception e) {
+            log.warn("Could not record the runtime of partition {} (stepExecutionId={})", historyKey, stepExecution.getId(), e);
+        }
+    }
 
-    private void cleanupCompletedTasks() {
-        Iterator<Future<PartitionAssignmentTask>> tasksSubmittedIte = tasksSubmitted.iterator();
-        while(tasksSubmittedIte.hasNext()) {
-            Future<PartitionAssignmentTask> futureTask = tasksSubmittedIte.next();
-            if (futureTask.isDone()) {
-                try {
-                    PartitionAssignmentTask partitionAssignmentTask = futureTask.get();
-                    inProgressAssignments.remove(partitionAssignmentTask);
-                    tasksSubmittedIte.remove();
-                } catch (InterruptedException | ExecutionException e) {
-                    throw new RuntimeException(e);
-                }
-            }
+    /** Writes a partition's final status now, or hands it to the write-behind buffer when there is one. */
+    private void finishPartition(PartitionAssignmentTask partitionAssignmentTask, String status) {
+        PartitionStatusWriteBehindBuffer buffer = statusWriteBehindBuffer;
+        if (buffer != null) {
+            buffer.add(new PartitionStatusUpdate(partitionAssignmentTask, status));
+        } else {
+            databaseBackedClusterService.updatePartitionStatus(partitionAssignmentTask, status);
         }
     }
 
-    private void updateLastUpdateTimeForInProgressTasks() {
-        if(!inProgressAssignments.isEmpty()) {
-            databaseBackedClusterService.updatePartitionsLastUpdatedTime(inProgressAssignments);
+    /** Writes the partition statuses still buffered before the application shuts down. */
+    @PreDestroy
+    public void stop() {
+        PartitionStatusWriteBehindBuffer buffer = statusWriteBehindBuffer;
+        if (buffer != null) {
+            buffer.close();
         }
     }
 
+
+    /**
+     * Prunes finished tasks and releases their execution permits. Each entry is handled on its own: a cancelled
+     * or failed task is logged and released like a completed one, so one bad future cannot stop the cleanup.
+     */
+    private void cleanupCompletedTasks() {
+        tasksSubmitted.forEach((futureTask, partitionAssignmentTask) -> {
+            if (!futureTask.isDone()) {
+                return;
+            }
+            switch (futureTask.state()) {
+                case CANCELLED -> log.info("Partition task was cancelled (jobExecutionId={}, stepExecutionId={})",
+                        partitionAssignmentTask.jobExecutionId(), partitionAssignmentTask.stepExecutionId());
+                case FAILED -> log.error("Partition task failed (jobExecutionId={}, stepExecutionId={})",
+                        partitionAssignmentTask.jobExecutionId(), partitionAssignmentTask.stepExecutionId(),
+                        futureTask.exceptionNow());
+                default -> { }
+            }
+            tasksSubmitted.remove(futureTask);
+            inProgressAssignments.remove(partitionAssignmentTask);
+        });
+    }
+
     /**
      * Cancels this node's in-progress partition tasks when it loses its heartbeat, so a fenced node stops
      * executing work. Cancelled partitions are left {@code CLAIMED} (not failed) so the master's recovery
      * reassigns the transferable ones to healthy nodes and fails the non-transferable ones.
      */
     private void interruptInProgressTasksWhenHeartbeatFailed() {
-        tasksSubmitted.forEach(taskSubmitted -> {
+        tasksSubmitted.keySet().forEach(taskSubmitted -> {
             if (!taskSubmitted.isDone()) {
                 log.warn("Node heartbeat update failed; cancelling in-progress partition tasks. Transferable partitions will be reassigned to another node by the master.");
                 taskSubmitted.cancel(true);
@@ -231,9 +439,17 @@ public class PartitionedWorkerNodeTasksRunner implements ClusterNodeStatusChange
         });
     }
 
+    /**
+     * Fences this node: cancels its in-progress partition tasks, then writes the buffered final statuses of
+     * the partitions that did finish, so the master does not recover those.
+     */
     @Override
     public void onClusterNodeHeartbeatFail() {
         interruptInProgressTasksWhenHeartbeatFailed();
+        PartitionStatusWriteBehindBuffer buffer = statusWriteBehindBuffer;
+        if (buffer != null) {
+            buffer.flush();
+        }
     }
 
 }
@@ -18,6 +18,8 @@
  *
  * <p>Each node polls for partitions assigned to it, claims them transactionally, and executes the
  * corresponding Spring Batch step concurrently (up to the per-node limit), recording each
- * partition's completion or failure back to the coordination tables.</p>
+ * partition's completion or failure back to the coordination tables. An optional
+ * {@link io.github.jchejarla.springbatch.clustering.polling.PartitionWakeupChannel} lets the master wake a
+ * worker as soon as partitions are assigned to it, with polling kept as a slower safety net.</p>
  */
 package io.github.jchejarla.springbatch.clustering.polling;
@@ -15,7 +15,9 @@
  */
 package io.github.jchejarla.springbatch.clustering.query;
 
+import io.github.jchejarla.springbatch.clustering.core.CoordinationStatus;
 import io.github.jchejarla.springbatch.clustering.core.DBSpecificQueryProvider;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionStatus;
 import lombok.RequiredArgsConstructor;
 import org.springframework.jdbc.core.JdbcTemplate;
 
@@ -47,13 +49,14 @@ public class BatchClusterQueryService {
                         rs.getLong("job_execution_id"),
                         rs.getString("master_node_id"),
                         rs.getString("master_step_name"),
-                        rs.getString("status")));
+                        CoordinationStatus.fromCode(rs.getInt("status")).name()));
     }
 
     /** Returns the job-centric view for one job execution, or empty if it is not (or no longer) coordinated. */
     public Optional<JobClusterView> getJobView(long jobExecutionId) {
         List<Coordination> coordination = jdbcTemplate.query(queryProvider.getJobCoordinationByIdQuery(),
-                (rs, rowNum) -> new Coordination(rs.getString("master_node_id"), rs.getLong("master_step_execution_id"), rs.getString("status")),
+                (rs, rowNum) -> new Coordination(rs.getString("master_node_id"), rs.getLong("master_step_execution_id"),
+                        CoordinationStatus.fromCode(rs.getInt("status")).name()),
                 jobExecutionId);
         if (coordination.isEmpty()) {
             return Optional.empty();
@@ -65,7 +68,7 @@ public class BatchClusterQueryService {
                         rs.getLong("step_execution_id"),
                         rs.getString("partition_key"),
                         rs.getString("assigned_node"),
-                        rs.getString("status")),
+                        PartitionStatus.fromCode(rs.getInt("status")).name()),
                 coord.masterStepExecutionId());
 
         Map<String, Long> statusCounts = partitions.stream()
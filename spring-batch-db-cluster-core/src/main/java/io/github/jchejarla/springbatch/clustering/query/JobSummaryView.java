@@ -21,7 +21,7 @@ package io.github.jchejarla.springbatch.clustering.query;
  * @param jobExecutionId       the Spring Batch job execution id
  * @param masterNode           the node coordinating (mastering) this job
  * @param masterStepName       the manager step name
- * @param coordinationStatus   the coordination status (CREATED / STARTED / COMPLETED / RECOVERING / ABANDONED)
+ * @param coordinationStatus   the coordination status (CREATED / STARTED / COMPLETED / RECOVERING / ABANDONED / FAILED)
  */
 public record JobSummaryView(long jobExecutionId, String masterNode, String masterStepName, String coordinationStatus) {
 }
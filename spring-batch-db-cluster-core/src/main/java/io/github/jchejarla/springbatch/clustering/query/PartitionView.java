@@ -20,7 +20,8 @@ package io.github.jchejarla.springbatch.clustering.query;
  *
  * @param stepExecutionId the partition's Spring Batch step execution id
  * @param partitionKey    the partition key
- * @param assignedNode    the node currently assigned to execute it
+ * @param assignedNode    the node currently assigned to execute it; null when it is unassigned or its node
+ *                        has left the cluster
  * @param status          the partition status (PENDING / CLAIMED / COMPLETED / FAILED)
  */
 public record PartitionView(long stepExecutionId, String partitionKey, String assignedNode, String status) {
@@ -4,3 +4,4 @@ DROP TABLE BATCH_PARTITIONS;
 DROP TABLE BATCH_JOB_COORDINATION;
 DROP TABLE BATCH_NODES;
 DROP TABLE BATCH_JOB_PHASE_EVENTS;
+DROP TABLE BATCH_PARTITION_HISTORY;
@@ -2,3 +2,4 @@ DROP TABLE IF EXISTS BATCH_PARTITIONS;
 DROP TABLE IF EXISTS BATCH_JOB_COORDINATION;
 DROP TABLE IF EXISTS BATCH_NODES;
 DROP TABLE IF EXISTS BATCH_JOB_PHASE_EVENTS;
+DROP TABLE IF EXISTS BATCH_PARTITION_HISTORY;
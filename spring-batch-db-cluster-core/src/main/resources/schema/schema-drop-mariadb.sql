@@ -2,3 +2,4 @@ DROP TABLE IF EXISTS batch_partitions;
 DROP TABLE IF EXISTS batch_job_coordination;
 DROP TABLE IF EXISTS batch_nodes;
 DROP TABLE IF EXISTS batch_job_phase_events;
+DROP TABLE IF EXISTS batch_partition_history;
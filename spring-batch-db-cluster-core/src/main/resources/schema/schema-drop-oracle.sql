@@ -4,3 +4,4 @@ DROP TABLE BATCH_PARTITIONS CASCADE CONSTRAINTS;
 DROP TABLE BATCH_JOB_COORDINATION CASCADE CONSTRAINTS;
 DROP TABLE BATCH_NODES CASCADE CONSTRAINTS;
 DROP TABLE BATCH_JOB_PHASE_EVENTS CASCADE CONSTRAINTS;
+DROP TABLE BATCH_PARTITION_HISTORY CASCADE CONSTRAINTS;
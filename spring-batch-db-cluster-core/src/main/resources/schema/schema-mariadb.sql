@@ -1,23 +1,30 @@
 -- NOTE: table names are lowercase to match the (lowercase) coordination queries. MySQL/MariaDB
 -- table names are case-sensitive on case-sensitive filesystems (lower_case_table_names=0),
 -- unlike the other dialects which fold identifier case. Keep our table names lowercase here.
--- maintains cluster nodes heartbeat
+-- maintains cluster nodes heartbeat. NODE_KEY is the integer, never reused, that partitions and jobs
+-- refer to a node by (ASSIGNED_NODE_KEY, MASTER_NODE_KEY).
 CREATE TABLE batch_nodes (
     NODE_ID VARCHAR(200) NOT NULL PRIMARY KEY,
+    NODE_KEY INT NOT NULL AUTO_INCREMENT UNIQUE,
     CREATED_TIME TIMESTAMP NOT NULL,
     LAST_UPDATED_TIME TIMESTAMP NOT NULL,
-    STATUS VARCHAR(20) NOT NULL,
+    STATUS SMALLINT NOT NULL CHECK (STATUS IN (0, 1)),
     HOST_IDENTIFIER VARCHAR(200),
-    CURRENT_LOAD BIGINT NOT NULL DEFAULT 0
+    CURRENT_LOAD BIGINT NOT NULL DEFAULT 0,
+    NODE_EPOCH BIGINT NOT NULL DEFAULT 1,
+    CONCURRENCY_LIMIT INT,
+    AVAILABLE_PROCESSORS INT,
+    CAPACITY_WEIGHT DOUBLE
 ) ENGINE=InnoDB;
 
 -- Job coordination
 CREATE TABLE batch_job_coordination (
     JOB_EXECUTION_ID BIGINT PRIMARY KEY,
     MASTER_NODE_ID VARCHAR(200) NOT NULL,
+    MASTER_NODE_KEY INT,
     MASTER_STEP_EXECUTION_ID BIGINT NOT NULL,
     MASTER_STEP_NAME VARCHAR(100) NOT NULL,
-    STATUS VARCHAR(20) NOT NULL,
+    STATUS SMALLINT NOT NULL CHECK (STATUS IN (0, 1, 2, 3, 4, 5)),
     CREATED_TIME TIMESTAMP NOT NULL,
     LAST_UPDATED TIMESTAMP NOT NULL,
     CONSTRAINT JOB_COORD_FK FOREIGN KEY (JOB_EXECUTION_ID) REFERENCES BATCH_JOB_EXECUTION(JOB_EXECUTION_ID)
@@ -28,12 +35,19 @@ CREATE TABLE batch_partitions (
     step_execution_id BIGINT PRIMARY KEY,
     job_execution_id BIGINT NOT NULL,
     partition_key VARCHAR(100) NOT NULL,
-    assigned_node VARCHAR(100),
-    status VARCHAR(20) NOT NULL CHECK (status IN ('PENDING', 'CLAIMED', 'COMPLETED', 'FAILED')),
+    assigned_node_key INT,
+    status SMALLINT NOT NULL CHECK (status IN (0, 1, 2, 3)),
     last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     master_step_execution_id BIGINT NOT NULL,
     is_transferable SMALLINT DEFAULT 0,
+    claim_epoch BIGINT,
+    partition_cost BIGINT,
+    split_from BIGINT,
+    range_end BIGINT,
+    range_position BIGINT,
+    split_requested SMALLINT DEFAULT 0,
     CHECK (is_transferable IN (0, 1)),
+    CHECK (split_requested IN (0, 1)),
     CONSTRAINT BAT_PART_FK
         FOREIGN KEY (step_execution_id)
         REFERENCES BATCH_STEP_EXECUTION(step_execution_id)
@@ -41,7 +55,7 @@ CREATE TABLE batch_partitions (
 ) ENGINE=InnoDB;
 
 -- Indexes for hot coordination queries (worker polling, completion checks, orphan scans)
-CREATE INDEX IDX_BATCH_PART_NODE_STATUS ON batch_partitions (assigned_node, status);
+CREATE INDEX IDX_BATCH_PART_NODE_STATUS ON batch_partitions (assigned_node_key, status);
 CREATE INDEX IDX_BATCH_PART_MASTER_STATUS ON batch_partitions (master_step_execution_id, status);
 
 -- Optional phase-timing event log (append-only; populated only when
@@ -54,3 +68,18 @@ CREATE TABLE batch_job_phase_events (
     EVENT_TIME TIMESTAMP NOT NULL
 ) ENGINE=InnoDB;
 CREATE INDEX IDX_BATCH_PHASE_EVENTS_JOB ON batch_job_phase_events (JOB_EXECUTION_ID);
+
+-- Per-partition runtime history of jobs using the HISTORICAL_COST partitioning mode: the last run of each
+-- partition and the cost predicted for its next run
+CREATE TABLE batch_partition_history (
+    JOB_NAME VARCHAR(100) NOT NULL,
+    PARTITION_KEY VARCHAR(200) NOT NULL,
+    NODE_ID VARCHAR(200) NOT NULL,
+    DURATION_MILLIS BIGINT NOT NULL,
+    READ_COUNT BIGINT NOT NULL,
+    WRITE_COUNT BIGINT NOT NULL,
+    PREDICTED_COST BIGINT NOT NULL,
+    RUN_COUNT BIGINT NOT NULL DEFAULT 1,
+    LAST_UPDATED TIMESTAMP NOT NULL,
+    PRIMARY KEY (JOB_NAME, PARTITION_KEY)
+) ENGINE=InnoDB;
@@ -0,0 +1,35 @@
+-- Moves cluster tables created before 3.0.0 to integer node keys: BATCH_NODES gets a NODE_KEY, which
+-- BATCH_PARTITIONS and BATCH_JOB_COORDINATION refer to a node by (ASSIGNED_NODE_KEY replaces ASSIGNED_NODE,
+-- MASTER_NODE_KEY is added), and the BATCH_NODES and BATCH_JOB_COORDINATION statuses become the SMALLINT
+-- codes of NodeStatus (0 ACTIVE, 1 UNREACHABLE) and CoordinationStatus (0 CREATED, 1 STARTED, 2 COMPLETED,
+-- 3 RECOVERING, 4 ABANDONED, 5 FAILED). Run it once, after schema-migrate-partition-status-db2.sql,
+-- with every node stopped: it empties BATCH_NODES, which each node registers in again when it starts, and
+-- the partitions of earlier jobs keep no node.
+
+DELETE FROM BATCH_NODES;
+-- dropping a column leaves the table in reorg-pending state; an added NOT NULL column needs a default
+ALTER TABLE BATCH_NODES DROP COLUMN STATUS;
+CALL SYSPROC.ADMIN_CMD('REORG TABLE BATCH_NODES');
+ALTER TABLE BATCH_NODES ADD COLUMN STATUS SMALLINT NOT NULL DEFAULT 0;
+ALTER TABLE BATCH_NODES ALTER COLUMN STATUS DROP DEFAULT;
+ALTER TABLE BATCH_NODES ADD CHECK (STATUS IN (0, 1));
+ALTER TABLE BATCH_NODES ADD COLUMN NODE_KEY INTEGER NOT NULL GENERATED ALWAYS AS IDENTITY;
+ALTER TABLE BATCH_NODES ADD UNIQUE (NODE_KEY);
+CALL SYSPROC.ADMIN_CMD('REORG TABLE BATCH_NODES');
+
+ALTER TABLE BATCH_JOB_COORDINATION ADD COLUMN MASTER_NODE_KEY INTEGER;
+ALTER TABLE BATCH_JOB_COORDINATION ADD COLUMN status_code SMALLINT;
+-- 0 is no node's key: a job still marked running is found as an orphan and recovered like any other.
+UPDATE BATCH_JOB_COORDINATION SET status_code = CASE STATUS WHEN 'CREATED' THEN 0 WHEN 'STARTED' THEN 1 WHEN 'COMPLETED' THEN 2 WHEN 'RECOVERING' THEN 3 WHEN 'ABANDONED' THEN 4 ELSE 5 END, MASTER_NODE_KEY = 0;
+ALTER TABLE BATCH_JOB_COORDINATION DROP COLUMN STATUS;
+CALL SYSPROC.ADMIN_CMD('REORG TABLE BATCH_JOB_COORDINATION');
+ALTER TABLE BATCH_JOB_COORDINATION RENAME COLUMN status_code TO STATUS;
+ALTER TABLE BATCH_JOB_COORDINATION ALTER COLUMN STATUS SET NOT NULL;
+CALL SYSPROC.ADMIN_CMD('REORG TABLE BATCH_JOB_COORDINATION');
+ALTER TABLE BATCH_JOB_COORDINATION ADD CHECK (STATUS IN (0, 1, 2, 3, 4, 5));
+
+DROP INDEX IDX_BATCH_PART_NODE_STATUS;
+ALTER TABLE BATCH_PARTITIONS DROP COLUMN assigned_node;
+CALL SYSPROC.ADMIN_CMD('REORG TABLE BATCH_PARTITIONS');
+ALTER TABLE BATCH_PARTITIONS ADD COLUMN assigned_node_key INTEGER;
+CREATE INDEX IDX_BATCH_PART_NODE_STATUS ON BATCH_PARTITIONS (assigned_node_key, status);
@@ -0,0 +1,21 @@
+-- Moves cluster tables created before 3.0.0 to integer node keys: BATCH_NODES gets a NODE_KEY, which
+-- BATCH_PARTITIONS and BATCH_JOB_COORDINATION refer to a node by (ASSIGNED_NODE_KEY replaces ASSIGNED_NODE,
+-- MASTER_NODE_KEY is added), and the BATCH_NODES and BATCH_JOB_COORDINATION statuses become the SMALLINT
+-- codes of NodeStatus (0 ACTIVE, 1 UNREACHABLE) and CoordinationStatus (0 CREATED, 1 STARTED, 2 COMPLETED,
+-- 3 RECOVERING, 4 ABANDONED, 5 FAILED). Run it once, after schema-migrate-partition-status-mariadb.sql,
+-- with every node stopped: it empties BATCH_NODES, which each node registers in again when it starts, and
+-- the partitions of earlier jobs keep no node.
+
+DELETE FROM batch_nodes;
+ALTER TABLE batch_nodes MODIFY STATUS SMALLINT NOT NULL, ADD CHECK (STATUS IN (0, 1)),
+    ADD COLUMN NODE_KEY INT NOT NULL AUTO_INCREMENT UNIQUE AFTER NODE_ID;
+
+UPDATE batch_job_coordination SET STATUS = CASE STATUS WHEN 'CREATED' THEN '0' WHEN 'STARTED' THEN '1' WHEN 'COMPLETED' THEN '2' WHEN 'RECOVERING' THEN '3' WHEN 'ABANDONED' THEN '4' ELSE '5' END;
+ALTER TABLE batch_job_coordination MODIFY STATUS SMALLINT NOT NULL, ADD CHECK (STATUS IN (0, 1, 2, 3, 4, 5)),
+    ADD COLUMN MASTER_NODE_KEY INT AFTER MASTER_NODE_ID;
+-- 0 is no node's key: a job still marked running is found as an orphan and recovered like any other.
+UPDATE batch_job_coordination SET MASTER_NODE_KEY = 0;
+
+ALTER TABLE batch_partitions DROP INDEX IDX_BATCH_PART_NODE_STATUS, DROP COLUMN assigned_node,
+    ADD COLUMN assigned_node_key INT AFTER partition_key,
+    ADD INDEX IDX_BATCH_PART_NODE_STATUS (assigned_node_key, status);
@@ -0,0 +1,24 @@
+-- Moves cluster tables created before 3.0.0 to integer node keys: BATCH_NODES gets a NODE_KEY, which
+-- BATCH_PARTITIONS and BATCH_JOB_COORDINATION refer to a node by (ASSIGNED_NODE_KEY replaces ASSIGNED_NODE,
+-- MASTER_NODE_KEY is added), and the BATCH_NODES and BATCH_JOB_COORDINATION statuses become the SMALLINT
+-- codes of NodeStatus (0 ACTIVE, 1 UNREACHABLE) and CoordinationStatus (0 CREATED, 1 STARTED, 2 COMPLETED,
+-- 3 RECOVERING, 4 ABANDONED, 5 FAILED). Run it once, after schema-migrate-partition-status-sqlserver.sql,
+-- with every node stopped: it empties BATCH_NODES, which each node registers in again when it starts, and
+-- the partitions of earlier jobs keep no node.
+
+DELETE FROM BATCH_NODES;
+ALTER TABLE BATCH_NODES DROP COLUMN STATUS;
+ALTER TABLE BATCH_NODES ADD STATUS SMALLINT NOT NULL CHECK (STATUS IN (0, 1)),
+    NODE_KEY INT IDENTITY(1, 1) NOT NULL UNIQUE;
+
+UPDATE BATCH_JOB_COORDINATION SET STATUS = CASE STATUS WHEN 'CREATED' THEN '0' WHEN 'STARTED' THEN '1' WHEN 'COMPLETED' THEN '2' WHEN 'RECOVERING' THEN '3' WHEN 'ABANDONED' THEN '4' ELSE '5' END;
+ALTER TABLE BATCH_JOB_COORDINATION ALTER COLUMN STATUS SMALLINT NOT NULL;
+ALTER TABLE BATCH_JOB_COORDINATION ADD CHECK (STATUS IN (0, 1, 2, 3, 4, 5));
+ALTER TABLE BATCH_JOB_COORDINATION ADD MASTER_NODE_KEY INT;
+-- 0 is no node's key: a job still marked running is found as an orphan and recovered like any other.
+UPDATE BATCH_JOB_COORDINATION SET MASTER_NODE_KEY = 0;
+
+DROP INDEX IDX_BATCH_PART_NODE_ACTIVE ON BATCH_PARTITIONS;
+ALTER TABLE BATCH_PARTITIONS DROP COLUMN assigned_node;
+ALTER TABLE BATCH_PARTITIONS ADD assigned_node_key INT;
+CREATE INDEX IDX_BATCH_PART_NODE_ACTIVE ON BATCH_PARTITIONS (assigned_node_key, status) WHERE status IN (0, 1);
@@ -0,0 +1,15 @@
+-- Converts BATCH_PARTITIONS.STATUS of cluster tables created before 3.0.0 from status names to the
+-- SMALLINT codes of PartitionStatus (0 PENDING, 1 CLAIMED, 2 COMPLETED, 3 FAILED), rebuilding the two
+-- coordination indexes over the narrower column. Run it once, while no clustered job is running.
+
+DROP INDEX IF EXISTS IDX_BATCH_PART_NODE_STATUS;
+DROP INDEX IF EXISTS IDX_BATCH_PART_MASTER_STATUS;
+ALTER TABLE BATCH_PARTITIONS ADD COLUMN status_code SMALLINT;
+UPDATE BATCH_PARTITIONS SET status_code = CASE status WHEN 'PENDING' THEN 0 WHEN 'CLAIMED' THEN 1 WHEN 'COMPLETED' THEN 2 ELSE 3 END;
+-- drops the old CHECK constraint with the column
+ALTER TABLE BATCH_PARTITIONS DROP COLUMN status;
+ALTER TABLE BATCH_PARTITIONS ALTER COLUMN status_code RENAME TO status;
+ALTER TABLE BATCH_PARTITIONS ALTER COLUMN status SET NOT NULL;
+ALTER TABLE BATCH_PARTITIONS ADD CHECK (status IN (0, 1, 2, 3));
+CREATE INDEX IDX_BATCH_PART_NODE_STATUS ON BATCH_PARTITIONS (assigned_node, status);
+CREATE INDEX IDX_BATCH_PART_MASTER_STATUS ON BATCH_PARTITIONS (master_step_execution_id, status);
@@ -0,0 +1,17 @@
+-- Converts BATCH_PARTITIONS.STATUS of cluster tables created before 3.0.0 from status names to the
+-- SMALLINT codes of PartitionStatus (0 PENDING, 1 CLAIMED, 2 COMPLETED, 3 FAILED), rebuilding the two
+-- coordination indexes over the narrower column. Run it once, while no clustered job is running.
+
+-- the old CHECK constraint has a generated name: look it up
+SET @status_check = (SELECT tc.constraint_name FROM information_schema.table_constraints tc
+    JOIN information_schema.check_constraints cc
+        ON cc.constraint_schema = tc.constraint_schema AND cc.constraint_name = tc.constraint_name
+    WHERE tc.table_schema = DATABASE() AND tc.table_name = 'batch_partitions' AND cc.check_clause LIKE '%PENDING%');
+SET @drop_status_check = CONCAT('ALTER TABLE batch_partitions DROP CONSTRAINT `', @status_check, '`');
+PREPARE drop_status_check FROM @drop_status_check;
+EXECUTE drop_status_check;
+DEALLOCATE PREPARE drop_status_check;
+
+UPDATE batch_partitions SET status = CASE status WHEN 'PENDING' THEN '0' WHEN 'CLAIMED' THEN '1' WHEN 'COMPLETED' THEN '2' ELSE '3' END;
+-- MODIFY rebuilds the table, and IDX_BATCH_PART_NODE_STATUS / IDX_BATCH_PART_MASTER_STATUS with it
+ALTER TABLE batch_partitions MODIFY status SMALLINT NOT NULL, ADD CHECK (status IN (0, 1, 2, 3));
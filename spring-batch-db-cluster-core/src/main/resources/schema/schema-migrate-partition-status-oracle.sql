@@ -0,0 +1,18 @@
+-- Converts BATCH_PARTITIONS.STATUS of cluster tables created before 3.0.0 from status names to the
+-- SMALLINT codes of PartitionStatus (0 PENDING, 1 CLAIMED, 2 COMPLETED, 3 FAILED), rebuilding the two
+-- coordination indexes over the narrower column; the node index becomes IDX_BATCH_PART_NODE_ACTIVE, which
+-- only holds outstanding partitions. Run it once, while no clustered job is running.
+
+DROP INDEX IDX_BATCH_PART_NODE_STATUS;
+DROP INDEX IDX_BATCH_PART_MASTER_STATUS;
+ALTER TABLE BATCH_PARTITIONS ADD (status_code NUMBER(1));
+UPDATE BATCH_PARTITIONS SET status_code = CASE status WHEN 'PENDING' THEN 0 WHEN 'CLAIMED' THEN 1 WHEN 'COMPLETED' THEN 2 ELSE 3 END;
+COMMIT;
+-- drops the old CHECK constraint with the column
+ALTER TABLE BATCH_PARTITIONS DROP COLUMN status;
+ALTER TABLE BATCH_PARTITIONS RENAME COLUMN status_code TO status;
+ALTER TABLE BATCH_PARTITIONS MODIFY (status NOT NULL CHECK (status IN (0, 1, 2, 3)));
+CREATE INDEX IDX_BATCH_PART_NODE_ACTIVE ON BATCH_PARTITIONS (
+    CASE WHEN status IN (0, 1) THEN assigned_node END,
+    CASE WHEN status IN (0, 1) THEN status END);
+CREATE INDEX IDX_BATCH_PART_MASTER_STATUS ON BATCH_PARTITIONS (master_step_execution_id, status);
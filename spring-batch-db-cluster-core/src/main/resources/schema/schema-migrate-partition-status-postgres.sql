@@ -0,0 +1,13 @@
+-- Converts BATCH_PARTITIONS.STATUS of cluster tables created before 3.0.0 from status names to the
+-- SMALLINT codes of PartitionStatus (0 PENDING, 1 CLAIMED, 2 COMPLETED, 3 FAILED), rebuilding the two
+-- coordination indexes over the narrower column; the node index becomes IDX_BATCH_PART_NODE_ACTIVE, which
+-- only holds outstanding partitions. Run it once, while no clustered job is running.
+
+DROP INDEX IF EXISTS IDX_BATCH_PART_NODE_STATUS;
+ALTER TABLE BATCH_PARTITIONS DROP CONSTRAINT IF EXISTS BATCH_PARTITIONS_STATUS_CHECK;
+ALTER TABLE BATCH_PARTITIONS ALTER COLUMN status TYPE SMALLINT USING (
+    CASE status WHEN 'PENDING' THEN 0 WHEN 'CLAIMED' THEN 1 WHEN 'COMPLETED' THEN 2 ELSE 3 END);
+ALTER TABLE BATCH_PARTITIONS ADD CHECK (status IN (0, 1, 2, 3));
+-- ALTER COLUMN ... TYPE rebuilt IDX_BATCH_PART_MASTER_STATUS
+CREATE INDEX IDX_BATCH_PART_NODE_ACTIVE ON BATCH_PARTITIONS (assigned_node, status) WHERE status IN (0, 1);
+ANALYZE BATCH_PARTITIONS;
@@ -0,0 +1,17 @@
+-- Converts BATCH_PARTITIONS.STATUS of cluster tables created before 3.0.0 from status names to the
+-- SMALLINT codes of PartitionStatus (0 PENDING, 1 CLAIMED, 2 COMPLETED, 3 FAILED), rebuilding the two
+-- coordination indexes over the narrower column; the node index becomes IDX_BATCH_PART_NODE_ACTIVE, which
+-- only holds outstanding partitions. Run it once, while no clustered job is running.
+
+-- the old CHECK constraint has a generated name: look it up
+DECLARE @status_check sysname = (SELECT name FROM sys.check_constraints
+    WHERE parent_object_id = OBJECT_ID('BATCH_PARTITIONS') AND definition LIKE '%PENDING%');
+EXEC('ALTER TABLE BATCH_PARTITIONS DROP CONSTRAINT ' + @status_check);
+
+DROP INDEX IDX_BATCH_PART_NODE_STATUS ON BATCH_PARTITIONS;
+DROP INDEX IDX_BATCH_PART_MASTER_STATUS ON BATCH_PARTITIONS;
+UPDATE BATCH_PARTITIONS SET status = CASE status WHEN 'PENDING' THEN '0' WHEN 'CLAIMED' THEN '1' WHEN 'COMPLETED' THEN '2' ELSE '3' END;
+ALTER TABLE BATCH_PARTITIONS ALTER COLUMN status SMALLINT NOT NULL;
+ALTER TABLE BATCH_PARTITIONS ADD CHECK (status IN (0, 1, 2, 3));
+CREATE INDEX IDX_BATCH_PART_NODE_ACTIVE ON BATCH_PARTITIONS (assigned_node, status) WHERE status IN (0, 1);
+CREATE INDEX IDX_BATCH_PART_MASTER_STATUS ON BATCH_PARTITIONS (master_step_execution_id, status);
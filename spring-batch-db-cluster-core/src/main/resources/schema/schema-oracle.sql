@@ -1,20 +1,27 @@
--- maintains cluster nodes heartbeat
+-- maintains cluster nodes heartbeat. NODE_KEY is the integer, never reused, that partitions and jobs
+-- refer to a node by (ASSIGNED_NODE_KEY, MASTER_NODE_KEY).
 CREATE TABLE BATCH_NODES (
     NODE_ID VARCHAR2(200) NOT NULL PRIMARY KEY,
+    NODE_KEY NUMBER(10) GENERATED ALWAYS AS IDENTITY UNIQUE,
     CREATED_TIME TIMESTAMP NOT NULL,
     LAST_UPDATED_TIME TIMESTAMP NOT NULL,
-    STATUS VARCHAR2(20) NOT NULL,
+    STATUS NUMBER(1) NOT NULL CHECK (STATUS IN (0, 1)),
     HOST_IDENTIFIER VARCHAR2(200),
-    CURRENT_LOAD NUMBER(19) DEFAULT 0 NOT NULL
+    CURRENT_LOAD NUMBER(19) DEFAULT 0 NOT NULL,
+    NODE_EPOCH NUMBER(19) DEFAULT 1 NOT NULL,
+    CONCURRENCY_LIMIT NUMBER(10),
+    AVAILABLE_PROCESSORS NUMBER(10),
+    CAPACITY_WEIGHT BINARY_DOUBLE
 ) SEGMENT CREATION IMMEDIATE;
 
 -- Job coordination
 CREATE TABLE BATCH_JOB_COORDINATION (
     JOB_EXECUTION_ID NUMBER(19) PRIMARY KEY,
     MASTER_NODE_ID VARCHAR2(200) NOT NULL,
+    MASTER_NODE_KEY NUMBER(10),
     MASTER_STEP_EXECUTION_ID NUMBER(19) NOT NULL,
     MASTER_STEP_NAME VARCHAR2(100) NOT NULL,
-    STATUS VARCHAR2(20) NOT NULL,
+    STATUS NUMBER(1) NOT NULL CHECK (STATUS IN (0, 1, 2, 3, 4, 5)),
     CREATED_TIME TIMESTAMP NOT NULL,
     LAST_UPDATED TIMESTAMP NOT NULL,
     CONSTRAINT JOB_COORD_FK FOREIGN KEY (JOB_EXECUTION_ID) REFERENCES BATCH_JOB_EXECUTION(JOB_EXECUTION_ID)
@@ -25,20 +32,32 @@ CREATE TABLE BATCH_PARTITIONS (
     step_execution_id NUMBER(19) PRIMARY KEY,
     job_execution_id NUMBER(19) NOT NULL,
     partition_key VARCHAR2(100) NOT NULL,
-    assigned_node VARCHAR2(100),
-    status VARCHAR2(20) NOT NULL CHECK (status IN ('PENDING', 'CLAIMED', 'COMPLETED', 'FAILED')),
+    assigned_node_key NUMBER(10),
+    status NUMBER(1) NOT NULL CHECK (status IN (0, 1, 2, 3)),
     last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     master_step_execution_id NUMBER(19) NOT NULL,
     is_transferable NUMBER(1) DEFAULT 0,
+    claim_epoch NUMBER(19),
+    partition_cost NUMBER(19),
+    split_from NUMBER(19),
+    range_end NUMBER(19),
+    range_position NUMBER(19),
+    split_requested NUMBER(1) DEFAULT 0,
     CHECK (is_transferable IN (0, 1)),
+    CHECK (split_requested IN (0, 1)),
     CONSTRAINT BAT_PART_FK
         FOREIGN KEY (step_execution_id)
         REFERENCES BATCH_STEP_EXECUTION(step_execution_id)
         ON DELETE CASCADE
 ) SEGMENT CREATION IMMEDIATE;
 
--- Indexes for hot coordination queries (worker polling, completion checks, orphan scans)
-CREATE INDEX IDX_BATCH_PART_NODE_STATUS ON BATCH_PARTITIONS (assigned_node, status);
+-- Indexes for hot coordination queries (worker polling, completion checks, orphan scans). Workers only
+-- look up outstanding (PENDING/CLAIMED) partitions by node; both expressions are null for finished
+-- partitions, which Oracle then leaves out of the index, so it stays as small as the work in flight.
+-- The worker queries use the same expressions (OracleDatabaseQueryProvider).
+CREATE INDEX IDX_BATCH_PART_NODE_ACTIVE ON BATCH_PARTITIONS (
+    CASE WHEN status IN (0, 1) THEN assigned_node_key END,
+    CASE WHEN status IN (0, 1) THEN status END);
 CREATE INDEX IDX_BATCH_PART_MASTER_STATUS ON BATCH_PARTITIONS (master_step_execution_id, status);
 
 -- Optional phase-timing event log (append-only; populated only when
@@ -51,3 +70,18 @@ CREATE TABLE BATCH_JOB_PHASE_EVENTS (
     EVENT_TIME TIMESTAMP NOT NULL
 ) SEGMENT CREATION IMMEDIATE;
 CREATE INDEX IDX_BATCH_PHASE_EVENTS_JOB ON BATCH_JOB_PHASE_EVENTS (JOB_EXECUTION_ID);
+
+-- Per-partition runtime history of jobs using the HISTORICAL_COST partitioning mode: the last run of each
+-- partition and the cost predicted for its next run
+CREATE TABLE BATCH_PARTITION_HISTORY (
+    JOB_NAME VARCHAR2(100) NOT NULL,
+    PARTITION_KEY VARCHAR2(200) NOT NULL,
+    NODE_ID VARCHAR2(200) NOT NULL,
+    DURATION_MILLIS NUMBER(19) NOT NULL,
+    READ_COUNT NUMBER(19) NOT NULL,
+    WRITE_COUNT NUMBER(19) NOT NULL,
+    PREDICTED_COST NUMBER(19) NOT NULL,
+    RUN_COUNT NUMBER(19) DEFAULT 1 NOT NULL,
+    LAST_UPDATED TIMESTAMP NOT NULL,
+    PRIMARY KEY (JOB_NAME, PARTITION_KEY)
+) SEGMENT CREATION IMMEDIATE;
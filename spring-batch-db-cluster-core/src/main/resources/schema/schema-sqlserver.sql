@@ -1,20 +1,27 @@
--- maintains cluster nodes heartbeat
+-- maintains cluster nodes heartbeat. NODE_KEY is the integer, never reused, that partitions and jobs
+-- refer to a node by (ASSIGNED_NODE_KEY, MASTER_NODE_KEY).
 CREATE TABLE BATCH_NODES (
     NODE_ID VARCHAR(200) NOT NULL PRIMARY KEY,
+    NODE_KEY INT IDENTITY(1, 1) NOT NULL UNIQUE,
     CREATED_TIME DATETIME2 NOT NULL,
     LAST_UPDATED_TIME DATETIME2 NOT NULL,
-    STATUS VARCHAR(20) NOT NULL,
+    STATUS SMALLINT NOT NULL CHECK (STATUS IN (0, 1)),
     HOST_IDENTIFIER VARCHAR(200),
-    CURRENT_LOAD BIGINT NOT NULL DEFAULT 0
+    CURRENT_LOAD BIGINT NOT NULL DEFAULT 0,
+    NODE_EPOCH BIGINT NOT NULL DEFAULT 1,
+    CONCURRENCY_LIMIT INT,
+    AVAILABLE_PROCESSORS INT,
+    CAPACITY_WEIGHT FLOAT
 );
 
 -- Job coordination
 CREATE TABLE BATCH_JOB_COORDINATION (
     JOB_EXECUTION_ID BIGINT PRIMARY KEY,
     MASTER_NODE_ID VARCHAR(200) NOT NULL,
+    MASTER_NODE_KEY INT,
     MASTER_STEP_EXECUTION_ID BIGINT NOT NULL,
     MASTER_STEP_NAME VARCHAR(100) NOT NULL,
-    STATUS VARCHAR(20) NOT NULL,
+    STATUS SMALLINT NOT NULL CHECK (STATUS IN (0, 1, 2, 3, 4, 5)),
     CREATED_TIME DATETIME2 NOT NULL,
     LAST_UPDATED DATETIME2 NOT NULL,
     CONSTRAINT JOB_COORD_FK FOREIGN KEY (JOB_EXECUTION_ID) REFERENCES BATCH_JOB_EXECUTION(JOB_EXECUTION_ID)
@@ -25,20 +32,29 @@ CREATE TABLE BATCH_PARTITIONS (
     step_execution_id BIGINT PRIMARY KEY,
     job_execution_id BIGINT NOT NULL,
     partition_key VARCHAR(100) NOT NULL,
-    assigned_node VARCHAR(100),
-    status VARCHAR(20) NOT NULL CHECK (status IN ('PENDING', 'CLAIMED', 'COMPLETED', 'FAILED')),
+    assigned_node_key INT,
+    status SMALLINT NOT NULL CHECK (status IN (0, 1, 2, 3)),
     last_updated DATETIME2 DEFAULT SYSDATETIME(),
     master_step_execution_id BIGINT NOT NULL,
     is_transferable SMALLINT DEFAULT 0,
+    claim_epoch BIGINT,
+    partition_cost BIGINT,
+    split_from BIGINT,
+    range_end BIGINT,
+    range_position BIGINT,
+    split_requested SMALLINT DEFAULT 0,
     CHECK (is_transferable IN (0, 1)),
+    CHECK (split_requested IN (0, 1)),
     CONSTRAINT BAT_PART_FK
         FOREIGN KEY (step_execution_id)
         REFERENCES BATCH_STEP_EXECUTION(step_execution_id)
         ON DELETE CASCADE
 );
 
--- Indexes for hot coordination queries (worker polling, completion checks, orphan scans)
-CREATE INDEX IDX_BATCH_PART_NODE_STATUS ON BATCH_PARTITIONS (assigned_node, status);
+-- Indexes for hot coordination queries (worker polling, completion checks, orphan scans). Workers only
+-- look up outstanding (PENDING/CLAIMED) partitions by node, so that index is filtered and stays as small as
+-- the work in flight however many finished partitions accumulate.
+CREATE INDEX IDX_BATCH_PART_NODE_ACTIVE ON BATCH_PARTITIONS (assigned_node_key, status) WHERE status IN (0, 1);
 CREATE INDEX IDX_BATCH_PART_MASTER_STATUS ON BATCH_PARTITIONS (master_step_execution_id, status);
 
 -- Optional phase-timing event log (append-only; populated only when
@@ -51,3 +67,18 @@ CREATE TABLE BATCH_JOB_PHASE_EVENTS (
     EVENT_TIME DATETIME2 NOT NULL
 );
 CREATE INDEX IDX_BATCH_PHASE_EVENTS_JOB ON BATCH_JOB_PHASE_EVENTS (JOB_EXECUTION_ID);
+
+-- Per-partition runtime history of jobs using the HISTORICAL_COST partitioning mode: the last run of each
+-- partition and the cost predicted for its next run
+CREATE TABLE BATCH_PARTITION_HISTORY (
+    JOB_NAME VARCHAR(100) NOT NULL,
+    PARTITION_KEY VARCHAR(200) NOT NULL,
+    NODE_ID VARCHAR(200) NOT NULL,
+    DURATION_MILLIS BIGINT NOT NULL,
+    READ_COUNT BIGINT NOT NULL,
+    WRITE_COUNT BIGINT NOT NULL,
+    PREDICTED_COST BIGINT NOT NULL,
+    RUN_COUNT BIGINT NOT NULL DEFAULT 1,
+    LAST_UPDATED DATETIME2 NOT NULL,
+    PRIMARY KEY (JOB_NAME, PARTITION_KEY)
+);
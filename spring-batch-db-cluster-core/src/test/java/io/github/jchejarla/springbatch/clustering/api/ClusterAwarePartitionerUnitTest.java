@@ -19,6 +19,8 @@ import io.github.jchejarla.springbatch.clustering.BaseUnitTest;
 import io.github.jchejarla.springbatch.clustering.core.DatabaseBackedClusterService;
 import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNode;
 import io.github.jchejarla.springbatch.clustering.partition.ClusterPartitioningConstants;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionRoutingTable;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionTransferableProp;
 import io.github.jchejarla.springbatch.clustering.partition.PartitioningMode;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -91,6 +93,23 @@ public class ClusterAwarePartitionerUnitTest extends BaseUnitTest {
         Assertions.assertNotEquals(firstExecContext.get(ClusterPartitioningConstants.CLUSTER_NODE_IDENTIFIER), secondExecContext.get(ClusterPartitioningConstants.CLUSTER_NODE_IDENTIFIER));
     }
 
+    @Test
+    public void testRoutingStaysOutOfTheContextsWhileARoutingTableIsOpen() {
+        Mockito.doReturn(List.of(new ClusterNode("node-a", 0))).when(databaseBackedClusterService).getActiveNodes();
+        Mockito.doReturn(new ArrayList<>(List.of(new ExecutionContext(), new ExecutionContext()))).when(partitioner).createDistributedPartitions(Mockito.anyInt());
+        Mockito.doReturn(PartitionTransferableProp.YES).when(partitioner).arePartitionsTransferableWhenNodeFailed();
+
+        PartitionRoutingTable.open();
+        try {
+            Map<String, ExecutionContext> partitionContexts = partitioner.partition(2);
+
+            Assertions.assertEquals(2, partitionContexts.size());
+            Assertions.assertTrue(partitionContexts.values().stream().allMatch(ExecutionContext::isEmpty));
+        } finally {
+            PartitionRoutingTable.close();
+        }
+    }
+
     @Test
     public void testPartitionWhenNodesWithFixedNodesButNodeCountIsNotSpecified(){
         List<ClusterNode> clusterNodeList = new ArrayList<>();
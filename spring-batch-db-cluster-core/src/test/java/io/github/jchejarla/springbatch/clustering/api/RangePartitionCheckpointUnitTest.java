@@ -0,0 +1,137 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.api;
+
+import io.github.jchejarla.springbatch.clustering.BaseUnitTest;
+import io.github.jchejarla.springbatch.clustering.autoconfigure.BatchClusterProperties;
+import io.github.jchejarla.springbatch.clustering.core.DatabaseBackedClusterService;
+import io.github.jchejarla.springbatch.clustering.partition.ClusterPartitioningConstants;
+import io.github.jchejarla.springbatch.clustering.polling.PartitionWakeupChannel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.JobInstance;
+import org.springframework.batch.core.job.parameters.JobParameters;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class RangePartitionCheckpointUnitTest extends BaseUnitTest {
+
+    @Mock
+    DatabaseBackedClusterService databaseBackedClusterService;
+    @Mock
+    BatchClusterProperties batchClusterProperties;
+    @Mock
+    JobRepository jobRepository;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    RangePartitionCheckpoint rangePartitionCheckpoint;
+    JobExecution jobExecution;
+    StepExecution stepExecution;
+
+    @BeforeEach
+    public void init() {
+        doReturn(true).when(batchClusterProperties).isRangeSplittingEnabled();
+        doReturn(100L).when(batchClusterProperties).getRangeSplitMinSize();
+        doReturn(60000L).when(batchClusterProperties).getRangeCheckpointInterval();
+        rangePartitionCheckpoint = new RangePartitionCheckpoint(databaseBackedClusterService, batchClusterProperties, jobRepository,
+                transactionManager, PartitionWakeupChannel.NONE);
+        jobExecution = new JobExecution(1L, new JobInstance(1L, "job"), new JobParameters());
+        stepExecution = new StepExecution(11L, "step:partition1", jobExecution);
+        stepExecution.getExecutionContext().putLong("start", 1);
+        stepExecution.getExecutionContext().putLong("end", 1000);
+        stepExecution.getExecutionContext().putString(ClusterPartitioningConstants.PARTITION_HISTORY_KEY_IDENTIFIER, "step.manager:0/4");
+    }
+
+    @Test
+    public void testProgressIsReportedAtMostOncePerInterval() {
+        assertEquals(1000, rangePartitionCheckpoint.checkpoint(stepExecution, "start", "end", 10));
+        assertEquals(1000, rangePartitionCheckpoint.checkpoint(stepExecution, "start", "end", 20));
+
+        verify(databaseBackedClusterService, times(1)).recordRangeProgress(11L, 10, 1000);
+        verify(jobRepository, never()).createStepExecution(any(), any());
+    }
+
+    @Test
+    public void testRequestedSplitHandsTheUnprocessedHalfOverAsANewPartition() {
+        doReturn(true).when(databaseBackedClusterService).recordRangeProgress(11L, 200, 1000);
+        StepExecution tail = new StepExecution(21L, "step:partition1@601", jobExecution);
+        doReturn(tail).when(jobRepository).createStepExecution("step:partition1@601", jobExecution);
+
+        assertEquals(600, rangePartitionCheckpoint.checkpoint(stepExecution, "start", "end", 200));
+
+        assertEquals(600, stepExecution.getExecutionContext().getLong("end"));
+        assertEquals(601, tail.getExecutionContext().getLong("start"));
+        assertEquals(1000, tail.getExecutionContext().getLong("end"));
+        assertFalse(tail.getExecutionContext().containsKey(ClusterPartitioningConstants.PARTITION_HISTORY_KEY_IDENTIFIER));
+        verify(jobRepository).updateExecutionContext(tail);
+        verify(jobRepository).updateExecutionContext(stepExecution);
+        verify(databaseBackedClusterService).saveSplitPartition(11L, 600, 21L, "step:partition1@601");
+    }
+
+    @Test
+    public void testRolledBackSplitRestoresTheEndOfTheRange() {
+        doReturn(true).when(databaseBackedClusterService).recordRangeProgress(11L, 200, 1000);
+        StepExecution tail = new StepExecution(21L, "step:partition1@601", jobExecution);
+        doReturn(tail).when(jobRepository).createStepExecution("step:partition1@601", jobExecution);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertEquals(600, rangePartitionCheckpoint.checkpoint(stepExecution, "start", "end", 200));
+            assertEquals(600, stepExecution.getExecutionContext().getLong("end"));
+
+            // the chunk the split joined rolls back, and the tail's partition with it
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1000, stepExecution.getExecutionContext().getLong("end"));
+    }
+
+    @Test
+    public void testSplitOfATooSmallRangeIsDeclined() {
+        doReturn(true).when(databaseBackedClusterService).recordRangeProgress(11L, 850, 1000);
+
+        assertEquals(1000, rangePartitionCheckpoint.checkpoint(stepExecution, "start", "end", 850));
+
+        verify(databaseBackedClusterService).declineRangeSplit(11L, 1000);
+        verify(databaseBackedClusterService, never()).saveSplitPartition(anyLong(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    public void testNothingIsReportedWhenSplittingIsDisabled() {
+        doReturn(false).when(batchClusterProperties).isRangeSplittingEnabled();
+
+        assertEquals(1000, rangePartitionCheckpoint.checkpoint(stepExecution, "start", "end", 10));
+
+        verify(databaseBackedClusterService, never()).recordRangeProgress(anyLong(), anyLong(), anyLong());
+    }
+}
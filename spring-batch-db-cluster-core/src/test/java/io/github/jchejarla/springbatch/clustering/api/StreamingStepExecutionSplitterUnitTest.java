@@ -0,0 +1,159 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.api;
+
+import io.github.jchejarla.springbatch.clustering.BaseUnitTest;
+import io.github.jchejarla.springbatch.clustering.partition.ClusterPartitioningConstants;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionRoutingTable;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionTransferableProp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.JobInstance;
+import org.springframework.batch.core.job.parameters.JobParameters;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class StreamingStepExecutionSplitterUnitTest extends BaseUnitTest {
+
+    @Mock
+    JobRepository jobRepository;
+    @Mock
+    PlatformTransactionManager transactionManager;
+    @Mock
+    StreamingPartitioner partitioner;
+
+    JobExecution jobExecution;
+    StepExecution managerStepExecution;
+    StreamingStepExecutionSplitter splitter;
+
+    @BeforeEach
+    public void init() {
+        jobExecution = new JobExecution(1L, new JobInstance(1L, "job"), new JobParameters());
+        managerStepExecution = new StepExecution(10L, "step.manager", jobExecution);
+        AtomicLong ids = new AtomicLong(100);
+        doAnswer(invocation -> new StepExecution(ids.incrementAndGet(), invocation.getArgument(0), jobExecution))
+                .when(jobRepository).createStepExecution(anyString(), any());
+        doReturn(PartitionTransferableProp.YES).when(partitioner).arePartitionsTransferableWhenNodeFailed();
+        splitter = new StreamingStepExecutionSplitter("step", jobRepository, transactionManager, partitioner);
+    }
+
+    @Test
+    public void testPartitionsAreCreatedAndHandedOverChunkByChunk() {
+        doReturn(partitions(5).stream()).when(partitioner).streamPartitions();
+        List<List<String>> chunks = new ArrayList<>();
+
+        long created = splitter.split(managerStepExecution, 2, chunk -> chunks.add(chunk.stream().map(StepExecution::getStepName).toList()));
+
+        assertEquals(5, created);
+        assertEquals(List.of(List.of("step:0", "step:1"), List.of("step:2", "step:3"), List.of("step:4")), chunks);
+        assertEquals(5L, managerStepExecution.getExecutionContext().getLong(ClusterPartitioningConstants.STREAMED_PARTITIONS_IDENTIFIER));
+        // each chunk records its progress in the manager step's context, in its own transaction
+        verify(jobRepository, times(3)).updateExecutionContext(managerStepExecution);
+        verify(transactionManager, times(3)).commit(any());
+        verify(jobRepository, never()).getLastStepExecution(any(), anyString());
+    }
+
+    @Test
+    public void testPartitionsAreMarkedTransferableUnlessTheyDecideThemselves() {
+        List<ExecutionContext> contexts = partitions(2);
+        contexts.get(1).put(ClusterPartitioningConstants.IS_TRANSFERABLE_IDENTIFIER, PartitionTransferableProp.NO);
+        doReturn(contexts.stream()).when(partitioner).streamPartitions();
+        List<StepExecution> stepExecutions = new ArrayList<>();
+
+        splitter.split(managerStepExecution, 10, stepExecutions::addAll);
+
+        assertEquals(PartitionTransferableProp.YES, stepExecutions.get(0).getExecutionContext().get(ClusterPartitioningConstants.IS_TRANSFERABLE_IDENTIFIER));
+        assertEquals(PartitionTransferableProp.NO, stepExecutions.get(1).getExecutionContext().get(ClusterPartitioningConstants.IS_TRANSFERABLE_IDENTIFIER));
+    }
+
+    @Test
+    public void testRoutingIsTakenOutOfTheContextsWhileARoutingTableIsOpen() {
+        List<ExecutionContext> contexts = partitions(1);
+        contexts.get(0).putString(ClusterPartitioningConstants.CLUSTER_NODE_IDENTIFIER, "node-a");
+        doReturn(contexts.stream()).when(partitioner).streamPartitions();
+        List<StepExecution> stepExecutions = new ArrayList<>();
+
+        PartitionRoutingTable.open();
+        try {
+            splitter.split(managerStepExecution, 10, stepExecutions::addAll);
+        } finally {
+            PartitionRoutingTable.close();
+        }
+
+        ExecutionContext persisted = stepExecutions.get(0).getExecutionContext();
+        assertFalse(persisted.containsKey(ClusterPartitioningConstants.CLUSTER_NODE_IDENTIFIER));
+        assertFalse(persisted.containsKey(ClusterPartitioningConstants.IS_TRANSFERABLE_IDENTIFIER));
+        assertEquals(0, persisted.getInt("index"));
+    }
+
+    @Test
+    public void testRestartSkipsCompletedPartitionsAndResumesTheOthers() {
+        managerStepExecution.getExecutionContext().putLong(ClusterPartitioningConstants.STREAMED_PARTITIONS_IDENTIFIER, 2L);
+        doReturn(partitions(3).stream()).when(partitioner).streamPartitions();
+        StepExecution completed = new StepExecution(50L, "step:0", jobExecution);
+        completed.setStatus(BatchStatus.COMPLETED);
+        StepExecution failed = new StepExecution(51L, "step:1", jobExecution);
+        failed.setStatus(BatchStatus.FAILED);
+        failed.getExecutionContext().putLong("position", 42);
+        doReturn(completed).when(jobRepository).getLastStepExecution(jobExecution.getJobInstance(), "step:0");
+        doReturn(failed).when(jobRepository).getLastStepExecution(jobExecution.getJobInstance(), "step:1");
+        List<StepExecution> stepExecutions = new ArrayList<>();
+
+        long created = splitter.split(managerStepExecution, 10, stepExecutions::addAll);
+
+        assertEquals(2, created);
+        assertEquals(List.of("step:1", "step:2"), stepExecutions.stream().map(StepExecution::getStepName).toList());
+        assertEquals(42L, stepExecutions.get(0).getExecutionContext().getLong("position"));
+        assertFalse(stepExecutions.get(1).getExecutionContext().containsKey("position"));
+        assertEquals(3L, managerStepExecution.getExecutionContext().getLong(ClusterPartitioningConstants.STREAMED_PARTITIONS_IDENTIFIER));
+    }
+
+    @Test
+    public void testNonStreamingSplitCreatesEveryPartition() {
+        doReturn(partitions(3).stream()).when(partitioner).streamPartitions();
+
+        assertEquals(3, splitter.split(managerStepExecution, 4).size());
+    }
+
+    private static List<ExecutionContext> partitions(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            ExecutionContext context = new ExecutionContext();
+            context.putInt("index", i);
+            return context;
+        }).collect(Collectors.toCollection(ArrayList::new));
+    }
+}
@@ -21,10 +21,15 @@ import io.github.jchejarla.springbatch.clustering.core.DatabaseBackedClusterServ
 import io.github.jchejarla.springbatch.clustering.core.serviceimpl.MySQLDatabaseQueryProvider;
 import io.github.jchejarla.springbatch.clustering.core.serviceimpl.OracleDatabaseQueryProvider;
 import io.github.jchejarla.springbatch.clustering.core.serviceimpl.PostgreSQLDatabaseQueryProvider;
+import io.github.jchejarla.springbatch.clustering.core.serviceimpl.PostgreSQLPartitionWakeupChannel;
 import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNodeInfo;
 import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNodeManager;
 import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNodeStatusChangeConditionNotifier;
+import io.github.jchejarla.springbatch.clustering.partition.JobProgressMonitor;
+import io.github.jchejarla.springbatch.clustering.polling.AdaptivePollingInterval;
+import io.github.jchejarla.springbatch.clustering.polling.PartitionWakeupChannel;
 import io.github.jchejarla.springbatch.clustering.polling.PartitionedWorkerNodeTasksRunner;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
@@ -32,6 +37,8 @@ import org.mockito.Spy;
 import org.springframework.batch.core.configuration.BatchConfigurationException;
 import org.springframework.batch.core.repository.explore.JobExplorer;
 import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
 import org.springframework.boot.jdbc.DatabaseDriver;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.task.TaskExecutor;
@@ -60,21 +67,56 @@ public class BatchClusterAutoConfigurationUnitTest extends BaseUnitTest {
     @Spy
     BatchClusterAutoConfiguration batchClusterAutoConfiguration;
 
+    private static ObjectProvider<MeterRegistry> noMeterRegistry() {
+        return new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class);
+    }
+
     @Test
     public void testBatchDatabaseClusterService() {
-        DatabaseBackedClusterService databaseBackedClusterService = batchClusterAutoConfiguration.databaseBackedClusterService(jdbcTemplate, batchClusterProperties, dbSpecificQueryProvider);
+        DatabaseBackedClusterService databaseBackedClusterService = batchClusterAutoConfiguration.databaseBackedClusterService(jdbcTemplate, batchClusterProperties, dbSpecificQueryProvider, noMeterRegistry());
         assertNotNull(databaseBackedClusterService);
     }
 
     @Test
     public void testClusterAwarePartitionHandler() {
-        DatabaseBackedClusterService databaseBackedClusterService = batchClusterAutoConfiguration.databaseBackedClusterService(jdbcTemplate, batchClusterProperties, dbSpecificQueryProvider);
-        batchClusterAutoConfiguration.clusterAwarePartitionHandler(databaseBackedClusterService, batchClusterProperties);
+        DatabaseBackedClusterService databaseBackedClusterService = batchClusterAutoConfiguration.databaseBackedClusterService(jdbcTemplate, batchClusterProperties, dbSpecificQueryProvider, noMeterRegistry());
+        JobProgressMonitor jobProgressMonitor = batchClusterAutoConfiguration.jobProgressMonitor(databaseBackedClusterService, batchClusterProperties,
+                batchClusterAutoConfiguration.jobProgressMonitorScheduler());
+        batchClusterAutoConfiguration.clusterAwarePartitionHandler(databaseBackedClusterService, batchClusterProperties, PartitionWakeupChannel.NONE,
+                batchClusterAutoConfiguration.workerPollingInterval(batchClusterProperties, PartitionWakeupChannel.NONE), jobProgressMonitor);
+        assertEquals(0, jobProgressMonitor.getTrackedJobCount());
+    }
+
+    @Test
+    public void testWorkerPollingIntervalStartsAtSafetyNetWhenEventDriven() {
+        doReturn(1000L).when(batchClusterProperties).getTaskPollingInterval();
+        doReturn(15000L).when(batchClusterProperties).getEventDrivenSafetyPollingInterval();
+        doReturn(8000L).when(batchClusterProperties).getMaxIdlePollingInterval();
+        PartitionWakeupChannel eventDriven = mock(PartitionWakeupChannel.class);
+        doReturn(true).when(eventDriven).isEventDriven();
+
+        AdaptivePollingInterval polling = batchClusterAutoConfiguration.workerPollingInterval(batchClusterProperties, PartitionWakeupChannel.NONE);
+        assertEquals(1000L, polling.current());
+        assertEquals(8000L, polling.getMaxInterval());
+        AdaptivePollingInterval safetyNet = batchClusterAutoConfiguration.workerPollingInterval(batchClusterProperties, eventDriven);
+        assertEquals(15000L, safetyNet.current());
+        assertEquals(15000L, safetyNet.getMaxInterval());
+    }
+
+    @Test
+    public void testPartitionWakeupChannel() {
+        DataSource dataSource = mock(DataSource.class);
+        assertSame(PartitionWakeupChannel.NONE, batchClusterAutoConfiguration.partitionWakeupChannel(dataSource, batchClusterProperties, new PostgreSQLDatabaseQueryProvider()));
+
+        doReturn(true).when(batchClusterProperties).isEventDrivenDispatch();
+        assertInstanceOf(PostgreSQLPartitionWakeupChannel.class, batchClusterAutoConfiguration.partitionWakeupChannel(dataSource, batchClusterProperties, new PostgreSQLDatabaseQueryProvider()));
+        // unsupported database: falls back to plain polling instead of failing startup
+        assertSame(PartitionWakeupChannel.NONE, batchClusterAutoConfiguration.partitionWakeupChannel(dataSource, batchClusterProperties, new MySQLDatabaseQueryProvider()));
     }
 
     @Test
     public void testClusterNodeManager() {
-        DatabaseBackedClusterService databaseBackedClusterService = batchClusterAutoConfiguration.databaseBackedClusterService(jdbcTemplate, batchClusterProperties, dbSpecificQueryProvider);
+        DatabaseBackedClusterService databaseBackedClusterService = batchClusterAutoConfiguration.databaseBackedClusterService(jdbcTemplate, batchClusterProperties, dbSpecificQueryProvider, noMeterRegistry());
         ClusterNodeManager nodeManager = batchClusterAutoConfiguration.clusterNodeManager(databaseBackedClusterService, batchClusterProperties,
                 mock(TaskScheduler.class),
                 mock(ClusterNodeInfo.class),
@@ -84,11 +126,12 @@ public class BatchClusterAutoConfigurationUnitTest extends BaseUnitTest {
 
     @Test
     public void testPartitionWorkerTasksRunner() {
-        DatabaseBackedClusterService databaseBackedClusterService = batchClusterAutoConfiguration.databaseBackedClusterService(jdbcTemplate, batchClusterProperties, dbSpecificQueryProvider);
+        DatabaseBackedClusterService databaseBackedClusterService = batchClusterAutoConfiguration.databaseBackedClusterService(jdbcTemplate, batchClusterProperties, dbSpecificQueryProvider, noMeterRegistry());
         PartitionedWorkerNodeTasksRunner tasksRunner = batchClusterAutoConfiguration.partitionWorkerTasksRunner(mock(ApplicationContext.class),
                 mock(JobExplorer.class), mock(JobRepository.class), mock(TaskExecutor.class),
                 batchClusterProperties, databaseBackedClusterService, mock(TaskScheduler.class),
-                mock(TaskScheduler.class), mock(TaskScheduler.class), mock(ClusterNodeInfo.class));
+                mock(TaskScheduler.class), mock(TaskScheduler.class), mock(ClusterNodeInfo.class), PartitionWakeupChannel.NONE,
+                batchClusterAutoConfiguration.workerPollingInterval(batchClusterProperties, PartitionWakeupChannel.NONE));
         assertNotNull(tasksRunner);
     }
 
@@ -134,6 +177,13 @@ public class BatchClusterAutoConfigurationUnitTest extends BaseUnitTest {
         assertInstanceOf(ThreadPoolTaskScheduler.class, taskScheduler);
     }
 
+    @Test
+    public void testJobProgressMonitorScheduler() {
+        TaskScheduler taskScheduler = batchClusterAutoConfiguration.jobProgressMonitorScheduler();
+        assertNotNull(taskScheduler);
+        assertInstanceOf(ThreadPoolTaskScheduler.class, taskScheduler);
+    }
+
     @Test
     public void testPartitionPollingScheduler() {
         TaskScheduler taskScheduler = batchClusterAutoConfiguration.partitionPollingScheduler();
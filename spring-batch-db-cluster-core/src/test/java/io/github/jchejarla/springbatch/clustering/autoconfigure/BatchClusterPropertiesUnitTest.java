@@ -48,4 +48,23 @@ public class BatchClusterPropertiesUnitTest {
         b.resolveNodeId();
         assertNotEquals(a.getNodeId(), b.getNodeId());
     }
+
+    @Test
+    public void testFailoverOnUnreachableWithoutFencingIsRejected() {
+        BatchClusterProperties props = new BatchClusterProperties();
+        props.setFailoverMode(BatchClusterProperties.FailoverMode.ON_NODE_UNREACHABLE);
+        props.setFailoverFencing(false);
+        IllegalStateException e = assertThrows(IllegalStateException.class, props::afterBinding);
+        assertTrue(e.getMessage().contains("failover-fencing=true"));
+    }
+
+    @Test
+    public void testFailoverSettingsThatFenceOrWaitForRemovalAreAccepted() {
+        BatchClusterProperties fenced = new BatchClusterProperties();
+        fenced.setFailoverMode(BatchClusterProperties.FailoverMode.ON_NODE_UNREACHABLE);
+        assertDoesNotThrow(fenced::afterBinding);
+        BatchClusterProperties onRemoval = new BatchClusterProperties();
+        onRemoval.setFailoverFencing(false);
+        assertDoesNotThrow(onRemoval::afterBinding);
+    }
 }
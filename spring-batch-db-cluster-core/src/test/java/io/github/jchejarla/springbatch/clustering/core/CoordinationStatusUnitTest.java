@@ -0,0 +1,44 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.core;
+
+import io.github.jchejarla.springbatch.clustering.BaseUnitTest;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CoordinationStatusUnitTest extends BaseUnitTest {
+
+    @Test
+    public void testCodesAreTheOnesInTheSchema() {
+        assertEquals(0, CoordinationStatus.CREATED.code());
+        assertEquals(1, CoordinationStatus.STARTED.code());
+        assertEquals(2, CoordinationStatus.COMPLETED.code());
+        assertEquals(3, CoordinationStatus.RECOVERING.code());
+        assertEquals(4, CoordinationStatus.ABANDONED.code());
+        assertEquals(5, CoordinationStatus.FAILED.code());
+    }
+
+    @Test
+    public void testEveryStatusIsReadBackFromItsCode() {
+        for (CoordinationStatus status : CoordinationStatus.values()) {
+            assertEquals(status, CoordinationStatus.fromCode(status.code()));
+            assertEquals(status.code(), CoordinationStatus.codeOf(status.name()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> CoordinationStatus.fromCode(6));
+    }
+}
@@ -18,17 +18,35 @@ package io.github.jchejarla.springbatch.clustering.core;
 import io.github.jchejarla.springbatch.clustering.BaseUnitTest;
 import io.github.jchejarla.springbatch.clustering.autoconfigure.BatchClusterProperties;
 import io.github.jchejarla.springbatch.clustering.core.serviceimpl.MySQLDatabaseQueryProvider;
+import io.github.jchejarla.springbatch.clustering.core.serviceimpl.OracleDatabaseQueryProvider;
+import io.github.jchejarla.springbatch.clustering.core.serviceimpl.PostgreSQLDatabaseQueryProvider;
+import io.github.jchejarla.springbatch.clustering.partition.JobProgress;
 import io.github.jchejarla.springbatch.clustering.polling.PartitionAssignmentTask;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 
+import java.sql.ResultSet;
+import java.sql.Statement;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -51,39 +69,61 @@ public class DatabaseBackedClusterServiceUnitTest extends BaseUnitTest {
     public void testRegister() {
         databaseBackedClusterService.registerNode();
         // created_time/last_updated_time are now set by the DB clock (CURRENT_TIMESTAMP), so only
-        // node id, status, and host identifier are bound.
-        verify(jdbcTemplate, times(1)).update(anyString(), anyString(), anyString(), anyString());
+        // node id, status, host identifier, epoch and the advertised capacity are bound.
+        verify(jdbcTemplate, times(1)).update(anyString(), anyString(), anyInt(), anyString(), anyLong(), anyInt(), anyInt(), anyDouble());
+        // nothing was inserted, so there is no key to read
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Integer.class), any());
+    }
+
+    @Test
+    public void testRegisterNodeReadsTheKeyTheDatabaseAssigned() {
+        doReturn(1).when(jdbcTemplate).update(anyString(), any(), any(), any(), any(), any(), any(), any());
+        doReturn(7).when(jdbcTemplate).queryForObject(anyString(), eq(Integer.class), eq("Test-Node-Id"));
+
+        databaseBackedClusterService.registerNode();
+
+        assertEquals(7, databaseBackedClusterService.getNodeKey());
+    }
+
+    @Test
+    public void testRegisterNodeAlwaysTakesAGreaterEpoch() {
+        doReturn(1).when(jdbcTemplate).update(anyString(), any(), any(), any(), any(), any(), any(), any());
+        doReturn(7).when(jdbcTemplate).queryForObject(anyString(), eq(Integer.class), eq("Test-Node-Id"));
+        databaseBackedClusterService.registerNode();
+        long firstEpoch = databaseBackedClusterService.getNodeEpoch();
+        databaseBackedClusterService.registerNode();
+        assertTrue(databaseBackedClusterService.getNodeEpoch() > firstEpoch);
     }
 
     @Test
     public void testUpdateNodeHeartbeat() {
         databaseBackedClusterService.updateNodeHeartbeat();
         // last_updated_time is now set by the DB clock (CURRENT_TIMESTAMP); status, load, node id bound.
-        verify(jdbcTemplate, times(1)).update(anyString(), anyString(), anyLong(), anyString());
+        verify(jdbcTemplate, times(1)).update(anyString(), anyInt(), anyLong(), anyString());
     }
 
     @Test
     public void testMarkNodesUnreachable() {
         databaseBackedClusterService.markNodesUnreachable();
-        verify(jdbcTemplate, times(1)).update(anyString(), anyString(), anyString(), anyLong());
+        verify(jdbcTemplate, times(1)).update(anyString(), anyInt(), anyInt(), anyLong());
     }
 
     @Test
     public void testDeleteNodesUnreachable() {
         databaseBackedClusterService.deleteNodesUnreachable();
-        verify(jdbcTemplate, times(1)).update(anyString(), anyString(), anyLong());
+        verify(jdbcTemplate, times(1)).update(anyString(), anyInt(), anyLong());
     }
 
     @Test
     public void testSaveBatchJobCoordinationInfo() {
         databaseBackedClusterService.saveBatchJobCoordinationInfo(123L, 124L, "masterStep");
-        verify(jdbcTemplate, times(1)).update(anyString(), anyLong(), anyString(), anyLong(), anyString(), anyString(), any(Date.class), any(Date.class));
+        verify(jdbcTemplate, times(1)).update(anyString(), anyLong(), anyString(), anyInt(), anyLong(), anyString(), anyInt(), any(Date.class), any(Date.class));
     }
 
     @Test
     public void testUpdateBatchJobCoordinationStatus() {
         databaseBackedClusterService.updateBatchJobCoordinationStatus(123L, 124L, "STARTED");
-        verify(jdbcTemplate, times(1)).update(anyString(), anyString(), any(Date.class), anyLong(), anyLong());
+        verify(jdbcTemplate, times(1)).update(anyString(), anyInt(), any(Date.class), anyLong(), anyLong());
     }
 
     @Test
@@ -92,6 +132,34 @@ public class DatabaseBackedClusterServiceUnitTest extends BaseUnitTest {
         verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
     }
 
+    @Test
+    public void testSaveBatchPartitionsInsertsSeveralRowsPerStatement() {
+        List<Object[]> rows = LongStream.range(0, 250).mapToObj(i -> new Object[]{i, 1L, "step:partition" + i, "node", 0, 2L, 1, null}).toList();
+        doReturn(new int[]{100, 100}).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        doReturn(50).when(jdbcTemplate).update(anyString(), any(Object[].class));
+
+        assertArrayEquals(new int[]{100, 100, 50}, databaseBackedClusterService.saveBatchPartitions(rows));
+
+        ArgumentCaptor<List<Object[]>> statements = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(argThat(sql -> sql.split("\\?").length - 1 == 800), statements.capture());
+        assertEquals(2, statements.getValue().size());
+        assertEquals(800, statements.getValue().get(0).length);
+        assertEquals(100L, statements.getValue().get(1)[0]);
+        ArgumentCaptor<Object[]> remainder = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(argThat(sql -> sql.split("\\?").length - 1 == 400), remainder.capture());
+        assertEquals(400, remainder.getValue().length);
+        assertEquals(249L, remainder.getValue()[392]);
+    }
+
+    @Test
+    public void testSaveBatchPartitionsRefusesANonTransferablePartitionOfAnUnregisteredNode() {
+        // no node is registered, so "gone" has no key
+        List<Object[]> rows = List.<Object[]>of(new Object[]{1L, 1L, "step:partition0", "gone", 0, 2L, 0, null});
+
+        assertThrows(IllegalStateException.class, () -> databaseBackedClusterService.saveBatchPartitions(rows));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
     @Test
     public void testUpdateBatchPartitionsToReAssignedNodes() {
         databaseBackedClusterService.updateBatchPartitionsToReAssignedNodes(Collections.emptyList());
@@ -99,15 +167,61 @@ public class DatabaseBackedClusterServiceUnitTest extends BaseUnitTest {
     }
 
     @Test
-    public void testGetPendingTasksCount() {
-        databaseBackedClusterService.getPendingTasksCount(124L);
-        verify(jdbcTemplate, times(1)).queryForObject(anyString(), any(Class.class), anyLong());
+    public void testGetJobsProgressBatchesIdsAndDefaultsJobsWithoutRows() {
+        List<Long> ids = LongStream.rangeClosed(1, DatabaseBackedClusterService.MAX_JOBS_PER_PROGRESS_QUERY + 1).boxed().toList();
+
+        Map<Long, JobProgress> progress = databaseBackedClusterService.getJobsProgress(ids);
+
+        // one grouped query per chunk of ids, however many jobs are monitored
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        assertEquals(ids.size(), progress.size());
+        assertEquals(JobProgress.NONE, progress.get(1L));
     }
 
     @Test
     public void testFetchPartitionAssignedTasks() {
         databaseBackedClusterService.fetchPartitionAssignedTasks();
-        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), anyString());
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), anyInt());
+    }
+
+    @Test
+    public void testClaimPartitionAssignedTasksKeepsOnlyRowsThisClaimFlipped() {
+        PartitionAssignmentTask won = new PartitionAssignmentTask(1L, "p0", 10L, 5L, true, "step", 0);
+        PartitionAssignmentTask lost = new PartitionAssignmentTask(1L, "p1", 11L, 5L, true, "step", 0);
+        doReturn(List.of(won, lost)).when(jdbcTemplate).query(anyString(), any(RowMapper.class), anyInt(), anyInt());
+        doReturn(new int[]{1, 0}).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+
+        List<PartitionAssignmentTask> claimed = databaseBackedClusterService.claimPartitionAssignedTasks(10);
+
+        assertEquals(List.of(won.withClaimEpoch(0L)), claimed);
+    }
+
+    @Test
+    public void testOracleClaimOverFetchesCandidatesButClaimsAtMostMaxTasks() {
+        DatabaseBackedClusterService oracleService = new DatabaseBackedClusterService(jdbcTemplate, batchClusterProperties, new OracleDatabaseQueryProvider());
+        List<PartitionAssignmentTask> candidates = LongStream.range(0, 8)
+                .mapToObj(i -> new PartitionAssignmentTask(1L, "p" + i, 10L + i, 5L, true, "step", 0)).toList();
+        doReturn(candidates).when(jdbcTemplate).query(contains("skip locked"), any(RowMapper.class), anyInt(), anyInt());
+        doReturn(new int[]{1, 1}).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+
+        List<PartitionAssignmentTask> claimed = oracleService.claimPartitionAssignedTasks(2);
+
+        verify(jdbcTemplate).query(contains("skip locked"), any(RowMapper.class), eq(0), eq(8));
+        assertEquals(List.of(candidates.get(0).withClaimEpoch(0L), candidates.get(1).withClaimEpoch(0L)), claimed);
+    }
+
+    @Test
+    public void testClaimPartitionAssignedTasksUsesSingleStatementWhenSupported() {
+        DatabaseBackedClusterService postgresService = new DatabaseBackedClusterService(jdbcTemplate, batchClusterProperties, new PostgreSQLDatabaseQueryProvider());
+        postgresService.claimPartitionAssignedTasks(10);
+        verify(jdbcTemplate, times(1)).query(contains("returning"), any(RowMapper.class), eq(0L), eq(0), eq(0), eq(10));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    public void testClaimPartitionAssignedTasksSkipsDatabaseWithoutFreePermits() {
+        databaseBackedClusterService.claimPartitionAssignedTasks(0);
+        verifyNoInteractions(jdbcTemplate);
     }
 
     @Test
@@ -133,4 +247,70 @@ public class DatabaseBackedClusterServiceUnitTest extends BaseUnitTest {
         databaseBackedClusterService.getActiveNodes();
         verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class));
     }
+
+    @Test
+    public void testCoordinationCallsAreMeteredByOperationAndDialect() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DatabaseBackedClusterService meteredService = new DatabaseBackedClusterService(jdbcTemplate, batchClusterProperties, new MySQLDatabaseQueryProvider(), meterRegistry);
+        doReturn(1).when(jdbcTemplate).update(anyString(), anyInt(), anyLong(), anyString());
+        doReturn(new int[]{1, Statement.SUCCESS_NO_INFO, 0}).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+
+        meteredService.updateNodeHeartbeat();
+        meteredService.updateNodeHeartbeat();
+        meteredService.updatePartitionsStatus(List.of(Mockito.mock(PartitionAssignmentTask.class)), "COMPLETED");
+
+        assertEquals(2, meterRegistry.get(CoordinationMetrics.OPERATION_METRIC).tags("operation", "updateNodeHeartbeat", "dialect", "mysql").timer().count());
+        assertEquals(2, meterRegistry.get(CoordinationMetrics.ROWS_METRIC).tags("operation", "updateNodeHeartbeat").summary().totalAmount());
+        // a SUCCESS_NO_INFO entry may stand for any number of rows: the call is timed but adds no rows
+        assertEquals(1, meterRegistry.get(CoordinationMetrics.OPERATION_METRIC).tags("operation", "updatePartitionsStatus").timer().count());
+        assertEquals(0, meterRegistry.get(CoordinationMetrics.ROWS_METRIC).tags("operation", "updatePartitionsStatus").summary().count());
+    }
+
+    @Test
+    public void testSavedPartitionsAreMeteredByRowNotByStatement() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DatabaseBackedClusterService meteredService = new DatabaseBackedClusterService(jdbcTemplate, batchClusterProperties, new MySQLDatabaseQueryProvider(), meterRegistry);
+        List<Object[]> rows = LongStream.range(0, 250).mapToObj(i -> new Object[]{i, 1L, "step:partition" + i, "node", 0, 2L, 1, null}).toList();
+        // multi-row inserts, one of which the driver reports without a count
+        doReturn(new int[]{100, Statement.SUCCESS_NO_INFO}).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        doReturn(50).when(jdbcTemplate).update(anyString(), any(Object[].class));
+
+        meteredService.saveBatchPartitions(rows);
+
+        assertEquals(250, meterRegistry.get(CoordinationMetrics.ROWS_METRIC).tags("operation", "saveBatchPartitions").summary().totalAmount());
+    }
+
+    @Test
+    public void testStealWithoutPerRowCountsReportsEveryStealAsPossiblyHeld() throws Exception {
+        MySQLDatabaseQueryProvider queryProvider = new MySQLDatabaseQueryProvider();
+        ResultSet backlog = mock(ResultSet.class);
+        doReturn(true).when(backlog).next();
+        doReturn(7).when(backlog).getInt("assigned_node_key");
+        doReturn(6).when(backlog).getInt("backlog");
+        doAnswer(invocation -> invocation.<ResultSetExtractor<?>>getArgument(1).extractData(backlog))
+                .when(jdbcTemplate).query(eq(queryProvider.getPartitionBacklogByNodeQuery()), any(ResultSetExtractor.class), anyInt());
+        doReturn(List.of(new Object[]{0, 1L, 2L, 7}, new Object[]{0, 3L, 2L, 7}))
+                .when(jdbcTemplate).query(eq(queryProvider.getStealablePartitionsQuery()), any(RowMapper.class), anyInt(), anyInt());
+        doReturn(new int[]{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO}).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+
+        assertEquals(3, databaseBackedClusterService.stealPartitions(3));
+    }
+
+    @Test
+    public void testBatchRowCountIsUnknownWhenAnEntryHasNoCount() {
+        assertEquals(3, CoordinationMetrics.batchRowCount(new int[]{1, 2, 0, Statement.EXECUTE_FAILED}));
+        assertEquals(CoordinationMetrics.UNKNOWN_ROWS, CoordinationMetrics.batchRowCount(new int[]{1, Statement.SUCCESS_NO_INFO}));
+    }
+
+    @Test
+    public void testFailedCoordinationCallsAreTimedAndCounted() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DatabaseBackedClusterService meteredService = new DatabaseBackedClusterService(jdbcTemplate, batchClusterProperties, new MySQLDatabaseQueryProvider(), meterRegistry);
+        doThrow(new QueryTimeoutException("timeout")).when(jdbcTemplate).query(anyString(), any(RowMapper.class));
+
+        assertThrows(QueryTimeoutException.class, meteredService::getActiveNodes);
+
+        assertEquals(1, meterRegistry.get(CoordinationMetrics.OPERATION_METRIC).tags("operation", "getActiveNodes").timer().count());
+        assertEquals(1, meterRegistry.get(CoordinationMetrics.ERRORS_METRIC).tags("operation", "getActiveNodes", "exception", "QueryTimeoutException").counter().count());
+    }
 }
@@ -17,12 +17,13 @@ package io.github.jchejarla.springbatch.clustering.core;
 
 import io.github.jchejarla.springbatch.clustering.autoconfigure.BatchClusterProperties;
 import io.github.jchejarla.springbatch.clustering.core.serviceimpl.H2DatabaseQueryProvider;
+import io.github.jchejarla.springbatch.clustering.mgmt.NodeStatus;
 import io.github.jchejarla.springbatch.clustering.mgmt.OrphanedMasterJob;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
 import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 
 import java.sql.Timestamp;
@@ -42,14 +43,19 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
  */
 public class MasterRecoveryQueriesTest {
 
+    // keys no registered node has
+    private static final int GHOST_MASTER_KEY = 999_998;
+    private static final int DEAD_REAPER_KEY = 999_999;
+
     private JdbcTemplate jdbcTemplate;
     private DatabaseBackedClusterService service;
     private long seq = 1;
 
     @BeforeEach
     void setUp() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource(
-                "jdbc:h2:mem:recovery-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        // one connection for the whole test: H2 ties the CHECK constraints to the connection that created them
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:recovery-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "", true);
         dataSource.setDriverClassName("org.h2.Driver");
         new ResourceDatabasePopulator(
                 new ClassPathResource("org/springframework/batch/core/schema-h2.sql"),
@@ -60,22 +66,23 @@ public class MasterRecoveryQueriesTest {
         service = new DatabaseBackedClusterService(jdbcTemplate, new BatchClusterProperties(), new H2DatabaseQueryProvider());
 
         jdbcTemplate.update("insert into batch_nodes(node_id, created_time, last_updated_time, status, host_identifier, current_load) values (?,?,?,?,?,?)",
-                "alive-node", now(), now(), "ACTIVE", "host", 0);
+                "alive-node", now(), now(), NodeStatus.ACTIVE.code(), "host", 0);
     }
 
     @Test
     void detectsAndClaimsJobWhoseMasterIsGone() {
         long jobId = newJobExecution();
-        insertCoordination(jobId, "ghost-master", CoordinationStatus.STARTED.name());
+        insertCoordination(jobId, "ghost-master", GHOST_MASTER_KEY, CoordinationStatus.STARTED);
 
         List<OrphanedMasterJob> orphans = service.findOrphanedMasterJobs();
-        assertTrue(orphans.stream().anyMatch(o -> o.jobExecutionId() == jobId && o.masterNodeId().equals("ghost-master")));
+        assertTrue(orphans.stream().anyMatch(o -> o.jobExecutionId() == jobId && o.masterNodeId().equals("ghost-master")
+                && o.masterNodeKey() == GHOST_MASTER_KEY));
 
-        assertTrue(service.claimOrphanedMasterJob(jobId, "ghost-master", "reaper-node", CoordinationStatus.RECOVERING.name()));
+        assertTrue(service.claimOrphanedMasterJob(jobId, GHOST_MASTER_KEY, "reaper-node", CoordinationStatus.RECOVERING.name()));
         // a second reaper loses: ownership has already moved off the dead master
-        assertFalse(service.claimOrphanedMasterJob(jobId, "ghost-master", "reaper-node", CoordinationStatus.RECOVERING.name()));
+        assertFalse(service.claimOrphanedMasterJob(jobId, GHOST_MASTER_KEY, "reaper-node", CoordinationStatus.RECOVERING.name()));
 
-        assertEquals(CoordinationStatus.RECOVERING.name(), coordinationField(jobId, "status"));
+        assertEquals(String.valueOf(CoordinationStatus.RECOVERING.code()), coordinationField(jobId, "status"));
         assertEquals("reaper-node", coordinationField(jobId, "master_node_id"));
     }
 
@@ -83,14 +90,15 @@ public class MasterRecoveryQueriesTest {
     void reDetectsInterruptedRecovery() {
         long jobId = newJobExecution();
         // a recovery a now-departed reaper claimed but never finished
-        insertCoordination(jobId, "dead-reaper", CoordinationStatus.RECOVERING.name());
+        insertCoordination(jobId, "dead-reaper", DEAD_REAPER_KEY, CoordinationStatus.RECOVERING);
         assertTrue(service.findOrphanedMasterJobs().stream().anyMatch(o -> o.jobExecutionId() == jobId));
     }
 
     @Test
     void ignoresJobWhoseMasterIsStillAlive() {
         long jobId = newJobExecution();
-        insertCoordination(jobId, "alive-node", CoordinationStatus.STARTED.name());
+        insertCoordination(jobId, "alive-node",
+                jdbcTemplate.queryForObject("select node_key from batch_nodes where node_id = ?", Integer.class, "alive-node"), CoordinationStatus.STARTED);
         assertTrue(service.findOrphanedMasterJobs().stream().noneMatch(o -> o.jobExecutionId() == jobId));
     }
 
@@ -103,9 +111,9 @@ public class MasterRecoveryQueriesTest {
         return id;
     }
 
-    private void insertCoordination(long jobExecutionId, String masterNode, String status) {
-        jdbcTemplate.update("insert into batch_job_coordination(job_execution_id, master_node_id, master_step_execution_id, master_step_name, status, created_time, last_updated) values (?,?,?,?,?,?,?)",
-                jobExecutionId, masterNode, jobExecutionId, "step.manager", status, now(), now());
+    private void insertCoordination(long jobExecutionId, String masterNode, int masterNodeKey, CoordinationStatus status) {
+        jdbcTemplate.update("insert into batch_job_coordination(job_execution_id, master_node_id, master_node_key, master_step_execution_id, master_step_name, status, created_time, last_updated) values (?,?,?,?,?,?,?,?)",
+                jobExecutionId, masterNode, masterNodeKey, jobExecutionId, "step.manager", status.code(), now(), now());
     }
 
     private String coordinationField(long jobExecutionId, String column) {
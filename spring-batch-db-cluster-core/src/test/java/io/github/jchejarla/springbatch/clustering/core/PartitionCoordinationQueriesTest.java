@@ -0,0 +1,505 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.core;
+
+import io.github.jchejarla.springbatch.clustering.autoconfigure.BatchClusterProperties;
+import io.github.jchejarla.springbatch.clustering.core.serviceimpl.H2DatabaseQueryProvider;
+import io.github.jchejarla.springbatch.clustering.mgmt.NodeStatus;
+import io.github.jchejarla.springbatch.clustering.partition.JobProgress;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionStatus;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionSummary;
+import io.github.jchejarla.springbatch.clustering.partition.SplittableRange;
+import io.github.jchejarla.springbatch.clustering.polling.PartitionAssignmentTask;
+import io.github.jchejarla.springbatch.clustering.polling.PartitionStatusUpdate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Exercises the partition coordination queries (claiming, status transitions, job progress) against a real
+ * (in-memory H2) database, using the bundled Spring Batch and cluster schema scripts. Runs without the
+ * live cluster schedulers, so it is deterministic.
+ */
+public class PartitionCoordinationQueriesTest {
+
+    private static final String WORKER = "worker-node";
+    private static final String MASTER = "master-node";
+    // batch_nodes.node_epoch defaults to 1; partitions inserted as CLAIMED are claimed under it
+    private static final long EPOCH = 1L;
+    // the key partitions of nodes that never registered (or have left) are assigned to
+    private static final int UNREGISTERED_NODE_KEY = 999_999;
+
+    private JdbcTemplate jdbcTemplate;
+    private DatabaseBackedClusterService service;
+    private BatchClusterProperties properties;
+    private long seq = 1;
+
+    @BeforeEach
+    void setUp() {
+        // one connection for the whole test: H2 ties the CHECK constraints to the connection that created them
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:partitions-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "", true);
+        dataSource.setDriverClassName("org.h2.Driver");
+        new ResourceDatabasePopulator(
+                new ClassPathResource("org/springframework/batch/core/schema-h2.sql"),
+                new ClassPathResource("schema/schema-h2.sql")
+        ).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        properties = mock(BatchClusterProperties.class);
+        when(properties.getNodeId()).thenReturn(WORKER);
+        when(properties.getNodeCleanupThreshold()).thenReturn(60000L);
+        service = new DatabaseBackedClusterService(jdbcTemplate, properties, new H2DatabaseQueryProvider());
+
+        insertNode(MASTER);
+        // the worker registers itself, so the service knows its node key; its epoch is reset to the one
+        // the partitions below are claimed under
+        service.registerNode();
+        jdbcTemplate.update("update batch_nodes set node_epoch = ? where node_id = ?", EPOCH, WORKER);
+    }
+
+    @Test
+    void claimFlipsAssignedPartitionsAndReturnsThemOnce() {
+        long masterStepId = newJob(CoordinationStatus.STARTED);
+        long p1 = newPartition(masterStepId, WORKER, "PENDING");
+        long p2 = newPartition(masterStepId, WORKER, "PENDING");
+        newPartition(masterStepId, "other-node", "PENDING");
+
+        List<PartitionAssignmentTask> claimed = service.claimPartitionAssignedTasks(10);
+
+        assertEquals(List.of(p1, p2), claimed.stream().map(PartitionAssignmentTask::stepExecutionId).sorted().toList());
+        assertTrue(claimed.stream().allMatch(task -> "step.manager".equals(task.masterStepName())));
+        assertTrue(claimed.stream().allMatch(task -> task.claimEpoch() == service.getNodeEpoch()));
+        assertEquals("CLAIMED", partitionStatus(p1));
+        assertEquals("CLAIMED", partitionStatus(p2));
+        // a second poll finds nothing left to claim, so nothing can be started twice
+        assertTrue(service.claimPartitionAssignedTasks(10).isEmpty());
+    }
+
+    @Test
+    void claimIsBoundedAndLeavesTheRestPending() {
+        long masterStepId = newJob(CoordinationStatus.STARTED);
+        for (int i = 0; i < 5; i++) {
+            newPartition(masterStepId, WORKER, "PENDING");
+        }
+
+        assertEquals(2, service.claimPartitionAssignedTasks(2).size());
+        Integer pending = jdbcTemplate.queryForObject(
+                "select count(*) from batch_partitions where status = ?", Integer.class, PartitionStatus.PENDING.code());
+        assertEquals(3, pending, "partitions beyond the free permits must stay PENDING (and movable)");
+    }
+
+    @Test
+    void claimIgnoresPartitionsOfJobsNotYetStarted() {
+        long masterStepId = newJob(CoordinationStatus.CREATED);
+        long partition = newPartition(masterStepId, WORKER, "PENDING");
+
+        assertTrue(service.claimPartitionAssignedTasks(10).isEmpty());
+        assertEquals("PENDING", partitionStatus(partition));
+    }
+
+    @Test
+    void jobProgressCountsEveryStatusAndOnlyStaleOrphansInOneQuery() {
+        long masterStepId = newJob(CoordinationStatus.STARTED);
+        newPartition(masterStepId, WORKER, "PENDING");
+        newPartition(masterStepId, WORKER, "CLAIMED");
+        newPartition(masterStepId, WORKER, "COMPLETED");
+        newPartition(masterStepId, WORKER, "COMPLETED");
+        newPartition(masterStepId, WORKER, "FAILED");
+        long staleOrphan = newPartition(masterStepId, "departed-node", "CLAIMED");
+        newPartition(masterStepId, "departed-node", "PENDING"); // just assigned: not an orphan yet
+        newPartition(newJob(CoordinationStatus.STARTED), WORKER, "PENDING"); // another job's partition
+        jdbcTemplate.update("update batch_partitions set last_updated = ? where step_execution_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(5)), staleOrphan);
+
+        JobProgress progress = service.getJobProgress(masterStepId);
+
+        assertEquals(new JobProgress(2, 2, 2, 1, 1), progress);
+        assertEquals(4, progress.outstanding());
+        assertFalse(progress.isDrained());
+    }
+
+    @Test
+    void longRunningPartitionIsOrphanedOnlyOnceItsNodeIsGone() {
+        long masterStepId = newJob(CoordinationStatus.STARTED);
+        long running = newPartition(masterStepId, WORKER, "CLAIMED");
+        // claimed long ago and never refreshed since: the node's heartbeat row is what keeps it alive
+        jdbcTemplate.update("update batch_partitions set last_updated = ? where step_execution_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(5)), running);
+
+        assertTrue(service.checkForOrphanedTasks(masterStepId).isEmpty());
+        assertEquals(0, service.getJobProgress(masterStepId).orphanCandidates());
+
+        jdbcTemplate.update("delete from batch_nodes where node_id = ?", WORKER);
+
+        assertEquals(List.of(running), service.checkForOrphanedTasks(masterStepId).stream().map(PartitionAssignmentTask::stepExecutionId).toList());
+        assertEquals(1, service.getJobProgress(masterStepId).orphanCandidates());
+    }
+
+    @Test
+    void batchedStatusUpdatesKeepTheGuardAndReportEachRow() {
+        long masterStepId = newJob(CoordinationStatus.STARTED);
+        long completed = newPartition(masterStepId, WORKER, "CLAIMED");
+        long failed = newPartition(masterStepId, WORKER, "CLAIMED");
+        long reassigned = newPartition(masterStepId, "other-node", "PENDING");
+        long alreadyFinal = newPartition(masterStepId, WORKER, "FAILED");
+
+        int[] rowsUpdated = service.updatePartitionStatuses(List.of(
+                update(masterStepId, completed, "COMPLETED"),
+                update(masterStepId, failed, "FAILED"),
+                update(masterStepId, reassigned, "COMPLETED"),
+                update(masterStepId, alreadyFinal, "COMPLETED")));
+
+        assertArrayEquals(new int[]{1, 1, 0, 0}, rowsUpdated);
+        assertEquals("COMPLETED", partitionStatus(completed));
+        assertEquals("FAILED", partitionStatus(failed));
+        assertEquals("PENDING", partitionStatus(reassigned), "a partition moved to another node must not be finished by this one");
+        assertEquals("FAILED", partitionStatus(alreadyFinal), "a final status must never be overwritten");
+    }
+
+    @Test
+    void statusWritesOfAnEarlierNodeEpochAreFencedOff() {
+        long masterStepId = newJob(CoordinationStatus.STARTED);
+        long partition = newPartition(masterStepId, WORKER, "CLAIMED");
+        // the worker registered again (e.g. after a long GC pause) and claimed the partition anew
+        jdbcTemplate.update("update batch_nodes set node_epoch = ? where node_id = ?", EPOCH + 1, WORKER);
+        jdbcTemplate.update("update batch_partitions set claim_epoch = ? where step_execution_id = ?", EPOCH + 1, partition);
+
+        PartitionStatusUpdate stale = update(masterStepId, partition, "FAILED");
+        assertArrayEquals(new int[]{0}, service.updatePartitionStatuses(List.of(stale)));
+        assertEquals("CLAIMED", partitionStatus(partition));
+
+        PartitionStatusUpdate current = new PartitionStatusUpdate(stale.task().withClaimEpoch(EPOCH + 1), "COMPLETED");
+        assertArrayEquals(new int[]{1}, service.updatePartitionStatuses(List.of(current)));
+        assertEquals("COMPLETED", partitionStatus(partition));
+    }
+
+    @Test
+    void claimsOfAnEarlierNodeEpochAreOrphans() {
+        long masterStepId = newJob(CoordinationStatus.STARTED);
+        long staleClaim = newPartition(masterStepId, WORKER, "CLAIMED");
+        long pending = newPartition(masterStepId, WORKER, "PENDING");
+        jdbcTemplate.update("update batch_partitions set last_updated = ? where master_step_execution_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(5)), masterStepId);
+
+        assertTrue(service.checkForOrphanedTasks(masterStepId).isEmpty());
+
+        // the node is still registered, but under a new epoch: nothing runs its earlier claims any more,
+        // while its pending partitions will simply be claimed by the new incarnation
+        jdbcTemplate.update("update batch_nodes set node_epoch = ? where node_id = ?", EPOCH + 1, WORKER);
+
+        assertEquals(List.of(staleClaim), service.checkForOrphanedTasks(masterStepId).stream().map(PartitionAssignmentTask::stepExecutionId).toList());
+        assertEquals(1, service.getJobProgress(masterStepId).orphanCandidates());
+        assertEquals("PENDING", partitionStatus(pending));
+    }
+
+    @Test
+    void writesOfARejoinedNodesEarlierEpochAreFencedOffEvenWhileItsClaimStands() {
+        long masterStepId = newJob(CoordinationStatus.STARTED);
+        long partition = newPartition(masterStepId, WORKER, "CLAIMED");
+        jdbcTemplate.update("update batch_nodes set node_epoch = ? where node_id = ?", EPOCH + 1, WORKER);
+
+        assertArrayEquals(new int[]{0}, service.updatePartitionStatuses(List.of(update(masterStepId, partition, "FAILED"))));
+        assertEquals("CLAIMED", partitionStatus(partition), "the claim is left for the master to recover");
+    }
+
+    @Test
+    void transferablePartitionsOfAnUnreachableNodeAreOrphansRightAwayOnlyWithFailoverOnUnreachable() {
+        long masterStepId = newJob(CoordinationStatus.STARTED);
+        long transferable = newPartition(masterStepId, WORKER, "CLAIMED");
+        long nonTransferable = newPartition(masterStepId, WORKER, "CLAIMED");
+        jdbcTemplate.update("update batch_partitions set is_transferable = 0 where step_execution_id = ?", nonTransferable);
+        jdbcTemplate.update("update batch_nodes set status = ? where node_id = ?", NodeStatus.UNREACHABLE.code(), WORKER);
+
+        assertTrue(service.checkForOrphanedTasks(masterStepId).isEmpty(), "by default, partitions wait for their node's removal");
+        assertEquals(0, service.getJobProgress(masterStepId).orphanCandidates());
+
+        when(properties.getFailoverMode()).thenReturn(BatchClusterProperties.FailoverMode.ON_NODE_UNREACHABLE);
+
+        List<PartitionAssignmentTask> orphans = service.checkForOrphanedTasks(masterStepId);
+        assertEquals(List.of(transferable), orphans.stream().map(PartitionAssignmentTask::stepExecutionId).toList());
+        assertEquals(nodeKey(WORKER), orphans.get(0).assignedNodeKey());
+        assertEquals(Long.valueOf(EPOCH), orphans.get(0).claimEpoch());
+        assertEquals(1, service.getJobProgress(masterStepId).orphanCandidates());
+    }
+
+    @Test
+    void reassignmentOnlyMovesThePartitionTheOrphanScanSaw() {
+        long masterStepId = newJob(CoordinationStatus.STARTED);
+        long claimedMeanwhile = newPartition(masterStepId, WORKER, "PENDING");
+        long unchanged = newPartition(masterStepId, WORKER, "CLAIMED");
+        long jobId = jobOf(masterStepId);
+        // the scan saw the first partition PENDING, but the node claimed it before the reassignment ran
+        jdbcTemplate.update("update batch_partitions set status = ?, claim_epoch = ? where step_execution_id = ?", PartitionStatus.CLAIMED.code(), EPOCH, claimedMeanwhile);
+
+        int[] rowsUpdated = service.updateBatchPartitionsToReAssignedNodes(List.of(
+                new Object[]{MASTER, jobId, masterStepId, claimedMeanwhile, nodeKey(WORKER), 0L},
+                new Object[]{MASTER, jobId, masterStepId, unchanged, nodeKey(WORKER), EPOCH}));
+
+        assertArrayEquals(new int[]{0, 1}, rowsUpdated);
+        assertEquals("CLAIMED", partitionStatus(claimedMeanwhile));
+        assertEquals("PENDING", partitionStatus(unchanged));
+        assertEquals(MASTER, assignedNode(unchanged));
+    }
+
+    @Test
+    void stealingTakesHalfOfTheLargestTransferableBacklog() {
+        insertNode("busy-node");
+        insertNode("other-node");
+        long masterStepId = newJob(CoordinationStatus.STARTED);
+        List<Long> busyPending = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            busyPending.add(newPartition(masterStepId, "busy-node", "PENDING"));
+        }
+        long busyClaimed = newPartition(masterStepId, "busy-node", "CLAIMED");
+        long pinned = newPartition(masterStepId, "busy-node", "PENDING");
+        jdbcTemplate.update("update batch_partitions set is_transferable = 0 where step_execution_id = ?", pinned);
+        newPartition(masterStepId, "other-node", "PENDING");
+
+        assertEquals(3, service.stealPartitions(10));
+
+        assertEquals(3, service.claimPartitionAssignedTasks(10).size());
+        assertEquals(busyPending.subList(2, 5), jdbcTemplate.queryForList(
+                "select step_execution_id from batch_partitions where assigned_node_key = ? order by step_execution_id", Long.class, nodeKey(WORKER)));
+        assertEquals("CLAIMED", partitionStatus(busyClaimed));
+        assertEquals("busy-node", assignedNode(pinned),
+                "a non-transferable partition never moves");
+    }
+
+    @Test
+    void stealingIsBoundedByFreePermitsAndFindsNothingWithoutBacklog() {
+        insertNode("busy-node");
+        long masterStepId = newJob(CoordinationStatus.STARTED);
+        for (int i = 0; i < 6; i++) {
+            newPartition(masterStepId, "busy-node", "PENDING");
+        }
+
+        assertEquals(1, service.stealPartitions(1));
+        assertEquals(0, service.stealPartitions(0));
+        jdbcTemplate.update("update batch_partitions set status = ? where assigned_node_key = ?", PartitionStatus.CLAIMED.code(), nodeKey("busy-node"));
+        assertEquals(0, service.stealPartitions(10));
+    }
+
+    @Test
+    void unassignedPartitionsAreClaimedByWhicheverNodeGetsThereFirstAndAreNeverOrphans() {
+        long masterStepId = newJob(CoordinationStatus.STARTED);
+        long shared1 = newPartition(masterStepId, null, "PENDING");
+        long shared2 = newPartition(masterStepId, null, "PENDING");
+        jdbcTemplate.update("update batch_partitions set last_updated = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(5)));
+
+        assertTrue(service.checkForOrphanedTasks(masterStepId).isEmpty());
+        assertEquals(0, service.getJobProgress(masterStepId).orphanCandidates());
+
+        List<PartitionAssignmentTask> claimed = service.claimPartitionAssignedTasks(1);
+
+        assertEquals(1, claimed.size());
+        long won = claimed.get(0).stepExecutionId();
+        assertEquals(WORKER, assignedNode(won));
+        // the other one is still in the queue, for any node
+        long left = won == shared1 ? shared2 : shared1;
+        assertEquals("PENDING", partitionStatus(left));
+        assertNull(assignedNode(left));
+    }
+
+    @Test
+    void partitionRuntimeHistoryPredictsFromTheRecordedRuns() {
+        assertTrue(service.getPredictedPartitionCosts("job").isEmpty());
+
+        service.recordPartitionRuntime("job", "step.manager:0/2", 1000, 50, 50);
+        service.recordPartitionRuntime("job", "step.manager:1/2", 200, 10, 10);
+        service.recordPartitionRuntime("job", "step.manager:0/2", 3000, 60, 60);
+        service.recordPartitionRuntime("other-job", "step.manager:0/2", 99, 1, 1);
+
+        // each run weighs half: (1000 + 3000) / 2
+        assertEquals(Map.of("step.manager:0/2", 2000L, "step.manager:1/2", 200L), service.getPredictedPartitionCosts("job"));
+        assertEquals(2, jdbcTemplate.queryForObject("select run_count from batch_partition_history where job_name = 'job' and partition_key = 'step.manager:0/2'", Integer.class));
+        assertEquals(WORKER, jdbcTemplate.queryForObject("select node_id from batch_partition_history where job_name = 'job' and partition_key = 'step.manager:1/2'", String.class));
+    }
+
+    @Test
+    void rangeSplitHandsTheTailOverAsAnUnassignedPartitionOfTheSameJob() {
+        long masterStepId = newJob(CoordinationStatus.STARTED);
+        long running = newPartition(masterStepId, WORKER, "CLAIMED");
+        newPartition(masterStepId, WORKER, "CLAIMED"); // has not reported its progress yet
+
+        assertFalse(service.recordRangeProgress(running, 199, 1000));
+        assertEquals(List.of(new SplittableRange(running, 801, false)), service.getSplittableRanges(masterStepId),
+                "only partitions that reported their progress can be split");
+        assertTrue(service.requestRangeSplit(running));
+        assertFalse(service.requestRangeSplit(running), "a split is requested once");
+        assertTrue(service.recordRangeProgress(running, 200, 1000));
+
+        long tail = newStepExecution(jobOf(masterStepId), "step:partition" + running + "@601");
+        assertEquals(2, service.saveSplitPartition(running, 600, tail, "step:partition" + running + "@601"));
+
+        assertFalse(service.recordRangeProgress(running, 201, 600));
+        assertEquals("PENDING", partitionStatus(tail));
+        assertNull(assignedNode(tail));
+        assertEquals(List.of(new PartitionSummary(tail, "step:partition" + running + "@601", PartitionStatus.PENDING)), service.getSplitPartitions(masterStepId));
+        assertEquals(new JobProgress(1, 2, 0, 0, 0), service.getJobProgress(masterStepId));
+        assertEquals(tail, service.claimPartitionAssignedTasks(10).get(0).stepExecutionId());
+    }
+
+    @Test
+    void declinedRangeSplitKeepsTheRangeAndCanBeRequestedAgain() {
+        long masterStepId = newJob(CoordinationStatus.STARTED);
+        long running = newPartition(masterStepId, WORKER, "CLAIMED");
+        service.recordRangeProgress(running, 10, 20);
+        service.requestRangeSplit(running);
+
+        service.declineRangeSplit(running, 20);
+
+        assertEquals(List.of(new SplittableRange(running, 10, false)), service.getSplittableRanges(masterStepId));
+        assertTrue(service.requestRangeSplit(running));
+        jdbcTemplate.update("update batch_partitions set status = ? where step_execution_id = ?", PartitionStatus.COMPLETED.code(), running);
+        assertTrue(service.getSplittableRanges(masterStepId).isEmpty(), "a finished partition is no longer split");
+    }
+
+    @Test
+    void partitionsAreSavedSeveralRowsPerStatementIncludingTheRemainder() {
+        long masterStepId = newJob(CoordinationStatus.STARTED);
+        long jobId = jobOf(masterStepId);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            long stepExecutionId = newStepExecution(jobId, "step:partition" + i);
+            rows.add(new Object[]{stepExecutionId, jobId, "step:partition" + i, i % 2 == 0 ? WORKER : null, PartitionStatus.PENDING.code(), masterStepId, 1, i == 249 ? 7L : null});
+        }
+
+        int[] rowsInserted = service.saveBatchPartitions(rows);
+
+        assertArrayEquals(new int[]{100, 100, 50}, rowsInserted);
+        assertEquals(250, jdbcTemplate.queryForObject("select count(*) from batch_partitions where master_step_execution_id = ?", Integer.class, masterStepId));
+        assertEquals(125, jdbcTemplate.queryForObject("select count(*) from batch_partitions where master_step_execution_id = ? and assigned_node_key is null", Integer.class, masterStepId));
+        assertEquals(7L, jdbcTemplate.queryForObject("select partition_cost from batch_partitions where partition_key = 'step:partition249'", Long.class));
+    }
+
+    @Test
+    void onlyTheUnclaimedPartitionsOfAJobAreFailedWhenItsDistributionFails() {
+        long masterStepId = newJob(CoordinationStatus.STARTED);
+        long otherMasterStepId = newJob(CoordinationStatus.STARTED);
+        long claimed = newPartition(masterStepId, WORKER, "CLAIMED");
+        long completed = newPartition(masterStepId, WORKER, "COMPLETED");
+        long unassigned = newPartition(masterStepId, null, "PENDING");
+        long assigned = newPartition(masterStepId, WORKER, "PENDING");
+        long otherJobs = newPartition(otherMasterStepId, null, "PENDING");
+
+        assertEquals(2, service.failPendingPartitions(masterStepId));
+
+        assertEquals("FAILED", partitionStatus(unassigned));
+        assertEquals("FAILED", partitionStatus(assigned));
+        assertEquals("CLAIMED", partitionStatus(claimed));
+        assertEquals("COMPLETED", partitionStatus(completed));
+        assertEquals("PENDING", partitionStatus(otherJobs));
+    }
+
+    @Test
+    void partitionsAreReadBackPageByPageInStepExecutionIdOrder() {
+        long masterStepId = newJob(CoordinationStatus.STARTED);
+        List<Long> partitions = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            partitions.add(newPartition(masterStepId, WORKER, "COMPLETED"));
+        }
+        newPartition(newJob(CoordinationStatus.STARTED), WORKER, "COMPLETED"); // another job's partition
+
+        List<PartitionSummary> firstPage = service.getPartitionsPage(masterStepId, 0, 2);
+        List<PartitionSummary> lastPage = service.getPartitionsPage(masterStepId, partitions.get(3), 2);
+
+        assertEquals(partitions.subList(0, 2), firstPage.stream().map(PartitionSummary::stepExecutionId).toList());
+        assertEquals(List.of(partitions.get(4)), lastPage.stream().map(PartitionSummary::stepExecutionId).toList());
+        assertEquals(PartitionStatus.COMPLETED, lastPage.get(0).status());
+    }
+
+    private PartitionStatusUpdate update(long masterStepId, long stepExecutionId, String status) {
+        return new PartitionStatusUpdate(new PartitionAssignmentTask(jobOf(masterStepId), "step:partition" + stepExecutionId,
+                stepExecutionId, masterStepId, true, "step.manager", nodeKey(WORKER), EPOCH), status);
+    }
+
+    private void insertNode(String nodeId) {
+        jdbcTemplate.update("insert into batch_nodes(node_id, created_time, last_updated_time, status, host_identifier, current_load) values (?,?,?,?,?,?)",
+                nodeId, now(), now(), NodeStatus.ACTIVE.code(), "host", 0);
+    }
+
+    /** The key of a registered node, or one no registered node has. */
+    private int nodeKey(String nodeId) {
+        List<Integer> keys = jdbcTemplate.queryForList("select node_key from batch_nodes where node_id = ?", Integer.class, nodeId);
+        return keys.isEmpty() ? UNREGISTERED_NODE_KEY : keys.get(0);
+    }
+
+    /** The id of the node a partition is assigned to; null when it is unassigned. */
+    private String assignedNode(long stepExecutionId) {
+        return jdbcTemplate.queryForObject("select bn.node_id from batch_partitions bp left join batch_nodes bn on bn.node_key = bp.assigned_node_key where bp.step_execution_id = ?",
+                String.class, stepExecutionId);
+    }
+
+    /** Creates a job execution, its manager step execution and coordination row; returns the manager step execution id. */
+    private long newJob(CoordinationStatus coordinationStatus) {
+        long jobId = seq++;
+        jdbcTemplate.update("insert into batch_job_instance(job_instance_id, version, job_name, job_key) values (?,?,?,?)",
+                jobId, 0L, "job", UUID.randomUUID().toString().replace("-", ""));
+        jdbcTemplate.update("insert into batch_job_execution(job_execution_id, version, job_instance_id, create_time, status) values (?,?,?,?,?)",
+                jobId, 0L, jobId, now(), "STARTED");
+        long masterStepId = newStepExecution(jobId, "step.manager");
+        jdbcTemplate.update("insert into batch_job_coordination(job_execution_id, master_node_id, master_node_key, master_step_execution_id, master_step_name, status, created_time, last_updated) values (?,?,?,?,?,?,?,?)",
+                jobId, MASTER, nodeKey(MASTER), masterStepId, "step.manager", coordinationStatus.code(), now(), now());
+        return masterStepId;
+    }
+
+    private long newPartition(long masterStepId, String assignedNode, String status) {
+        long jobId = jobOf(masterStepId);
+        long stepExecutionId = newStepExecution(jobId, "step:partition" + seq);
+        jdbcTemplate.update("insert into batch_partitions(step_execution_id, job_execution_id, partition_key, assigned_node_key, status, master_step_execution_id, is_transferable, claim_epoch) values (?,?,?,?,?,?,?,?)",
+                stepExecutionId, jobId, "step:partition" + stepExecutionId, assignedNode == null ? null : nodeKey(assignedNode), PartitionStatus.codeOf(status), masterStepId, 1, "CLAIMED".equals(status) ? EPOCH : null);
+        return stepExecutionId;
+    }
+
+    private long newStepExecution(long jobId, String stepName) {
+        long stepExecutionId = 1000 + seq++;
+        jdbcTemplate.update("insert into batch_step_execution(step_execution_id, version, step_name, job_execution_id, create_time) values (?,?,?,?,?)",
+                stepExecutionId, 0L, stepName, jobId, now());
+        return stepExecutionId;
+    }
+
+    private long jobOf(long stepExecutionId) {
+        return jdbcTemplate.queryForObject("select job_execution_id from batch_step_execution where step_execution_id = ?", Long.class, stepExecutionId);
+    }
+
+    private String partitionStatus(long stepExecutionId) {
+        return PartitionStatus.fromCode(jdbcTemplate.queryForObject("select status from batch_partitions where step_execution_id = ?", Integer.class, stepExecutionId)).name();
+    }
+
+    private Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now());
+    }
+}
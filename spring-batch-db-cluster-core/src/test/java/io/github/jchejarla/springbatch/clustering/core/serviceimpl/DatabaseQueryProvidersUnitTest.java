@@ -16,7 +16,14 @@
 package io.github.jchejarla.springbatch.clustering.core.serviceimpl;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class DatabaseQueryProvidersUnitTest {
@@ -40,4 +47,53 @@ public class DatabaseQueryProvidersUnitTest {
         assertTrue(provider.getMarkNodesUnreachableQuery().contains("last_updated_time"));
         assertTrue(provider.getDeleteNodesUnreachableQuery().contains("last_updated_time"));
     }
+
+    @Test
+    public void testOnlyPostgresAndSqlServerClaimInOneStatement() {
+        assertTrue(new PostgreSQLDatabaseQueryProvider().getClaimPartitionAssignedTasksQuery().orElseThrow().contains("returning"));
+        assertTrue(new SQLServerDatabaseQueryProvider().getClaimPartitionAssignedTasksQuery().orElseThrow().contains("output inserted"));
+        assertTrue(new MySQLDatabaseQueryProvider().getClaimPartitionAssignedTasksQuery().isEmpty());
+        assertTrue(new OracleDatabaseQueryProvider().getClaimPartitionAssignedTasksQuery().isEmpty());
+        assertTrue(new DB2DatabaseQueryProvider().getClaimPartitionAssignedTasksQuery().isEmpty());
+    }
+
+    @Test
+    public void testPartitionsAreInsertedSeveralRowsPerStatement() {
+        String multiRow = new MySQLDatabaseQueryProvider().getSaveBatchPartitionsQuery(3);
+        assertEquals(24, multiRow.chars().filter(c -> c == '?').count());
+        assertTrue(multiRow.endsWith("values (?, ?, ?, ?, ?, ?, ?, ?), (?, ?, ?, ?, ?, ?, ?, ?), (?, ?, ?, ?, ?, ?, ?, ?)"));
+        // SQL Server caps a statement at 2100 bind parameters
+        assertTrue(new SQLServerDatabaseQueryProvider().getSaveBatchPartitionsRowsPerStatement() * 8 < 2100);
+
+        String insertAll = new OracleDatabaseQueryProvider().getSaveBatchPartitionsQuery(3);
+        assertTrue(insertAll.startsWith("insert all into batch_partitions"));
+        assertTrue(insertAll.endsWith("select 1 from dual"));
+        assertEquals(24, insertAll.chars().filter(c -> c == '?').count());
+    }
+
+    @Test
+    public void testOracleWorkerQueriesUseTheExpressionsOfTheActivePartitionIndex() throws IOException {
+        OracleDatabaseQueryProvider provider = new OracleDatabaseQueryProvider();
+        String schema = new ClassPathResource("schema/schema-oracle.sql").getContentAsString(StandardCharsets.UTF_8).toLowerCase(Locale.ROOT);
+        String index = schema.substring(schema.indexOf("create index idx_batch_part_node_active"));
+        index = index.substring(0, index.indexOf(';'));
+        assertTrue(index.contains(provider.outstandingNodeExpression("bp").replace("bp.", "")));
+        assertTrue(index.contains(provider.outstandingStatusExpression("bp").replace("bp.", "")));
+
+        String poll = provider.getLockPartitionAssignedTasksQuery();
+        assertTrue(poll.contains(provider.outstandingNodeExpression("bp") + " = ?"));
+        assertTrue(poll.contains(provider.outstandingStatusExpression("bp") + " = 0"));
+        assertTrue(provider.getStealablePartitionsQuery().contains(provider.outstandingStatusExpression("bp") + " = 0"));
+    }
+
+    @Test
+    public void testPostgresWakeupChannelNameFitsIdentifierLimit() {
+        assertEquals("batch_partitions_host-1", PostgreSQLPartitionWakeupChannel.channelName("host-1"));
+        String longNodeId = "a-rather-long-kubernetes-pod-host-name-0123456789-" + "7f1d9c2e-4b1a-4c55-9a0e-2d8f6b3c1e77";
+        String channel = PostgreSQLPartitionWakeupChannel.channelName(longNodeId);
+        assertTrue(channel.startsWith("batch_partitions_"));
+        assertTrue(channel.getBytes(StandardCharsets.UTF_8).length <= 63);
+        assertEquals(channel, PostgreSQLPartitionWakeupChannel.channelName(longNodeId));
+        assertNotEquals(channel, PostgreSQLPartitionWakeupChannel.channelName(longNodeId + "x"));
+    }
 }
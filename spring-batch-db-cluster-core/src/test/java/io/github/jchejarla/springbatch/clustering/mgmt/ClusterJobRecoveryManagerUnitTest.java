@@ -35,6 +35,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -70,10 +71,10 @@ public class ClusterJobRecoveryManagerUnitTest extends BaseUnitTest {
 
     @Test
     public void testClaimedOrphanIsFailedAndAbandoned() {
-        OrphanedMasterJob orphan = new OrphanedMasterJob(1L, "deadNode", 10L, "step.manager");
+        OrphanedMasterJob orphan = new OrphanedMasterJob(1L, "deadNode", 3, 10L, "step.manager");
         doReturn(List.of(orphan)).when(databaseBackedClusterService).findOrphanedMasterJobs();
         doReturn(true).when(databaseBackedClusterService)
-                .claimOrphanedMasterJob(eq(1L), eq("deadNode"), eq("this-node"), eq(CoordinationStatus.RECOVERING.name()));
+                .claimOrphanedMasterJob(eq(1L), eq(3), eq("this-node"), eq(CoordinationStatus.RECOVERING.name()));
 
         JobExecution jobExecution = new JobExecution(1L, new JobInstance(1L, "job"), new JobParameters());
         jobExecution.setStatus(BatchStatus.STARTED);
@@ -94,10 +95,10 @@ public class ClusterJobRecoveryManagerUnitTest extends BaseUnitTest {
 
     @Test
     public void testLostClaimIsSkipped() {
-        OrphanedMasterJob orphan = new OrphanedMasterJob(2L, "deadNode", 20L, "step.manager");
+        OrphanedMasterJob orphan = new OrphanedMasterJob(2L, "deadNode", 3, 20L, "step.manager");
         doReturn(List.of(orphan)).when(databaseBackedClusterService).findOrphanedMasterJobs();
         doReturn(false).when(databaseBackedClusterService)
-                .claimOrphanedMasterJob(eq(2L), eq("deadNode"), eq("this-node"), eq(CoordinationStatus.RECOVERING.name()));
+                .claimOrphanedMasterJob(eq(2L), eq(3), eq("this-node"), eq(CoordinationStatus.RECOVERING.name()));
 
         recoveryManager.reapOrphanedMasterJobs();
 
@@ -113,7 +114,7 @@ public class ClusterJobRecoveryManagerUnitTest extends BaseUnitTest {
 
         recoveryManager.reapOrphanedMasterJobs();
 
-        verify(databaseBackedClusterService, never()).claimOrphanedMasterJob(anyLong(), anyString(), anyString(), anyString());
+        verify(databaseBackedClusterService, never()).claimOrphanedMasterJob(anyLong(), anyInt(), anyString(), anyString());
         verifyNoInteractions(jobRepository);
     }
 }
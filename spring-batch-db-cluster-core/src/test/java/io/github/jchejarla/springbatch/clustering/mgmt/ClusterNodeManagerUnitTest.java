@@ -26,7 +26,11 @@ import org.mockito.Mockito;
 import org.springframework.batch.core.configuration.BatchConfigurationException;
 import org.springframework.scheduling.TaskScheduler;
 
+import java.util.Date;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
@@ -54,7 +58,7 @@ public class ClusterNodeManagerUnitTest extends BaseUnitTest {
     public void testStartSuccess() {
         doReturn(1).when(databaseBackedClusterService).registerNode();
         clusterNodeManager.start();
-        verify(taskScheduler, times(4)).scheduleAtFixedRate(Mockito.any(), Mockito.any());
+        verify(taskScheduler, times(3)).scheduleAtFixedRate(Mockito.any(), Mockito.any());
     }
 
     @Test
@@ -67,34 +71,63 @@ public class ClusterNodeManagerUnitTest extends BaseUnitTest {
     @Test
     public void testUpdateHeartbeatSuccess() {
         doReturn(true).when(batchClusterProperties).isTracingEnabled();
-        doReturn(1).when(databaseBackedClusterService).updateNodeHeartbeat();
+        List<ClusterNodeInfo> nodes = List.of(node("node-a", 0, NodeStatus.ACTIVE));
+        doReturn(new ClusterMembership(true, nodes)).when(databaseBackedClusterService).renewHeartbeatAndGetNodes();
         assertDoesNotThrow(()->clusterNodeManager.updateHeartbeat());
-        verify(databaseBackedClusterService, times(1)).updateNodeHeartbeat();
+        verify(databaseBackedClusterService, times(1)).renewHeartbeatAndGetNodes();
+        // the membership is read in the same cycle as the heartbeat, not by a separate query
+        verify(databaseBackedClusterService, never()).getNodesInCluster();
+        assertEquals(nodes, clusterNodeManager.getCurrentNodes());
     }
 
     @Test
     public void testUpdateHeartbeatFailsReattemptToRegister() {
-        doReturn(0).when(databaseBackedClusterService).updateNodeHeartbeat();
+        doReturn(new ClusterMembership(false, List.of())).when(databaseBackedClusterService).renewHeartbeatAndGetNodes();
         assertDoesNotThrow(()->clusterNodeManager.updateHeartbeat());
-        verify(databaseBackedClusterService, times(1)).updateNodeHeartbeat();
+        verify(databaseBackedClusterService, times(1)).renewHeartbeatAndGetNodes();
         verify(databaseBackedClusterService, times(1)).registerNode();
     }
 
     @Test
     public void testUpdateHeartbeatFailsReattemptToRegisterAlsoFails() {
-        doReturn(0).when(databaseBackedClusterService).updateNodeHeartbeat();
+        doReturn(new ClusterMembership(false, List.of())).when(databaseBackedClusterService).renewHeartbeatAndGetNodes();
         doReturn(1).when(databaseBackedClusterService).registerNode();
         assertDoesNotThrow(()->clusterNodeManager.updateHeartbeat());
-        verify(databaseBackedClusterService, times(1)).updateNodeHeartbeat();
+        verify(databaseBackedClusterService, times(1)).renewHeartbeatAndGetNodes();
         verify(databaseBackedClusterService, times(1)).registerNode();
         verify(batchClusterProperties, times(0)).isTracingEnabled();
     }
 
+    @Test
+    public void testUpdateHeartbeatRejoinsAndAbandonsPartitionsAfterBeingMarkedUnreachableWithFencedFailover() {
+        doReturn(BatchClusterProperties.FailoverMode.ON_NODE_UNREACHABLE).when(batchClusterProperties).getFailoverMode();
+        doReturn(true).when(batchClusterProperties).isFailoverFencing();
+        doReturn(new ClusterMembership(false, List.of())).when(databaseBackedClusterService).renewHeartbeatAndGetNodes();
+        doReturn(1).when(databaseBackedClusterService).rejoinCluster();
+        assertDoesNotThrow(()->clusterNodeManager.updateHeartbeat());
+        verify(databaseBackedClusterService, times(1)).rejoinCluster();
+        verify(databaseBackedClusterService, never()).registerNode();
+        verify(clusterNodeStatusChangeConditionNotifier, times(1)).onClusterNodeHeartbeatFail();
+        verify(clusterNodeInfo, times(1)).setNodeStatus(NodeStatus.ACTIVE);
+    }
+
+    @Test
+    public void testUpdateHeartbeatRegistersAgainWhenThereIsNothingToRejoin() {
+        doReturn(BatchClusterProperties.FailoverMode.ON_NODE_UNREACHABLE).when(batchClusterProperties).getFailoverMode();
+        doReturn(true).when(batchClusterProperties).isFailoverFencing();
+        doReturn(new ClusterMembership(false, List.of())).when(databaseBackedClusterService).renewHeartbeatAndGetNodes();
+        doReturn(0).when(databaseBackedClusterService).rejoinCluster();
+        doReturn(1).when(databaseBackedClusterService).registerNode();
+        assertDoesNotThrow(()->clusterNodeManager.updateHeartbeat());
+        verify(databaseBackedClusterService, times(1)).registerNode();
+        verify(clusterNodeStatusChangeConditionNotifier, never()).onClusterNodeHeartbeatFail();
+    }
+
     @Test
     public void testUpdateHeartbeatThrowsException() {
-        doThrow(RuntimeException.class).when(databaseBackedClusterService).updateNodeHeartbeat();
+        doThrow(RuntimeException.class).when(databaseBackedClusterService).renewHeartbeatAndGetNodes();
         assertDoesNotThrow(()->clusterNodeManager.updateHeartbeat());
-        verify(databaseBackedClusterService, times(1)).updateNodeHeartbeat();
+        verify(databaseBackedClusterService, times(1)).renewHeartbeatAndGetNodes();
         verify(databaseBackedClusterService, times(0)).registerNode();
         verify(batchClusterProperties, times(0)).isTracingEnabled();
     }
@@ -142,4 +175,47 @@ public class ClusterNodeManagerUnitTest extends BaseUnitTest {
         clusterNodeManager.removeNodesUnreachable();
         verify(databaseBackedClusterService, times(1)).deleteNodesUnreachable();
     }
+
+    @Test
+    public void testOnlyTheLowestLiveNodeSweeps() {
+        doReturn(10000L).when(batchClusterProperties).getUnreachableNodeThreshold();
+        doReturn(new ClusterMembership(true, List.of(
+                node("node-b", 0, NodeStatus.ACTIVE),
+                node("node-a", 1000, NodeStatus.ACTIVE),
+                node("node-c", 500, NodeStatus.ACTIVE)))).when(databaseBackedClusterService).renewHeartbeatAndGetNodes();
+        clusterNodeManager.updateHeartbeat();
+
+        doReturn("node-b").when(batchClusterProperties).getNodeId();
+        clusterNodeManager.markNodesUnreachable();
+        clusterNodeManager.removeNodesUnreachable();
+        verify(databaseBackedClusterService, never()).markNodesUnreachable();
+        verify(databaseBackedClusterService, never()).deleteNodesUnreachable();
+
+        doReturn("node-a").when(batchClusterProperties).getNodeId();
+        clusterNodeManager.markNodesUnreachable();
+        clusterNodeManager.removeNodesUnreachable();
+        verify(databaseBackedClusterService, times(1)).markNodesUnreachable();
+        verify(databaseBackedClusterService, times(1)).deleteNodesUnreachable();
+    }
+
+    @Test
+    public void testNextLowestNodeSweepsWhenTheElectedNodeStopsHeartbeating() {
+        doReturn(10000L).when(batchClusterProperties).getUnreachableNodeThreshold();
+        doReturn("node-b").when(batchClusterProperties).getNodeId();
+        // node-a is still ACTIVE but has not heartbeated for longer than the unreachable threshold
+        doReturn(new ClusterMembership(true, List.of(
+                node("node-a", 15000, NodeStatus.ACTIVE),
+                node("node-b", 0, NodeStatus.ACTIVE),
+                node("node-x", 0, NodeStatus.UNREACHABLE)))).when(databaseBackedClusterService).renewHeartbeatAndGetNodes();
+        clusterNodeManager.updateHeartbeat();
+
+        assertTrue(clusterNodeManager.isElectedSweeper());
+    }
+
+    private ClusterNodeInfo node(String nodeId, long heartbeatAgeMillis, NodeStatus status) {
+        ClusterNodeInfo node = new ClusterNodeInfo(nodeId);
+        node.setNodeStatus(status);
+        node.setLastHeartbeatTime(new Date(1_000_000_000L - heartbeatAgeMillis));
+        return node;
+    }
 }
@@ -19,6 +19,7 @@ import io.github.jchejarla.springbatch.clustering.BaseUnitTest;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class NodeStatusUnitTest extends BaseUnitTest {
 
@@ -29,4 +30,18 @@ public class NodeStatusUnitTest extends BaseUnitTest {
         nodeStatus = NodeStatus.UNREACHABLE;
         assertEquals(NodeStatus.UNREACHABLE, nodeStatus);
     }
+
+    @Test
+    public void testCodesAreTheOnesInTheSchema() {
+        assertEquals(0, NodeStatus.ACTIVE.code());
+        assertEquals(1, NodeStatus.UNREACHABLE.code());
+    }
+
+    @Test
+    public void testEveryStatusIsReadBackFromItsCode() {
+        for (NodeStatus status : NodeStatus.values()) {
+            assertEquals(status, NodeStatus.fromCode(status.code()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> NodeStatus.fromCode(2));
+    }
 }
@@ -16,27 +16,37 @@
 package io.github.jchejarla.springbatch.clustering.partition;
 
 import io.github.jchejarla.springbatch.clustering.BaseUnitTest;
+import io.github.jchejarla.springbatch.clustering.api.StreamingStepExecutionSplitter;
 import io.github.jchejarla.springbatch.clustering.autoconfigure.BatchClusterProperties;
 import io.github.jchejarla.springbatch.clustering.core.DatabaseBackedClusterService;
 import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNode;
+import io.github.jchejarla.springbatch.clustering.polling.AdaptivePollingInterval;
 import io.github.jchejarla.springbatch.clustering.polling.PartitionAssignmentTask;
+import io.github.jchejarla.springbatch.clustering.polling.PartitionWakeupChannel;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+import org.mockito.stubbing.Stubber;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.JobExecutionException;
+import org.springframework.batch.core.job.JobInstance;
+import org.springframework.batch.core.job.parameters.JobParameters;
 import org.springframework.batch.core.step.StepExecution;
 import org.springframework.batch.core.partition.StepExecutionSplitter;
 import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
-import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -55,12 +65,33 @@ public class ClusterAwarePartitionHandlerUnitTest extends BaseUnitTest {
 
     ClusterAwarePartitionHandler clusterAwarePartitionHandler;
 
+    private static final JobProgress DRAINED = new JobProgress(0, 0, 1, 0, 0);
+
     @BeforeEach
     public void init() {
         clusterAwarePartitionHandler = new ClusterAwarePartitionHandler(databaseBackedClusterService, batchClusterProperties);
         clusterAwarePartitionHandler = Mockito.spy(clusterAwarePartitionHandler);
     }
 
+    @AfterEach
+    public void tearDown() {
+        clusterAwarePartitionHandler.destroy();
+    }
+
+    @Test
+    public void testDestroyLeavesAnInjectedMonitorSchedulerRunning() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        JobProgressMonitor jobProgressMonitor = new JobProgressMonitor(databaseBackedClusterService, batchClusterProperties, scheduler);
+        ClusterAwarePartitionHandler handler = new ClusterAwarePartitionHandler(databaseBackedClusterService, batchClusterProperties,
+                PartitionWakeupChannel.NONE, new AdaptivePollingInterval(1000, 8000), jobProgressMonitor);
+
+        handler.destroy();
+
+        assertFalse(scheduler.getScheduledExecutor().isShutdown());
+        scheduler.shutdown();
+    }
+
     @Test
     public void testHandleWhenPartitionerReturnsEmptyExecutions() throws Exception {
         Collection<StepExecution> stepExecutionCollections = clusterAwarePartitionHandler.handle(stepSplitter, managerStepExecution);
@@ -74,15 +105,70 @@ public class ClusterAwarePartitionHandlerUnitTest extends BaseUnitTest {
         ExecutionContext executionContext = mock(ExecutionContext.class);
         stepExecutions.add(stepExecution);
         doReturn(executionContext).when(stepExecution).getExecutionContext();
-        doReturn("Test-Node-123").when(executionContext).getString(ClusterPartitioningConstants.CLUSTER_NODE_IDENTIFIER);
+        doReturn("Test-Node-123").when(executionContext).getString(ClusterPartitioningConstants.CLUSTER_NODE_IDENTIFIER, null);
         doReturn(stepExecutions).when(stepSplitter).split(any(), anyInt());
-        doReturn(1, 0).when(databaseBackedClusterService).getPendingTasksCount(anyLong());
+        stubProgress(inProgress(1), DRAINED);
         doReturn(true).when(batchClusterProperties).isTracingEnabled();
         Collection<StepExecution> stepExecutionCollections = clusterAwarePartitionHandler.handle(stepSplitter, managerStepExecution);
         assertEquals(1, stepExecutionCollections.size());
         verify(databaseBackedClusterService, times(1)).saveBatchJobCoordinationInfo(anyLong(), anyLong(), any());
         verify(databaseBackedClusterService, times(1)).saveBatchPartitions(any());
         verify(databaseBackedClusterService, times(2)).updateBatchJobCoordinationStatus(anyLong(), anyLong(), anyString());
+        // one progress query per tick, and no orphan scan while it reports no orphan candidates
+        verify(databaseBackedClusterService, times(2)).getJobsProgress(anyCollection());
+        verify(databaseBackedClusterService, never()).checkForOrphanedTasks(anyLong());
+    }
+
+    @Test
+    public void testHandleWakesAssignedNodesAndLocalWorkerOnceTheJobIsStarted() throws Exception {
+        PartitionWakeupChannel wakeupChannel = mock(PartitionWakeupChannel.class);
+        AdaptivePollingInterval workerPollingInterval = new AdaptivePollingInterval(1000, 8000);
+        workerPollingInterval.backOff();
+        JobProgressMonitor jobProgressMonitor = new JobProgressMonitor(databaseBackedClusterService, batchClusterProperties, new SimpleAsyncTaskScheduler());
+        ClusterAwarePartitionHandler handler = new ClusterAwarePartitionHandler(databaseBackedClusterService, batchClusterProperties, wakeupChannel, workerPollingInterval, jobProgressMonitor);
+        Set<StepExecution> stepExecutions = new HashSet<>();
+        StepExecution stepExecution = mock(StepExecution.class);
+        ExecutionContext executionContext = mock(ExecutionContext.class);
+        stepExecutions.add(stepExecution);
+        doReturn(executionContext).when(stepExecution).getExecutionContext();
+        doReturn("Test-Node-123").when(executionContext).getString(ClusterPartitioningConstants.CLUSTER_NODE_IDENTIFIER, null);
+        doReturn(stepExecutions).when(stepSplitter).split(any(), anyInt());
+        stubProgress(DRAINED);
+
+        handler.handle(stepSplitter, managerStepExecution);
+
+        // partitions are only claimable once the job is STARTED, so the wakeup must follow that update
+        InOrder inOrder = inOrder(databaseBackedClusterService, wakeupChannel);
+        inOrder.verify(databaseBackedClusterService).updateBatchJobCoordinationStatus(anyLong(), anyLong(), eq("STARTED"));
+        inOrder.verify(wakeupChannel).notifyPartitionsAssigned(Set.of("Test-Node-123"));
+        // launching a job here snaps this node's idle worker poll back to its minimum
+        assertEquals(1000, workerPollingInterval.current());
+    }
+
+    @Test
+    public void testRoutingRecordedOutsideTheContextsIsSavedWithThePartitions() throws Exception {
+        JobExecution jobExecution = new JobExecution(1L, new JobInstance(1L, "job"), new JobParameters());
+        doReturn(true).when(batchClusterProperties).isCompactPartitionContext();
+        doReturn("worker").when(stepSplitter).getStepName();
+        doAnswer(invocation -> {
+            // what ClusterAwarePartitioner does while the handler's routing table is open
+            PartitionRoutingTable.put("0", "Test-Node-123", PartitionTransferableProp.YES);
+            PartitionRoutingTable.put("1", null, PartitionTransferableProp.NO);
+            return new HashSet<>(Set.of(new StepExecution(11L, "worker:0", jobExecution), new StepExecution(12L, "worker:1", jobExecution)));
+        }).when(stepSplitter).split(any(), anyInt());
+        stubProgress(DRAINED);
+
+        clusterAwarePartitionHandler.handle(stepSplitter, managerStepExecution);
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(databaseBackedClusterService).saveBatchPartitions(rows.capture());
+        Map<Object, Object[]> rowsById = new HashMap<>();
+        rows.getValue().forEach(row -> rowsById.put(row[0], row));
+        assertEquals("Test-Node-123", rowsById.get(11L)[3]);
+        assertEquals(1, rowsById.get(11L)[6]);
+        assertNull(rowsById.get(12L)[3]);
+        assertEquals(0, rowsById.get(12L)[6]);
+        assertFalse(PartitionRoutingTable.isOpen());
     }
 
     @Test
@@ -92,10 +178,10 @@ public class ClusterAwarePartitionHandlerUnitTest extends BaseUnitTest {
         ExecutionContext executionContext = mock(ExecutionContext.class);
         stepExecutions.add(stepExecution);
         doReturn(executionContext).when(stepExecution).getExecutionContext();
-        doReturn("Test-Node-123").when(executionContext).getString(ClusterPartitioningConstants.CLUSTER_NODE_IDENTIFIER);
+        doReturn("Test-Node-123").when(executionContext).getString(ClusterPartitioningConstants.CLUSTER_NODE_IDENTIFIER, null);
         doReturn(stepExecutions).when(stepSplitter).split(any(), anyInt());
-        doReturn(0).when(databaseBackedClusterService).getPendingTasksCount(anyLong()); // completes immediately
-        doReturn(1).when(databaseBackedClusterService).getFailedTasksCount(anyLong());  // one partition FAILED
+        // completes immediately, with one partition FAILED
+        stubProgress(new JobProgress(0, 0, 0, 1, 0));
         // The manager step must fail when a partition ended FAILED, regardless of the aggregator wired.
         Exception exception = Assertions.assertThrows(Exception.class,
                 () -> clusterAwarePartitionHandler.handle(stepSplitter, managerStepExecution));
@@ -111,9 +197,9 @@ public class ClusterAwarePartitionHandlerUnitTest extends BaseUnitTest {
         ExecutionContext executionContext = mock(ExecutionContext.class);
         stepExecutions.add(stepExecution);
         doReturn(executionContext).when(stepExecution).getExecutionContext();
-        doReturn("Test-Node-123").when(executionContext).getString(ClusterPartitioningConstants.CLUSTER_NODE_IDENTIFIER);
+        doReturn("Test-Node-123").when(executionContext).getString(ClusterPartitioningConstants.CLUSTER_NODE_IDENTIFIER, null);
         doReturn(stepExecutions).when(stepSplitter).split(any(), anyInt());
-        doReturn(1,  0).when(databaseBackedClusterService).getPendingTasksCount(anyLong());
+        stubProgress(new JobProgress(0, 2, 0, 0, 2), DRAINED);
         doReturn(true).when(batchClusterProperties).isTracingEnabled();
         doReturn(100L).when(batchClusterProperties).getMasterTaskStatusCheckInterval();
         List<PartitionAssignmentTask> orphanedTasks = new ArrayList<>();
@@ -123,19 +209,17 @@ public class ClusterAwarePartitionHandlerUnitTest extends BaseUnitTest {
         when(orphan2.isTransferable()).thenReturn(true);
         orphanedTasks.add(orphan1);
         orphanedTasks.add(orphan2);
-        doReturn(orphanedTasks, Collections.emptyList()).when(databaseBackedClusterService).checkForOrphanedTasks(anyLong());
+        doReturn(orphanedTasks).when(databaseBackedClusterService).checkForOrphanedTasks(anyLong());
         doReturn(List.of(mock(ClusterNode.class))).when(databaseBackedClusterService).getActiveNodes();
         doReturn(new int[]{1}).when(databaseBackedClusterService).updateBatchPartitionsToReAssignedNodes(any());
         Collection<StepExecution> stepExecutionCollections = clusterAwarePartitionHandler.handle(stepSplitter, managerStepExecution);
-        await().atMost(5, TimeUnit.SECONDS).until(()->{
-            int[] result = databaseBackedClusterService.updateBatchPartitionsToReAssignedNodes(any());
-            return result != null;
-        });
         assertEquals(1, stepExecutionCollections.size());
         verify(databaseBackedClusterService, times(1)).saveBatchJobCoordinationInfo(anyLong(), anyLong(), any());
         verify(databaseBackedClusterService, times(1)).saveBatchPartitions(any());
         verify(databaseBackedClusterService, times(2)).updateBatchJobCoordinationStatus(anyLong(), anyLong(), anyString());
-        verify(databaseBackedClusterService, times(2)).updateBatchPartitionsToReAssignedNodes(any());
+        // the orphan scan only runs on the tick whose progress reported orphan candidates
+        verify(databaseBackedClusterService, times(1)).checkForOrphanedTasks(anyLong());
+        verify(databaseBackedClusterService, times(1)).updateBatchPartitionsToReAssignedNodes(any());
     }
 
     @Test
@@ -155,6 +239,132 @@ public class ClusterAwarePartitionHandlerUnitTest extends BaseUnitTest {
         verify(databaseBackedClusterService, times(1)).updateBatchPartitionsToReAssignedNodes(any());
     }
 
+    @Test
+    public void testTransferableOrphansAreReassignedBalancingTheirCost() throws Exception {
+        PartitionAssignmentTask large = new PartitionAssignmentTask(1L, "step:partition1", 11L, 1L, true, "step.manager", 42, 7L, 100L);
+        PartitionAssignmentTask small1 = new PartitionAssignmentTask(1L, "step:partition2", 12L, 1L, true, "step.manager", 42, 7L, 10L);
+        PartitionAssignmentTask small2 = new PartitionAssignmentTask(1L, "step:partition3", 13L, 1L, true, "step.manager", 42, 7L, 10L);
+        doReturn(List.of(small1, large, small2)).when(databaseBackedClusterService).checkForOrphanedTasks(anyLong());
+        doReturn(List.of(new ClusterNode("node-a", 0), new ClusterNode("node-b", 0))).when(databaseBackedClusterService).getActiveNodes();
+
+        clusterAwarePartitionHandler.pollForOrphanedTasksAndReArrange(1L);
+
+        // the large partition alone on one node, both small ones on the other
+        verify(databaseBackedClusterService, times(1)).updateBatchPartitionsToReAssignedNodes(argThat(rows -> rows.size() == 3
+                && rows.get(0)[0].equals("node-b") && rows.get(1)[0].equals("node-a") && rows.get(2)[0].equals("node-b")
+                && rows.get(1)[3].equals(11L)));
+    }
+
+    @Test
+    public void testRangeSplitsAreRequestedForTheLargestRangesOnePerIdleNode() {
+        doReturn(1000L).when(batchClusterProperties).getRangeSplitMinSize();
+        doReturn(List.of(new ClusterNode("node-a", 0), new ClusterNode("node-b", 0), new ClusterNode("node-c", 3))).when(databaseBackedClusterService).getActiveNodes();
+        doReturn(List.of(new SplittableRange(11L, 5000, false), new SplittableRange(12L, 9000, false),
+                new SplittableRange(13L, 1999, false), new SplittableRange(14L, 7000, false))).when(databaseBackedClusterService).getSplittableRanges(1L);
+        doReturn(true).when(databaseBackedClusterService).requestRangeSplit(anyLong());
+
+        assertTrue(clusterAwarePartitionHandler.requestRangeSplits(1L));
+
+        verify(databaseBackedClusterService).requestRangeSplit(12L);
+        verify(databaseBackedClusterService).requestRangeSplit(14L);
+        verify(databaseBackedClusterService, times(2)).requestRangeSplit(anyLong());
+    }
+
+    @Test
+    public void testRangeSplitsAreNotRequestedWithoutIdleNodesOrBeyondTheOutstandingRequests() {
+        doReturn(1000L).when(batchClusterProperties).getRangeSplitMinSize();
+        doReturn(List.of(new ClusterNode("node-a", 2))).when(databaseBackedClusterService).getActiveNodes();
+        assertFalse(clusterAwarePartitionHandler.requestRangeSplits(1L));
+        verify(databaseBackedClusterService, never()).getSplittableRanges(anyLong());
+
+        doReturn(List.of(new ClusterNode("node-a", 0))).when(databaseBackedClusterService).getActiveNodes();
+        doReturn(List.of(new SplittableRange(11L, 5000, true), new SplittableRange(12L, 9000, false))).when(databaseBackedClusterService).getSplittableRanges(1L);
+        assertFalse(clusterAwarePartitionHandler.requestRangeSplits(1L));
+        verify(databaseBackedClusterService, never()).requestRangeSplit(anyLong());
+    }
+
+    @Test
+    public void testHandleReturnsThePartitionsSplitOffAtRuntime() throws Exception {
+        StepExecution stepExecution = mock(StepExecution.class);
+        ExecutionContext executionContext = mock(ExecutionContext.class);
+        doReturn(executionContext).when(stepExecution).getExecutionContext();
+        doReturn("Test-Node-123").when(executionContext).getString(ClusterPartitioningConstants.CLUSTER_NODE_IDENTIFIER, null);
+        doReturn(new HashSet<>(Set.of(stepExecution))).when(stepSplitter).split(any(), anyInt());
+        doReturn(1L).when(managerStepExecution).getId();
+        doReturn(new JobExecution(1L, new JobInstance(1L, "job"), new JobParameters())).when(managerStepExecution).getJobExecution();
+        doReturn(true).when(batchClusterProperties).isRangeSplittingEnabled();
+        doReturn(List.of(new PartitionSummary(21L, "step:partition1@501", PartitionStatus.COMPLETED))).when(databaseBackedClusterService).getSplitPartitions(1L);
+        stubProgress(new JobProgress(0, 0, 2, 0, 0));
+
+        Collection<StepExecution> partitionExecutions = clusterAwarePartitionHandler.handle(stepSplitter, managerStepExecution);
+
+        assertEquals(2, partitionExecutions.size());
+        StepExecution split = partitionExecutions.stream().filter(execution -> execution != stepExecution).findFirst().orElseThrow();
+        assertEquals(21L, split.getId());
+        assertEquals("step:partition1@501", split.getStepName());
+        assertEquals(BatchStatus.COMPLETED, split.getStatus());
+    }
+
+    @Test
+    public void testStreamedPartitionsAreDistributedChunkByChunkAfterTheJobIsStarted() throws Exception {
+        StreamingStepExecutionSplitter streamingSplitter = mock(StreamingStepExecutionSplitter.class);
+        doReturn(1L).when(managerStepExecution).getId();
+        JobExecution jobExecution = new JobExecution(1L, new JobInstance(1L, "job"), new JobParameters());
+        doReturn(jobExecution).when(managerStepExecution).getJobExecution();
+        doReturn(2).when(batchClusterProperties).getPartitionDistributionChunkSize();
+        doAnswer(invocation -> {
+            Consumer<List<StepExecution>> chunkConsumer = invocation.getArgument(2);
+            chunkConsumer.accept(List.of(new StepExecution(11L, "step:0", jobExecution), new StepExecution(12L, "step:1", jobExecution)));
+            chunkConsumer.accept(List.of(new StepExecution(13L, "step:2", jobExecution)));
+            return 3L;
+        }).when(streamingSplitter).split(eq(managerStepExecution), eq(2), any());
+        doReturn(List.of(new PartitionSummary(11L, "step:0", PartitionStatus.COMPLETED), new PartitionSummary(12L, "step:1", PartitionStatus.COMPLETED)))
+                .when(databaseBackedClusterService).getPartitionsPage(1L, 0L, 2);
+        doReturn(List.of(new PartitionSummary(13L, "step:2", PartitionStatus.FAILED)))
+                .when(databaseBackedClusterService).getPartitionsPage(1L, 12L, 2);
+        stubProgress(new JobProgress(0, 0, 3, 0, 0));
+
+        Collection<StepExecution> partitionExecutions = clusterAwarePartitionHandler.handle(streamingSplitter, managerStepExecution);
+
+        InOrder inOrder = inOrder(databaseBackedClusterService);
+        inOrder.verify(databaseBackedClusterService).updateBatchJobCoordinationStatus(anyLong(), eq(1L), eq("STARTED"));
+        inOrder.verify(databaseBackedClusterService).saveBatchPartitions(argThat(rows -> rows.size() == 2));
+        inOrder.verify(databaseBackedClusterService).saveBatchPartitions(argThat(rows -> rows.size() == 1));
+        inOrder.verify(databaseBackedClusterService).getJobsProgress(anyCollection());
+        verify(streamingSplitter, never()).split(any(), anyInt());
+
+        // the result is read back from BATCH_PARTITIONS page by page rather than kept in memory
+        assertEquals(3, partitionExecutions.size());
+        assertEquals(List.of(11L, 12L, 13L), partitionExecutions.stream().map(StepExecution::getId).toList());
+        assertEquals(BatchStatus.FAILED, partitionExecutions.stream().reduce((first, second) -> second).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void testStreamedJobIsFailedWhenItsPartitionerFailsPartWay() {
+        StreamingStepExecutionSplitter streamingSplitter = mock(StreamingStepExecutionSplitter.class);
+        doReturn(1L).when(managerStepExecution).getId();
+        JobExecution jobExecution = new JobExecution(1L, new JobInstance(1L, "job"), new JobParameters());
+        doReturn(jobExecution).when(managerStepExecution).getJobExecution();
+        doReturn(2).when(batchClusterProperties).getPartitionDistributionChunkSize();
+        IllegalStateException partitionerFailure = new IllegalStateException("source unavailable");
+        doAnswer(invocation -> {
+            Consumer<List<StepExecution>> chunkConsumer = invocation.getArgument(2);
+            chunkConsumer.accept(List.of(new StepExecution(11L, "step:0", jobExecution), new StepExecution(12L, "step:1", jobExecution)));
+            throw partitionerFailure;
+        }).when(streamingSplitter).split(eq(managerStepExecution), eq(2), any());
+        doReturn(1).when(databaseBackedClusterService).failPendingPartitions(1L);
+
+        Exception thrown = assertThrows(Exception.class, () -> clusterAwarePartitionHandler.handle(streamingSplitter, managerStepExecution));
+
+        assertSame(partitionerFailure, thrown);
+        InOrder inOrder = inOrder(databaseBackedClusterService);
+        inOrder.verify(databaseBackedClusterService).updateBatchJobCoordinationStatus(anyLong(), eq(1L), eq("STARTED"));
+        inOrder.verify(databaseBackedClusterService).saveBatchPartitions(argThat(rows -> rows.size() == 2));
+        inOrder.verify(databaseBackedClusterService).failPendingPartitions(1L);
+        inOrder.verify(databaseBackedClusterService).updateBatchJobCoordinationStatus(anyLong(), eq(1L), eq("FAILED"));
+        verify(databaseBackedClusterService, never()).getJobsProgress(anyCollection());
+    }
+
     @Test
     public void testHandleWhenWaitForExecutionOfAllTasksThrowsException() throws Exception {
         Set<StepExecution> stepExecutions = new HashSet<>();
@@ -162,11 +372,11 @@ public class ClusterAwarePartitionHandlerUnitTest extends BaseUnitTest {
         ExecutionContext executionContext = mock(ExecutionContext.class);
         stepExecutions.add(stepExecution);
         doReturn(executionContext).when(stepExecution).getExecutionContext();
-        doReturn("Test-Node-123").when(executionContext).getString(ClusterPartitioningConstants.CLUSTER_NODE_IDENTIFIER);
+        doReturn("Test-Node-123").when(executionContext).getString(ClusterPartitioningConstants.CLUSTER_NODE_IDENTIFIER, null);
         doReturn(stepExecutions).when(stepSplitter).split(any(), anyInt());
-        doThrow(RuntimeException.class).when(databaseBackedClusterService).getPendingTasksCount(anyLong());
-        Exception exception = Assertions.assertThrows(RuntimeException.class, ()->clusterAwarePartitionHandler.handle(stepSplitter, managerStepExecution));
-        assertEquals("org.springframework.batch.core.job.JobExecutionException: Exception occurred while waiting for workload partitions executions", exception.getMessage());
+        doThrow(RuntimeException.class).when(databaseBackedClusterService).getJobsProgress(anyCollection());
+        Exception exception = Assertions.assertThrows(JobExecutionException.class, ()->clusterAwarePartitionHandler.handle(stepSplitter, managerStepExecution));
+        assertEquals("Exception occurred while waiting for workload partitions executions", exception.getMessage());
         verify(databaseBackedClusterService, times(1)).saveBatchJobCoordinationInfo(anyLong(), anyLong(), any());
         verify(databaseBackedClusterService, times(1)).saveBatchPartitions(any());
         verify(databaseBackedClusterService, times(1)).updateBatchJobCoordinationStatus(anyLong(), anyLong(), anyString());
@@ -179,61 +389,36 @@ public class ClusterAwarePartitionHandlerUnitTest extends BaseUnitTest {
         ExecutionContext executionContext = mock(ExecutionContext.class);
         stepExecutions.add(stepExecution);
         doReturn(executionContext).when(stepExecution).getExecutionContext();
-        doReturn("Test-Node-123").when(executionContext).getString(ClusterPartitioningConstants.CLUSTER_NODE_IDENTIFIER);
+        doReturn("Test-Node-123").when(executionContext).getString(ClusterPartitioningConstants.CLUSTER_NODE_IDENTIFIER, null);
         doReturn(stepExecutions).when(stepSplitter).split(any(), anyInt());
-        doReturn(1, 0).when(databaseBackedClusterService).getPendingTasksCount(anyLong());
-        doReturn(true).when(batchClusterProperties).isTracingEnabled();
-        doReturn(100L).when(batchClusterProperties).getMasterTaskStatusCheckInterval();
+        stubProgress(new JobProgress(0, 1, 0, 0, 1));
         doThrow(RuntimeException.class).when(databaseBackedClusterService).checkForOrphanedTasks(anyLong());
         doReturn(List.of(mock(ClusterNode.class))).when(databaseBackedClusterService).getActiveNodes();
 
-        CountDownLatch orphanTasksMonitorStarted = new CountDownLatch(1);
-        CountDownLatch monitorTasksProceed = new CountDownLatch(1);
-
-        try (MockedStatic<CompletableFuture> mockedFuture = mockStatic(CompletableFuture.class)) {
-            mockedFuture.when(() -> CompletableFuture.runAsync(any(Runnable.class)))
-                    .thenAnswer(invocation -> {
-                        Runnable monitorForTasksCompletionTask = invocation.getArgument(0);
-                        return CompletableFuture.runAsync(()-> {
-                            await().atMost(5, TimeUnit.SECONDS).until(()->orphanTasksMonitorStarted.getCount() ==0);
-                                try {
-                                    orphanTasksMonitorStarted.await();
-                                    monitorForTasksCompletionTask.run();
-                                    monitorTasksProceed.countDown();
-                                } catch (Exception e) {
-                                    orphanTasksMonitorStarted.countDown();
-                                    Thread.currentThread().interrupt();
-                                }
-                            }
-                        );
-                    }).thenAnswer(invocation -> {
-                        Runnable orphanedTasksMonitorTask = invocation.getArgument(0);
-                        return CompletableFuture.runAsync(() -> {
-                            try {
-                                orphanedTasksMonitorTask.run();
-                                orphanTasksMonitorStarted.countDown();
-                            } catch (Exception e) {
-                                orphanTasksMonitorStarted.countDown();
-                                Thread.currentThread().interrupt();
-                            }
-                        });
-                    });
-        }
-
-        final AtomicReference<Exception> exceptionCaught = new AtomicReference<>();
-        Thread testRunThread = new Thread(() -> {
-            Exception exception = Assertions.assertThrows(RuntimeException.class, ()->clusterAwarePartitionHandler.handle(stepSplitter, managerStepExecution));
-            exceptionCaught.set(exception);
-        });
-        testRunThread.start();
-
-        await().atMost(10, TimeUnit.SECONDS).until(() -> Objects.nonNull(exceptionCaught.get()));
-        testRunThread.join(2000);
-        assertNotNull(exceptionCaught.get());
-        assertEquals("Exception occurred while monitoring for orphaned tasks and re-arrange them to different available nodes", exceptionCaught.get().getMessage());
+        Exception exception = Assertions.assertThrows(JobExecutionException.class, ()->clusterAwarePartitionHandler.handle(stepSplitter, managerStepExecution));
+        assertEquals("Exception occurred while monitoring for orphaned tasks and re-arrange them to different available nodes", exception.getMessage());
         verify(databaseBackedClusterService, times(1)).saveBatchJobCoordinationInfo(anyLong(), anyLong(), any());
         verify(databaseBackedClusterService, times(1)).saveBatchPartitions(any());
         verify(databaseBackedClusterService, times(1)).updateBatchJobCoordinationStatus(anyLong(), anyLong(), anyString());
         verify(databaseBackedClusterService, times(0)).updateBatchPartitionsToReAssignedNodes(any());
     }
+
+    /** Stubs the shared monitor's progress query to report each snapshot in turn, for every monitored job. */
+    private void stubProgress(JobProgress... snapshots) {
+        Stubber stubber = null;
+        for (JobProgress snapshot : snapshots) {
+            Answer<Map<Long, JobProgress>> answer = invocation -> {
+                Collection<Long> ids = invocation.getArgument(0);
+                Map<Long, JobProgress> progress = new HashMap<>();
+                ids.forEach(id -> progress.put(id, snapshot));
+                return progress;
+            };
+            stubber = stubber == null ? doAnswer(answer) : stubber.doAnswer(answer);
+        }
+        stubber.when(databaseBackedClusterService).getJobsProgress(anyCollection());
+    }
+
+    private static JobProgress inProgress(int pending) {
+        return new JobProgress(pending, 0, 0, 0, 0);
+    }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.partition;
+
+import io.github.jchejarla.springbatch.clustering.BaseUnitTest;
+import io.github.jchejarla.springbatch.clustering.core.DatabaseBackedClusterService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class HistoricalPartitionCostModelUnitTest extends BaseUnitTest {
+
+    @Mock
+    DatabaseBackedClusterService databaseBackedClusterService;
+
+    @Test
+    public void testPartitionsAreKeyedByPositionAndCostedByTheirHistory() {
+        doReturn(Map.of("step.manager:0/3", 9000L, "step.manager:1/3", 1000L)).when(databaseBackedClusterService).getPredictedPartitionCosts("job");
+        List<ExecutionContext> partitions = List.of(new ExecutionContext(), new ExecutionContext(), new ExecutionContext());
+
+        new HistoricalPartitionCostModel(databaseBackedClusterService).applyPredictedCosts("job", "step.manager", partitions);
+
+        assertEquals("step.manager:2/3", HistoricalPartitionCostModel.getHistoryKey(partitions.get(2)));
+        assertEquals(9000L, PartitionCost.of(partitions.get(0)));
+        assertEquals(1000L, PartitionCost.of(partitions.get(1)));
+        // no history yet: the average of the partitions that have some
+        assertEquals(5000L, PartitionCost.of(partitions.get(2)));
+    }
+
+    @Test
+    public void testPositionalHistoryIsSkippedWhenThePartitionCountChanged() {
+        // recorded by a run split into three partitions
+        doReturn(Map.of("step.manager:0/3", 9000L, "step.manager:1/3", 1000L)).when(databaseBackedClusterService).getPredictedPartitionCosts("job");
+        List<ExecutionContext> partitions = List.of(new ExecutionContext(), new ExecutionContext());
+
+        new HistoricalPartitionCostModel(databaseBackedClusterService).applyPredictedCosts("job", "step.manager", partitions);
+
+        assertEquals("step.manager:0/2", HistoricalPartitionCostModel.getHistoryKey(partitions.get(0)));
+        assertEquals(PartitionCost.DEFAULT_COST, PartitionCost.of(partitions.get(0)));
+        assertEquals(PartitionCost.DEFAULT_COST, PartitionCost.of(partitions.get(1)));
+    }
+
+    @Test
+    public void testExplicitKeysAreKept() {
+        doReturn(Map.of("2024-01", 700L, "2024-02", 300L)).when(databaseBackedClusterService).getPredictedPartitionCosts("job");
+        ExecutionContext january = new ExecutionContext();
+        HistoricalPartitionCostModel.setHistoryKey(january, "2024-01");
+        ExecutionContext february = new ExecutionContext();
+        HistoricalPartitionCostModel.setHistoryKey(february, "2024-02");
+
+        new HistoricalPartitionCostModel(databaseBackedClusterService).applyPredictedCosts("job", "step.manager", List.of(january, february));
+
+        assertEquals("2024-01", HistoricalPartitionCostModel.getHistoryKey(january));
+        assertEquals(700L, PartitionCost.of(january));
+        assertEquals(300L, PartitionCost.of(february));
+    }
+
+    @Test
+    public void testPartitionerCostHintsAreNotMixedWithPredictions() {
+        ExecutionContext keyed = new ExecutionContext();
+        HistoricalPartitionCostModel.setHistoryKey(keyed, "2024-01");
+        ExecutionContext hinted = new ExecutionContext();
+        PartitionCost.set(hinted, 42);
+
+        new HistoricalPartitionCostModel(databaseBackedClusterService).applyPredictedCosts("job", "step.manager", List.of(keyed, hinted));
+
+        // both are still keyed, so their runtime is recorded for later runs
+        assertEquals("step.manager:1/2", HistoricalPartitionCostModel.getHistoryKey(hinted));
+        assertNull(PartitionCost.get(keyed));
+        assertEquals(42L, PartitionCost.of(hinted));
+        verify(databaseBackedClusterService, never()).getPredictedPartitionCosts(anyString());
+    }
+
+    @Test
+    public void testWithoutHistoryEveryPartitionCostsTheSame() {
+        doReturn(Map.of()).when(databaseBackedClusterService).getPredictedPartitionCosts("job");
+        List<ExecutionContext> partitions = List.of(new ExecutionContext(), new ExecutionContext());
+
+        new HistoricalPartitionCostModel(databaseBackedClusterService).applyPredictedCosts("job", "step.manager", partitions);
+
+        assertEquals(PartitionCost.DEFAULT_COST, PartitionCost.of(partitions.get(0)));
+        assertEquals(PartitionCost.DEFAULT_COST, PartitionCost.of(partitions.get(1)));
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.partition;
+
+import io.github.jchejarla.springbatch.clustering.BaseUnitTest;
+import io.github.jchejarla.springbatch.clustering.autoconfigure.BatchClusterProperties;
+import io.github.jchejarla.springbatch.clustering.core.DatabaseBackedClusterService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.batch.core.job.JobExecutionException;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+public class JobProgressMonitorUnitTest extends BaseUnitTest {
+
+    private static final JobProgress DRAINED = new JobProgress(0, 0, 3, 0, 0);
+    private static final JobProgress RUNNING = new JobProgress(1, 2, 0, 0, 0);
+
+    @Mock
+    DatabaseBackedClusterService databaseBackedClusterService;
+    @Mock
+    BatchClusterProperties batchClusterProperties;
+    @Mock
+    TaskScheduler jobProgressMonitorScheduler;
+    @Mock
+    ScheduledFuture<?> scheduledTick;
+
+    JobProgressMonitor jobProgressMonitor;
+
+    @BeforeEach
+    public void init() {
+        doReturn(100L).when(batchClusterProperties).getMasterTaskStatusCheckInterval();
+        doReturn(800L).when(batchClusterProperties).getMaxIdlePollingInterval();
+        doReturn(scheduledTick).when(jobProgressMonitorScheduler).schedule(any(Runnable.class), any(Instant.class));
+        jobProgressMonitor = new JobProgressMonitor(databaseBackedClusterService, batchClusterProperties, jobProgressMonitorScheduler);
+    }
+
+    @Test
+    public void testOneQueryPerTickCoversEveryMonitoredJob() throws Exception {
+        CompletableFuture<JobProgress> first = jobProgressMonitor.track(1L, id -> false);
+        CompletableFuture<JobProgress> second = jobProgressMonitor.track(2L, id -> false);
+        doReturn(Map.of(1L, DRAINED, 2L, RUNNING)).when(databaseBackedClusterService).getJobsProgress(anyCollection());
+
+        jobProgressMonitor.checkProgress();
+
+        verify(databaseBackedClusterService, times(1)).getJobsProgress(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(1L, 2L))));
+        assertEquals(DRAINED, first.get());
+        assertFalse(second.isDone());
+        assertEquals(1, jobProgressMonitor.getTrackedJobCount());
+        assertEquals(RUNNING, jobProgressMonitor.getJobProgress(2L).orElseThrow());
+        // the second job joined the tick already scheduled for the first one
+        verify(jobProgressMonitorScheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    public void testOrphanReassignmentRunsOnlyForJobsWithOrphanCandidates() {
+        AtomicInteger reArranged = new AtomicInteger();
+        jobProgressMonitor.track(1L, id -> reArranged.incrementAndGet() > 0);
+        jobProgressMonitor.track(2L, id -> { throw new AssertionError("job 2 has no orphan candidates"); });
+        doReturn(Map.of(1L, new JobProgress(0, 2, 0, 0, 1), 2L, RUNNING)).when(databaseBackedClusterService).getJobsProgress(anyCollection());
+
+        jobProgressMonitor.checkProgress();
+
+        assertEquals(1, reArranged.get());
+        assertEquals(2, jobProgressMonitor.getTrackedJobCount());
+    }
+
+    @Test
+    public void testRangeSplitsAreRequestedOnlyOnceNoPartitionIsPendingAndTheirFailureIsNotFatal() {
+        List<Long> splitRequests = new ArrayList<>();
+        CompletableFuture<JobProgress> splitting = jobProgressMonitor.track(1L, id -> false, id -> splitRequests.add(id));
+        jobProgressMonitor.track(2L, id -> false, id -> splitRequests.add(id));
+        CompletableFuture<JobProgress> failing = jobProgressMonitor.track(3L, id -> false, id -> { throw new IllegalStateException("boom"); });
+        doReturn(Map.of(1L, new JobProgress(0, 2, 1, 0, 0), 2L, new JobProgress(1, 2, 0, 0, 0), 3L, new JobProgress(0, 1, 0, 0, 0)))
+                .when(databaseBackedClusterService).getJobsProgress(anyCollection());
+
+        jobProgressMonitor.checkProgress();
+
+        assertEquals(List.of(1L), splitRequests);
+        assertFalse(splitting.isDone());
+        assertFalse(failing.isDone());
+    }
+
+    @Test
+    public void testFailedQueryIsRetriedOnABackedOffTick() throws Exception {
+        CompletableFuture<JobProgress> completion = jobProgressMonitor.track(1L, id -> false);
+        doThrow(RuntimeException.class).when(databaseBackedClusterService).getJobsProgress(anyCollection());
+
+        for (int i = 1; i < JobProgressMonitor.MAX_CONSECUTIVE_QUERY_FAILURES; i++) {
+            jobProgressMonitor.checkProgress();
+        }
+
+        assertFalse(completion.isDone());
+        assertEquals(800, jobProgressMonitor.getCurrentCheckInterval());
+
+        doReturn(Map.of(1L, RUNNING)).when(databaseBackedClusterService).getJobsProgress(anyCollection());
+        jobProgressMonitor.checkProgress();
+        assertEquals(100, jobProgressMonitor.getCurrentCheckInterval());
+
+        // a success resets the count: the job again survives all but the last of a run of failures
+        doThrow(RuntimeException.class).when(databaseBackedClusterService).getJobsProgress(anyCollection());
+        for (int i = 1; i < JobProgressMonitor.MAX_CONSECUTIVE_QUERY_FAILURES; i++) {
+            jobProgressMonitor.checkProgress();
+        }
+        assertFalse(completion.isDone());
+        assertEquals(1, jobProgressMonitor.getTrackedJobCount());
+    }
+
+    @Test
+    public void testQueryFailingOnConsecutiveTicksFailsEveryMonitoredJob() {
+        CompletableFuture<JobProgress> first = jobProgressMonitor.track(1L, id -> false);
+        CompletableFuture<JobProgress> second = jobProgressMonitor.track(2L, id -> false);
+        doThrow(RuntimeException.class).when(databaseBackedClusterService).getJobsProgress(anyCollection());
+
+        for (int i = 0; i < JobProgressMonitor.MAX_CONSECUTIVE_QUERY_FAILURES; i++) {
+            jobProgressMonitor.checkProgress();
+        }
+
+        for (CompletableFuture<JobProgress> completion : List.of(first, second)) {
+            ExecutionException exception = assertThrows(ExecutionException.class, completion::get);
+            assertInstanceOf(JobExecutionException.class, exception.getCause());
+        }
+        assertEquals(0, jobProgressMonitor.getTrackedJobCount());
+    }
+
+    @Test
+    public void testOrphanReassignmentFailureFailsOnlyThatJob() {
+        CompletableFuture<JobProgress> failing = jobProgressMonitor.track(1L, id -> { throw new IllegalStateException("boom"); });
+        CompletableFuture<JobProgress> healthy = jobProgressMonitor.track(2L, id -> false);
+        doReturn(Map.of(1L, new JobProgress(0, 1, 0, 0, 1), 2L, RUNNING)).when(databaseBackedClusterService).getJobsProgress(anyCollection());
+
+        jobProgressMonitor.checkProgress();
+
+        ExecutionException exception = assertThrows(ExecutionException.class, failing::get);
+        assertEquals("Exception occurred while monitoring for orphaned tasks and re-arrange them to different available nodes", exception.getCause().getMessage());
+        assertFalse(healthy.isDone());
+    }
+
+    @Test
+    public void testTickBacksOffWhileNoJobProgressesAndSnapsBackWhenOneDoes() {
+        jobProgressMonitor.track(1L, id -> false);
+        doReturn(Map.of(1L, RUNNING)).when(databaseBackedClusterService).getJobsProgress(anyCollection());
+
+        jobProgressMonitor.checkProgress(); // first snapshot counts as progress
+        assertEquals(100, jobProgressMonitor.getCurrentCheckInterval());
+        jobProgressMonitor.checkProgress();
+        jobProgressMonitor.checkProgress();
+        assertEquals(400, jobProgressMonitor.getCurrentCheckInterval());
+
+        doReturn(Map.of(1L, new JobProgress(0, 2, 1, 0, 0))).when(databaseBackedClusterService).getJobsProgress(anyCollection());
+        jobProgressMonitor.checkProgress();
+        assertEquals(100, jobProgressMonitor.getCurrentCheckInterval());
+    }
+
+    @Test
+    public void testTickChainStopsOnceNoJobIsMonitored() {
+        jobProgressMonitor.track(1L, id -> false);
+        ArgumentCaptor<Runnable> tick = ArgumentCaptor.forClass(Runnable.class);
+        verify(jobProgressMonitorScheduler).schedule(tick.capture(), any(Instant.class));
+
+        doReturn(Map.of(1L, RUNNING)).when(databaseBackedClusterService).getJobsProgress(anyCollection());
+        tick.getValue().run();
+        verify(jobProgressMonitorScheduler, times(2)).schedule(tick.capture(), any(Instant.class));
+
+        doReturn(Map.of(1L, DRAINED)).when(databaseBackedClusterService).getJobsProgress(anyCollection());
+        tick.getValue().run();
+        verify(jobProgressMonitorScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+        assertEquals(0, jobProgressMonitor.getCurrentCheckInterval());
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.partition;
+
+import io.github.jchejarla.springbatch.clustering.BaseUnitTest;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PartitionStatusUnitTest extends BaseUnitTest {
+
+    @Test
+    public void testCodesAreTheOnesInTheSchema() {
+        assertEquals(0, PartitionStatus.PENDING.code());
+        assertEquals(1, PartitionStatus.CLAIMED.code());
+        assertEquals(2, PartitionStatus.COMPLETED.code());
+        assertEquals(3, PartitionStatus.FAILED.code());
+    }
+
+    @Test
+    public void testEveryStatusIsReadBackFromItsCode() {
+        for (PartitionStatus status : PartitionStatus.values()) {
+            assertEquals(status, PartitionStatus.fromCode(status.code()));
+            assertEquals(status.code(), PartitionStatus.codeOf(status.name()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> PartitionStatus.fromCode(4));
+        assertThrows(IllegalArgumentException.class, () -> PartitionStatus.fromCode(-1));
+    }
+}
@@ -17,9 +17,12 @@ package io.github.jchejarla.springbatch.clustering.partition;
 
 import io.github.jchejarla.springbatch.clustering.BaseUnitTest;
 import io.github.jchejarla.springbatch.clustering.api.PartitionStrategy;
+import io.github.jchejarla.springbatch.clustering.partition.impl.CostBalancedPartitionAssignmentStrategy;
 import io.github.jchejarla.springbatch.clustering.partition.impl.FixedNodeCountPartitionAssignmentStrategy;
 import io.github.jchejarla.springbatch.clustering.partition.impl.LeastLoadedPartitionAssignmentStrategy;
 import io.github.jchejarla.springbatch.clustering.partition.impl.RoundRobinPartitionAssignmentStrategy;
+import io.github.jchejarla.springbatch.clustering.partition.impl.SharedQueuePartitionAssignmentStrategy;
+import io.github.jchejarla.springbatch.clustering.partition.impl.WeightedCapacityPartitionAssignmentStrategy;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
@@ -40,5 +43,21 @@ public class PartitionStrategyFactoryUnitTest extends BaseUnitTest {
                 .partitioningMode(PartitioningMode.ROUND_ROBIN).build();
         partitionAssignmentStrategy = PartitionStrategyFactory.getStrategy(partitionStrategy);
         assertInstanceOf(RoundRobinPartitionAssignmentStrategy.class, partitionAssignmentStrategy);
+        partitionStrategy = PartitionStrategy.builder()
+                .partitioningMode(PartitioningMode.SHARED_QUEUE).build();
+        partitionAssignmentStrategy = PartitionStrategyFactory.getStrategy(partitionStrategy);
+        assertInstanceOf(SharedQueuePartitionAssignmentStrategy.class, partitionAssignmentStrategy);
+        partitionStrategy = PartitionStrategy.builder()
+                .partitioningMode(PartitioningMode.WEIGHTED_CAPACITY).build();
+        partitionAssignmentStrategy = PartitionStrategyFactory.getStrategy(partitionStrategy);
+        assertInstanceOf(WeightedCapacityPartitionAssignmentStrategy.class, partitionAssignmentStrategy);
+        partitionStrategy = PartitionStrategy.builder()
+                .partitioningMode(PartitioningMode.COST_BALANCED).build();
+        partitionAssignmentStrategy = PartitionStrategyFactory.getStrategy(partitionStrategy);
+        assertInstanceOf(CostBalancedPartitionAssignmentStrategy.class, partitionAssignmentStrategy);
+        partitionStrategy = PartitionStrategy.builder()
+                .partitioningMode(PartitioningMode.HISTORICAL_COST).build();
+        partitionAssignmentStrategy = PartitionStrategyFactory.getStrategy(partitionStrategy);
+        assertInstanceOf(CostBalancedPartitionAssignmentStrategy.class, partitionAssignmentStrategy);
     }
 }
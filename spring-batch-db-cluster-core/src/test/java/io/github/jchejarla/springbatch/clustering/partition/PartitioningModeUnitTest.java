@@ -30,5 +30,13 @@ public class PartitioningModeUnitTest extends BaseUnitTest {
         assertEquals(PartitioningMode.LEAST_LOADED, partitioningMode);
         partitioningMode= PartitioningMode.ROUND_ROBIN;
         assertEquals(PartitioningMode.ROUND_ROBIN, partitioningMode);
+        partitioningMode= PartitioningMode.SHARED_QUEUE;
+        assertEquals(PartitioningMode.SHARED_QUEUE, partitioningMode);
+        partitioningMode= PartitioningMode.WEIGHTED_CAPACITY;
+        assertEquals(PartitioningMode.WEIGHTED_CAPACITY, partitioningMode);
+        partitioningMode= PartitioningMode.COST_BALANCED;
+        assertEquals(PartitioningMode.COST_BALANCED, partitioningMode);
+        partitioningMode= PartitioningMode.HISTORICAL_COST;
+        assertEquals(PartitioningMode.HISTORICAL_COST, partitioningMode);
     }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.partition.impl;
+
+import io.github.jchejarla.springbatch.clustering.BaseUnitTest;
+import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNode;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionAssignment;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionCost;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+public class CostBalancedPartitionAssignmentStrategyUnitTest extends BaseUnitTest {
+
+    private final CostBalancedPartitionAssignmentStrategy strategy = new CostBalancedPartitionAssignmentStrategy();
+
+    @Test
+    public void testTotalCostIsBalancedAcrossNodes() {
+        List<ExecutionContext> partitions = partitions(1_000, 10_000_000, 4_000_000, 3_000_000, 2_000_000, 1_000);
+        List<ClusterNode> nodes = List.of(new ClusterNode("a", 0), new ClusterNode("b", 0));
+
+        List<PartitionAssignment> assignments = strategy.assignPartitions(partitions, nodes);
+
+        assertEquals(6, assignments.size());
+        for (int i = 0; i < assignments.size(); i++) {
+            assertEquals(i, assignments.get(i).uniqueChunkId());
+        }
+        // the 10M partition alone on one node, everything else (9.002M) on the other
+        assertEquals(10_000_000, cost(assignments, "a"));
+        assertEquals(9_002_000, cost(assignments, "b"));
+    }
+
+    @Test
+    public void testWithoutCostHintsPartitionsSpreadEvenly() {
+        List<ExecutionContext> partitions = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            partitions.add(mock(ExecutionContext.class));
+        }
+        List<ClusterNode> nodes = List.of(new ClusterNode("a", 0), new ClusterNode("b", 0), new ClusterNode("c", 0));
+
+        List<PartitionAssignment> assignments = strategy.assignPartitions(partitions, nodes);
+
+        for (String id : List.of("a", "b", "c")) {
+            assertEquals(2, assignments.stream().filter(a -> a.nodeId().equals(id)).count());
+        }
+    }
+
+    @Test
+    public void testNegativeCostIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> PartitionCost.set(new ExecutionContext(), -1));
+    }
+
+    private long cost(List<PartitionAssignment> assignments, String nodeId) {
+        return assignments.stream().filter(a -> a.nodeId().equals(nodeId)).mapToLong(a -> PartitionCost.of(a.executionContext())).sum();
+    }
+
+    private List<ExecutionContext> partitions(long... costs) {
+        List<ExecutionContext> list = new ArrayList<>();
+        for (long cost : costs) {
+            ExecutionContext executionContext = new ExecutionContext();
+            PartitionCost.set(executionContext, cost);
+            list.add(executionContext);
+        }
+        return list;
+    }
+}
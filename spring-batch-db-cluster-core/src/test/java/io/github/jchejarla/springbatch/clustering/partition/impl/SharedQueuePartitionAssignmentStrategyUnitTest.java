@@ -0,0 +1,53 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.partition.impl;
+
+import io.github.jchejarla.springbatch.clustering.BaseUnitTest;
+import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNode;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionAssignment;
+import org.junit.jupiter.api.Test;
+import org.mockito.Spy;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class SharedQueuePartitionAssignmentStrategyUnitTest extends BaseUnitTest {
+
+    @Spy
+    SharedQueuePartitionAssignmentStrategy partitionAssignmentStrategy;
+
+    @Test
+    public void testSharedQueuePartitionAssignmentStrategy() {
+        List<ExecutionContext> executionContexts = new ArrayList<>();
+        executionContexts.add(mock(ExecutionContext.class));
+        executionContexts.add(mock(ExecutionContext.class));
+        executionContexts.add(mock(ExecutionContext.class));
+        List<ClusterNode> availableNodes = new ArrayList<>();
+        availableNodes.add(new ClusterNode("Test-Node-123", 0));
+        availableNodes.add(new ClusterNode("Test-Node-124", 0));
+        List<PartitionAssignment> partitionAssignments = partitionAssignmentStrategy.assignPartitions(executionContexts, availableNodes);
+        assertEquals(3, partitionAssignments.size());
+        for (int i = 0; i < partitionAssignments.size(); i++) {
+            assertEquals(i, partitionAssignments.get(i).uniqueChunkId());
+            assertSame(executionContexts.get(i), partitionAssignments.get(i).executionContext());
+            assertNull(partitionAssignments.get(i).nodeId());
+        }
+    }
+}
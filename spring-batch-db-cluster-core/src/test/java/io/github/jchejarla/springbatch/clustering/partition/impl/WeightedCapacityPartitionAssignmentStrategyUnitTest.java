@@ -0,0 +1,96 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.partition.impl;
+
+import io.github.jchejarla.springbatch.clustering.BaseUnitTest;
+import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNode;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionAssignment;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+public class WeightedCapacityPartitionAssignmentStrategyUnitTest extends BaseUnitTest {
+
+    private final WeightedCapacityPartitionAssignmentStrategy strategy = new WeightedCapacityPartitionAssignmentStrategy();
+
+    @Test
+    public void testPartitionsFollowCapacity() {
+        // same concurrency limit, but the small box only has 4 processors to run it on
+        List<ClusterNode> nodes = List.of(
+                new ClusterNode("small", 0, 10, 4, 1.0),
+                new ClusterNode("big", 0, 10, 64, 1.0));
+
+        List<PartitionAssignment> assignments = strategy.assignPartitions(partitions(14), nodes);
+
+        assertEquals(4, count(assignments, "small"));
+        assertEquals(10, count(assignments, "big"));
+    }
+
+    @Test
+    public void testPartitionsFollowFreeCapacity() {
+        List<ClusterNode> nodes = List.of(
+                new ClusterNode("big-half-busy", 5, 10, 16, 1.0),
+                new ClusterNode("small-idle", 0, 4, 4, 1.0));
+
+        List<PartitionAssignment> assignments = strategy.assignPartitions(partitions(9), nodes);
+
+        assertEquals(5, count(assignments, "big-half-busy"));
+        assertEquals(4, count(assignments, "small-idle"));
+    }
+
+    @Test
+    public void testCapacityWeightScalesTheShare() {
+        List<ClusterNode> nodes = List.of(
+                new ClusterNode("a", 0, 8, 8, 1.0),
+                new ClusterNode("b", 0, 8, 8, 3.0));
+
+        List<PartitionAssignment> assignments = strategy.assignPartitions(partitions(8), nodes);
+
+        assertEquals(2, count(assignments, "a"));
+        assertEquals(6, count(assignments, "b"));
+    }
+
+    @Test
+    public void testNodesWithoutAdvertisedCapacityCountAsAverage() {
+        List<ClusterNode> nodes = List.of(
+                new ClusterNode("legacy", 0),
+                new ClusterNode("a", 0, 2, 8, 1.0),
+                new ClusterNode("b", 0, 6, 8, 1.0));
+
+        List<PartitionAssignment> assignments = strategy.assignPartitions(partitions(12), nodes);
+
+        assertEquals(4, count(assignments, "legacy"));
+        assertEquals(2, count(assignments, "a"));
+        assertEquals(6, count(assignments, "b"));
+    }
+
+    private long count(List<PartitionAssignment> assignments, String nodeId) {
+        return assignments.stream().filter(a -> a.nodeId().equals(nodeId)).count();
+    }
+
+    private List<ExecutionContext> partitions(int count) {
+        List<ExecutionContext> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            list.add(mock(ExecutionContext.class));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.polling;
+
+import io.github.jchejarla.springbatch.clustering.BaseUnitTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AdaptivePollingIntervalUnitTest extends BaseUnitTest {
+
+    @Test
+    public void testBacksOffExponentiallyUpToTheCeiling() {
+        AdaptivePollingInterval interval = new AdaptivePollingInterval(1000, 5000);
+        assertEquals(1000, interval.current());
+        assertEquals(2000, interval.backOff());
+        assertEquals(4000, interval.backOff());
+        assertEquals(5000, interval.backOff());
+        assertEquals(5000, interval.backOff());
+    }
+
+    @Test
+    public void testResetSnapsBackAndNotifiesOnlyWhenBackedOff() {
+        AdaptivePollingInterval interval = new AdaptivePollingInterval(1000, 5000);
+        AtomicInteger resets = new AtomicInteger();
+        interval.addResetListener(resets::incrementAndGet);
+
+        interval.reset();
+        assertEquals(0, resets.get());
+
+        interval.backOff();
+        interval.reset();
+        assertEquals(1000, interval.current());
+        assertEquals(1, resets.get());
+    }
+
+    @Test
+    public void testCeilingAtOrBelowMinimumKeepsAFixedInterval() {
+        AdaptivePollingInterval interval = new AdaptivePollingInterval(1000, 500);
+        assertEquals(1000, interval.backOff());
+        assertEquals(1000, interval.getMaxInterval());
+    }
+}
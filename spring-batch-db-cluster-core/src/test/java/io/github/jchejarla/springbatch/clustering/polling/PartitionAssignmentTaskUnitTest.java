@@ -26,13 +26,13 @@ public class PartitionAssignmentTaskUnitTest extends BaseUnitTest {
     @Test
     public void testPartitionAssignmentTask() {
         PartitionAssignmentTask partitionAssignmentTask = new PartitionAssignmentTask(123L, "Test-Step", 124L, 125L,
-                true, "Test-Master", "Test-Node-123");
+                true, "Test-Master", 7);
         assertEquals(123L, partitionAssignmentTask.jobExecutionId());
         assertEquals("Test-Step", partitionAssignmentTask.stepName());
         assertEquals(124L, partitionAssignmentTask.stepExecutionId());
         assertEquals(125L, partitionAssignmentTask.masterStepExecutionId());
         assertTrue(partitionAssignmentTask.isTransferable());
         assertEquals("Test-Master", partitionAssignmentTask.masterStepName());
-        assertEquals("Test-Node-123", partitionAssignmentTask.assignedNode());
+        assertEquals(7, partitionAssignmentTask.assignedNodeKey());
     }
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2025 Janardhan Chejarla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jchejarla.springbatch.clustering.polling;
+
+import io.github.jchejarla.springbatch.clustering.BaseUnitTest;
+import io.github.jchejarla.springbatch.clustering.core.DatabaseBackedClusterService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+public class PartitionStatusWriteBehindBufferUnitTest extends BaseUnitTest {
+
+    @Mock
+    DatabaseBackedClusterService databaseBackedClusterService;
+
+    @Test
+    public void testTransitionsAreWrittenAsOneBatchOnFlush() {
+        doReturn(new int[]{1, 1, 1}).when(databaseBackedClusterService).updatePartitionStatuses(anyList());
+        PartitionStatusWriteBehindBuffer buffer = new PartitionStatusWriteBehindBuffer(databaseBackedClusterService, 10);
+
+        buffer.add(update(1L, "COMPLETED"));
+        buffer.add(update(2L, "FAILED"));
+        buffer.add(update(3L, "COMPLETED"));
+        verify(databaseBackedClusterService, never()).updatePartitionStatuses(anyList());
+        assertEquals(3, buffer.size());
+
+        buffer.flush();
+
+        ArgumentCaptor<List<PartitionStatusUpdate>> batch = ArgumentCaptor.forClass(List.class);
+        verify(databaseBackedClusterService, times(1)).updatePartitionStatuses(batch.capture());
+        assertEquals(List.of(1L, 2L, 3L), batch.getValue().stream().map(update -> update.task().stepExecutionId()).toList());
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void testFullBufferIsWrittenWithoutWaitingForTheFlush() {
+        doReturn(new int[]{1, 1}).when(databaseBackedClusterService).updatePartitionStatuses(anyList());
+        PartitionStatusWriteBehindBuffer buffer = new PartitionStatusWriteBehindBuffer(databaseBackedClusterService, 2);
+
+        buffer.add(update(1L, "COMPLETED"));
+        buffer.add(update(2L, "COMPLETED"));
+
+        verify(databaseBackedClusterService, times(1)).updatePartitionStatuses(anyList());
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void testTransitionsRejectedByTheGuardAreNotRetried() {
+        // the second partition was reassigned meanwhile: its row no longer matches
+        doReturn(new int[]{1, 0}).when(databaseBackedClusterService).updatePartitionStatuses(anyList());
+        PartitionStatusWriteBehindBuffer buffer = new PartitionStatusWriteBehindBuffer(databaseBackedClusterService, 10);
+        buffer.add(update(1L, "COMPLETED"));
+        buffer.add(update(2L, "COMPLETED"));
+
+        buffer.flush();
+        buffer.flush();
+
+        verify(databaseBackedClusterService, times(1)).updatePartitionStatuses(anyList());
+        assertEquals(0, buffer.size());
+        assertEquals(1, buffer.getRejectedCount());
+    }
+
+    @Test
+    public void testFailedBatchIsKeptForTheNextFlush() {
+        doThrow(new QueryTimeoutException("db down")).doReturn(new int[]{1, 1}).when(databaseBackedClusterService).updatePartitionStatuses(anyList());
+        PartitionStatusWriteBehindBuffer buffer = new PartitionStatusWriteBehindBuffer(databaseBackedClusterService, 10);
+        buffer.add(update(1L, "COMPLETED"));
+        buffer.add(update(2L, "FAILED"));
+
+        buffer.flush();
+        assertEquals(2, buffer.size());
+
+        buffer.flush();
+        assertEquals(0, buffer.size());
+        verify(databaseBackedClusterService, times(2)).updatePartitionStatuses(anyList());
+    }
+
+    @Test
+    public void testBatchFailingEveryAttemptIsWrittenRowByRow() {
+        QueryTimeoutException dbDown = new QueryTimeoutException("db down");
+        doThrow(dbDown).doThrow(dbDown).doThrow(dbDown)
+                .doReturn(new int[]{1})
+                .doThrow(dbDown)
+                .when(databaseBackedClusterService).updatePartitionStatuses(anyList());
+        PartitionStatusWriteBehindBuffer buffer = new PartitionStatusWriteBehindBuffer(databaseBackedClusterService, 10);
+        buffer.add(update(1L, "COMPLETED"));
+        buffer.add(update(2L, "FAILED"));
+
+        for (int attempt = 1; attempt < PartitionStatusWriteBehindBuffer.MAX_BATCH_ATTEMPTS; attempt++) {
+            buffer.flush();
+            assertEquals(2, buffer.size());
+        }
+        buffer.flush();
+
+        ArgumentCaptor<List<PartitionStatusUpdate>> writes = ArgumentCaptor.forClass(List.class);
+        verify(databaseBackedClusterService, times(5)).updatePartitionStatuses(writes.capture());
+        assertEquals(List.of(2, 2, 2, 1, 1), writes.getAllValues().stream().map(List::size).toList());
+        assertEquals(0, buffer.size());
+        assertEquals(0, buffer.getRejectedCount());
+        assertEquals(1, buffer.getDroppedCount());
+
+        buffer.flush();
+        verifyNoMoreInteractions(databaseBackedClusterService);
+    }
+
+    @Test
+    public void testTransitionsAfterCloseAreWrittenThrough() {
+        doReturn(new int[]{1}).when(databaseBackedClusterService).updatePartitionStatuses(anyList());
+        PartitionStatusWriteBehindBuffer buffer = new PartitionStatusWriteBehindBuffer(databaseBackedClusterService, 10);
+        buffer.add(update(1L, "COMPLETED"));
+
+        buffer.close();
+        buffer.add(update(2L, "COMPLETED"));
+
+        verify(databaseBackedClusterService, times(2)).updatePartitionStatuses(anyList());
+        assertEquals(0, buffer.size());
+    }
+
+    private PartitionStatusUpdate update(long stepExecutionId, String status) {
+        return new PartitionStatusUpdate(new PartitionAssignmentTask(1L, "step:partition" + stepExecutionId,
+                stepExecutionId, 100L, true, "step", 1), status);
+    }
+}
@@ -20,6 +20,7 @@ import io.github.jchejarla.springbatch.clustering.autoconfigure.BatchClusterProp
 import io.github.jchejarla.springbatch.clustering.core.DatabaseBackedClusterService;
 import io.github.jchejarla.springbatch.clustering.mgmt.ClusterNodeInfo;
 import io.github.jchejarla.springbatch.clustering.mgmt.NodeStatus;
+import io.github.jchejarla.springbatch.clustering.partition.HistoricalPartitionCostModel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Answers;
@@ -27,6 +28,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.springframework.batch.core.*;
 import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.JobInstance;
 import org.springframework.batch.core.job.JobInterruptedException;
 import org.springframework.batch.core.step.Step;
 import org.springframework.batch.core.step.StepExecution;
@@ -37,8 +39,10 @@ import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.scheduling.TaskScheduler;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ScheduledFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
@@ -82,7 +86,59 @@ public class PartitionedWorkerNodeTasksRunnerUnitTest extends BaseUnitTest {
     @Test
     public void testStartMonitoring() {
         partitionedWorkerNodeTasksRunner.start();
-        verify(partitionPollingScheduler, times(1)).scheduleAtFixedRate(any(), any(Duration.class));
+        verify(partitionPollingScheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+        // running partitions are kept alive by the node heartbeat, not by rewriting their rows
+        verifyNoInteractions(updateBatchPartitionsScheduler);
+    }
+
+    @Test
+    public void testStartSubscribesWhenEventDriven() {
+        PartitionWakeupChannel wakeupChannel = mock(PartitionWakeupChannel.class);
+        doReturn(true).when(wakeupChannel).isEventDriven();
+        doReturn("Test-Node-Id").when(batchClusterProperties).getNodeId();
+        PartitionedWorkerNodeTasksRunner runner = newRunner(wakeupChannel, new AdaptivePollingInterval(15000, 60000));
+
+        runner.start();
+
+        verify(wakeupChannel, times(1)).subscribe(eq("Test-Node-Id"), any());
+    }
+
+    @Test
+    public void testPollChainBacksOffWhileIdleAndSnapsBackOnWork() {
+        AdaptivePollingInterval pollingInterval = new AdaptivePollingInterval(1000, 8000);
+        PartitionedWorkerNodeTasksRunner runner = spy(newRunner(PartitionWakeupChannel.NONE, pollingInterval));
+        doReturn(10).when(runner).availableExecutionPermits();
+        ArgumentCaptor<Runnable> scheduledPoll = ArgumentCaptor.forClass(Runnable.class);
+        doReturn(mock(ScheduledFuture.class)).when(partitionPollingScheduler).schedule(scheduledPoll.capture(), any(Instant.class));
+        runner.start();
+
+        doReturn(List.of()).when(databaseBackedClusterService).claimPartitionAssignedTasks(anyInt());
+        scheduledPoll.getValue().run();
+        scheduledPoll.getValue().run();
+        assertEquals(4000, pollingInterval.current());
+
+        doReturn(List.of(mock(PartitionAssignmentTask.class))).when(databaseBackedClusterService).claimPartitionAssignedTasks(anyInt());
+        scheduledPoll.getValue().run();
+        assertEquals(1000, pollingInterval.current());
+        // every poll schedules exactly one successor
+        verify(partitionPollingScheduler, times(4)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    public void testWakeupReplacesThePendingPollWithAnImmediateOne() {
+        ScheduledFuture<?> pendingPoll = mock(ScheduledFuture.class);
+        ArgumentCaptor<Runnable> scheduledPoll = ArgumentCaptor.forClass(Runnable.class);
+        doReturn(pendingPoll).when(partitionPollingScheduler).schedule(scheduledPoll.capture(), any(Instant.class));
+        partitionedWorkerNodeTasksRunner.start();
+        Runnable supersededPoll = scheduledPoll.getValue();
+
+        partitionedWorkerNodeTasksRunner.requestPoll();
+
+        verify(pendingPoll, times(1)).cancel(false);
+        verify(partitionPollingScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+        // the superseded poll is a no-op even if it could not be cancelled in time
+        supersededPoll.run();
+        verify(partitionedWorkerNodeTasksRunner, never()).pollAndExecute();
     }
 
     @Test
@@ -90,11 +146,73 @@ public class PartitionedWorkerNodeTasksRunnerUnitTest extends BaseUnitTest {
         List<PartitionAssignmentTask> partitionsToRun = new ArrayList<>();
         partitionsToRun.add(mock(PartitionAssignmentTask.class));
         partitionsToRun.add(mock(PartitionAssignmentTask.class));
-        doReturn(partitionsToRun).when(databaseBackedClusterService).fetchPartitionAssignedTasks();
+        doReturn(10).when(batchClusterProperties).getConcurrencyLimitPerNode();
+        doReturn(partitionsToRun).when(databaseBackedClusterService).claimPartitionAssignedTasks(anyInt());
         partitionedWorkerNodeTasksRunner.pollAndExecute();
         verify(taskExecutor, times(2)).execute(any());
     }
 
+    @Test
+    public void testPollClaimsNoMoreThanFreeExecutionPermits() {
+        doReturn(10).when(batchClusterProperties).getConcurrencyLimitPerNode();
+        doReturn(3).when(partitionedWorkerNodeTasksRunner).availableExecutionPermits();
+        doReturn(List.of()).when(databaseBackedClusterService).claimPartitionAssignedTasks(anyInt());
+        partitionedWorkerNodeTasksRunner.pollAndExecute();
+        verify(databaseBackedClusterService, times(1)).claimPartitionAssignedTasks(3);
+    }
+
+    @Test
+    public void testIdlePollStealsAndClaimsTheStolenPartitionsWhenWorkStealingIsEnabled() {
+        doReturn(true).when(batchClusterProperties).isWorkStealingEnabled();
+        doReturn(3).when(partitionedWorkerNodeTasksRunner).availableExecutionPermits();
+        doReturn(List.of()).doReturn(List.of(mock(PartitionAssignmentTask.class))).when(databaseBackedClusterService).claimPartitionAssignedTasks(anyInt());
+        doReturn(1).when(databaseBackedClusterService).stealPartitions(anyInt());
+        partitionedWorkerNodeTasksRunner.pollAndExecute();
+        verify(databaseBackedClusterService, times(1)).stealPartitions(3);
+        verify(databaseBackedClusterService, times(2)).claimPartitionAssignedTasks(3);
+        verify(taskExecutor, times(1)).execute(any());
+    }
+
+    @Test
+    public void testPollDoesNotStealWhenItHasWorkOrStealingIsDisabled() {
+        doReturn(3).when(partitionedWorkerNodeTasksRunner).availableExecutionPermits();
+        doReturn(List.of()).when(databaseBackedClusterService).claimPartitionAssignedTasks(anyInt());
+        partitionedWorkerNodeTasksRunner.pollAndExecute();
+
+        doReturn(true).when(batchClusterProperties).isWorkStealingEnabled();
+        doReturn(List.of(mock(PartitionAssignmentTask.class))).when(databaseBackedClusterService).claimPartitionAssignedTasks(anyInt());
+        partitionedWorkerNodeTasksRunner.pollAndExecute();
+
+        verify(databaseBackedClusterService, never()).stealPartitions(anyInt());
+    }
+
+    @Test
+    public void testPollSkipsClaimWhenExecutorIsSaturated() {
+        doReturn(0).when(partitionedWorkerNodeTasksRunner).availableExecutionPermits();
+        partitionedWorkerNodeTasksRunner.pollAndExecute();
+        verify(databaseBackedClusterService, never()).claimPartitionAssignedTasks(anyInt());
+    }
+
+    @Test
+    public void testCleanupReturnsThePermitsOfCancelledTasks() {
+        doReturn(2).when(batchClusterProperties).getConcurrencyLimitPerNode();
+        doReturn(List.of(mock(PartitionAssignmentTask.class), mock(PartitionAssignmentTask.class)))
+                .when(databaseBackedClusterService).claimPartitionAssignedTasks(anyInt());
+        ArgumentCaptor<Runnable> cleanup = ArgumentCaptor.forClass(Runnable.class);
+        partitionedWorkerNodeTasksRunner.start();
+        verify(completedTasksCleanupScheduler).scheduleAtFixedRate(cleanup.capture(), any(Duration.class));
+        // the mocked executor never runs the submitted tasks, so they are still pending when cancelled
+        partitionedWorkerNodeTasksRunner.pollAndExecute();
+        assertEquals(0, partitionedWorkerNodeTasksRunner.availableExecutionPermits());
+
+        partitionedWorkerNodeTasksRunner.onClusterNodeHeartbeatFail();
+        cleanup.getValue().run();
+
+        assertEquals(0, partitionedWorkerNodeTasksRunner.getSubmittedTaskCount());
+        assertEquals(0, partitionedWorkerNodeTasksRunner.getInProgressPartitionCount());
+        assertEquals(2, partitionedWorkerNodeTasksRunner.availableExecutionPermits());
+    }
+
     @Test
     public void testExecuteStep() {
         Step step = mock(Step.class);
@@ -107,6 +225,31 @@ public class PartitionedWorkerNodeTasksRunnerUnitTest extends BaseUnitTest {
         assertEquals(BatchStatus.STARTED, stepExecution.getStatus());
     }
 
+    @Test
+    public void testCompletedPartitionWithAHistoryKeyRecordsItsRuntime() throws Exception {
+        Step step = mock(Step.class);
+        JobExecution jobExecution = mock(JobExecution.class);
+        JobInstance jobInstance = mock(JobInstance.class);
+        doReturn(jobInstance).when(jobExecution).getJobInstance();
+        doReturn("job").when(jobInstance).getJobName();
+        StepExecution stepExecution = new StepExecution("Test-Step", jobExecution);
+        HistoricalPartitionCostModel.setHistoryKey(stepExecution.getExecutionContext(), "step.manager:3/8");
+        doReturn(stepExecution).when(jobExplorer).getStepExecution(anyLong(), anyLong());
+        doReturn(step).when(applicationContext).getBean(any(), any(Class.class));
+        doAnswer(invocation -> {
+            StepExecution executed = invocation.getArgument(0);
+            executed.setReadCount(7);
+            executed.setWriteCount(5);
+            executed.setStatus(BatchStatus.COMPLETED);
+            executed.setEndTime(executed.getStartTime().plus(Duration.ofMillis(1500)));
+            return null;
+        }).when(step).execute(any());
+
+        partitionedWorkerNodeTasksRunner.executeStep(mock(PartitionAssignmentTask.class));
+
+        verify(databaseBackedClusterService).recordPartitionRuntime("job", "step.manager:3/8", 1500L, 7L, 5L);
+    }
+
     @Test
     public void testExecuteStepWhenExecutionFails() throws Exception{
         Step step = mock(Step.class);
@@ -151,4 +294,37 @@ public class PartitionedWorkerNodeTasksRunnerUnitTest extends BaseUnitTest {
         verify(databaseBackedClusterService, times(1)).updatePartitionStatus(any(), argumentCaptor.capture());
         assertEquals("FAILED",argumentCaptor.getValue());
     }
+
+    @Test
+    public void testWriteBehindBuffersFinalStatusUntilFlushedOnFencing() {
+        doReturn(true).when(batchClusterProperties).isStatusWriteBehindEnabled();
+        doReturn(200L).when(batchClusterProperties).getStatusWriteBehindFlushInterval();
+        doReturn(100).when(batchClusterProperties).getStatusWriteBehindMaxBatchSize();
+        doReturn(new int[]{1}).when(databaseBackedClusterService).updatePartitionStatuses(anyList());
+        Step step = mock(Step.class);
+        StepExecution stepExecution = new StepExecution("Test-Step", mock(JobExecution.class));
+        doReturn(stepExecution).when(jobExplorer).getStepExecution(anyLong(), anyLong());
+        doReturn(step).when(applicationContext).getBean(any(), any(Class.class));
+
+        partitionedWorkerNodeTasksRunner.start();
+        verify(updateBatchPartitionsScheduler, times(1)).scheduleWithFixedDelay(any(Runnable.class), eq(Duration.ofMillis(200)));
+        partitionedWorkerNodeTasksRunner.executeStep(mock(PartitionAssignmentTask.class));
+
+        verify(databaseBackedClusterService, never()).updatePartitionStatus(any(), anyString());
+        verify(databaseBackedClusterService, never()).updatePartitionStatuses(anyList());
+
+        partitionedWorkerNodeTasksRunner.onClusterNodeHeartbeatFail();
+
+        ArgumentCaptor<List<PartitionStatusUpdate>> flushed = ArgumentCaptor.forClass(List.class);
+        verify(databaseBackedClusterService, times(1)).updatePartitionStatuses(flushed.capture());
+        assertEquals("COMPLETED", flushed.getValue().get(0).status());
+    }
+
+    private PartitionedWorkerNodeTasksRunner newRunner(PartitionWakeupChannel wakeupChannel, AdaptivePollingInterval pollingInterval) {
+        return new PartitionedWorkerNodeTasksRunner(applicationContext,
+                jobExplorer, jobRepository, taskExecutor,
+                batchClusterProperties, databaseBackedClusterService,
+                partitionPollingScheduler, completedTasksCleanupScheduler,
+                updateBatchPartitionsScheduler, clusterNodeInfo, wakeupChannel, pollingInterval);
+    }
 }
@@ -15,9 +15,13 @@
  */
 package io.github.jchejarla.springbatch.clustering.query;
 
+import io.github.jchejarla.springbatch.clustering.core.CoordinationStatus;
 import io.github.jchejarla.springbatch.clustering.core.serviceimpl.H2DatabaseQueryProvider;
+import io.github.jchejarla.springbatch.clustering.mgmt.NodeStatus;
+import io.github.jchejarla.springbatch.clustering.partition.PartitionStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.SingleConnectionDataSource;
@@ -78,6 +82,7 @@ public class BatchClusterQueryServiceTest {
         assertEquals(2L, v.statusCounts().get("COMPLETED"));
         assertEquals(1L, v.statusCounts().get("CLAIMED"));
         assertEquals(3, v.partitions().size());
+        assertEquals(List.of("node-a", "node-a", "node-b"), v.partitions().stream().map(PartitionView::assignedNode).sorted().toList());
     }
 
     @Test
@@ -112,13 +117,24 @@ public class BatchClusterQueryServiceTest {
     }
 
     private void insertCoordination(long jobExecutionId, String masterNode, long masterStepExecutionId, String masterStepName, String status) {
-        jdbcTemplate.update("insert into batch_job_coordination(job_execution_id, master_node_id, master_step_execution_id, master_step_name, status, created_time, last_updated) values (?,?,?,?,?,?,?)",
-                jobExecutionId, masterNode, masterStepExecutionId, masterStepName, status, now(), now());
+        jdbcTemplate.update("insert into batch_job_coordination(job_execution_id, master_node_id, master_node_key, master_step_execution_id, master_step_name, status, created_time, last_updated) values (?,?,?,?,?,?,?,?)",
+                jobExecutionId, masterNode, nodeKey(masterNode), masterStepExecutionId, masterStepName, CoordinationStatus.codeOf(status), now(), now());
+    }
+
+    /** The key of a node, registering it first if needed. */
+    private int nodeKey(String nodeId) {
+        try {
+            return jdbcTemplate.queryForObject("select node_key from batch_nodes where node_id = ?", Integer.class, nodeId);
+        } catch (EmptyResultDataAccessException e) {
+            jdbcTemplate.update("insert into batch_nodes(node_id, created_time, last_updated_time, status, host_identifier, current_load) values (?,?,?,?,?,?)",
+                    nodeId, now(), now(), NodeStatus.ACTIVE.code(), "host", 0);
+            return jdbcTemplate.queryForObject("select node_key from batch_nodes where node_id = ?", Integer.class, nodeId);
+        }
     }
 
     private void insertPartition(long stepExecutionId, long jobExecutionId, String key, String node, String status, long masterStepExecutionId) {
-        jdbcTemplate.update("insert into batch_partitions(step_execution_id, job_execution_id, partition_key, assigned_node, status, master_step_execution_id, is_transferable) values (?,?,?,?,?,?,?)",
-                stepExecutionId, jobExecutionId, key, node, status, masterStepExecutionId, 1);
+        jdbcTemplate.update("insert into batch_partitions(step_execution_id, job_execution_id, partition_key, assigned_node_key, status, master_step_execution_id, is_transferable) values (?,?,?,?,?,?,?)",
+                stepExecutionId, jobExecutionId, key, nodeKey(node), PartitionStatus.codeOf(status), masterStepExecutionId, 1);
     }
 
     private Timestamp now() {